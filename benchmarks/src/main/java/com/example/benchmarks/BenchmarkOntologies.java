@@ -0,0 +1,60 @@
+// com/example/benchmarks/BenchmarkOntologies.java
+package com.example.benchmarks;
+
+import com.example.ontology.SyntheticOntologyGenerator;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Ontologies the benchmarks run against, selected by a dataset name:
+ * <ul>
+ *   <li>bundled - Thing_ada_rachel_heath_1868.ttl from the application's resources</li>
+ *   <li>synthetic-N - a generated family ontology with N individuals (fixed seed, so runs are comparable)</li>
+ * </ul>
+ */
+final class BenchmarkOntologies {
+
+    static final String BUNDLED = "bundled";
+    static final String SYNTHETIC_PREFIX = "synthetic-";
+
+    private static final String BUNDLED_RESOURCE = "/Thing_ada_rachel_heath_1868.ttl";
+    private static final long SEED = 42L;
+
+    private BenchmarkOntologies() {
+    }
+
+    static OWLOntology load(String dataset) throws OWLOntologyCreationException, IOException {
+        if (BUNDLED.equals(dataset)) {
+            return loadBundled();
+        }
+        if (dataset.startsWith(SYNTHETIC_PREFIX)) {
+            return synthetic(Integer.parseInt(dataset.substring(SYNTHETIC_PREFIX.length())));
+        }
+        throw new IllegalArgumentException("Unknown benchmark dataset: " + dataset);
+    }
+
+    private static OWLOntology loadBundled() throws OWLOntologyCreationException, IOException {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        try (InputStream in = BenchmarkOntologies.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Resource not on the classpath: " + BUNDLED_RESOURCE);
+            }
+            return manager.loadOntologyFromOntologyDocument(in);
+        }
+    }
+
+    /**
+     * Family ontology from SyntheticOntologyGenerator with its default shape and the given number of individuals
+     */
+    private static OWLOntology synthetic(int individualCount) throws OWLOntologyCreationException {
+        SyntheticOntologyGenerator.Settings settings = new SyntheticOntologyGenerator.Settings();
+        settings.setIndividuals(individualCount);
+        settings.setSeed(SEED);
+        return new SyntheticOntologyGenerator(settings).generate(0);
+    }
+}
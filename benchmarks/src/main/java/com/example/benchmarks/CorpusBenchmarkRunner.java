@@ -0,0 +1,319 @@
+// com/example/benchmarks/CorpusBenchmarkRunner.java
+package com.example.benchmarks;
+
+import com.example.config.ProcessingConfiguration;
+import com.example.explanation.ExplanationStrategyStats;
+import com.example.ontology.DefaultOntologyService;
+import com.example.ontology.SyntheticOntologyGenerator;
+import com.example.output.AsyncOutputService;
+import com.example.output.ExplanationFormat;
+import com.example.output.OutputService;
+import com.example.output.StreamingOutputService;
+import com.example.processing.GlobalQueryTracker;
+import com.example.processing.PerformanceTracker;
+import com.example.processing.ProcessingResult;
+import com.example.processing.SmallOntologiesProcessor;
+import com.example.query.SparqlQueryGenerationService;
+import com.example.reasoning.PelletReasoningService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end throughput benchmark: runs SmallOntologiesProcessor over a fixed corpus and reports
+ * files/s, inferences/s and explanations/s, p50/p99 per-file latency of every ProcessingStage and the heap
+ * high-water mark, optionally compared against a stored baseline report.
+ * <p>
+ * Without --corpus a synthetic corpus is generated once (fixed seed) under target/corpus-FILESxINDIVIDUALS
+ * and reused by later runs. Each run uses a fresh processor and a temporary output directory. The report
+ * is the run with the median files/s after the warm-up runs, and is written as JSON.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.example.benchmarks.CorpusBenchmarkRunner [--corpus DIR]
+ * [--files N] [--individuals N] [--threads N] [--warmup-runs N] [--runs N] [--report FILE]
+ * [--baseline FILE] [--save-baseline FILE] [--tolerance FRACTION]}
+ * <p>
+ * Exits with status 2 if a metric regressed against the baseline by more than the tolerance (default 0.10).
+ * Stage latencies below 0.5 ms are not compared, as they are dominated by noise.
+ */
+public final class CorpusBenchmarkRunner {
+
+    private static final long SEED = 42L;
+    private static final double MIN_COMPARED_LATENCY_MS = 0.5;
+    private static final String TBOX_FILE_NAME = "tbox.ttl";
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private Path corpus;
+    private int files = 100;
+    private int individuals = 50;
+    private int threads = 1;
+    private int warmupRuns = 1;
+    private int runs = 3;
+    private Path reportFile = Paths.get("corpus-benchmark.json");
+    private Path baselineFile;
+    private Path saveBaselineFile;
+    private double tolerance = 0.10;
+
+    private CorpusBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CorpusBenchmarkRunner runner = new CorpusBenchmarkRunner();
+        runner.parseArguments(args);
+        System.exit(runner.run());
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--corpus" -> corpus = Paths.get(value);
+                case "--files" -> files = Integer.parseInt(value);
+                case "--individuals" -> individuals = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--warmup-runs" -> warmupRuns = Integer.parseInt(value);
+                case "--runs" -> runs = Math.max(1, Integer.parseInt(value));
+                case "--report" -> reportFile = Paths.get(value);
+                case "--baseline" -> baselineFile = Paths.get(value);
+                case "--save-baseline" -> saveBaselineFile = Paths.get(value);
+                case "--tolerance" -> tolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+    }
+
+    /**
+     * @return the process exit status
+     */
+    private int run() throws Exception {
+        Path corpusDirectory = corpus != null ? corpus : generateCorpus();
+
+        for (int i = 0; i < warmupRuns; i++) {
+            System.out.printf("Warm-up run %d/%d%n", i + 1, warmupRuns);
+            runOnce(corpusDirectory);
+        }
+        List<ObjectNode> reports = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            System.out.printf("Measured run %d/%d%n", i + 1, runs);
+            reports.add(runOnce(corpusDirectory));
+        }
+        reports.sort(Comparator.comparingDouble(report -> report.path("throughput").path("filesPerSecond").asDouble()));
+        ObjectNode report = reports.get(reports.size() / 2);
+
+        System.out.println(mapper.writeValueAsString(report));
+        mapper.writeValue(reportFile.toFile(), report);
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+        if (saveBaselineFile != null) {
+            mapper.writeValue(saveBaselineFile.toFile(), report);
+            System.out.println("Baseline saved to " + saveBaselineFile.toAbsolutePath());
+        }
+
+        if (baselineFile == null) {
+            return 0;
+        }
+        List<String> regressions = compare(mapper.readTree(baselineFile.toFile()), report);
+        if (regressions.isEmpty()) {
+            System.out.printf("No regression against %s (tolerance %.0f%%)%n", baselineFile, tolerance * 100);
+            return 0;
+        }
+        System.out.printf("%d regression(s) against %s (tolerance %.0f%%):%n",
+                regressions.size(), baselineFile, tolerance * 100);
+        regressions.forEach(regression -> System.out.println("  REGRESSION " + regression));
+        return 2;
+    }
+
+    /**
+     * Synthetic corpus with the generator's default shape, generated once per size
+     */
+    private Path generateCorpus() throws Exception {
+        Path directory = Paths.get("target", "corpus-" + files + "x" + individuals);
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> entries = Files.list(directory)) {
+                if (entries.findAny().isPresent()) {
+                    System.out.println("Using existing synthetic corpus " + directory);
+                    return directory;
+                }
+            }
+        }
+        SyntheticOntologyGenerator.Settings settings = new SyntheticOntologyGenerator.Settings();
+        settings.setFiles(files);
+        settings.setIndividuals(individuals);
+        settings.setSeed(SEED);
+        new SyntheticOntologyGenerator(settings).writeCorpus(directory);
+        return directory;
+    }
+
+    /**
+     * Process the corpus once with a fresh processor, wired the way OwlSparqlGenerator wires it
+     */
+    private ObjectNode runOnce(Path corpusDirectory) throws Exception {
+        Path outputDirectory = Files.createTempDirectory("corpus-benchmark-output");
+        try {
+            ProcessingConfiguration config = new ProcessingConfiguration();
+            config.setOntologiesDirectory(corpusDirectory.toString());
+            config.setOutputDirectory(outputDirectory.toString());
+            config.setRecursiveDiscovery(true);
+            config.setCheckpointJournal(false);
+            config.setEnableParallelProcessing(threads > 1);
+            config.setThreadPoolSize(threads);
+            Path tbox = corpusDirectory.resolve(TBOX_FILE_NAME);
+            if (Files.isRegularFile(tbox)) {
+                config.setSharedTboxFile(tbox.toString());
+            }
+
+            OutputService outputService = new StreamingOutputService(config.getOutputDirectory(),
+                    config.getOutputBufferSize(), config.getOutputFlushBatchSize(), config.getOutputFlushIntervalMs(),
+                    ExplanationFormat.fromString(config.getExplanationFormat()),
+                    config.getExplanationShardSizeMb() * 1024L * 1024L);
+            if (config.isAsyncOutput()) {
+                outputService = new AsyncOutputService(outputService, config.getOutputQueueCapacity());
+            }
+
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = heapPools();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            ProcessingResult result;
+            long startTime = System.nanoTime();
+            try (SmallOntologiesProcessor processor = new SmallOntologiesProcessor(new DefaultOntologyService(),
+                    new PelletReasoningService(), new SparqlQueryGenerationService(), outputService,
+                    GlobalQueryTracker.fromConfiguration(config), config)) {
+                result = processor.processSmallOntologies(corpusDirectory.toString());
+            }
+            long wallNanos = System.nanoTime() - startTime;
+            // Sum of the per-pool peaks: an upper bound, as the pools need not peak at the same moment
+            long heapHighWater = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Benchmark run failed: " + result.getErrorMessage());
+            }
+            return toReport(corpusDirectory, result, wallNanos, heapHighWater);
+        } finally {
+            deleteRecursively(outputDirectory);
+        }
+    }
+
+    private ObjectNode toReport(Path corpusDirectory, ProcessingResult result, long wallNanos, long heapHighWater) {
+        double seconds = wallNanos / 1e9;
+        ObjectNode report = mapper.createObjectNode();
+        report.put("corpus", corpusDirectory.toString());
+        report.put("threads", threads);
+        report.put("files", result.getProcessedOntologies());
+        report.put("inferences", result.getTotalInferences());
+        report.put("explanations", result.getProcessedExplanations());
+        report.put("wallTimeMs", wallNanos / 1_000_000);
+
+        ObjectNode throughput = report.putObject("throughput");
+        throughput.put("filesPerSecond", result.getProcessedOntologies() / seconds);
+        throughput.put("inferencesPerSecond", result.getTotalInferences() / seconds);
+        throughput.put("explanationsPerSecond", result.getProcessedExplanations() / seconds);
+
+        ObjectNode stages = report.putObject("stages");
+        for (Map.Entry<String, PerformanceTracker.TimingStats> entry : result.getStageStats().entrySet()) {
+            PerformanceTracker.TimingStats stats = entry.getValue();
+            ObjectNode stage = stages.putObject(entry.getKey());
+            stage.put("p50Ms", stats.getP50Nanos() / 1e6);
+            stage.put("p90Ms", stats.getP90Nanos() / 1e6);
+            stage.put("p99Ms", stats.getP99Nanos() / 1e6);
+            stage.put("maxMs", stats.getMaxNanos() / 1e6);
+            stage.put("totalMs", stats.getTotalNanos() / 1e6);
+        }
+
+        ObjectNode strategies = report.putObject("strategies");
+        for (ExplanationStrategyStats.StrategyCost cost : result.getStrategyCosts().values()) {
+            ObjectNode strategy = strategies.putObject(cost.getName());
+            strategy.put("runs", cost.getRuns());
+            strategy.put("totalMs", cost.getTotalNanos() / 1e6);
+            strategy.put("queries", cost.getQueries());
+            strategy.put("reasonerCalls", cost.getReasonerCalls());
+            strategy.put("pathsProduced", cost.getPathsProduced());
+            strategy.put("pathsKept", cost.getPathsKept());
+        }
+
+        report.put("heapHighWaterMb", heapHighWater / (1024.0 * 1024.0));
+        report.put("gcTimeMs", result.getTotalGcTimeMs());
+        return report;
+    }
+
+    /**
+     * Regressions of the current report against the baseline: lower throughput, or higher stage latency
+     * or heap high-water mark, by more than the tolerance
+     */
+    private List<String> compare(JsonNode baseline, JsonNode current) {
+        List<String> regressions = new ArrayList<>();
+        if (baseline.path("files").asLong() != current.path("files").asLong()) {
+            System.out.printf("Warning: baseline processed %d files, this run %d - the corpora differ%n",
+                    baseline.path("files").asLong(), current.path("files").asLong());
+        }
+
+        for (String metric : List.of("filesPerSecond", "inferencesPerSecond", "explanationsPerSecond")) {
+            double before = baseline.path("throughput").path(metric).asDouble();
+            double after = current.path("throughput").path(metric).asDouble();
+            if (before > 0 && after < before * (1 - tolerance)) {
+                regressions.add(String.format("%s: %.2f -> %.2f (%+.1f%%)", metric, before, after, change(before, after)));
+            }
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> stages = current.path("stages").fields();
+        while (stages.hasNext()) {
+            Map.Entry<String, JsonNode> stage = stages.next();
+            JsonNode baselineStage = baseline.path("stages").path(stage.getKey());
+            for (String percentile : List.of("p50Ms", "p99Ms")) {
+                double before = baselineStage.path(percentile).asDouble();
+                double after = stage.getValue().path(percentile).asDouble();
+                if (Math.max(before, after) >= MIN_COMPARED_LATENCY_MS && after > before * (1 + tolerance)) {
+                    regressions.add(String.format("%s %s: %.3f ms -> %.3f ms (%+.1f%%)",
+                            stage.getKey(), percentile, before, after, change(before, after)));
+                }
+            }
+        }
+
+        double heapBefore = baseline.path("heapHighWaterMb").asDouble();
+        double heapAfter = current.path("heapHighWaterMb").asDouble();
+        if (heapBefore > 0 && heapAfter > heapBefore * (1 + tolerance)) {
+            regressions.add(String.format("heapHighWaterMb: %.1f -> %.1f (%+.1f%%)",
+                    heapBefore, heapAfter, change(heapBefore, heapAfter)));
+        }
+        return regressions;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// com/example/benchmarks/ExplanationBenchmark.java
+package com.example.benchmarks;
+
+import com.example.explanation.ExplanationPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Explanation search for one inference: class memberships through findExplanationPathsLikeProtege and
+ * property assertions through findPropertyAssertionPaths. Each invocation explains the next sampled
+ * inference. The session's reasoner query cache stays warm across invocations, as it does while the
+ * processor explains one file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExplanationBenchmark {
+
+    @Param({"bundled", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String dataset;
+
+    private ExplanationFixture fixture;
+    private int typeCursor;
+    private int propertyCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new ExplanationFixture(dataset);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Set<ExplanationPath> findExplanationPathsLikeProtege() {
+        int i = typeCursor;
+        typeCursor = (typeCursor + 1) % fixture.typeSubjects.size();
+        return fixture.explanationService.findExplanationPathsLikeProtege(
+                fixture.typeSubjects.get(i), fixture.typeClasses.get(i));
+    }
+
+    @Benchmark
+    public Set<ExplanationPath> findPropertyAssertionPaths() {
+        int i = propertyCursor;
+        propertyCursor = (propertyCursor + 1) % fixture.propertySubjects.size();
+        return fixture.explanationService.findPropertyAssertionPaths(
+                fixture.propertySubjects.get(i), fixture.properties.get(i), fixture.propertyObjects.get(i));
+    }
+}
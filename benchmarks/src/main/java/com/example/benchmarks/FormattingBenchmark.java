@@ -0,0 +1,45 @@
+// com/example/benchmarks/FormattingBenchmark.java
+package com.example.benchmarks;
+
+import com.example.explanation.ExplanationFormatter;
+import com.example.explanation.ExplanationRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExplanationFormatter.generateExactJSONFormat for the explanation records of the sampled property
+ * inferences, one record per invocation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormattingBenchmark {
+
+    @Param({"bundled", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String dataset;
+
+    private List<ExplanationRecord> records;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try (ExplanationFixture fixture = new ExplanationFixture(dataset)) {
+            records = fixture.collectRecords();
+        }
+        if (records.isEmpty()) {
+            throw new IllegalStateException("No explanation records to format in " + dataset);
+        }
+    }
+
+    @Benchmark
+    public String generateExactJSONFormat() {
+        ExplanationRecord record = records.get(cursor);
+        cursor = (cursor + 1) % records.size();
+        return ExplanationFormatter.generateExactJSONFormat(record);
+    }
+}
@@ -0,0 +1,75 @@
+// com/example/benchmarks/OutputBenchmark.java
+package com.example.benchmarks;
+
+import com.example.output.StreamingOutputService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * StreamingOutputService.writeComprehensiveQuery with the service's default buffering and flush policy,
+ * writing to a temporary directory that is deleted after the trial. Calls have the shapes the processor
+ * uses: an ASK query answered TRUE for answerCount 0, otherwise a multi-choice SELECT with answerCount answers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputBenchmark {
+
+    @Param({"0", "8", "64"})
+    public int answerCount;
+
+    private Path directory;
+    private StreamingOutputService outputService;
+    private List<String> answers;
+    private long taskCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("llm-orbench-output-benchmark");
+        outputService = new StreamingOutputService(directory.toString());
+        outputService.initialize();
+
+        answers = new ArrayList<>(answerCount);
+        for (int i = 0; i < answerCount; i++) {
+            answers.add("individual_" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        outputService.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeComprehensiveQuery() {
+        long id = taskCounter++;
+        if (answerCount == 0) {
+            outputService.writeComprehensiveQuery("Person-" + id + "-BIN", "Person", 120, 40,
+                    "Property Assertion", "BIN",
+                    "ASK WHERE { <http://example.org/synthetic#person_1> <http://example.org/synthetic#hasAncestor> " +
+                            "<http://example.org/synthetic#person_0> }",
+                    "hasAncestor", "TRUE", null, 1, 3);
+        } else {
+            outputService.writeComprehensiveQuery("Person-" + id + "-MC", "Person", 120, 40,
+                    "Property Assertion", "MC",
+                    "SELECT ?x WHERE { <http://example.org/synthetic#person_1> <http://example.org/synthetic#hasAncestor> ?x }",
+                    "hasAncestor", answers.get(0), answers, 1, 3);
+        }
+    }
+}
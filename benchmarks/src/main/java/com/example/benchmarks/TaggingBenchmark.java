@@ -0,0 +1,46 @@
+// com/example/benchmarks/TaggingBenchmark.java
+package com.example.benchmarks;
+
+import com.example.explanation.EnhancedExplanationTagger;
+import com.example.explanation.ExplanationPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnhancedExplanationTagger.tagExplanation over the explanation paths of the sampled inferences,
+ * one path per invocation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaggingBenchmark {
+
+    @Param({"bundled", "synthetic-100", "synthetic-1000", "synthetic-10000"})
+    public String dataset;
+
+    private final EnhancedExplanationTagger tagger = new EnhancedExplanationTagger();
+    private List<ExplanationPath> paths;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try (ExplanationFixture fixture = new ExplanationFixture(dataset)) {
+            paths = fixture.collectPaths();
+        }
+        if (paths.isEmpty()) {
+            throw new IllegalStateException("No explanation paths to tag in " + dataset);
+        }
+    }
+
+    @Benchmark
+    public String tagExplanation() {
+        ExplanationPath path = paths.get(cursor);
+        cursor = (cursor + 1) % paths.size();
+        return tagger.tagExplanation(path);
+    }
+}
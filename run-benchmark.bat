@@ -19,14 +19,14 @@ REM Create output directory if it doesn't exist
 if not exist "%OUTPUT_DIR%" mkdir "%OUTPUT_DIR%"
 
 REM Check if JAR file exists
-if not exist "target\LLM-ORBench-1.0-SNAPSHOT.jar" (
+if not exist "target\LLM-ORBench-1.0-SNAPSHOT-exec.jar" (
     echo JAR file not found. Building project...
     call mvn clean package -DskipTests
 )
 
 REM Run the application
 echo Starting sequential processing...
-java %JAVA_OPTS% -jar "target\LLM-ORBench-1.0-SNAPSHOT.jar" "%ONTOLOGIES_DIR%" "%OUTPUT_DIR%"
+java %JAVA_OPTS% -jar "target\LLM-ORBench-1.0-SNAPSHOT-exec.jar" "%ONTOLOGIES_DIR%" "%OUTPUT_DIR%"
 
 echo Processing completed. Check %OUTPUT_DIR% for results.
 pause
\ No newline at end of file
@@ -10,7 +10,14 @@ import java.util.stream.Collectors;
 
 public class SmallOntologyExtractor {
 
+    // Name of the TBox file written once per output directory in --abox-only mode
+    private static final String TBOX_FILE_NAME = "tbox.ttl";
+
     public static void main(String[] args) throws Exception {
+        // --abox-only: write the TBox once as tbox.ttl and only ABox axioms (plus entity declarations) per
+        // file, for the processor's shared TBox mode (processing.shared-tbox-file=<dir>/tbox.ttl)
+        boolean aboxOnly = Arrays.asList(args).contains("--abox-only");
+
         String inputFile = "src/main/resources/OWL2DL-1.owl";
         String outputDir1hop = "src/main/resources/OWL2DL-1_1hop/";
         String outputDir2hop = "src/main/resources/OWL2DL-1_2hop/";
@@ -35,6 +42,13 @@ public class SmallOntologyExtractor {
         Set<OWLAxiom> tboxAxioms = extractTBox(ontology);
         System.out.println("TBox contains " + tboxAxioms.size() + " axioms");
 
+        if (aboxOnly) {
+            System.out.println("ABox-only mode: writing the TBox once per output directory");
+            saveTBox(tboxAxioms, outputDir1hop, manager);
+            saveTBox(tboxAxioms, outputDir2hop, manager);
+            tboxAxioms = Collections.emptySet();
+        }
+
         // Process 1-hop extractions
         System.out.println("\nProcessing 1-hop extractions...");
         int[] results1hop = processExtractions(ontology, individuals, tboxAxioms, 1, outputDir1hop, manager, factory);
@@ -66,9 +80,13 @@ public class SmallOntologyExtractor {
                 // Extract ABox for this individual (n-hop)
                 Set<OWLAxiom> aboxAxioms = extractABoxForIndividual(ontology, individual, hops);
 
-                // Combine TBox and ABox
+                // Combine TBox and ABox (in ABox-only mode the TBox is empty and declarations keep the
+                // Turtle file unambiguous without it)
                 Set<OWLAxiom> allAxioms = new HashSet<>(tboxAxioms);
                 allAxioms.addAll(aboxAxioms);
+                if (tboxAxioms.isEmpty()) {
+                    allAxioms.addAll(declarationsFor(aboxAxioms, factory));
+                }
 
                 // Create new ontology
                 IRI moduleIRI = IRI.create("http://example.org/extracted/" + hops + "hop/" + getLocalName(individual.getIRI()));
@@ -129,6 +147,29 @@ public class SmallOntologyExtractor {
         return tboxAxioms;
     }
 
+    private static void saveTBox(Set<OWLAxiom> tboxAxioms, String outputDir,
+                                 OWLOntologyManager manager) throws Exception {
+        OWLOntology tboxOntology = manager.createOntology(tboxAxioms, IRI.create("http://example.org/extracted/tbox"));
+        File outputFile = new File(outputDir, TBOX_FILE_NAME);
+        try (FileOutputStream fos = new FileOutputStream(outputFile)) {
+            manager.saveOntology(tboxOntology, new TurtleDocumentFormat(), fos);
+        }
+        manager.removeOntology(tboxOntology);
+        System.out.println("Wrote shared TBox: " + outputFile.getPath());
+    }
+
+    private static Set<OWLAxiom> declarationsFor(Set<OWLAxiom> axioms, OWLDataFactory factory) {
+        Set<OWLAxiom> declarations = new HashSet<>();
+        for (OWLAxiom axiom : axioms) {
+            for (OWLEntity entity : axiom.getSignature()) {
+                if (!entity.isBuiltIn()) {
+                    declarations.add(factory.getOWLDeclarationAxiom(entity));
+                }
+            }
+        }
+        return declarations;
+    }
+
     private static Set<OWLAxiom> extractABoxForIndividual(OWLOntology ontology,
                                                           OWLNamedIndividual individual, int hops) {
         Set<OWLAxiom> aboxAxioms = new HashSet<>();
@@ -5,11 +5,20 @@ import com.example.config.ProcessingConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import com.example.processing.GlobalQueryTracker;
 import com.example.processing.SmallOntologiesProcessor;
 import com.example.processing.ProcessingResult;
 import com.example.ontology.DefaultOntologyService;
+import com.example.reasoning.IncrementalPelletReasoningService;
 import com.example.reasoning.PelletReasoningService;
+import com.example.reasoning.ReasoningService;
 import com.example.query.SparqlQueryGenerationService;
+import com.example.output.AsyncOutputService;
+import com.example.output.ColumnarQueryOutputService;
+import com.example.output.CompositeOutputService;
+import com.example.output.ExplanationFormat;
+import com.example.output.ExplanationStoreOutputService;
+import com.example.output.OutputService;
 import com.example.output.StreamingOutputService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +31,9 @@ import org.slf4j.LoggerFactory;
 
 import jakarta.annotation.PreDestroy;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Professional OWL Inference Processor
  * Processes multiple small ontologies to generate comprehensive explanations and queries
@@ -44,8 +56,9 @@ public class OwlSparqlGenerator implements CommandLineRunner {
     }
 
     private static void configureJVM() {
-        // Enhanced JVM configuration for large ontology processing
-        System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "1");
+        // Enhanced JVM configuration for large ontology processing.
+        // Parallel ontology processing uses its own worker pool sized by processing.thread-pool-size,
+        // so the common ForkJoin pool is left at its default parallelism.
         System.setProperty("java.awt.headless", "true");
 
         // Reduce logging overhead for better performance
@@ -55,7 +68,7 @@ public class OwlSparqlGenerator implements CommandLineRunner {
         // Memory optimization settings
         System.setProperty("java.util.concurrent.ThreadPoolExecutor.allowCoreThreadTimeOut", "true");
 
-        LOGGER.info("JVM configured for sequential large ontology processing");
+        LOGGER.info("JVM configured for large ontology processing");
     }
 
     @Override
@@ -63,29 +76,68 @@ public class OwlSparqlGenerator implements CommandLineRunner {
         // Add memory monitoring
         logInitialMemoryStatus();
 
-        // Override config from command line args if provided
-        if (args.length > 0) {
-            config.setOntologiesDirectory(args[0]);
+        // Override config from command line args if provided: [ontologiesDir] [outputDir] [--resume]
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if ("--resume".equals(arg)) {
+                config.setResume(true);
+            } else if (!arg.startsWith("--")) {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() > 0) {
+            config.setOntologiesDirectory(positional.get(0));
         }
-        if (args.length > 1) {
-            config.setOutputDirectory(args[1]);
+        if (positional.size() > 1) {
+            config.setOutputDirectory(positional.get(1));
+        }
+        if (config.isResume() && !config.isCheckpointJournal()) {
+            LOGGER.warn("--resume needs processing.checkpoint-journal=true - running from the beginning");
         }
 
-        LOGGER.info("=== Professional OWL Inference Processor (Sequential Mode) ===");
+        LOGGER.info("=== Professional OWL Inference Processor ({} Mode) ===",
+                config.isEnableParallelProcessing() ? "Parallel" : "Sequential");
         logSystemInfo();
 
         // Initialize services
         DefaultOntologyService ontologyService = new DefaultOntologyService();
-        PelletReasoningService reasoningService = new PelletReasoningService();
+        ReasoningService reasoningService = new PelletReasoningService();
+        if (config.isIncrementalReasoning()) {
+            if (config.isEnableParallelProcessing() && config.getThreadPoolSize() > 1) {
+                LOGGER.warn("Incremental reasoning keeps one reasoner and needs sequential processing - disabled");
+            } else {
+                // ABox-only variants of one base reuse a single classified reasoner
+                reasoningService = new IncrementalPelletReasoningService(config.getIncrementalVerifyEvery());
+            }
+        }
         SparqlQueryGenerationService queryService = new SparqlQueryGenerationService();
-        StreamingOutputService outputService = new StreamingOutputService(config.getOutputDirectory());
+        OutputService outputService = new StreamingOutputService(config.getOutputDirectory(),
+                config.getOutputBufferSize(), config.getOutputFlushBatchSize(), config.getOutputFlushIntervalMs(),
+                ExplanationFormat.fromString(config.getExplanationFormat()),
+                config.getExplanationShardSizeMb() * 1024L * 1024L);
+        List<OutputService> additionalOutputs = new ArrayList<>();
+        if (config.isColumnarQueryOutput()) {
+            additionalOutputs.add(new ColumnarQueryOutputService(config.getOutputDirectory(), config.getColumnarRowGroupSize()));
+        }
+        if (config.isExplanationStore()) {
+            additionalOutputs.add(new ExplanationStoreOutputService(config.getOutputDirectory(), config.getOutputBufferSize()));
+        }
+        if (!additionalOutputs.isEmpty()) {
+            additionalOutputs.add(0, outputService);
+            outputService = new CompositeOutputService(additionalOutputs.toArray(new OutputService[0]));
+        }
+        if (config.isAsyncOutput()) {
+            // Reasoning threads only enqueue records; one writer thread does the file I/O
+            outputService = new AsyncOutputService(outputService, config.getOutputQueueCapacity());
+        }
+        GlobalQueryTracker queryTracker = GlobalQueryTracker.fromConfiguration(config);
 
-        // Create main processor (using the same class name)
+        // Create main processor; every ontology gets its own reasoning session so files can run in parallel
         processor = new SmallOntologiesProcessor(
-                ontologyService, reasoningService, queryService, outputService, config);
+                ontologyService, reasoningService, queryService, outputService, queryTracker, config);
 
         try {
-            LOGGER.info("Starting SEQUENTIAL processing of ontologies...");
+            LOGGER.info("Starting processing of ontologies...");
             ProcessingResult result = processor.processSmallOntologies(config.getOntologiesDirectory());
             logResults(result);
 
@@ -112,6 +164,7 @@ public class OwlSparqlGenerator implements CommandLineRunner {
         LOGGER.info("  Output directory: {}", config.getOutputDirectory());
         LOGGER.info("  Max explanations per inference: {}", config.getMaxExplanationsPerInference());
         LOGGER.info("  Thread pool size: {}", config.getThreadPoolSize());
+        LOGGER.info("  Parallel processing: {}", config.isEnableParallelProcessing());
         LOGGER.info("  Processing timeout: {} hours", config.getTimeoutHours());
     }
 
@@ -119,12 +172,14 @@ public class OwlSparqlGenerator implements CommandLineRunner {
         LOGGER.info("=== PROCESSING COMPLETED ===");
         LOGGER.info("Results Summary:");
         LOGGER.info("  Total inferences processed: {}", result.getTotalInferences());
-        LOGGER.info("  Total explanation paths: {}", result.getProcessedExplanations());
+        LOGGER.info("  Explanation records: {}", result.getProcessedExplanations());
         LOGGER.info("  Generated queries: {}", result.getProcessedQueries());
         LOGGER.info("  Binary queries: {}", result.getBinaryQueries());
         LOGGER.info("  Multi-choice queries: {}", result.getMultiChoiceQueries());
         LOGGER.info("  Processing time: {:.2f} minutes", result.getProcessingTimeMs() / 60000.0);
         LOGGER.info("  Memory used: {:.2f} MB", result.getMemoryUsedMB());
+        LOGGER.info("  GC time: {} ms", result.getTotalGcTimeMs());
+        LOGGER.info("  Reasoner cache hit rate: {}%", Math.round(result.getReasonerCacheHitRate() * 100));
         LOGGER.info("  Success: {}", result.isSuccess());
 
         if (result.hasErrors()) {
@@ -154,9 +209,6 @@ public class OwlSparqlGenerator implements CommandLineRunner {
             }
         } catch (Exception e) {
             LOGGER.warn("Error during cleanup: {}", e.getMessage());
-        } finally {
-            // Suggest garbage collection
-            System.gc();
         }
     }
 }
\ No newline at end of file
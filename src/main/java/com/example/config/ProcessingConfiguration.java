@@ -14,17 +14,57 @@ import org.springframework.context.annotation.Primary;
 public class ProcessingConfiguration {
 
     private String ontologiesDirectory = "src/main/resources/small_ontologies";
+    private boolean recursiveDiscovery = false;
+    private String ontologyFileGlob = "";
+    private boolean sortedDiscovery = true;
+    private String sharedTboxFile = "";
     private String outputDirectory = "./output";
     private int timeoutHours = 2;
     private int maxExplanationsPerInference = 20;
     private int threadPoolSize = 4;
     private int batchSize = 50;
     private boolean enableDetailedLogging = false;
+    private boolean enableParallelProcessing = false;
+    private double memoryPressureThreshold = 0.85;
+    private boolean incrementalReasoning = false;
+    private int incrementalVerifyEvery = 100;
+    private int prefetchOntologies = 2;
+    private int prefetchThreads = 1;
+    private String queryDedupMode = "exact";
+    private int outputBufferSize = 256 * 1024;
+    private int outputFlushBatchSize = 10_000;
+    private long outputFlushIntervalMs = 5_000;
+    private boolean asyncOutput = true;
+    private int outputQueueCapacity = 65_536;
+    private String explanationFormat = "json";
+    private long explanationShardSizeMb = 256;
+    private boolean columnarQueryOutput = false;
+    private int columnarRowGroupSize = 65_536;
+    private boolean explanationStore = false;
+    private boolean checkpointJournal = true;
+    private int checkpointIntervalFiles = 100;
+    private boolean resume = false;
+    private long bloomExpectedQueries = 100_000_000L;
+    private double bloomFalsePositiveRate = 0.0001;
+    private boolean spanTiming = true;
+    private boolean strategyStats = true;
 
     // Getters and setters
     public String getOntologiesDirectory() { return ontologiesDirectory; }
     public void setOntologiesDirectory(String ontologiesDirectory) { this.ontologiesDirectory = ontologiesDirectory; }
 
+    public boolean isRecursiveDiscovery() { return recursiveDiscovery; }
+    public void setRecursiveDiscovery(boolean recursiveDiscovery) { this.recursiveDiscovery = recursiveDiscovery; }
+
+    public String getOntologyFileGlob() { return ontologyFileGlob; }
+    public void setOntologyFileGlob(String ontologyFileGlob) { this.ontologyFileGlob = ontologyFileGlob; }
+
+    public boolean isSortedDiscovery() { return sortedDiscovery; }
+    public void setSortedDiscovery(boolean sortedDiscovery) { this.sortedDiscovery = sortedDiscovery; }
+
+    public String getSharedTboxFile() { return sharedTboxFile; }
+    public void setSharedTboxFile(String sharedTboxFile) { this.sharedTboxFile = sharedTboxFile; }
+
     public String getOutputDirectory() { return outputDirectory; }
     public void setOutputDirectory(String outputDirectory) { this.outputDirectory = outputDirectory; }
 
@@ -47,15 +87,125 @@ public class ProcessingConfiguration {
         this.enableDetailedLogging = enableDetailedLogging;
     }
 
+    public boolean isEnableParallelProcessing() { return enableParallelProcessing; }
+    public void setEnableParallelProcessing(boolean enableParallelProcessing) {
+        this.enableParallelProcessing = enableParallelProcessing;
+    }
+
+    public double getMemoryPressureThreshold() { return memoryPressureThreshold; }
+    public void setMemoryPressureThreshold(double memoryPressureThreshold) {
+        this.memoryPressureThreshold = memoryPressureThreshold;
+    }
+
+    public boolean isIncrementalReasoning() { return incrementalReasoning; }
+    public void setIncrementalReasoning(boolean incrementalReasoning) { this.incrementalReasoning = incrementalReasoning; }
+
+    public int getIncrementalVerifyEvery() { return incrementalVerifyEvery; }
+    public void setIncrementalVerifyEvery(int incrementalVerifyEvery) { this.incrementalVerifyEvery = incrementalVerifyEvery; }
+
+    public int getPrefetchOntologies() { return prefetchOntologies; }
+    public void setPrefetchOntologies(int prefetchOntologies) { this.prefetchOntologies = prefetchOntologies; }
+
+    public int getPrefetchThreads() { return prefetchThreads; }
+    public void setPrefetchThreads(int prefetchThreads) { this.prefetchThreads = prefetchThreads; }
+
+    public String getQueryDedupMode() { return queryDedupMode; }
+    public void setQueryDedupMode(String queryDedupMode) { this.queryDedupMode = queryDedupMode; }
+
+    public int getOutputBufferSize() { return outputBufferSize; }
+    public void setOutputBufferSize(int outputBufferSize) { this.outputBufferSize = outputBufferSize; }
+
+    public int getOutputFlushBatchSize() { return outputFlushBatchSize; }
+    public void setOutputFlushBatchSize(int outputFlushBatchSize) {
+        this.outputFlushBatchSize = outputFlushBatchSize;
+    }
+
+    public long getOutputFlushIntervalMs() { return outputFlushIntervalMs; }
+    public void setOutputFlushIntervalMs(long outputFlushIntervalMs) {
+        this.outputFlushIntervalMs = outputFlushIntervalMs;
+    }
+
+    public boolean isAsyncOutput() { return asyncOutput; }
+    public void setAsyncOutput(boolean asyncOutput) { this.asyncOutput = asyncOutput; }
+
+    public int getOutputQueueCapacity() { return outputQueueCapacity; }
+    public void setOutputQueueCapacity(int outputQueueCapacity) {
+        this.outputQueueCapacity = outputQueueCapacity;
+    }
+
+    public String getExplanationFormat() { return explanationFormat; }
+    public void setExplanationFormat(String explanationFormat) { this.explanationFormat = explanationFormat; }
+
+    public long getExplanationShardSizeMb() { return explanationShardSizeMb; }
+    public void setExplanationShardSizeMb(long explanationShardSizeMb) {
+        this.explanationShardSizeMb = explanationShardSizeMb;
+    }
+
+    public boolean isColumnarQueryOutput() { return columnarQueryOutput; }
+    public void setColumnarQueryOutput(boolean columnarQueryOutput) { this.columnarQueryOutput = columnarQueryOutput; }
+
+    public int getColumnarRowGroupSize() { return columnarRowGroupSize; }
+    public void setColumnarRowGroupSize(int columnarRowGroupSize) { this.columnarRowGroupSize = columnarRowGroupSize; }
+
+    public boolean isExplanationStore() { return explanationStore; }
+    public void setExplanationStore(boolean explanationStore) { this.explanationStore = explanationStore; }
+
+    public boolean isCheckpointJournal() { return checkpointJournal; }
+    public void setCheckpointJournal(boolean checkpointJournal) { this.checkpointJournal = checkpointJournal; }
+
+    public int getCheckpointIntervalFiles() { return checkpointIntervalFiles; }
+    public void setCheckpointIntervalFiles(int checkpointIntervalFiles) {
+        this.checkpointIntervalFiles = checkpointIntervalFiles;
+    }
+
+    public boolean isResume() { return resume; }
+    public void setResume(boolean resume) { this.resume = resume; }
+
+    public long getBloomExpectedQueries() { return bloomExpectedQueries; }
+    public void setBloomExpectedQueries(long bloomExpectedQueries) {
+        this.bloomExpectedQueries = bloomExpectedQueries;
+    }
+
+    public double getBloomFalsePositiveRate() { return bloomFalsePositiveRate; }
+    public void setBloomFalsePositiveRate(double bloomFalsePositiveRate) {
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+    }
+
+    public boolean isSpanTiming() { return spanTiming; }
+    public void setSpanTiming(boolean spanTiming) { this.spanTiming = spanTiming; }
+
+    public boolean isStrategyStats() { return strategyStats; }
+    public void setStrategyStats(boolean strategyStats) { this.strategyStats = strategyStats; }
+
     @Override
     public String toString() {
         return "ProcessingConfiguration{" +
                 "ontologiesDirectory='" + ontologiesDirectory + '\'' +
+                ", recursiveDiscovery=" + recursiveDiscovery +
+                ", ontologyFileGlob='" + ontologyFileGlob + '\'' +
+                ", sharedTboxFile='" + sharedTboxFile + '\'' +
                 ", outputDirectory='" + outputDirectory + '\'' +
                 ", timeoutHours=" + timeoutHours +
                 ", maxExplanationsPerInference=" + maxExplanationsPerInference +
                 ", threadPoolSize=" + threadPoolSize +
                 ", batchSize=" + batchSize +
+                ", enableParallelProcessing=" + enableParallelProcessing +
+                ", memoryPressureThreshold=" + memoryPressureThreshold +
+                ", incrementalReasoning=" + incrementalReasoning +
+                ", prefetchOntologies=" + prefetchOntologies +
+                ", prefetchThreads=" + prefetchThreads +
+                ", queryDedupMode='" + queryDedupMode + '\'' +
+                ", outputBufferSize=" + outputBufferSize +
+                ", outputFlushBatchSize=" + outputFlushBatchSize +
+                ", outputFlushIntervalMs=" + outputFlushIntervalMs +
+                ", asyncOutput=" + asyncOutput +
+                ", explanationFormat='" + explanationFormat + '\'' +
+                ", columnarQueryOutput=" + columnarQueryOutput +
+                ", explanationStore=" + explanationStore +
+                ", checkpointJournal=" + checkpointJournal +
+                ", resume=" + resume +
+                ", spanTiming=" + spanTiming +
+                ", strategyStats=" + strategyStats +
                 '}';
     }
 }
\ No newline at end of file
@@ -12,6 +12,8 @@ import org.semanticweb.owlapi.model.OWLAxiomVisitor;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import com.example.processing.PerformanceTracker;
+import com.example.reasoning.ReasonerQueryCache;
 import com.example.util.OntologyUtils;
 
 /**
@@ -22,16 +24,193 @@ public class ComprehensiveExplanationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ComprehensiveExplanationService.class);
 
     private OpenlletReasoner reasoner;
+    private ReasonerQueryCache queries;
     private OWLOntology ontology;
     private OWLDataFactory dataFactory;
     private EnhancedExplanationTagger tagger;
+    private OntologyAxiomIndex axiomIndex;
+    private ReversePropertyIndex reverseIndex;
+    // Times every strategy as a span when set (null = strategies are not timed)
+    private PerformanceTracker performanceTracker;
+    // Per-strategy cost accounting when set, and the strategy that first produced each path of the
+    // outermost search in progress (searches nest, e.g. findExplanationPathsLikeProtege -> findAllExplanationPaths)
+    private ExplanationStrategyStats strategyStats;
+    private Map<ExplanationPath, String> pathOrigins;
+    private int searchDepth;
 
     public ComprehensiveExplanationService(OpenlletReasoner reasoner, OWLOntology ontology) {
-        this.reasoner = reasoner;
+        this(new ReasonerQueryCache(reasoner), ontology);
+    }
+
+    /**
+     * Create the service with a prebuilt axiom index for the ontology
+     */
+    public ComprehensiveExplanationService(OpenlletReasoner reasoner, OWLOntology ontology, OntologyAxiomIndex axiomIndex) {
+        this(new ReasonerQueryCache(reasoner), ontology, axiomIndex);
+    }
+
+    /**
+     * Create the service on top of a session's memoizing query cache, so repeated reasoner
+     * questions are answered once per ontology
+     */
+    public ComprehensiveExplanationService(ReasonerQueryCache queries, OWLOntology ontology) {
+        this(queries, ontology, ontology != null ? new OntologyAxiomIndex(ontology) : null);
+    }
+
+    public ComprehensiveExplanationService(ReasonerQueryCache queries, OWLOntology ontology, OntologyAxiomIndex axiomIndex) {
+        this.queries = queries;
+        this.reasoner = queries.getReasoner();
         this.ontology = ontology;
         this.dataFactory = ontology != null ? ontology.getOWLOntologyManager().getOWLDataFactory() : null;
         this.tagger = new EnhancedExplanationTagger();
+        this.axiomIndex = axiomIndex;
+        this.reverseIndex = reasoner != null && ontology != null ? new ReversePropertyIndex(queries, ontology) : null;
+    }
+
+    /**
+     * Time every explanation strategy as a "strategy:<name>" span of the given tracker, nested in
+     * whatever span is open on the calling thread
+     */
+    public void setPerformanceTracker(PerformanceTracker performanceTracker) {
+        this.performanceTracker = performanceTracker;
+    }
+
+    /**
+     * Account the time, reasoning queries, reasoner calls, produced paths and kept paths of every strategy
+     * in the given stats
+     */
+    public void setStrategyStats(ExplanationStrategyStats strategyStats) {
+        this.strategyStats = strategyStats;
+    }
+
+    /**
+     * Explanation strategies by their name in the strategy stats; the span name is built once here
+     */
+    private enum Strategy {
+        // Class membership
+        ASSERTED_FACT_TRACE("asserted_fact_trace"),
+        AXIOM_VISITOR("axiom_visitor"),
+        REASONER_BASED("reasoner_based"),
+        DIRECT_CLASS_ASSERTION("direct_class_assertion"),
+        HIERARCHICAL("hierarchical"),
+        EQUIVALENT_CLASS("equivalent_class"),
+        PROPERTY_BASED_CLASS("property_based_class"),
+        COMPLEX_RESTRICTION("complex_restriction"),
+        PROPERTY_CHAIN_CLASS("property_chain_class"),
+        INVERSE_PROPERTY_CLASS("inverse_property_class"),
+        FUNCTIONAL_PROPERTY_CLASS("functional_property_class"),
+        SYMMETRIC_PROPERTY_CLASS("symmetric_property_class"),
+        SUB_PROPERTY_CLASS("sub_property_class"),
+        RANGE_BASED_CLASS("range_based_class"),
+        // Property assertion
+        DIRECT_PROPERTY_ASSERTION("direct_property_assertion"),
+        SUB_PROPERTY("sub_property"),
+        PROPERTY_CHARACTERISTIC("property_characteristic"),
+        PROPERTY_CHAIN("property_chain");
+
+        private final String name;
+        private final String spanName;
+
+        Strategy(String name) {
+            this.name = name;
+            this.spanName = "strategy:" + name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getSpanName() {
+            return spanName;
+        }
+    }
+
+    /**
+     * An explanation strategy for a class membership, adding the paths it finds
+     */
+    @FunctionalInterface
+    private interface ClassStrategy {
+        void addPaths(OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> paths);
+    }
 
+    /**
+     * An explanation strategy for a property assertion, adding the paths it finds
+     */
+    @FunctionalInterface
+    private interface PropertyStrategy {
+        void addPaths(OWLNamedIndividual subject, OWLObjectProperty property, OWLNamedIndividual object,
+                      Set<ExplanationPath> paths);
+    }
+
+    private void runStrategy(Strategy name, ClassStrategy strategy,
+                             OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> paths) {
+        try (PerformanceTracker.Span span = performanceTracker != null ? performanceTracker.span(name.getSpanName()) : null) {
+            if (strategyStats == null) {
+                strategy.addPaths(individual, clazz, paths);
+                return;
+            }
+            Set<ExplanationPath> produced = new HashSet<>();
+            long queriesBefore = queries.getQueryCount();
+            long callsBefore = queries.getReasonerCallCount();
+            long start = System.nanoTime();
+            strategy.addPaths(individual, clazz, produced);
+            recordStrategyRun(name, System.nanoTime() - start, queries.getQueryCount() - queriesBefore,
+                    queries.getReasonerCallCount() - callsBefore, produced, paths);
+        }
+    }
+
+    private void runStrategy(Strategy name, PropertyStrategy strategy, OWLNamedIndividual subject,
+                             OWLObjectProperty property, OWLNamedIndividual object, Set<ExplanationPath> paths) {
+        try (PerformanceTracker.Span span = performanceTracker != null ? performanceTracker.span(name.getSpanName()) : null) {
+            if (strategyStats == null) {
+                strategy.addPaths(subject, property, object, paths);
+                return;
+            }
+            Set<ExplanationPath> produced = new HashSet<>();
+            long queriesBefore = queries.getQueryCount();
+            long callsBefore = queries.getReasonerCallCount();
+            long start = System.nanoTime();
+            strategy.addPaths(subject, property, object, produced);
+            recordStrategyRun(name, System.nanoTime() - start, queries.getQueryCount() - queriesBefore,
+                    queries.getReasonerCallCount() - callsBefore, produced, paths);
+        }
+    }
+
+    /**
+     * Account one strategy run and merge the paths it produced, remembering which strategy found each path first
+     */
+    private void recordStrategyRun(Strategy name, long nanos, long queryCount, long reasonerCalls,
+                                   Set<ExplanationPath> produced, Set<ExplanationPath> paths) {
+        strategyStats.recordRun(name.getName(), nanos, queryCount, reasonerCalls, produced.size());
+        for (ExplanationPath path : produced) {
+            if (paths.add(path) && pathOrigins != null) {
+                pathOrigins.putIfAbsent(path, name.getName());
+            }
+        }
+    }
+
+    private void beginSearch() {
+        if (strategyStats != null && searchDepth++ == 0) {
+            pathOrigins = new HashMap<>();
+        }
+    }
+
+    /**
+     * End a search; when it is the outermost one, credit every returned path to the strategy that produced it
+     */
+    private void endSearch(Set<ExplanationPath> result) {
+        if (pathOrigins == null || --searchDepth > 0) {
+            return;
+        }
+        Map<String, Long> kept = new HashMap<>();
+        for (ExplanationPath path : result) {
+            String origin = pathOrigins.get(path);
+            if (origin != null) {
+                kept.merge(origin, 1L, Long::sum);
+            }
+        }
+        kept.forEach(strategyStats::recordKept);
+        pathOrigins = null;
     }
 
     /**
@@ -65,11 +244,12 @@ public class ComprehensiveExplanationService {
     public Set<ExplanationPath> findDeepExplanationPaths(OWLNamedIndividual individual, OWLClass clazz) {
         Set<ExplanationPath> allPaths = new HashSet<>();
 
+        beginSearch();
         try {
             LOGGER.debug("Finding DEEP explanation paths for {} : {}", getShortForm(individual), getShortForm(clazz));
 
             // Strategy 1: Find paths that trace back to asserted facts
-            addAssertedFactTracePaths(individual, clazz, allPaths);
+            runStrategy(Strategy.ASSERTED_FACT_TRACE, this::addAssertedFactTracePaths, individual, clazz, allPaths);
 
             // Strategy 2: Your existing comprehensive strategies as fallback
             Set<ExplanationPath> standardPaths = findAllExplanationPaths(individual, clazz);
@@ -83,6 +263,8 @@ public class ComprehensiveExplanationService {
 
         } catch (Exception e) {
             LOGGER.error("Error finding deep explanation paths", e);
+        } finally {
+            endSearch(allPaths);
         }
 
         return allPaths;
@@ -113,37 +295,35 @@ public class ComprehensiveExplanationService {
     private void addDomainTraceBackPaths(OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> allPaths) {
         try {
             // Find domain axioms for the target class
-            for (OWLObjectPropertyDomainAxiom domainAxiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
-                if (domainAxiom.getDomain().equals(clazz)) {
-                    OWLObjectProperty domainProperty = domainAxiom.getProperty().asOWLObjectProperty();
+            for (OWLObjectPropertyDomainAxiom domainAxiom : axiomIndex.getDomainAxioms(clazz)) {
+                OWLObjectProperty domainProperty = domainAxiom.getProperty().asOWLObjectProperty();
 
-                    // Find the ACTUAL asserted property that leads to this domain
-                    List<OWLAxiom> traceBackChain = tracePropertyToAssertedFact(individual, domainProperty);
+                // Find the ACTUAL asserted property that leads to this domain
+                List<OWLAxiom> traceBackChain = tracePropertyToAssertedFact(individual, domainProperty);
 
-                    if (!traceBackChain.isEmpty()) {
-                        // Build complete explanation chain
-                        List<OWLAxiom> completeChain = new ArrayList<>(traceBackChain);
-                        completeChain.add(domainAxiom);
+                if (!traceBackChain.isEmpty()) {
+                    // Build complete explanation chain
+                    List<OWLAxiom> completeChain = new ArrayList<>(traceBackChain);
+                    completeChain.add(domainAxiom);
 
-                        List<String> justifications = new ArrayList<>();
-                        for (OWLAxiom axiom : traceBackChain) {
-                            justifications.add(formatAxiomForJustification(axiom));
-                        }
-                        justifications.add(getShortForm(domainProperty) + " Domain " + getShortForm(clazz));
-
-                        ExplanationPath deepPath = new ExplanationPath(
-                                completeChain,
-                                String.format("Deep domain trace: %s domain via %d steps",
-                                        getShortForm(domainProperty), traceBackChain.size()),
-                                ExplanationType.DOMAIN_RANGE,
-                                completeChain.size()
-                        );
-                        deepPath.setJustifications(justifications);
-                        deepPath.setInferred(true);
-                        allPaths.add(deepPath);
-
-                        LOGGER.debug("Added deep domain trace with {} steps", traceBackChain.size());
+                    List<String> justifications = new ArrayList<>();
+                    for (OWLAxiom axiom : traceBackChain) {
+                        justifications.add(formatAxiomForJustification(axiom));
                     }
+                    justifications.add(getShortForm(domainProperty) + " Domain " + getShortForm(clazz));
+
+                    ExplanationPath deepPath = new ExplanationPath(
+                            completeChain,
+                            String.format("Deep domain trace: %s domain via %d steps",
+                                    getShortForm(domainProperty), traceBackChain.size()),
+                            ExplanationType.DOMAIN_RANGE,
+                            completeChain.size()
+                    );
+                    deepPath.setJustifications(justifications);
+                    deepPath.setInferred(true);
+                    allPaths.add(deepPath);
+
+                    LOGGER.debug("Added deep domain trace with {} steps", traceBackChain.size());
                 }
             }
         } catch (Exception e) {
@@ -159,10 +339,10 @@ public class ComprehensiveExplanationService {
 
         try {
             // Strategy 1: Check if individual directly has this property asserted
-            Set<OWLNamedIndividual> directValues = reasoner.getObjectPropertyValues(individual, targetProperty).getFlattened();
+            Set<OWLNamedIndividual> directValues = queries.getObjectPropertyValues(individual, targetProperty);
             for (OWLNamedIndividual value : directValues) {
-                OWLObjectPropertyAssertionAxiom directAssertion = dataFactory.getOWLObjectPropertyAssertionAxiom(targetProperty, individual, value);
-                if (ontology.containsAxiom(directAssertion)) {
+                if (axiomIndex.hasAssertion(targetProperty, individual, value)) {
+                    OWLObjectPropertyAssertionAxiom directAssertion = dataFactory.getOWLObjectPropertyAssertionAxiom(targetProperty, individual, value);
                     traceChain.add(directAssertion);
                     return traceChain; // Found direct assertion
                 }
@@ -182,19 +362,17 @@ public class ComprehensiveExplanationService {
             }
 
             // Strategy 3: Check for inverse property reasoning
-            for (OWLInverseObjectPropertiesAxiom invAxiom : ontology.getInverseObjectPropertyAxioms(targetProperty)) {
+            for (OWLInverseObjectPropertiesAxiom invAxiom : axiomIndex.getInverseAxioms(targetProperty)) {
                 for (OWLObjectPropertyExpression invPropExpr : invAxiom.getProperties()) {
                     if (!invPropExpr.equals(targetProperty) && !invPropExpr.isAnonymous()) {
                         OWLObjectProperty inverseProperty = invPropExpr.asOWLObjectProperty();
 
                         // Check if someone has the inverse property pointing to our individual (asserted)
-                        for (OWLNamedIndividual other : ontology.getIndividualsInSignature()) {
+                        for (OWLNamedIndividual other : axiomIndex.getAssertedSubjects(inverseProperty, individual)) {
                             OWLObjectPropertyAssertionAxiom invAssertion = dataFactory.getOWLObjectPropertyAssertionAxiom(inverseProperty, other, individual);
-                            if (ontology.containsAxiom(invAssertion)) {
-                                traceChain.add(invAssertion);
-                                traceChain.add(invAxiom);
-                                return traceChain;
-                            }
+                            traceChain.add(invAssertion);
+                            traceChain.add(invAxiom);
+                            return traceChain;
                         }
 
                         // Recursively trace the inverse property
@@ -209,31 +387,30 @@ public class ComprehensiveExplanationService {
             }
 
             // Strategy 4: Check for property chain reasoning
-            for (OWLSubPropertyChainOfAxiom chainAxiom : ontology.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF)) {
-                if (chainAxiom.getSuperProperty().equals(targetProperty)) {
-                    List<OWLObjectPropertyExpression> chain = chainAxiom.getPropertyChain();
-
-                    if (chain.size() == 2 && !chain.get(0).isAnonymous() && !chain.get(1).isAnonymous()) {
-                        OWLObjectProperty prop1 = chain.get(0).asOWLObjectProperty();
-                        OWLObjectProperty prop2 = chain.get(1).asOWLObjectProperty();
-
-                        // Find asserted facts for the property chain
-                        Set<OWLNamedIndividual> intermediates = reasoner.getObjectPropertyValues(individual, prop1).getFlattened();
-                        for (OWLNamedIndividual intermediate : intermediates) {
-                            // Check if first step is asserted
-                            OWLObjectPropertyAssertionAxiom step1Assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(prop1, individual, intermediate);
-                            Set<OWLNamedIndividual> targets = reasoner.getObjectPropertyValues(intermediate, prop2).getFlattened();
-
-                            for (OWLNamedIndividual target : targets) {
-                                // Check if second step is asserted
-                                OWLObjectPropertyAssertionAxiom step2Assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(prop2, intermediate, target);
-
-                                if (ontology.containsAxiom(step1Assertion) && ontology.containsAxiom(step2Assertion)) {
-                                    traceChain.add(step1Assertion);
-                                    traceChain.add(step2Assertion);
-                                    traceChain.add(chainAxiom);
-                                    return traceChain;
-                                }
+            for (OWLSubPropertyChainOfAxiom chainAxiom : axiomIndex.getChainAxioms(targetProperty)) {
+                List<OWLObjectPropertyExpression> chain = chainAxiom.getPropertyChain();
+
+                if (chain.size() == 2 && !chain.get(0).isAnonymous() && !chain.get(1).isAnonymous()) {
+                    OWLObjectProperty prop1 = chain.get(0).asOWLObjectProperty();
+                    OWLObjectProperty prop2 = chain.get(1).asOWLObjectProperty();
+
+                    // Find asserted facts for the property chain
+                    Set<OWLNamedIndividual> intermediates = queries.getObjectPropertyValues(individual, prop1);
+                    for (OWLNamedIndividual intermediate : intermediates) {
+                        // Check if first step is asserted
+                        OWLObjectPropertyAssertionAxiom step1Assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(prop1, individual, intermediate);
+                        Set<OWLNamedIndividual> targets = queries.getObjectPropertyValues(intermediate, prop2);
+
+                        for (OWLNamedIndividual target : targets) {
+                            // Check if second step is asserted
+                            OWLObjectPropertyAssertionAxiom step2Assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(prop2, intermediate, target);
+
+                            if (axiomIndex.hasAssertion(prop1, individual, intermediate)
+                                    && axiomIndex.hasAssertion(prop2, intermediate, target)) {
+                                traceChain.add(step1Assertion);
+                                traceChain.add(step2Assertion);
+                                traceChain.add(chainAxiom);
+                                return traceChain;
                             }
                         }
                     }
@@ -254,15 +431,11 @@ public class ComprehensiveExplanationService {
         List<OWLAxiom> traceChain = new ArrayList<>();
 
         try {
-            // Find who has this property pointing to our individual
-            for (OWLNamedIndividual other : ontology.getIndividualsInSignature()) {
-                if (reasoner.getObjectPropertyValues(other, property).getFlattened().contains(individual)) {
-                    OWLObjectPropertyAssertionAxiom assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(property, other, individual);
-                    if (ontology.containsAxiom(assertion)) {
-                        traceChain.add(assertion);
-                        return traceChain;
-                    }
-                }
+            // Find who has this property pointing to our individual (asserted facts are always entailed)
+            for (OWLNamedIndividual other : axiomIndex.getAssertedSubjects(property, individual)) {
+                OWLObjectPropertyAssertionAxiom assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(property, other, individual);
+                traceChain.add(assertion);
+                return traceChain;
             }
         } catch (Exception e) {
             LOGGER.debug("Error in reverse property trace: {}", e.getMessage());
@@ -277,34 +450,30 @@ public class ComprehensiveExplanationService {
     private void addRangeTraceBackPaths(OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> allPaths) {
         try {
             // Find range axioms for the target class
-            for (OWLObjectPropertyRangeAxiom rangeAxiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_RANGE)) {
-                if (rangeAxiom.getRange().equals(clazz)) {
-                    OWLObjectProperty rangeProperty = rangeAxiom.getProperty().asOWLObjectProperty();
+            for (OWLObjectPropertyRangeAxiom rangeAxiom : axiomIndex.getRangeAxioms(clazz)) {
+                OWLObjectProperty rangeProperty = rangeAxiom.getProperty().asOWLObjectProperty();
 
-                    // Find who has this property pointing to our individual (asserted)
-                    for (OWLNamedIndividual subject : ontology.getIndividualsInSignature()) {
-                        OWLObjectPropertyAssertionAxiom assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(rangeProperty, subject, individual);
-                        if (ontology.containsAxiom(assertion)) {
-                            List<OWLAxiom> completeChain = Arrays.asList(assertion, rangeAxiom);
+                // Find who has this property pointing to our individual (asserted)
+                for (OWLNamedIndividual subject : axiomIndex.getAssertedSubjects(rangeProperty, individual)) {
+                    OWLObjectPropertyAssertionAxiom assertion = dataFactory.getOWLObjectPropertyAssertionAxiom(rangeProperty, subject, individual);
+                    List<OWLAxiom> completeChain = Arrays.asList(assertion, rangeAxiom);
 
-                            List<String> justifications = Arrays.asList(
-                                    getShortForm(subject) + " " + getShortForm(rangeProperty) + " " + getShortForm(individual),
-                                    getShortForm(rangeProperty) + " Range " + getShortForm(clazz)
-                            );
+                    List<String> justifications = Arrays.asList(
+                            getShortForm(subject) + " " + getShortForm(rangeProperty) + " " + getShortForm(individual),
+                            getShortForm(rangeProperty) + " Range " + getShortForm(clazz)
+                    );
 
-                            ExplanationPath deepPath = new ExplanationPath(
-                                    completeChain,
-                                    String.format("Deep range trace: %s range from asserted fact", getShortForm(rangeProperty)),
-                                    ExplanationType.DOMAIN_RANGE,
-                                    completeChain.size()
-                            );
-                            deepPath.setJustifications(justifications);
-                            deepPath.setInferred(true);
-                            allPaths.add(deepPath);
+                    ExplanationPath deepPath = new ExplanationPath(
+                            completeChain,
+                            String.format("Deep range trace: %s range from asserted fact", getShortForm(rangeProperty)),
+                            ExplanationType.DOMAIN_RANGE,
+                            completeChain.size()
+                    );
+                    deepPath.setJustifications(justifications);
+                    deepPath.setInferred(true);
+                    allPaths.add(deepPath);
 
-                            LOGGER.debug("Added deep range trace from asserted fact");
-                        }
-                    }
+                    LOGGER.debug("Added deep range trace from asserted fact");
                 }
             }
         } catch (Exception e) {
@@ -514,29 +683,30 @@ public class ComprehensiveExplanationService {
     public Set<ExplanationPath> findAllExplanationPaths(OWLNamedIndividual individual, OWLClass clazz) {
         Set<ExplanationPath> allPaths = new HashSet<>();
 
+        beginSearch();
         try {
             LOGGER.debug("Finding ALL explanation paths for {} : {}", getShortForm(individual), getShortForm(clazz));
 
             // Strategy 1: Use systematic axiom visitor approach (PRIMARY)
-            addAxiomVisitorPaths(individual, clazz, allPaths);
+            runStrategy(Strategy.AXIOM_VISITOR, this::addAxiomVisitorPaths, individual, clazz, allPaths);
 
             // Strategy 2: Use reasoner-based approaches
-            addReasonerBasedPaths(individual, clazz, allPaths);
+            runStrategy(Strategy.REASONER_BASED, this::addReasonerBasedPaths, individual, clazz, allPaths);
 
             // Strategy 3: Direct class assertions
-            addDirectClassAssertionPaths(individual, clazz, allPaths);
+            runStrategy(Strategy.DIRECT_CLASS_ASSERTION, this::addDirectClassAssertionPaths, individual, clazz, allPaths);
 
             // All other existing strategies...
-            addAllHierarchicalPaths(individual, clazz, allPaths);
-            addEquivalentClassPaths(individual, clazz, allPaths);
-            addPropertyBasedClassPaths(individual, clazz, allPaths);
-            addComplexRestrictionPaths(individual, clazz, allPaths);
-            addPropertyChainClassPaths(individual, clazz, allPaths);
-            addInversePropertyClassPaths(individual, clazz, allPaths);
-            addFunctionalPropertyClassPaths(individual, clazz, allPaths);
-            addSymmetricPropertyClassPaths(individual, clazz, allPaths);
-            addSubPropertyClassPaths(individual, clazz, allPaths);
-            addRangeBasedClassPaths(individual, clazz, allPaths);
+            runStrategy(Strategy.HIERARCHICAL, this::addAllHierarchicalPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.EQUIVALENT_CLASS, this::addEquivalentClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.PROPERTY_BASED_CLASS, this::addPropertyBasedClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.COMPLEX_RESTRICTION, this::addComplexRestrictionPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.PROPERTY_CHAIN_CLASS, this::addPropertyChainClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.INVERSE_PROPERTY_CLASS, this::addInversePropertyClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.FUNCTIONAL_PROPERTY_CLASS, this::addFunctionalPropertyClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.SYMMETRIC_PROPERTY_CLASS, this::addSymmetricPropertyClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.SUB_PROPERTY_CLASS, this::addSubPropertyClassPaths, individual, clazz, allPaths);
+            runStrategy(Strategy.RANGE_BASED_CLASS, this::addRangeBasedClassPaths, individual, clazz, allPaths);
 
             LOGGER.info("Found {} RAW explanation paths for {} : {}",
                     allPaths.size(), getShortForm(individual), getShortForm(clazz));
@@ -557,6 +727,8 @@ public class ComprehensiveExplanationService {
 
         } catch (Exception e) {
             LOGGER.error("Error finding explanation paths for {} : {}", individual, clazz, e);
+        } finally {
+            endSearch(allPaths);
         }
 
         return allPaths;
@@ -568,11 +740,12 @@ public class ComprehensiveExplanationService {
     public Set<ExplanationPath> findExplanationPathsLikeProtege(OWLNamedIndividual individual, OWLClass clazz) {
         Set<ExplanationPath> allPaths = new HashSet<>();
 
+        beginSearch();
         try {
             LOGGER.debug("Finding explanations for INFERRED: {} : {}", getShortForm(individual), getShortForm(clazz));
 
             // Strategy 1: Find paths that trace back to ASSERTED facts
-            addAssertedFactTracePaths(individual, clazz, allPaths);
+            runStrategy(Strategy.ASSERTED_FACT_TRACE, this::addAssertedFactTracePaths, individual, clazz, allPaths);
 
             // Strategy 2: Standard comprehensive strategies as fallback
             Set<ExplanationPath> standardPaths = findAllExplanationPaths(individual, clazz);
@@ -586,6 +759,8 @@ public class ComprehensiveExplanationService {
 
         } catch (Exception e) {
             LOGGER.error("Error finding explanation paths", e);
+        } finally {
+            endSearch(allPaths);
         }
 
         return allPaths;
@@ -604,7 +779,7 @@ public class ComprehensiveExplanationService {
                     .collect(Collectors.toSet());
 
             // Also get inferred types from reasoner
-            Set<OWLClass> inferredTypes = reasoner.getTypes(individual, false).getFlattened();
+            Set<OWLClass> inferredTypes = queries.getTypes(individual, false);
 
             Set<OWLClass> allTypes = new HashSet<>();
             allTypes.addAll(directTypes);
@@ -752,17 +927,19 @@ public class ComprehensiveExplanationService {
                                                            OWLNamedIndividual object) {
         Set<ExplanationPath> allPaths = new HashSet<>();
 
+        beginSearch();
         try {
             LOGGER.debug("Finding property assertion paths for {} {} {}",
                     getShortForm(subject), getShortForm(property), getShortForm(object));
 
             // Add direct property assertion paths
-            addDirectPropertyAssertionPaths(subject, property, object, allPaths);
+            runStrategy(Strategy.DIRECT_PROPERTY_ASSERTION, this::addDirectPropertyAssertionPaths,
+                    subject, property, object, allPaths);
 
             // Add other property reasoning paths
-            addSubPropertyReasoningPaths(subject, property, object, allPaths);
-            addPropertyCharacteristicPaths(subject, property, object, allPaths);
-            addPropertyChainReasoningPaths(subject, property, object, allPaths);
+            runStrategy(Strategy.SUB_PROPERTY, this::addSubPropertyReasoningPaths, subject, property, object, allPaths);
+            runStrategy(Strategy.PROPERTY_CHARACTERISTIC, this::addPropertyCharacteristicPaths, subject, property, object, allPaths);
+            runStrategy(Strategy.PROPERTY_CHAIN, this::addPropertyChainReasoningPaths, subject, property, object, allPaths);
 
             LOGGER.debug("Found {} property assertion paths for {} {} {}",
                     allPaths.size(), getShortForm(subject), getShortForm(property), getShortForm(object));
@@ -770,6 +947,8 @@ public class ComprehensiveExplanationService {
         } catch (Exception e) {
             LOGGER.debug("Error finding property assertion paths for {} {} {}",
                     getShortForm(subject), getShortForm(property), getShortForm(object), e);
+        } finally {
+            endSearch(allPaths);
         }
 
         return allPaths;
@@ -796,7 +975,7 @@ public class ComprehensiveExplanationService {
                 OWLClassExpression subClass = axiom.getSubClass();
                 if (!subClass.isAnonymous()) {
                     OWLClass subClazz = subClass.asOWLClass();
-                    if (reasoner.getTypes(individual, false).getFlattened().contains(subClazz)) {
+                    if (queries.getTypes(individual, false).contains(subClazz)) {
                         createSubclassExplanationPath(subClazz, targetClass, axiom);
                     }
                 }
@@ -809,7 +988,7 @@ public class ComprehensiveExplanationService {
                 for (OWLClassExpression expr : axiom.getClassExpressions()) {
                     if (!expr.equals(targetClass) && !expr.isAnonymous()) {
                         OWLClass equivClass = expr.asOWLClass();
-                        if (reasoner.getTypes(individual, false).getFlattened().contains(equivClass)) {
+                        if (queries.getTypes(individual, false).contains(equivClass)) {
                             createEquivalentClassExplanationPath(equivClass, targetClass, axiom);
                         }
                     }
@@ -821,7 +1000,7 @@ public class ComprehensiveExplanationService {
         public void visit(OWLObjectPropertyDomainAxiom axiom) {
             if (axiom.getDomain().equals(targetClass)) {
                 OWLObjectProperty property = axiom.getProperty().asOWLObjectProperty();
-                Set<OWLNamedIndividual> values = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+                Set<OWLNamedIndividual> values = queries.getObjectPropertyValues(individual, property);
                 if (!values.isEmpty()) {
                     createDomainExplanationPath(property, targetClass, axiom, values.iterator().next());
                 }
@@ -833,11 +1012,9 @@ public class ComprehensiveExplanationService {
             if (axiom.getRange().equals(targetClass)) {
                 OWLObjectProperty property = axiom.getProperty().asOWLObjectProperty();
                 // Find who has this property pointing to our individual
-                for (OWLNamedIndividual subject : ontology.getIndividualsInSignature()) {
-                    if (reasoner.getObjectPropertyValues(subject, property).getFlattened().contains(individual)) {
-                        createRangeExplanationPath(property, targetClass, axiom, subject);
-                        break;
-                    }
+                List<OWLNamedIndividual> subjects = reverseIndex.getSubjects(property, individual);
+                if (!subjects.isEmpty()) {
+                    createRangeExplanationPath(property, targetClass, axiom, subjects.get(0));
                 }
             }
         }
@@ -988,8 +1165,9 @@ public class ComprehensiveExplanationService {
 
             ExplanationAxiomVisitor visitor = new ExplanationAxiomVisitor(individual, clazz, allPaths);
 
+            // Only SubClassOf/EquivalentClasses/domain/range axioms mentioning the class can contribute
             int axiomCount = 0;
-            for (OWLAxiom axiom : ontology.getAxioms()) {
+            for (OWLAxiom axiom : axiomIndex.getAxiomsTargetingClass(clazz)) {
                 axiom.accept(visitor);
                 axiomCount++;
             }
@@ -1007,54 +1185,50 @@ public class ComprehensiveExplanationService {
     private void addPropertyChainClassPaths(OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> allPaths) {
         try {
             // Look for domain axioms that could be triggered by property chains
-            for (OWLObjectPropertyDomainAxiom domainAxiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
-                if (domainAxiom.getDomain().equals(clazz)) {
-                    OWLObjectProperty domainProp = domainAxiom.getProperty().asOWLObjectProperty();
-
-                    // Check if this property is the result of a property chain
-                    for (OWLSubPropertyChainOfAxiom chainAxiom : ontology.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF)) {
-                        if (chainAxiom.getSuperProperty().equals(domainProp)) {
-                            List<OWLObjectPropertyExpression> chain = chainAxiom.getPropertyChain();
-
-                            // Find instances where this chain applies
-                            if (chain.size() == 2) {
-                                OWLObjectProperty prop1 = chain.get(0).asOWLObjectProperty();
-                                OWLObjectProperty prop2 = chain.get(1).asOWLObjectProperty();
-
-                                Set<OWLNamedIndividual> intermediates = reasoner.getObjectPropertyValues(individual, prop1).getFlattened();
-                                for (OWLNamedIndividual intermediate : intermediates) {
-                                    Set<OWLNamedIndividual> targets = reasoner.getObjectPropertyValues(intermediate, prop2).getFlattened();
-                                    if (!targets.isEmpty()) {
-                                        // Found a property chain path!
-                                        List<OWLAxiom> axioms = Arrays.asList(
-                                                dataFactory.getOWLObjectPropertyAssertionAxiom(prop1, individual, intermediate),
-                                                dataFactory.getOWLObjectPropertyAssertionAxiom(prop2, intermediate, targets.iterator().next()),
-                                                chainAxiom,
-                                                domainAxiom
-                                        );
-
-                                        List<String> justifications = Arrays.asList(
-                                                getShortForm(individual) + " " + getShortForm(prop1) + " " + getShortForm(intermediate),
-                                                getShortForm(intermediate) + " " + getShortForm(prop2) + " " + getShortForm(targets.iterator().next()),
-                                                getShortForm(prop1) + " ∘ " + getShortForm(prop2) + " SubPropertyOf " + getShortForm(domainProp),
-                                                getShortForm(domainProp) + " Domain " + getShortForm(clazz)
-                                        );
-
-                                        ExplanationPath path = new ExplanationPath(
-                                                axioms,
-                                                String.format("Property chain reasoning: %s ∘ %s → %s domain",
-                                                        getShortForm(prop1), getShortForm(prop2), getShortForm(domainProp)),
-                                                ExplanationType.PROPERTY_CHAIN,
-                                                axioms.size()
-                                        );
-                                        path.setInferred(true);
-                                        path.setJustifications(justifications);
-                                        allPaths.add(path);
-
-                                        LOGGER.debug("Added property chain path: {} ∘ {} → {} domain",
-                                                getShortForm(prop1), getShortForm(prop2), getShortForm(domainProp));
-                                    }
-                                }
+            for (OWLObjectPropertyDomainAxiom domainAxiom : axiomIndex.getDomainAxioms(clazz)) {
+                OWLObjectProperty domainProp = domainAxiom.getProperty().asOWLObjectProperty();
+
+                // Check if this property is the result of a property chain
+                for (OWLSubPropertyChainOfAxiom chainAxiom : axiomIndex.getChainAxioms(domainProp)) {
+                    List<OWLObjectPropertyExpression> chain = chainAxiom.getPropertyChain();
+
+                    // Find instances where this chain applies
+                    if (chain.size() == 2) {
+                        OWLObjectProperty prop1 = chain.get(0).asOWLObjectProperty();
+                        OWLObjectProperty prop2 = chain.get(1).asOWLObjectProperty();
+
+                        Set<OWLNamedIndividual> intermediates = queries.getObjectPropertyValues(individual, prop1);
+                        for (OWLNamedIndividual intermediate : intermediates) {
+                            Set<OWLNamedIndividual> targets = queries.getObjectPropertyValues(intermediate, prop2);
+                            if (!targets.isEmpty()) {
+                                // Found a property chain path!
+                                List<OWLAxiom> axioms = Arrays.asList(
+                                        dataFactory.getOWLObjectPropertyAssertionAxiom(prop1, individual, intermediate),
+                                        dataFactory.getOWLObjectPropertyAssertionAxiom(prop2, intermediate, targets.iterator().next()),
+                                        chainAxiom,
+                                        domainAxiom
+                                );
+
+                                List<String> justifications = Arrays.asList(
+                                        getShortForm(individual) + " " + getShortForm(prop1) + " " + getShortForm(intermediate),
+                                        getShortForm(intermediate) + " " + getShortForm(prop2) + " " + getShortForm(targets.iterator().next()),
+                                        getShortForm(prop1) + " ∘ " + getShortForm(prop2) + " SubPropertyOf " + getShortForm(domainProp),
+                                        getShortForm(domainProp) + " Domain " + getShortForm(clazz)
+                                );
+
+                                ExplanationPath path = new ExplanationPath(
+                                        axioms,
+                                        String.format("Property chain reasoning: %s ∘ %s → %s domain",
+                                                getShortForm(prop1), getShortForm(prop2), getShortForm(domainProp)),
+                                        ExplanationType.PROPERTY_CHAIN,
+                                        axioms.size()
+                                );
+                                path.setInferred(true);
+                                path.setJustifications(justifications);
+                                allPaths.add(path);
+
+                                LOGGER.debug("Added property chain path: {} ∘ {} → {} domain",
+                                        getShortForm(prop1), getShortForm(prop2), getShortForm(domainProp));
                             }
                         }
                     }
@@ -1071,46 +1245,42 @@ public class ComprehensiveExplanationService {
     private void addInversePropertyClassPaths(OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> allPaths) {
         try {
             // Look for domain/range axioms that could be triggered by inverse properties
-            for (OWLObjectPropertyDomainAxiom domainAxiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
-                if (domainAxiom.getDomain().equals(clazz)) {
-                    OWLObjectProperty domainProp = domainAxiom.getProperty().asOWLObjectProperty();
-
-                    // Check if this property has an inverse
-                    for (OWLInverseObjectPropertiesAxiom invAxiom : ontology.getInverseObjectPropertyAxioms(domainProp)) {
-                        for (OWLObjectPropertyExpression invPropExpr : invAxiom.getProperties()) {
-                            if (!invPropExpr.equals(domainProp) && !invPropExpr.isAnonymous()) {
-                                OWLObjectProperty invProp = invPropExpr.asOWLObjectProperty();
-
-                                // Check if someone has the inverse property pointing to our individual
-                                for (OWLNamedIndividual other : ontology.getIndividualsInSignature()) {
-                                    if (reasoner.getObjectPropertyValues(other, invProp).getFlattened().contains(individual)) {
-                                        List<OWLAxiom> axioms = Arrays.asList(
-                                                dataFactory.getOWLObjectPropertyAssertionAxiom(invProp, other, individual),
-                                                invAxiom,
-                                                domainAxiom
-                                        );
-
-                                        List<String> justifications = Arrays.asList(
-                                                getShortForm(other) + " " + getShortForm(invProp) + " " + getShortForm(individual),
-                                                getShortForm(domainProp) + " InverseOf " + getShortForm(invProp),
-                                                getShortForm(domainProp) + " Domain " + getShortForm(clazz)
-                                        );
-
-                                        ExplanationPath path = new ExplanationPath(
-                                                axioms,
-                                                String.format("Inverse property reasoning: %s via %s",
-                                                        getShortForm(domainProp), getShortForm(invProp)),
-                                                ExplanationType.INVERSE_PROPERTY,
-                                                axioms.size()
-                                        );
-                                        path.setInferred(true);
-                                        path.setJustifications(justifications);
-                                        allPaths.add(path);
-
-                                        LOGGER.debug("Added inverse property path: {} via {}",
-                                                getShortForm(domainProp), getShortForm(invProp));
-                                    }
-                                }
+            for (OWLObjectPropertyDomainAxiom domainAxiom : axiomIndex.getDomainAxioms(clazz)) {
+                OWLObjectProperty domainProp = domainAxiom.getProperty().asOWLObjectProperty();
+
+                // Check if this property has an inverse
+                for (OWLInverseObjectPropertiesAxiom invAxiom : axiomIndex.getInverseAxioms(domainProp)) {
+                    for (OWLObjectPropertyExpression invPropExpr : invAxiom.getProperties()) {
+                        if (!invPropExpr.equals(domainProp) && !invPropExpr.isAnonymous()) {
+                            OWLObjectProperty invProp = invPropExpr.asOWLObjectProperty();
+
+                            // Check if someone has the inverse property pointing to our individual
+                            for (OWLNamedIndividual other : reverseIndex.getSubjects(invProp, individual)) {
+                                List<OWLAxiom> axioms = Arrays.asList(
+                                        dataFactory.getOWLObjectPropertyAssertionAxiom(invProp, other, individual),
+                                        invAxiom,
+                                        domainAxiom
+                                );
+
+                                List<String> justifications = Arrays.asList(
+                                        getShortForm(other) + " " + getShortForm(invProp) + " " + getShortForm(individual),
+                                        getShortForm(domainProp) + " InverseOf " + getShortForm(invProp),
+                                        getShortForm(domainProp) + " Domain " + getShortForm(clazz)
+                                );
+
+                                ExplanationPath path = new ExplanationPath(
+                                        axioms,
+                                        String.format("Inverse property reasoning: %s via %s",
+                                                getShortForm(domainProp), getShortForm(invProp)),
+                                        ExplanationType.INVERSE_PROPERTY,
+                                        axioms.size()
+                                );
+                                path.setInferred(true);
+                                path.setJustifications(justifications);
+                                allPaths.add(path);
+
+                                LOGGER.debug("Added inverse property path: {} via {}",
+                                        getShortForm(domainProp), getShortForm(invProp));
                             }
                         }
                     }
@@ -1133,7 +1303,7 @@ public class ComprehensiveExplanationService {
                 // Check if this functional property has a range that relates to our target class
                 for (OWLObjectPropertyRangeAxiom rangeAxiom : ontology.getObjectPropertyRangeAxioms(funcProp)) {
                     if (rangeAxiom.getRange().equals(clazz)) {
-                        Set<OWLNamedIndividual> values = reasoner.getObjectPropertyValues(individual, funcProp).getFlattened();
+                        Set<OWLNamedIndividual> values = queries.getObjectPropertyValues(individual, funcProp);
 
                         if (!values.isEmpty()) {
                             // Since it's functional, there should be exactly one value
@@ -1183,34 +1353,32 @@ public class ComprehensiveExplanationService {
                 for (OWLObjectPropertyDomainAxiom domainAxiom : ontology.getObjectPropertyDomainAxioms(symProp)) {
                     if (domainAxiom.getDomain().equals(clazz)) {
                         // Check if someone else has this property pointing to our individual
-                        for (OWLNamedIndividual other : ontology.getIndividualsInSignature()) {
-                            if (!other.equals(individual) &&
-                                    reasoner.getObjectPropertyValues(other, symProp).getFlattened().contains(individual)) {
+                        for (OWLNamedIndividual other : reverseIndex.getSubjects(symProp, individual)) {
+                            if (other.equals(individual)) continue;
 
-                                List<OWLAxiom> axioms = Arrays.asList(
-                                        dataFactory.getOWLObjectPropertyAssertionAxiom(symProp, other, individual),
-                                        symAxiom,
-                                        domainAxiom
-                                );
+                            List<OWLAxiom> axioms = Arrays.asList(
+                                    dataFactory.getOWLObjectPropertyAssertionAxiom(symProp, other, individual),
+                                    symAxiom,
+                                    domainAxiom
+                            );
 
-                                List<String> justifications = Arrays.asList(
-                                        getShortForm(other) + " " + getShortForm(symProp) + " " + getShortForm(individual),
-                                        "Symmetric: " + getShortForm(symProp),
-                                        getShortForm(symProp) + " Domain " + getShortForm(clazz)
-                                );
+                            List<String> justifications = Arrays.asList(
+                                    getShortForm(other) + " " + getShortForm(symProp) + " " + getShortForm(individual),
+                                    "Symmetric: " + getShortForm(symProp),
+                                    getShortForm(symProp) + " Domain " + getShortForm(clazz)
+                            );
 
-                                ExplanationPath path = new ExplanationPath(
-                                        axioms,
-                                        String.format("Symmetric property reasoning: %s domain", getShortForm(symProp)),
-                                        ExplanationType.SYMMETRIC_PROPERTY,
-                                        axioms.size()
-                                );
-                                path.setInferred(true);
-                                path.setJustifications(justifications);
-                                allPaths.add(path);
+                            ExplanationPath path = new ExplanationPath(
+                                    axioms,
+                                    String.format("Symmetric property reasoning: %s domain", getShortForm(symProp)),
+                                    ExplanationType.SYMMETRIC_PROPERTY,
+                                    axioms.size()
+                            );
+                            path.setInferred(true);
+                            path.setJustifications(justifications);
+                            allPaths.add(path);
 
-                                LOGGER.debug("Added symmetric property path: {} domain", getShortForm(symProp));
-                            }
+                            LOGGER.debug("Added symmetric property path: {} domain", getShortForm(symProp));
                         }
                     }
                 }
@@ -1227,7 +1395,7 @@ public class ComprehensiveExplanationService {
         try {
             // Find all properties that have our individual as subject
             for (OWLObjectProperty property : ontology.getObjectPropertiesInSignature()) {
-                Set<OWLNamedIndividual> values = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+                Set<OWLNamedIndividual> values = queries.getObjectPropertyValues(individual, property);
 
                 if (!values.isEmpty()) {
                     // Check if this property is a subproperty of something with a domain
@@ -1279,36 +1447,33 @@ public class ComprehensiveExplanationService {
     private void addRangeBasedClassPaths(OWLNamedIndividual individual, OWLClass clazz, Set<ExplanationPath> allPaths) {
         try {
             // Check if our individual is the object of some property that has a range restriction
-            for (OWLObjectProperty property : ontology.getObjectPropertiesInSignature()) {
-                for (OWLObjectPropertyRangeAxiom rangeAxiom : ontology.getObjectPropertyRangeAxioms(property)) {
-                    if (rangeAxiom.getRange().equals(clazz)) {
-                        // Find who has this property pointing to our individual
-                        for (OWLNamedIndividual subject : ontology.getIndividualsInSignature()) {
-                            if (reasoner.getObjectPropertyValues(subject, property).getFlattened().contains(individual)) {
-                                List<OWLAxiom> axioms = Arrays.asList(
-                                        dataFactory.getOWLObjectPropertyAssertionAxiom(property, subject, individual),
-                                        rangeAxiom
-                                );
+            for (OWLObjectPropertyRangeAxiom rangeAxiom : axiomIndex.getRangeAxioms(clazz)) {
+                if (rangeAxiom.getProperty().isAnonymous()) continue;
+                OWLObjectProperty property = rangeAxiom.getProperty().asOWLObjectProperty();
 
-                                List<String> justifications = Arrays.asList(
-                                        getShortForm(subject) + " " + getShortForm(property) + " " + getShortForm(individual),
-                                        getShortForm(property) + " Range " + getShortForm(clazz)
-                                );
+                // Find who has this property pointing to our individual
+                for (OWLNamedIndividual subject : reverseIndex.getSubjects(property, individual)) {
+                    List<OWLAxiom> axioms = Arrays.asList(
+                            dataFactory.getOWLObjectPropertyAssertionAxiom(property, subject, individual),
+                            rangeAxiom
+                    );
 
-                                ExplanationPath path = new ExplanationPath(
-                                        axioms,
-                                        String.format("Range reasoning: %s range", getShortForm(property)),
-                                        ExplanationType.DOMAIN_RANGE,
-                                        axioms.size()
-                                );
-                                path.setInferred(true);
-                                path.setJustifications(justifications);
-                                allPaths.add(path);
+                    List<String> justifications = Arrays.asList(
+                            getShortForm(subject) + " " + getShortForm(property) + " " + getShortForm(individual),
+                            getShortForm(property) + " Range " + getShortForm(clazz)
+                    );
 
-                                LOGGER.debug("Added range-based path: {} range", getShortForm(property));
-                            }
-                        }
-                    }
+                    ExplanationPath path = new ExplanationPath(
+                            axioms,
+                            String.format("Range reasoning: %s range", getShortForm(property)),
+                            ExplanationType.DOMAIN_RANGE,
+                            axioms.size()
+                    );
+                    path.setInferred(true);
+                    path.setJustifications(justifications);
+                    allPaths.add(path);
+
+                    LOGGER.debug("Added range-based path: {} range", getShortForm(property));
                 }
             }
         } catch (Exception e) {
@@ -1338,7 +1503,7 @@ public class ComprehensiveExplanationService {
                         for (OWLClassExpression component : intersection.getOperands()) {
                             if (component instanceof OWLClass) {
                                 OWLClass componentClass = (OWLClass) component;
-                                if (reasoner.getTypes(individual, false).getFlattened().contains(componentClass)) {
+                                if (queries.getTypes(individual, false).contains(componentClass)) {
                                     OWLClassAssertionAxiom assertion = dataFactory.getOWLClassAssertionAxiom(componentClass, individual);
                                     axioms.add(assertion);
                                     justifications.add(getShortForm(individual) + " rdf:type " + getShortForm(componentClass));
@@ -1353,13 +1518,13 @@ public class ComprehensiveExplanationService {
                                     OWLObjectProperty prop = someRestriction.getProperty().asOWLObjectProperty();
                                     OWLClassExpression filler = someRestriction.getFiller();
 
-                                    Set<OWLNamedIndividual> propValues = reasoner.getObjectPropertyValues(individual, prop).getFlattened();
+                                    Set<OWLNamedIndividual> propValues = queries.getObjectPropertyValues(individual, prop);
                                     boolean foundWitness = false;
 
                                     for (OWLNamedIndividual value : propValues) {
                                         if (!filler.isAnonymous()) {
                                             OWLClass fillerClass = filler.asOWLClass();
-                                            if (reasoner.getTypes(value, false).getFlattened().contains(fillerClass)) {
+                                            if (queries.getTypes(value, false).contains(fillerClass)) {
                                                 axioms.add(dataFactory.getOWLObjectPropertyAssertionAxiom(prop, individual, value));
                                                 axioms.add(dataFactory.getOWLClassAssertionAxiom(fillerClass, value));
                                                 justifications.add(getShortForm(individual) + " " + getShortForm(prop) + " " + getShortForm(value));
@@ -1705,7 +1870,7 @@ public class ComprehensiveExplanationService {
                     OWLClass componentClass = component.asOWLClass();
 
                     // Check if individual is a member of this component class
-                    if (reasoner.getTypes(individual, false).getFlattened().contains(componentClass)) {
+                    if (queries.getTypes(individual, false).contains(componentClass)) {
                         // Try to find how individual became member of component class
                         OWLClassAssertionAxiom componentAssertion = dataFactory.getOWLClassAssertionAxiom(componentClass, individual);
 
@@ -1753,7 +1918,7 @@ public class ComprehensiveExplanationService {
             OWLClassExpression filler = restriction.getFiller();
 
             // Find all property values for this individual
-            Set<OWLNamedIndividual> propertyValues = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+            Set<OWLNamedIndividual> propertyValues = queries.getObjectPropertyValues(individual, property);
 
             for (OWLNamedIndividual value : propertyValues) {
                 boolean satisfiesFiller = false;
@@ -1763,7 +1928,7 @@ public class ComprehensiveExplanationService {
                 // Check if value satisfies the filler
                 if (!filler.isAnonymous()) {
                     OWLClass fillerClass = filler.asOWLClass();
-                    if (reasoner.getTypes(value, false).getFlattened().contains(fillerClass)) {
+                    if (queries.getTypes(value, false).contains(fillerClass)) {
                         satisfiesFiller = true;
 
                         // Add the property assertion
@@ -1814,7 +1979,7 @@ public class ComprehensiveExplanationService {
             OWLObjectProperty property = restriction.getProperty().asOWLObjectProperty();
             OWLClassExpression filler = restriction.getFiller();
 
-            Set<OWLNamedIndividual> propertyValues = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+            Set<OWLNamedIndividual> propertyValues = queries.getObjectPropertyValues(individual, property);
 
             if (propertyValues.isEmpty()) {
                 // Vacuous satisfaction - no property values, so universal restriction is satisfied
@@ -1844,7 +2009,7 @@ public class ComprehensiveExplanationService {
                 for (OWLNamedIndividual value : propertyValues) {
                     if (!filler.isAnonymous()) {
                         OWLClass fillerClass = filler.asOWLClass();
-                        if (!reasoner.getTypes(value, false).getFlattened().contains(fillerClass)) {
+                        if (!queries.getTypes(value, false).contains(fillerClass)) {
                             allSatisfy = false;
                             break;
                         } else {
@@ -1895,7 +2060,7 @@ public class ComprehensiveExplanationService {
                         // Check if individual is member of equivalent class
                         OWLClassAssertionAxiom membershipAxiom = dataFactory.getOWLClassAssertionAxiom(equivClass, individual);
                         if (ontology.containsAxiom(membershipAxiom) ||
-                                reasoner.getTypes(individual, false).getFlattened().contains(equivClass)) {
+                                queries.getTypes(individual, false).contains(equivClass)) {
 
                             List<String> justifications = Arrays.asList(
                                     getShortForm(individual) + " rdf:type " + getShortForm(equivClass),
@@ -1959,12 +2124,12 @@ public class ComprehensiveExplanationService {
             OWLObjectProperty property = restriction.getProperty().asOWLObjectProperty();
             OWLClassExpression filler = restriction.getFiller();
 
-            Set<OWLNamedIndividual> propertyValues = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+            Set<OWLNamedIndividual> propertyValues = queries.getObjectPropertyValues(individual, property);
 
             for (OWLNamedIndividual value : propertyValues) {
                 if (!filler.isAnonymous()) {
                     OWLClass fillerClass = filler.asOWLClass();
-                    if (reasoner.getTypes(value, false).getFlattened().contains(fillerClass)) {
+                    if (queries.getTypes(value, false).contains(fillerClass)) {
                         List<String> justifications = Arrays.asList(
                                 getShortForm(individual) + " " + getShortForm(property) + " " + getShortForm(value),
                                 getShortForm(value) + " rdf:type " + getShortForm(fillerClass),
@@ -2006,7 +2171,7 @@ public class ComprehensiveExplanationService {
             OWLObjectProperty property = restriction.getProperty().asOWLObjectProperty();
             OWLClassExpression filler = restriction.getFiller();
 
-            Set<OWLNamedIndividual> propertyValues = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+            Set<OWLNamedIndividual> propertyValues = queries.getObjectPropertyValues(individual, property);
 
             if (propertyValues.isEmpty()) {
                 // Vacuous satisfaction
@@ -2036,11 +2201,11 @@ public class ComprehensiveExplanationService {
     private void addDomainRangeClassPaths(OWLNamedIndividual individual, OWLClass targetClass, Set<ExplanationPath> allPaths) {
         try {
             // Check if class membership comes from property domain
-            for (OWLObjectPropertyDomainAxiom domainAxiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
-                if (domainAxiom.getDomain().equals(targetClass) && !domainAxiom.getProperty().isAnonymous()) {
+            for (OWLObjectPropertyDomainAxiom domainAxiom : axiomIndex.getDomainAxioms(targetClass)) {
+                if (!domainAxiom.getProperty().isAnonymous()) {
                     OWLObjectProperty property = domainAxiom.getProperty().asOWLObjectProperty();
 
-                    Set<OWLNamedIndividual> propertyValues = reasoner.getObjectPropertyValues(individual, property).getFlattened();
+                    Set<OWLNamedIndividual> propertyValues = queries.getObjectPropertyValues(individual, property);
                     if (!propertyValues.isEmpty()) {
                         OWLNamedIndividual someValue = propertyValues.iterator().next();
 
@@ -2102,7 +2267,7 @@ public class ComprehensiveExplanationService {
             for (OWLClassExpression component : intersection.getOperands()) {
                 if (!component.isAnonymous()) {
                     OWLClass componentClass = component.asOWLClass();
-                    if (reasoner.getTypes(individual, false).getFlattened().contains(componentClass)) {
+                    if (queries.getTypes(individual, false).contains(componentClass)) {
                         axioms.add(dataFactory.getOWLClassAssertionAxiom(componentClass, individual));
                         justifications.add(getShortForm(individual) + " rdf:type " + getShortForm(componentClass));
                     } else {
@@ -2136,7 +2301,7 @@ public class ComprehensiveExplanationService {
             for (OWLClassExpression component : union.getOperands()) {
                 if (!component.isAnonymous()) {
                     OWLClass componentClass = component.asOWLClass();
-                    if (reasoner.getTypes(individual, false).getFlattened().contains(componentClass)) {
+                    if (queries.getTypes(individual, false).contains(componentClass)) {
                         List<String> justifications = Arrays.asList(
                                 getShortForm(individual) + " rdf:type " + getShortForm(componentClass),
                                 "Union class membership via " + getShortForm(componentClass)
@@ -2172,8 +2337,8 @@ public class ComprehensiveExplanationService {
     private void addDirectPropertyAssertionPaths(OWLNamedIndividual subject, OWLObjectProperty property,
                                                  OWLNamedIndividual object, Set<ExplanationPath> allPaths) {
         try {
-            OWLObjectPropertyAssertionAxiom directAssertion = dataFactory.getOWLObjectPropertyAssertionAxiom(property, subject, object);
-            if (ontology.containsAxiom(directAssertion)) {
+            if (axiomIndex.hasAssertion(property, subject, object)) {
+                OWLObjectPropertyAssertionAxiom directAssertion = dataFactory.getOWLObjectPropertyAssertionAxiom(property, subject, object);
                 List<String> justifications = Arrays.asList(
                         getShortForm(subject) + " " + getShortForm(property) + " " + getShortForm(object)
                 );
@@ -2202,7 +2367,7 @@ public class ComprehensiveExplanationService {
                 OWLObjectPropertyExpression subProp = subPropAxiom.getSubProperty();
                 if (!subProp.isAnonymous()) {
                     OWLObjectProperty subProperty = subProp.asOWLObjectProperty();
-                    if (reasoner.getObjectPropertyValues(subject, subProperty).getFlattened().contains(object)) {
+                    if (queries.getObjectPropertyValues(subject, subProperty).contains(object)) {
                         List<String> justifications = Arrays.asList(
                                 getShortForm(subject) + " " + getShortForm(subProperty) + " " + getShortForm(object),
                                 getShortForm(subProperty) + " rdfs:subPropertyOf " + getShortForm(property)
@@ -2237,7 +2402,7 @@ public class ComprehensiveExplanationService {
         try {
             // Symmetric property reasoning
             for (OWLSymmetricObjectPropertyAxiom symAxiom : ontology.getSymmetricObjectPropertyAxioms(property)) {
-                if (reasoner.getObjectPropertyValues(object, property).getFlattened().contains(subject)) {
+                if (queries.getObjectPropertyValues(object, property).contains(subject)) {
                     List<String> justifications = Arrays.asList(
                             getShortForm(object) + " " + getShortForm(property) + " " + getShortForm(subject),
                             "SymmetricObjectProperty(" + getShortForm(property) + ")"
@@ -2264,11 +2429,11 @@ public class ComprehensiveExplanationService {
 
             // Transitive property reasoning
             for (OWLTransitiveObjectPropertyAxiom transAxiom : ontology.getTransitiveObjectPropertyAxioms(property)) {
-                Set<OWLNamedIndividual> intermediates = reasoner.getObjectPropertyValues(subject, property).getFlattened();
+                Set<OWLNamedIndividual> intermediates = queries.getObjectPropertyValues(subject, property);
 
                 for (OWLNamedIndividual intermediate : intermediates) {
                     if (!intermediate.equals(object) &&
-                            reasoner.getObjectPropertyValues(intermediate, property).getFlattened().contains(object)) {
+                            queries.getObjectPropertyValues(intermediate, property).contains(object)) {
 
                         List<String> justifications = Arrays.asList(
                                 getShortForm(subject) + " " + getShortForm(property) + " " + getShortForm(intermediate),
@@ -2299,11 +2464,11 @@ public class ComprehensiveExplanationService {
             }
 
             // Inverse property reasoning
-            for (OWLInverseObjectPropertiesAxiom invAxiom : ontology.getInverseObjectPropertyAxioms(property)) {
+            for (OWLInverseObjectPropertiesAxiom invAxiom : axiomIndex.getInverseAxioms(property)) {
                 for (OWLObjectPropertyExpression invProp : invAxiom.getProperties()) {
                     if (!invProp.equals(property) && !invProp.isAnonymous()) {
                         OWLObjectProperty inverseProperty = invProp.asOWLObjectProperty();
-                        if (reasoner.getObjectPropertyValues(object, inverseProperty).getFlattened().contains(subject)) {
+                        if (queries.getObjectPropertyValues(object, inverseProperty).contains(subject)) {
                             List<String> justifications = Arrays.asList(
                                     getShortForm(object) + " " + getShortForm(inverseProperty) + " " + getShortForm(subject),
                                     getShortForm(property) + " owl:inverseOf " + getShortForm(inverseProperty)
@@ -2337,44 +2502,42 @@ public class ComprehensiveExplanationService {
     private void addPropertyChainReasoningPaths(OWLNamedIndividual subject, OWLObjectProperty property,
                                                 OWLNamedIndividual object, Set<ExplanationPath> allPaths) {
         try {
-            for (OWLSubPropertyChainOfAxiom chainAxiom : ontology.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF)) {
-                if (chainAxiom.getSuperProperty().equals(property)) {
-                    List<OWLObjectPropertyExpression> chain = chainAxiom.getPropertyChain();
+            for (OWLSubPropertyChainOfAxiom chainAxiom : axiomIndex.getChainAxioms(property)) {
+                List<OWLObjectPropertyExpression> chain = chainAxiom.getPropertyChain();
 
-                    // Find chain path (simplified for 2-property chains)
-                    if (chain.size() == 2 && !chain.get(0).isAnonymous() && !chain.get(1).isAnonymous()) {
-                        OWLObjectProperty prop1 = chain.get(0).asOWLObjectProperty();
-                        OWLObjectProperty prop2 = chain.get(1).asOWLObjectProperty();
+                // Find chain path (simplified for 2-property chains)
+                if (chain.size() == 2 && !chain.get(0).isAnonymous() && !chain.get(1).isAnonymous()) {
+                    OWLObjectProperty prop1 = chain.get(0).asOWLObjectProperty();
+                    OWLObjectProperty prop2 = chain.get(1).asOWLObjectProperty();
 
-                        Set<OWLNamedIndividual> intermediates = reasoner.getObjectPropertyValues(subject, prop1).getFlattened();
+                    Set<OWLNamedIndividual> intermediates = queries.getObjectPropertyValues(subject, prop1);
 
-                        for (OWLNamedIndividual intermediate : intermediates) {
-                            if (reasoner.getObjectPropertyValues(intermediate, prop2).getFlattened().contains(object)) {
-                                List<String> justifications = Arrays.asList(
-                                        getShortForm(subject) + " " + getShortForm(prop1) + " " + getShortForm(intermediate),
-                                        getShortForm(intermediate) + " " + getShortForm(prop2) + " " + getShortForm(object),
-                                        "PropertyChain(" + getShortForm(prop1) + " ∘ " + getShortForm(prop2) + ") ⊑ " + getShortForm(property)
-                                );
+                    for (OWLNamedIndividual intermediate : intermediates) {
+                        if (queries.getObjectPropertyValues(intermediate, prop2).contains(object)) {
+                            List<String> justifications = Arrays.asList(
+                                    getShortForm(subject) + " " + getShortForm(prop1) + " " + getShortForm(intermediate),
+                                    getShortForm(intermediate) + " " + getShortForm(prop2) + " " + getShortForm(object),
+                                    "PropertyChain(" + getShortForm(prop1) + " ∘ " + getShortForm(prop2) + ") ⊑ " + getShortForm(property)
+                            );
 
-                                List<OWLAxiom> axioms = Arrays.asList(
-                                        chainAxiom,
-                                        dataFactory.getOWLObjectPropertyAssertionAxiom(prop1, subject, intermediate),
-                                        dataFactory.getOWLObjectPropertyAssertionAxiom(prop2, intermediate, object)
-                                );
+                            List<OWLAxiom> axioms = Arrays.asList(
+                                    chainAxiom,
+                                    dataFactory.getOWLObjectPropertyAssertionAxiom(prop1, subject, intermediate),
+                                    dataFactory.getOWLObjectPropertyAssertionAxiom(prop2, intermediate, object)
+                            );
 
-                                ExplanationPath path = new ExplanationPath(
-                                        axioms,
-                                        "Property chain reasoning via " + getShortForm(intermediate),
-                                        ExplanationType.PROPERTY_CHAIN,
-                                        axioms.size()
-                                );
-                                path.setInferred(true);
-                                path.setJustifications(justifications);
-                                allPaths.add(path);
+                            ExplanationPath path = new ExplanationPath(
+                                    axioms,
+                                    "Property chain reasoning via " + getShortForm(intermediate),
+                                    ExplanationType.PROPERTY_CHAIN,
+                                    axioms.size()
+                            );
+                            path.setInferred(true);
+                            path.setJustifications(justifications);
+                            allPaths.add(path);
 
-                                LOGGER.debug("Added property chain path via {}", intermediate);
-                                break; // One chain is sufficient
-                            }
+                            LOGGER.debug("Added property chain path via {}", intermediate);
+                            break; // One chain is sufficient
                         }
                     }
                 }
@@ -1,7 +1,6 @@
 // com/example/explanation/ExplanationFormatter.java
 package com.example.explanation;
 
-import com.example.processing.GlobalQueryTracker;
 import com.example.util.OntologyUtils;
 import com.example.util.URIUtils;
 import org.semanticweb.owlapi.model.OWLAxiom;
@@ -20,37 +19,78 @@ public class ExplanationFormatter {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExplanationFormatter.class);
 
     /**
-     * Generate the exact JSON format for explanations with proper task ID references and BOTH SPARQL queries
+     * Generate the exact JSON format for explanations with proper task ID references and BOTH SPARQL queries.
+     * allTaskIds are the BIN and MC task IDs generated for this triple.
      */
-    public static String generateExactJSONFormat(String tripleKey, Set<ExplanationPath> paths,
-                                                 EnhancedExplanationTagger tagger) {
-        StringBuilder json = new StringBuilder();
-        String[] parts = OntologyUtils.parseTripleKey(tripleKey);
-
-        if (parts.length != 3) {
-            LOGGER.warn("Invalid triple key format: {}", tripleKey);
-            return "";
+    public static String generateExactJSONFormat(String subject, String predicate, String object,
+                                                 Set<ExplanationPath> paths,
+                                                 EnhancedExplanationTagger tagger,
+                                                 List<String> allTaskIds) {
+        return generateExactJSONFormat(buildRecord(subject, predicate, object, paths, tagger, allTaskIds));
+    }
+
+    /**
+     * Render everything the output needs about one triple: justifications and tag per path,
+     * size range, task IDs and the ASK (plus SELECT if an MC task exists) queries
+     */
+    public static ExplanationRecord buildRecord(String subject, String predicate, String object,
+                                                Set<ExplanationPath> paths,
+                                                EnhancedExplanationTagger tagger,
+                                                List<String> allTaskIds) {
+        List<ExplanationRecord.Explanation> explanations = new ArrayList<>(paths.size());
+        int minSize = Integer.MAX_VALUE;
+        int maxSize = Integer.MIN_VALUE;
+        for (ExplanationPath path : paths) {
+            explanations.add(new ExplanationRecord.Explanation(
+                    extractJustificationsFromPath(path), tagger.tagExplanation(path)));
+            minSize = Math.min(minSize, path.getComplexity());
+            maxSize = Math.max(maxSize, path.getComplexity());
+        }
+        if (paths.isEmpty()) {
+            minSize = 1;
+            maxSize = 1;
         }
 
-        json.append("  \"").append(tripleKey).append("\" : {\n");
+        List<String> sparqlQueries = new ArrayList<>(2);
+        sparqlQueries.add("ASK WHERE { <" + URIUtils.getFullURI(subject) + "> <" + URIUtils.getFullURI(predicate)
+                + "> <" + URIUtils.getFullURI(object) + "> }");
+
+        // Add SELECT query if MC task exists
+        boolean hasMCTask = allTaskIds.stream().anyMatch(taskId -> taskId.contains("-MC"));
+        if (hasMCTask) {
+            sparqlQueries.add("SELECT ?x WHERE { <" + URIUtils.getFullURI(subject)
+                    + "> <" + URIUtils.getFullURI(predicate) + "> ?x }");
+        }
+
+        return new ExplanationRecord(subject, predicate, object, explanations, minSize, maxSize,
+                new ArrayList<>(allTaskIds), sparqlQueries);
+    }
+
+    /**
+     * Render a record as one "key" : { ... } member of the Explanations.json object
+     */
+    public static String generateExactJSONFormat(ExplanationRecord record) {
+        StringBuilder json = new StringBuilder(512);
+
+        json.append("  \"").append(record.getTripleKey()).append("\" : {\n");
 
         // Inferred section uses short forms
         json.append("    \"inferred\" : {\n");
-        json.append("      \"subject\" : \"").append(parts[0]).append("\",\n");
-        json.append("      \"predicate\" : \"").append(parts[1]).append("\",\n");
-        json.append("      \"object\" : \"").append(parts[2]).append("\"\n");
+        json.append("      \"subject\" : \"").append(record.getSubject()).append("\",\n");
+        json.append("      \"predicate\" : \"").append(record.getPredicate()).append("\",\n");
+        json.append("      \"object\" : \"").append(record.getObject()).append("\"\n");
         json.append("    },\n");
 
         // Explanations section
         json.append("    \"explanations\" : [ ");
-        List<ExplanationPath> pathList = new ArrayList<>(paths);
-        for (int i = 0; i < pathList.size(); i++) {
-            ExplanationPath path = pathList.get(i);
+        List<ExplanationRecord.Explanation> explanations = record.getExplanations();
+        for (int i = 0; i < explanations.size(); i++) {
+            ExplanationRecord.Explanation explanation = explanations.get(i);
 
             json.append("[ ");
 
             // Add all justification axioms for this path
-            List<String> justifications = extractJustificationsFromPath(path);
+            List<String> justifications = explanation.getJustifications();
             for (int j = 0; j < justifications.size(); j++) {
                 json.append("\"").append(OntologyUtils.escapeJson(justifications.get(j))).append("\"");
                 if (j < justifications.size() - 1) {
@@ -59,33 +99,29 @@ public class ExplanationFormatter {
             }
 
             // Add the tag for this specific path
-            String pathTag = tagger.tagExplanation(path);
-            if (!pathTag.isEmpty()) {
-                json.append(", \"TAG:").append(pathTag).append("\"");
+            if (!explanation.getTag().isEmpty()) {
+                json.append(", \"TAG:").append(explanation.getTag()).append("\"");
             }
 
             json.append(" ]");
-            if (i < pathList.size() - 1) {
+            if (i < explanations.size() - 1) {
                 json.append(", ");
             }
         }
         json.append(" ],\n");
 
         // Size section
-        if (!paths.isEmpty()) {
-            int minSize = paths.stream().mapToInt(ExplanationPath::getComplexity).min().orElse(1);
-            int maxSize = paths.stream().mapToInt(ExplanationPath::getComplexity).max().orElse(1);
-
+        if (!explanations.isEmpty()) {
             json.append("    \"size\" : {\n");
-            json.append("      \"min\" : ").append(minSize).append(",\n");
-            json.append("      \"max\" : ").append(maxSize).append("\n");
+            json.append("      \"min\" : ").append(record.getMinSize()).append(",\n");
+            json.append("      \"max\" : ").append(record.getMaxSize()).append("\n");
             json.append("    },\n");
         }
 
-        json.append("    \"explanationCount\" : ").append(paths.size()).append(",\n");
+        json.append("    \"explanationCount\" : ").append(record.getExplanationCount()).append(",\n");
 
-        // Task IDs section - get ALL task IDs for this triple (both BIN and MC)
-        List<String> allTaskIds = GlobalQueryTracker.getTaskIds(tripleKey);
+        // Task IDs section - ALL task IDs for this triple (both BIN and MC)
+        List<String> allTaskIds = record.getTaskIds();
         json.append("    \"taskIds\" : [ ");
         for (int i = 0; i < allTaskIds.size(); i++) {
             json.append("\"").append(allTaskIds.get(i)).append("\"");
@@ -97,19 +133,13 @@ public class ExplanationFormatter {
 
         // SPARQL queries section - include BOTH ASK and SELECT queries
         json.append("    \"sparqlQueries\" : [ ");
-
-        // Always include the ASK query
-        json.append("\"ASK WHERE { <").append(URIUtils.getFullURI(parts[0]))
-                .append("> <").append(URIUtils.getFullURI(parts[1])).append("> <")
-                .append(URIUtils.getFullURI(parts[2])).append("> }\"");
-
-        // Add SELECT query if MC task exists
-        boolean hasMCTask = allTaskIds.stream().anyMatch(taskId -> taskId.contains("-MC"));
-        if (hasMCTask) {
-            json.append(", \"SELECT ?x WHERE { <").append(URIUtils.getFullURI(parts[0]))
-                    .append("> <").append(URIUtils.getFullURI(parts[1])).append("> ?x }\"");
+        List<String> sparqlQueries = record.getSparqlQueries();
+        for (int i = 0; i < sparqlQueries.size(); i++) {
+            json.append("\"").append(sparqlQueries.get(i)).append("\"");
+            if (i < sparqlQueries.size() - 1) {
+                json.append(", ");
+            }
         }
-
         json.append(" ]\n");
 
         json.append("  }");
@@ -0,0 +1,84 @@
+// com/example/explanation/ExplanationRecord.java
+package com.example.explanation;
+
+import com.example.util.OntologyUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fully rendered explanation output for one inferred triple: justification strings, tags, task IDs and
+ * SPARQL queries. Output services serialize it in their own format (single JSON object or JSON Lines).
+ * Immutable.
+ */
+public final class ExplanationRecord {
+
+    private final String subject;
+    private final String predicate;
+    private final String object;
+    private final List<Explanation> explanations;
+    private final int minSize;
+    private final int maxSize;
+    private final List<String> taskIds;
+    private final List<String> sparqlQueries;
+
+    public ExplanationRecord(String subject, String predicate, String object,
+                             List<Explanation> explanations, int minSize, int maxSize,
+                             List<String> taskIds, List<String> sparqlQueries) {
+        this.subject = subject;
+        this.predicate = predicate;
+        this.object = object;
+        this.explanations = Collections.unmodifiableList(explanations);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.taskIds = Collections.unmodifiableList(taskIds);
+        this.sparqlQueries = Collections.unmodifiableList(sparqlQueries);
+    }
+
+    /**
+     * The "s|p|o" key of the triple
+     */
+    public String getTripleKey() {
+        return OntologyUtils.createTripleKey(subject, predicate, object);
+    }
+
+    public String getSubject() { return subject; }
+    public String getPredicate() { return predicate; }
+    public String getObject() { return object; }
+    public List<Explanation> getExplanations() { return explanations; }
+
+    /**
+     * Smallest explanation complexity; only meaningful when there is at least one explanation
+     */
+    public int getMinSize() { return minSize; }
+
+    /**
+     * Largest explanation complexity; only meaningful when there is at least one explanation
+     */
+    public int getMaxSize() { return maxSize; }
+
+    public int getExplanationCount() { return explanations.size(); }
+    public List<String> getTaskIds() { return taskIds; }
+    public List<String> getSparqlQueries() { return sparqlQueries; }
+
+    @Override
+    public String toString() {
+        return "ExplanationRecord{" + getTripleKey() + ", explanations=" + explanations.size() + '}';
+    }
+
+    /**
+     * One explanation path: its justification axioms in readable form and its tag (may be empty)
+     */
+    public static final class Explanation {
+        private final List<String> justifications;
+        private final String tag;
+
+        public Explanation(List<String> justifications, String tag) {
+            this.justifications = Collections.unmodifiableList(justifications);
+            this.tag = tag != null ? tag : "";
+        }
+
+        public List<String> getJustifications() { return justifications; }
+        public String getTag() { return tag; }
+    }
+}
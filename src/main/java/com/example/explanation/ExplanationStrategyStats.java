@@ -0,0 +1,145 @@
+// com/example/explanation/ExplanationStrategyStats.java
+package com.example.explanation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run-wide cost accounting of the explanation strategies. Per strategy it counts the runs, the time spent,
+ * the reasoning queries asked, how many of them had to call the reasoner (the rest were answered from the
+ * query cache or the inferred ABox), the distinct paths produced and how many of those paths survived
+ * deduplication into a returned explanation set. A strategy with a high cost and no kept paths
+ * is dead weight on that corpus.
+ * Thread-safe; one instance is shared by the explanation services of all files of a run.
+ */
+public class ExplanationStrategyStats {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExplanationStrategyStats.class);
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Count one run of a strategy
+     */
+    public void recordRun(String strategy, long nanos, long queries, long reasonerCalls, int pathsProduced) {
+        Counters c = counters.computeIfAbsent(strategy, key -> new Counters());
+        c.runs.increment();
+        c.nanos.add(nanos);
+        c.queries.add(queries);
+        c.reasonerCalls.add(reasonerCalls);
+        c.pathsProduced.add(pathsProduced);
+    }
+
+    /**
+     * Count paths first produced by a strategy that are part of a returned explanation set
+     */
+    public void recordKept(String strategy, long paths) {
+        counters.computeIfAbsent(strategy, key -> new Counters()).pathsKept.add(paths);
+    }
+
+    /**
+     * Costs of every strategy that has run, most expensive first
+     */
+    public Map<String, StrategyCost> getCosts() {
+        List<StrategyCost> costs = new ArrayList<>();
+        counters.forEach((name, c) -> costs.add(new StrategyCost(name, c.runs.sum(), c.nanos.sum(),
+                c.queries.sum(), c.reasonerCalls.sum(), c.pathsProduced.sum(), c.pathsKept.sum())));
+        costs.sort(Comparator.comparingLong(StrategyCost::getTotalNanos).reversed());
+
+        Map<String, StrategyCost> result = new LinkedHashMap<>();
+        for (StrategyCost cost : costs) {
+            result.put(cost.getName(), cost);
+        }
+        return result;
+    }
+
+    /**
+     * Log the cost of every strategy, most expensive first
+     */
+    public void logSummary() {
+        LOGGER.info("=== Explanation Strategy Costs ===");
+        getCosts().values().forEach(cost -> LOGGER.info("{}", cost));
+    }
+
+    /**
+     * Export the costs as CSV, one row per strategy, most expensive first
+     */
+    public void exportCsv(Path file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("strategy,runs,total_ms,mean_us,queries,reasoner_calls,paths_produced,paths_kept");
+            for (StrategyCost cost : getCosts().values()) {
+                writer.printf(Locale.ROOT, "%s,%d,%.3f,%.3f,%d,%d,%d,%d%n",
+                        cost.getName(), cost.getRuns(), cost.getTotalNanos() / 1e6, cost.getMeanNanos() / 1e3,
+                        cost.getQueries(), cost.getReasonerCalls(), cost.getPathsProduced(), cost.getPathsKept());
+            }
+        }
+    }
+
+    /**
+     * Clear all counters
+     */
+    public void clear() {
+        counters.clear();
+    }
+
+    private static final class Counters {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder reasonerCalls = new LongAdder();
+        private final LongAdder pathsProduced = new LongAdder();
+        private final LongAdder pathsKept = new LongAdder();
+    }
+
+    /**
+     * Accumulated cost of one strategy
+     */
+    public static class StrategyCost {
+        private final String name;
+        private final long runs;
+        private final long totalNanos;
+        private final long queries;
+        private final long reasonerCalls;
+        private final long pathsProduced;
+        private final long pathsKept;
+
+        public StrategyCost(String name, long runs, long totalNanos, long queries, long reasonerCalls,
+                            long pathsProduced, long pathsKept) {
+            this.name = name;
+            this.runs = runs;
+            this.totalNanos = totalNanos;
+            this.queries = queries;
+            this.reasonerCalls = reasonerCalls;
+            this.pathsProduced = pathsProduced;
+            this.pathsKept = pathsKept;
+        }
+
+        public String getName() { return name; }
+        public long getRuns() { return runs; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMeanNanos() { return runs == 0 ? 0 : totalNanos / runs; }
+        public long getQueries() { return queries; }
+        public long getReasonerCalls() { return reasonerCalls; }
+        public long getPathsProduced() { return pathsProduced; }
+        public long getPathsKept() { return pathsKept; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: runs=%d, total=%.1f ms, queries=%d, reasonerCalls=%d, produced=%d, kept=%d",
+                    name, runs, totalNanos / 1e6, queries, reasonerCalls, pathsProduced, pathsKept);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+// com/example/explanation/OntologyAxiomIndex.java
+package com.example.explanation;
+
+import org.semanticweb.owlapi.model.*;
+
+import java.util.*;
+
+/**
+ * Immutable per-ontology lookup tables for the explanation strategies.
+ * Built once with a single pass over the relevant axiom types, so strategies can go straight to the
+ * few axioms that mention a class or property instead of rescanning the whole ontology for every
+ * inference. Lists keep the ontology's axiom order and individual sets are sorted, which keeps the
+ * "first match" semantics of the strategies identical to the original scans.
+ */
+public final class OntologyAxiomIndex {
+
+    private final Map<OWLClassExpression, List<OWLObjectPropertyDomainAxiom>> domainAxiomsByClass;
+    private final Map<OWLClassExpression, List<OWLObjectPropertyRangeAxiom>> rangeAxiomsByClass;
+    private final Map<OWLObjectPropertyExpression, List<OWLSubPropertyChainOfAxiom>> chainAxiomsBySuperProperty;
+    private final Map<OWLObjectPropertyExpression, List<OWLInverseObjectPropertiesAxiom>> inverseAxiomsByProperty;
+    private final Map<OWLClass, List<OWLAxiom>> axiomsTargetingClass;
+
+    // Asserted object property facts between named individuals: subject -> property -> objects, and the reverse
+    private final Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> assertedObjects;
+    private final Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> assertedSubjects;
+
+    public OntologyAxiomIndex(OWLOntology ontology) {
+        Map<OWLClassExpression, List<OWLObjectPropertyDomainAxiom>> domains = new HashMap<>();
+        Map<OWLClass, List<OWLAxiom>> targeting = new HashMap<>();
+        for (OWLObjectPropertyDomainAxiom axiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_DOMAIN)) {
+            domains.computeIfAbsent(axiom.getDomain(), k -> new ArrayList<>()).add(axiom);
+        }
+
+        Map<OWLClassExpression, List<OWLObjectPropertyRangeAxiom>> ranges = new HashMap<>();
+        for (OWLObjectPropertyRangeAxiom axiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_RANGE)) {
+            ranges.computeIfAbsent(axiom.getRange(), k -> new ArrayList<>()).add(axiom);
+        }
+
+        Map<OWLObjectPropertyExpression, List<OWLSubPropertyChainOfAxiom>> chains = new HashMap<>();
+        for (OWLSubPropertyChainOfAxiom axiom : ontology.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF)) {
+            chains.computeIfAbsent(axiom.getSuperProperty(), k -> new ArrayList<>()).add(axiom);
+        }
+
+        Map<OWLObjectPropertyExpression, List<OWLInverseObjectPropertiesAxiom>> inverses = new HashMap<>();
+        for (OWLInverseObjectPropertiesAxiom axiom : ontology.getAxioms(AxiomType.INVERSE_OBJECT_PROPERTIES)) {
+            for (OWLObjectPropertyExpression property : axiom.getProperties()) {
+                List<OWLInverseObjectPropertiesAxiom> forProperty = inverses.computeIfAbsent(property, k -> new ArrayList<>());
+                if (!forProperty.contains(axiom)) {
+                    forProperty.add(axiom);
+                }
+            }
+        }
+
+        // Axioms the class-membership visitor can act on: SubClassOf(X, C), EquivalentClasses(.., C, ..),
+        // Domain(p, C) and Range(p, C)
+        for (OWLAxiom axiom : ontology.getAxioms()) {
+            if (axiom instanceof OWLSubClassOfAxiom) {
+                OWLClassExpression superClass = ((OWLSubClassOfAxiom) axiom).getSuperClass();
+                if (!superClass.isAnonymous()) {
+                    targeting.computeIfAbsent(superClass.asOWLClass(), k -> new ArrayList<>()).add(axiom);
+                }
+            } else if (axiom instanceof OWLEquivalentClassesAxiom) {
+                for (OWLClass named : ((OWLEquivalentClassesAxiom) axiom).getNamedClasses()) {
+                    targeting.computeIfAbsent(named, k -> new ArrayList<>()).add(axiom);
+                }
+            } else if (axiom instanceof OWLObjectPropertyDomainAxiom) {
+                OWLClassExpression domain = ((OWLObjectPropertyDomainAxiom) axiom).getDomain();
+                if (!domain.isAnonymous()) {
+                    targeting.computeIfAbsent(domain.asOWLClass(), k -> new ArrayList<>()).add(axiom);
+                }
+            } else if (axiom instanceof OWLObjectPropertyRangeAxiom) {
+                OWLClassExpression range = ((OWLObjectPropertyRangeAxiom) axiom).getRange();
+                if (!range.isAnonymous()) {
+                    targeting.computeIfAbsent(range.asOWLClass(), k -> new ArrayList<>()).add(axiom);
+                }
+            }
+        }
+
+        this.domainAxiomsByClass = freezeLists(domains);
+        this.rangeAxiomsByClass = freezeLists(ranges);
+        this.chainAxiomsBySuperProperty = freezeLists(chains);
+        this.inverseAxiomsByProperty = freezeLists(inverses);
+        this.axiomsTargetingClass = freezeLists(targeting);
+
+        Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> outgoing = new HashMap<>();
+        Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> incoming = new HashMap<>();
+        indexAssertions(ontology, outgoing, incoming);
+        this.assertedObjects = freezeAdjacency(outgoing);
+        this.assertedSubjects = freezeAdjacency(incoming);
+    }
+
+    /**
+     * Reuse the TBox tables of an index built over a shared TBox, and index only the asserted facts of an
+     * ontology that is that TBox plus an ABox. The ontology must not add TBox axioms of its own.
+     */
+    public OntologyAxiomIndex(OntologyAxiomIndex tboxIndex, OWLOntology ontology) {
+        this.domainAxiomsByClass = tboxIndex.domainAxiomsByClass;
+        this.rangeAxiomsByClass = tboxIndex.rangeAxiomsByClass;
+        this.chainAxiomsBySuperProperty = tboxIndex.chainAxiomsBySuperProperty;
+        this.inverseAxiomsByProperty = tboxIndex.inverseAxiomsByProperty;
+        this.axiomsTargetingClass = tboxIndex.axiomsTargetingClass;
+
+        Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> outgoing = new HashMap<>();
+        Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> incoming = new HashMap<>();
+        indexAssertions(ontology, outgoing, incoming);
+        this.assertedObjects = freezeAdjacency(outgoing);
+        this.assertedSubjects = freezeAdjacency(incoming);
+    }
+
+    private static void indexAssertions(OWLOntology ontology,
+            Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> outgoing,
+            Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> incoming) {
+        for (OWLObjectPropertyAssertionAxiom axiom : ontology.getAxioms(AxiomType.OBJECT_PROPERTY_ASSERTION)) {
+            // Same matching rules as ontology.containsAxiom() on an axiom built by the data factory
+            if (axiom.isAnnotated() || axiom.getProperty().isAnonymous()
+                    || !axiom.getSubject().isNamed() || !axiom.getObject().isNamed()) {
+                continue;
+            }
+            OWLObjectProperty property = axiom.getProperty().asOWLObjectProperty();
+            OWLNamedIndividual subject = axiom.getSubject().asOWLNamedIndividual();
+            OWLNamedIndividual object = axiom.getObject().asOWLNamedIndividual();
+
+            outgoing.computeIfAbsent(subject, k -> new HashMap<>())
+                    .computeIfAbsent(property, k -> new TreeSet<>())
+                    .add(object);
+            incoming.computeIfAbsent(object, k -> new HashMap<>())
+                    .computeIfAbsent(property, k -> new TreeSet<>())
+                    .add(subject);
+        }
+    }
+
+    /**
+     * ObjectPropertyDomain axioms whose domain is exactly the given class
+     */
+    public List<OWLObjectPropertyDomainAxiom> getDomainAxioms(OWLClassExpression domain) {
+        return domainAxiomsByClass.getOrDefault(domain, Collections.emptyList());
+    }
+
+    /**
+     * ObjectPropertyRange axioms whose range is exactly the given class
+     */
+    public List<OWLObjectPropertyRangeAxiom> getRangeAxioms(OWLClassExpression range) {
+        return rangeAxiomsByClass.getOrDefault(range, Collections.emptyList());
+    }
+
+    /**
+     * SubPropertyChainOf axioms with the given super property
+     */
+    public List<OWLSubPropertyChainOfAxiom> getChainAxioms(OWLObjectPropertyExpression superProperty) {
+        return chainAxiomsBySuperProperty.getOrDefault(superProperty, Collections.emptyList());
+    }
+
+    /**
+     * InverseObjectProperties axioms mentioning the given property
+     */
+    public List<OWLInverseObjectPropertiesAxiom> getInverseAxioms(OWLObjectPropertyExpression property) {
+        return inverseAxiomsByProperty.getOrDefault(property, Collections.emptyList());
+    }
+
+    /**
+     * SubClassOf, EquivalentClasses, domain and range axioms that can make an individual a member of the class
+     */
+    public List<OWLAxiom> getAxiomsTargetingClass(OWLClass clazz) {
+        return axiomsTargetingClass.getOrDefault(clazz, Collections.emptyList());
+    }
+
+    /**
+     * Objects o with an asserted fact (subject property o), sorted
+     */
+    public SortedSet<OWLNamedIndividual> getAssertedObjects(OWLNamedIndividual subject, OWLObjectProperty property) {
+        return lookup(assertedObjects, subject, property);
+    }
+
+    /**
+     * Subjects s with an asserted fact (s property object), sorted
+     */
+    public SortedSet<OWLNamedIndividual> getAssertedSubjects(OWLObjectProperty property, OWLNamedIndividual object) {
+        return lookup(assertedSubjects, object, property);
+    }
+
+    /**
+     * Check if (subject property object) is asserted in the ontology
+     */
+    public boolean hasAssertion(OWLObjectProperty property, OWLNamedIndividual subject, OWLNamedIndividual object) {
+        return getAssertedObjects(subject, property).contains(object);
+    }
+
+    private static SortedSet<OWLNamedIndividual> lookup(
+            Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> adjacency,
+            OWLNamedIndividual individual, OWLObjectProperty property) {
+        Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>> byProperty = adjacency.get(individual);
+        if (byProperty == null) {
+            return Collections.emptySortedSet();
+        }
+        return byProperty.getOrDefault(property, Collections.emptySortedSet());
+    }
+
+    private static <K, V> Map<K, List<V>> freezeLists(Map<K, List<V>> source) {
+        Map<K, List<V>> frozen = new HashMap<>();
+        for (Map.Entry<K, List<V>> entry : source.entrySet()) {
+            frozen.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> freezeAdjacency(
+            Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> source) {
+        Map<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> frozen = new HashMap<>();
+        for (Map.Entry<OWLNamedIndividual, Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>>> entry : source.entrySet()) {
+            Map<OWLObjectProperty, SortedSet<OWLNamedIndividual>> byProperty = new HashMap<>();
+            for (Map.Entry<OWLObjectProperty, SortedSet<OWLNamedIndividual>> inner : entry.getValue().entrySet()) {
+                byProperty.put(inner.getKey(), Collections.unmodifiableSortedSet(inner.getValue()));
+            }
+            frozen.put(entry.getKey(), Collections.unmodifiableMap(byProperty));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+}
@@ -0,0 +1,58 @@
+// com/example/explanation/ReversePropertyIndex.java
+package com.example.explanation;
+
+import com.example.reasoning.InferredABox;
+import com.example.reasoning.ReasonerQueryCache;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.util.*;
+
+/**
+ * Inverted index (property, object) -> subjects over the inferred object property graph.
+ * Answers "who points at this individual via p?" without asking the reasoner once per individual.
+ * Each property is materialized lazily on first use with one pass over the individuals, so a property
+ * costs |individuals| reasoner calls once per ontology instead of once per explanation.
+ * Subjects are kept in signature order, matching the scans this index replaces.
+ * When the session has materialized its inferred ABox, its reverse table is used directly.
+ * Not thread-safe; use one instance per explanation service.
+ */
+public class ReversePropertyIndex {
+
+    private final ReasonerQueryCache reasoner;
+    private final Set<OWLNamedIndividual> individuals;
+    private final Map<OWLObjectProperty, Map<OWLNamedIndividual, List<OWLNamedIndividual>>> subjectsByProperty = new HashMap<>();
+
+    public ReversePropertyIndex(ReasonerQueryCache reasoner, OWLOntology ontology) {
+        this.reasoner = reasoner;
+        this.individuals = ontology.getIndividualsInSignature();
+    }
+
+    /**
+     * All individuals s such that (s property object) is entailed, asserted facts included
+     */
+    public List<OWLNamedIndividual> getSubjects(OWLObjectProperty property, OWLNamedIndividual object) {
+        InferredABox abox = reasoner.getInferredABox();
+        if (abox != null && abox.covers(property)) {
+            return abox.getSubjects(property, object);
+        }
+
+        Map<OWLNamedIndividual, List<OWLNamedIndividual>> byObject = subjectsByProperty.get(property);
+        if (byObject == null) {
+            byObject = materialize(property);
+            subjectsByProperty.put(property, byObject);
+        }
+        return byObject.getOrDefault(object, Collections.emptyList());
+    }
+
+    private Map<OWLNamedIndividual, List<OWLNamedIndividual>> materialize(OWLObjectProperty property) {
+        Map<OWLNamedIndividual, List<OWLNamedIndividual>> byObject = new HashMap<>();
+        for (OWLNamedIndividual subject : individuals) {
+            for (OWLNamedIndividual object : reasoner.getObjectPropertyValues(subject, property)) {
+                byObject.computeIfAbsent(object, k -> new ArrayList<>()).add(subject);
+            }
+        }
+        return byObject;
+    }
+}
@@ -13,8 +13,10 @@ import com.example.util.OntologyUtils;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Arrays;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * FIXED: Enhanced ontology service that creates fresh managers to avoid duplicate IRI issues
@@ -23,7 +25,6 @@ import java.util.Set;
 public class DefaultOntologyService implements OntologyService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultOntologyService.class);
-    private static final String[] SUPPORTED_EXTENSIONS = {".owl", ".rdf", ".ttl", ".n3"};
 
     // REMOVED: Don't keep a single manager - create fresh ones
     // private OWLOntologyManager manager;
@@ -33,6 +34,10 @@ public class DefaultOntologyService implements OntologyService {
         LOGGER.info("DefaultOntologyService initialized for sequential processing");
     }
 
+    /**
+     * UPDATED: Collects {@link #streamOntologies} over the top level of the directory; prefer streaming
+     * for large corpora, since this keeps every loaded ontology in memory
+     */
     @Override
     public List<OWLOntology> loadOntologiesFromDirectory(String directoryPath) {
         List<OWLOntology> ontologies = new ArrayList<>();
@@ -40,38 +45,17 @@ public class DefaultOntologyService implements OntologyService {
         try {
             LOGGER.info("Loading ontologies from directory: {}", directoryPath);
 
-            File directory = new File(directoryPath);
-            if (!directory.exists() || !directory.isDirectory()) {
-                throw new RuntimeException("Directory does not exist or is not a directory: " + directoryPath);
+            OntologyFileSource source = new OntologyFileSource(directoryPath);
+            try (Stream<OWLOntology> stream = streamOntologies(source)) {
+                stream.forEach(ontologies::add);
             }
 
-            // Get all ontology files
-            File[] ontologyFiles = directory.listFiles(this::isOntologyFile);
-            if (ontologyFiles == null || ontologyFiles.length == 0) {
-                LOGGER.warn("No ontology files found in directory: {}", directoryPath);
-                return ontologies;
-            }
-
-            LOGGER.info("Found {} ontology files", ontologyFiles.length);
-
-            // Load each ontology file with a FRESH manager to avoid duplicate IRI issues
-            for (File file : ontologyFiles) {
-                try {
-                    OWLOntology ontology = loadOntology(file);
-                    if (ontology != null) {
-                        ontologies.add(ontology);
-
-                        if (ontologies.size() % 50 == 0) {
-                            LOGGER.info("Loaded {} ontologies so far...", ontologies.size());
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to load ontology from file {}: {}", file.getName(), e.getMessage());
-                }
+            if (ontologies.isEmpty()) {
+                LOGGER.warn("No ontologies loaded from directory: {}", directoryPath);
+            } else {
+                LOGGER.info("Successfully loaded {} ontologies from directory", ontologies.size());
             }
 
-            LOGGER.info("Successfully loaded {} ontologies from directory", ontologies.size());
-
         } catch (Exception e) {
             LOGGER.error("Error loading ontologies from directory: {}", directoryPath, e);
             throw new RuntimeException("Failed to load ontologies from directory: " + e.getMessage(), e);
@@ -80,6 +64,29 @@ public class DefaultOntologyService implements OntologyService {
         return ontologies;
     }
 
+    /**
+     * NEW: Loads each file only when the stream reaches it, with a FRESH manager per file;
+     * files that fail to load are logged and skipped
+     */
+    @Override
+    public Stream<OWLOntology> streamOntologies(OntologyFileSource source) {
+        AtomicInteger loaded = new AtomicInteger();
+        return source.stream()
+                .map(file -> {
+                    try {
+                        OWLOntology ontology = loadOntology(file);
+                        if (ontology != null && loaded.incrementAndGet() % 50 == 0) {
+                            LOGGER.info("Loaded {} ontologies so far...", loaded.get());
+                        }
+                        return ontology;
+                    } catch (Exception e) {
+                        LOGGER.warn("Failed to load ontology from file {}: {}", file.getName(), e.getMessage());
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull);
+    }
+
     @Override
     public OWLOntology loadOntology(File ontologyFile) {
         // CRITICAL FIX: Create a FRESH manager for each ontology file
@@ -177,14 +184,6 @@ public class DefaultOntologyService implements OntologyService {
         return new OntologyStats(totalClasses, totalIndividuals, totalObjectProperties, totalDataProperties);
     }
 
-    private boolean isOntologyFile(File file) {
-        if (file.isDirectory()) return false;
-
-        String fileName = file.getName().toLowerCase();
-        return Arrays.stream(SUPPORTED_EXTENSIONS)
-                .anyMatch(fileName::endsWith);
-    }
-
     @Override
     public void close() throws Exception {
         // No longer need to clean up a single manager
@@ -0,0 +1,211 @@
+// com/example/ontology/OntologyFileSource.java
+package com.example.ontology;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy source of ontology files under a directory, optionally recursive and filtered by a glob.
+ * Directories are listed with {@link DirectoryStream} one at a time as the traversal reaches them, so
+ * the first file is available immediately and memory does not grow with the size of the corpus.
+ * <p>
+ * In sorted mode (the default) the entries of each directory are ordered by name before they are
+ * visited, which keeps runs reproducible at the cost of buffering one directory listing; unsorted
+ * mode walks every directory in file system order without buffering.
+ * Without a glob, files with the extensions .owl, .rdf, .ttl and .n3 (any case) are accepted. A glob
+ * is matched against the path relative to the root and against the file name, so both "*.owl" and
+ * "batch-*&#47;**&#47;*.ttl" work.
+ */
+public class OntologyFileSource implements Iterable<File> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntologyFileSource.class);
+    private static final String[] SUPPORTED_EXTENSIONS = {".owl", ".rdf", ".ttl", ".n3"};
+
+    private final Path root;
+    private final boolean recursive;
+    private final boolean sorted;
+    private final String glob;
+    private final PathMatcher matcher;
+
+    public OntologyFileSource(Path root, boolean recursive, String glob, boolean sorted) {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Directory does not exist or is not a directory: " + root);
+        }
+        this.root = root;
+        this.recursive = recursive;
+        this.sorted = sorted;
+        this.glob = glob != null && !glob.isBlank() ? glob : null;
+        this.matcher = this.glob != null ? root.getFileSystem().getPathMatcher("glob:" + this.glob) : null;
+    }
+
+    /**
+     * Non-recursive, sorted source with the default extension filter
+     */
+    public OntologyFileSource(String directoryPath) {
+        this(Paths.get(directoryPath), false, null, true);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    public String getGlob() {
+        return glob;
+    }
+
+    /**
+     * Each call starts a new traversal. Directory handles are released when the traversal ends;
+     * use {@link #stream()} to release them early.
+     */
+    @Override
+    public Iterator<File> iterator() {
+        return new FileIterator();
+    }
+
+    /**
+     * Lazy stream of the matching files; closing it releases any open directory handles
+     */
+    public Stream<File> stream() {
+        FileIterator iterator = new FileIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Whether a file is accepted by this source's filter
+     */
+    public boolean accepts(Path file) {
+        if (matcher == null) {
+            String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (String extension : SUPPORTED_EXTENSIONS) {
+                if (fileName.endsWith(extension)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return matcher.matches(root.relativize(file)) || matcher.matches(file.getFileName());
+    }
+
+    @Override
+    public String toString() {
+        return "OntologyFileSource{" + root + ", recursive=" + recursive + ", sorted=" + sorted
+                + ", glob=" + (glob != null ? glob : "*.{owl,rdf,ttl,n3}") + '}';
+    }
+
+    /**
+     * One directory being visited
+     */
+    private static final class Level {
+        private final Iterator<Path> entries;
+        private final DirectoryStream<Path> stream; // still open in unsorted mode, null otherwise
+
+        Level(Iterator<Path> entries, DirectoryStream<Path> stream) {
+            this.entries = entries;
+            this.stream = stream;
+        }
+    }
+
+    /**
+     * Depth-first traversal; subdirectories are entered when they are reached in their parent's order
+     */
+    private final class FileIterator implements Iterator<File>, Closeable {
+        private final Deque<Level> levels = new ArrayDeque<>();
+        private File next;
+
+        FileIterator() {
+            enter(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !levels.isEmpty()) {
+                Level level = levels.peek();
+                if (!level.entries.hasNext()) {
+                    leave(levels.pop());
+                    continue;
+                }
+
+                Path entry;
+                try {
+                    entry = level.entries.next();
+                } catch (DirectoryIteratorException e) {
+                    LOGGER.warn("Error listing directory entries: {}", e.getCause().getMessage());
+                    leave(levels.pop());
+                    continue;
+                }
+
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    if (recursive) {
+                        enter(entry);
+                    }
+                } else if (Files.isRegularFile(entry) && accepts(entry)) {
+                    next = entry.toFile();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            File file = next;
+            next = null;
+            return file;
+        }
+
+        @Override
+        public void close() {
+            while (!levels.isEmpty()) {
+                leave(levels.pop());
+            }
+        }
+
+        private void enter(Path directory) {
+            try {
+                DirectoryStream<Path> stream = Files.newDirectoryStream(directory);
+                if (!sorted) {
+                    levels.push(new Level(stream.iterator(), stream));
+                    return;
+                }
+
+                List<Path> entries = new ArrayList<>();
+                try (stream) {
+                    for (Path entry : stream) {
+                        entries.add(entry);
+                    }
+                }
+                entries.sort(Comparator.comparing(path -> path.getFileName().toString()));
+                levels.push(new Level(entries.iterator(), null));
+            } catch (IOException | DirectoryIteratorException e) {
+                LOGGER.warn("Cannot list directory {}: {}", directory, e.getMessage());
+            }
+        }
+
+        private void leave(Level level) {
+            if (level.stream != null) {
+                try {
+                    level.stream.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
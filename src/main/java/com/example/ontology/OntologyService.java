@@ -5,6 +5,7 @@ import org.semanticweb.owlapi.model.OWLOntology;
 
 import java.io.File;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OntologyService extends AutoCloseable {
     /**
@@ -12,6 +13,12 @@ public interface OntologyService extends AutoCloseable {
      */
     List<OWLOntology> loadOntologiesFromDirectory(String directoryPath);
 
+    /**
+     * Lazily load the ontologies of a file source, one file at a time as the stream is consumed.
+     * Close the stream to release the directory handles.
+     */
+    Stream<OWLOntology> streamOntologies(OntologyFileSource source);
+
     /**
      * Load a single ontology from file
      */
@@ -0,0 +1,197 @@
+// com/example/ontology/PrefetchingOntologyLoader.java
+package com.example.ontology;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-ahead stage between file discovery and reasoning. While the caller reasons over one ontology,
+ * the next prefetchDepth files are already being parsed on background threads, each through
+ * {@link OntologyService#loadOntology} and so with its own OWLOntologyManager.
+ * <p>
+ * Ontologies are handed out in file order through a bounded window of pending loads: at most
+ * prefetchDepth parsed or parsing ontologies wait ahead of the consumer, which bounds the extra heap.
+ * With a depth of 0 nothing is prefetched and {@link PendingOntology#get()} parses on the calling thread.
+ * The file iterator is only advanced by the consuming thread.
+ */
+public class PrefetchingOntologyLoader implements Iterator<PrefetchingOntologyLoader.PendingOntology>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrefetchingOntologyLoader.class);
+
+    private final OntologyService ontologyService;
+    private final Iterator<File> files;
+    private final int prefetchDepth;
+    private final ExecutorService executor;
+    private final Deque<PendingOntology> window = new ArrayDeque<>();
+
+    // Time the consumer spent waiting for a prefetched ontology that was not parsed yet
+    private final AtomicLong consumerWaitMs = new AtomicLong(0);
+    private final AtomicLong prefetchedCount = new AtomicLong(0);
+
+    /**
+     * @param prefetchDepth number of files parsed ahead of the consumer (0 disables prefetching)
+     * @param threads number of background parser threads
+     */
+    public PrefetchingOntologyLoader(OntologyService ontologyService, Iterator<File> files,
+                                     int prefetchDepth, int threads) {
+        this.ontologyService = ontologyService;
+        this.files = files;
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+        if (this.prefetchDepth > 0) {
+            int poolSize = Math.max(1, Math.min(threads, this.prefetchDepth));
+            this.executor = Executors.newFixedThreadPool(poolSize, new PrefetchThreadFactory());
+            LOGGER.info("Prefetching up to {} ontologies ahead on {} thread(s)", this.prefetchDepth, poolSize);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !window.isEmpty() || files.hasNext();
+    }
+
+    /**
+     * Next ontology in file order; the files behind it are submitted for parsing so the window stays full
+     */
+    @Override
+    public PendingOntology next() {
+        if (executor == null) {
+            if (!files.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return new PendingOntology(files.next());
+        }
+
+        fillWindow();
+        PendingOntology head = window.pollFirst();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        fillWindow();
+        return head;
+    }
+
+    public long getConsumerWaitMs() {
+        return consumerWaitMs.get();
+    }
+
+    public long getPrefetchedCount() {
+        return prefetchedCount.get();
+    }
+
+    /**
+     * Stop the parser threads; ontologies prefetched but never handed out are dropped
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        for (PendingOntology pending : window) {
+            pending.future.cancel(true);
+        }
+        window.clear();
+        executor.shutdownNow();
+        LOGGER.info("Ontology prefetcher closed: {} ontologies prefetched, {} ms spent waiting for parses",
+                prefetchedCount.get(), consumerWaitMs.get());
+    }
+
+    private void fillWindow() {
+        while (window.size() < prefetchDepth && files.hasNext()) {
+            PendingOntology pending = new PendingOntology(files.next());
+            pending.future = executor.submit(() -> {
+                OWLOntology ontology = pending.load();
+                prefetchedCount.incrementAndGet();
+                return ontology;
+            });
+            window.addLast(pending);
+        }
+    }
+
+    /**
+     * An ontology file whose parse is in progress, finished, or (without prefetching) not yet started
+     */
+    public final class PendingOntology {
+        private final File file;
+        // Set before the pending ontology is handed out; null without prefetching
+        private Future<OWLOntology> future;
+        private volatile long loadNanos;
+
+        private PendingOntology(File file) {
+            this.file = file;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Time spent parsing the file, on whichever thread parsed it (0 until it is loaded)
+         */
+        public long getLoadNanos() {
+            return loadNanos;
+        }
+
+        private OWLOntology load() {
+            long startTime = System.nanoTime();
+            try {
+                return ontologyService.loadOntology(file);
+            } finally {
+                loadNanos = System.nanoTime() - startTime;
+            }
+        }
+
+        /**
+         * The parsed ontology, waiting for its background parse if necessary
+         * @throws RuntimeException if the file could not be loaded
+         */
+        public OWLOntology get() {
+            if (future == null) {
+                return load();
+            }
+
+            long waitStart = System.currentTimeMillis();
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for ontology " + file.getName(), e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException("Failed to load ontology: " + cause.getMessage(), cause);
+            } catch (CancellationException e) {
+                throw new RuntimeException("Loading of ontology " + file.getName() + " was cancelled", e);
+            } finally {
+                consumerWaitMs.addAndGet(System.currentTimeMillis() - waitStart);
+            }
+        }
+    }
+
+    /**
+     * Names parser threads so they are readable in logs and thread dumps
+     */
+    private static class PrefetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ontology-prefetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+// com/example/ontology/SharedTBox.java
+package com.example.ontology;
+
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * TBox shared by every file of a corpus whose files were extracted from one source ontology
+ * (SmallOntologyExtractor --abox-only writes it once as tbox.ttl next to ABox-only files).
+ * It is parsed once; each per-file ontology then gets the TBox axioms added to it, reusing the same
+ * immutable axiom objects instead of parsing and allocating its own copy.
+ * Thread-safe: the TBox ontology is never modified after loading.
+ */
+public class SharedTBox {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedTBox.class);
+
+    private final File file;
+    private final OWLOntology ontology;
+    private final Set<OWLAxiom> axioms;
+
+    private SharedTBox(File file, OWLOntology ontology) {
+        this.file = file;
+        this.ontology = ontology;
+        this.axioms = Collections.unmodifiableSet(new LinkedHashSet<>(ontology.getAxioms()));
+    }
+
+    /**
+     * Parse the TBox file once
+     */
+    public static SharedTBox load(OntologyService ontologyService, File file) {
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("Shared TBox file does not exist: " + file.getPath());
+        }
+        long startTime = System.currentTimeMillis();
+        OWLOntology ontology = ontologyService.loadOntology(file);
+
+        SharedTBox tbox = new SharedTBox(file, ontology);
+        LOGGER.info("Shared TBox loaded from {}: {} axioms in {} ms",
+                file.getName(), tbox.axioms.size(), System.currentTimeMillis() - startTime);
+        return tbox;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * The TBox on its own; must not be modified
+     */
+    public OWLOntology getOntology() {
+        return ontology;
+    }
+
+    public int getAxiomCount() {
+        return axioms.size();
+    }
+
+    /**
+     * Add the TBox to a freshly loaded per-file ontology. Axioms the file already contains are left alone,
+     * so files that still carry their own copy of the TBox are handled too.
+     * @return the same ontology, now TBox + ABox
+     */
+    public OWLOntology overlay(OWLOntology abox) {
+        abox.getOWLOntologyManager().addAxioms(abox, axioms);
+        return abox;
+    }
+
+    /**
+     * Whether a (possibly overlaid) ontology has TBox or RBox axioms beyond the shared TBox, in which case
+     * per-ontology structures derived from the TBox cannot be reused for it
+     */
+    public boolean isExtendedBy(OWLOntology overlaid) {
+        for (OWLLogicalAxiom axiom : overlaid.getLogicalAxioms()) {
+            if (!axiom.isOfType(AxiomType.ABoxAxiomTypes) && !ontology.containsAxiom(axiom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a file is the shared TBox file itself (so discovery can skip it)
+     */
+    public boolean isTBoxFile(File candidate) {
+        return file.getAbsoluteFile().toPath().normalize()
+                .equals(candidate.getAbsoluteFile().toPath().normalize());
+    }
+}
@@ -0,0 +1,61 @@
+// com/example/ontology/SharedTBoxOntologyService.java
+package com.example.ontology;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads per-file ABoxes through another ontology service and overlays the {@link SharedTBox} on each,
+ * so callers (including the prefetcher's background threads) receive complete ontologies.
+ * Closing it does not close the wrapped service.
+ */
+public class SharedTBoxOntologyService implements OntologyService {
+
+    private final OntologyService delegate;
+    private final SharedTBox sharedTBox;
+
+    public SharedTBoxOntologyService(OntologyService delegate, SharedTBox sharedTBox) {
+        this.delegate = delegate;
+        this.sharedTBox = sharedTBox;
+    }
+
+    public SharedTBox getSharedTBox() {
+        return sharedTBox;
+    }
+
+    @Override
+    public List<OWLOntology> loadOntologiesFromDirectory(String directoryPath) {
+        try (Stream<OWLOntology> stream = streamOntologies(new OntologyFileSource(directoryPath))) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Stream<OWLOntology> streamOntologies(OntologyFileSource source) {
+        return delegate.streamOntologies(source).map(sharedTBox::overlay);
+    }
+
+    @Override
+    public OWLOntology loadOntology(File ontologyFile) {
+        return sharedTBox.overlay(delegate.loadOntology(ontologyFile));
+    }
+
+    @Override
+    public OntologyStats getStats(OWLOntology ontology) {
+        return delegate.getStats(ontology);
+    }
+
+    @Override
+    public OntologyStats getCombinedStats(List<OWLOntology> ontologies) {
+        return delegate.getCombinedStats(ontologies);
+    }
+
+    @Override
+    public void close() {
+        // The wrapped service is owned by the caller
+    }
+}
@@ -0,0 +1,373 @@
+// com/example/ontology/SyntheticOntologyGenerator.java
+package com.example.ontology;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.TurtleDocumentFormat;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Generates family-style ontologies of tunable size for load testing, using the constructs
+ * ComprehensiveExplanationService explains: a subclass hierarchy, domain and range, equivalent classes
+ * defined by existential restrictions, inverse, symmetric and transitive properties, sub-properties and
+ * property chains. Output is reproducible: file i of a corpus is always generated from the same seed.
+ * <p>
+ * Every file shares the same TBox and gets its own ABox, where individual k has a random leaf class of the
+ * hierarchy, a parent among the individuals before it (so the parent graph is acyclic), occasionally a
+ * sibling, and a random value for each generic relation with probability 1/2.
+ * <p>
+ * Usage: {@code SyntheticOntologyGenerator <outputDir> [--files N] [--individuals N] [--properties N]
+ * [--depth N] [--chains N] [--inverse N] [--symmetric N] [--equivalent N] [--seed N]
+ * [--files-per-directory N] [--abox-only]}
+ */
+public class SyntheticOntologyGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyntheticOntologyGenerator.class);
+
+    public static final String NAMESPACE = "http://example.org/synthetic#";
+    private static final String ONTOLOGY_IRI_PREFIX = "http://example.org/synthetic/";
+    private static final String TBOX_FILE_NAME = "tbox.ttl";
+
+    /**
+     * Size and shape of the generated ontologies
+     */
+    public static class Settings {
+        private int files = 1;
+        private int individuals = 100;
+        // Generic relation_k properties on top of hasParent, hasChild, hasSibling and hasAncestor
+        private int properties = 2;
+        // Levels of the class hierarchy below Person; each class has two subclasses
+        private int classDepth = 3;
+        private int propertyChains = 2;
+        // Properties declared with a named inverse, hasParent/hasChild first
+        private int inverseProperties = 2;
+        // Symmetric properties, hasSibling first
+        private int symmetricProperties = 1;
+        private int equivalentClassRestrictions = 3;
+        private long seed = 42L;
+        // Files are spread over part-NNNNN subdirectories once a corpus has more files than this
+        private int filesPerDirectory = 1000;
+        // Write the TBox once as tbox.ttl and only ABox axioms per file (processing.shared-tbox-file)
+        private boolean aboxOnly = false;
+
+        public int getFiles() { return files; }
+        public void setFiles(int files) { this.files = files; }
+
+        public int getIndividuals() { return individuals; }
+        public void setIndividuals(int individuals) { this.individuals = individuals; }
+
+        public int getProperties() { return properties; }
+        public void setProperties(int properties) { this.properties = properties; }
+
+        public int getClassDepth() { return classDepth; }
+        public void setClassDepth(int classDepth) { this.classDepth = classDepth; }
+
+        public int getPropertyChains() { return propertyChains; }
+        public void setPropertyChains(int propertyChains) { this.propertyChains = propertyChains; }
+
+        public int getInverseProperties() { return inverseProperties; }
+        public void setInverseProperties(int inverseProperties) { this.inverseProperties = inverseProperties; }
+
+        public int getSymmetricProperties() { return symmetricProperties; }
+        public void setSymmetricProperties(int symmetricProperties) { this.symmetricProperties = symmetricProperties; }
+
+        public int getEquivalentClassRestrictions() { return equivalentClassRestrictions; }
+        public void setEquivalentClassRestrictions(int equivalentClassRestrictions) {
+            this.equivalentClassRestrictions = equivalentClassRestrictions;
+        }
+
+        public long getSeed() { return seed; }
+        public void setSeed(long seed) { this.seed = seed; }
+
+        public int getFilesPerDirectory() { return filesPerDirectory; }
+        public void setFilesPerDirectory(int filesPerDirectory) { this.filesPerDirectory = filesPerDirectory; }
+
+        public boolean isAboxOnly() { return aboxOnly; }
+        public void setAboxOnly(boolean aboxOnly) { this.aboxOnly = aboxOnly; }
+
+        @Override
+        public String toString() {
+            return String.format("Settings{files=%d, individuals=%d, properties=%d, classDepth=%d, propertyChains=%d, " +
+                            "inverseProperties=%d, symmetricProperties=%d, equivalentClassRestrictions=%d, seed=%d, aboxOnly=%s}",
+                    files, individuals, properties, classDepth, propertyChains, inverseProperties,
+                    symmetricProperties, equivalentClassRestrictions, seed, aboxOnly);
+        }
+    }
+
+    private final Settings settings;
+    private final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    private final OWLDataFactory factory = manager.getOWLDataFactory();
+
+    private final OWLClass person;
+    private final List<OWLClass> hierarchy = new ArrayList<>();
+    private final List<OWLClass> leafClasses = new ArrayList<>();
+    private final OWLObjectProperty hasParent;
+    private final OWLObjectProperty hasSibling;
+    private final List<OWLObjectProperty> relations = new ArrayList<>();
+    private final Set<OWLAxiom> tboxAxioms = new LinkedHashSet<>();
+
+    public SyntheticOntologyGenerator(Settings settings) {
+        if (settings.getIndividuals() < 1 || settings.getFiles() < 1 || settings.getClassDepth() < 1) {
+            throw new IllegalArgumentException("files, individuals and class depth must be at least 1: " + settings);
+        }
+        this.settings = settings;
+        this.person = owlClass("Person");
+        this.hasParent = objectProperty("hasParent");
+        this.hasSibling = settings.getSymmetricProperties() > 0 ? objectProperty("hasSibling") : null;
+        buildTBox();
+    }
+
+    /**
+     * The axioms every generated ontology shares
+     */
+    public Set<OWLAxiom> getTBoxAxioms() {
+        return Collections.unmodifiableSet(tboxAxioms);
+    }
+
+    /**
+     * Ontology number fileIndex of the corpus, in memory. The caller owns the returned ontology; its
+     * manager is shared with this generator.
+     */
+    public OWLOntology generate(int fileIndex) throws OWLOntologyCreationException {
+        Set<OWLAxiom> axioms = new LinkedHashSet<>(tboxAxioms);
+        axioms.addAll(generateABox(fileIndex));
+        return manager.createOntology(axioms, ontologyIRI(fileIndex));
+    }
+
+    /**
+     * Write the whole corpus as Turtle files under outputDir
+     *
+     * @return the number of files written, excluding tbox.ttl
+     */
+    public int writeCorpus(Path outputDir) throws IOException, OWLOntologyException {
+        Files.createDirectories(outputDir);
+        LOGGER.info("Generating {} synthetic ontologies in {} with {}", settings.getFiles(), outputDir, settings);
+        long startTime = System.currentTimeMillis();
+
+        if (settings.isAboxOnly()) {
+            OWLOntology tbox = manager.createOntology(tboxAxioms, IRI.create(ONTOLOGY_IRI_PREFIX + "tbox"));
+            save(tbox, outputDir.resolve(TBOX_FILE_NAME));
+            manager.removeOntology(tbox);
+        }
+
+        int width = String.valueOf(settings.getFiles() - 1).length();
+        boolean partitioned = settings.getFiles() > settings.getFilesPerDirectory();
+        for (int i = 0; i < settings.getFiles(); i++) {
+            Path directory = partitioned
+                    ? outputDir.resolve(String.format("part-%05d", i / settings.getFilesPerDirectory()))
+                    : outputDir;
+            if (partitioned && i % settings.getFilesPerDirectory() == 0) {
+                Files.createDirectories(directory);
+            }
+
+            OWLOntology ontology;
+            if (settings.isAboxOnly()) {
+                // Declarations keep the Turtle file unambiguous without the TBox next to it
+                Set<OWLAxiom> axioms = generateABox(i);
+                axioms.addAll(declarationsFor(axioms));
+                ontology = manager.createOntology(axioms, ontologyIRI(i));
+            } else {
+                ontology = generate(i);
+            }
+            save(ontology, directory.resolve(String.format("synthetic_%0" + width + "d.ttl", i)));
+            manager.removeOntology(ontology);
+
+            if ((i + 1) % 1000 == 0) {
+                LOGGER.info("Generated {}/{} files in {} ms", i + 1, settings.getFiles(),
+                        System.currentTimeMillis() - startTime);
+            }
+        }
+
+        LOGGER.info("Generated {} files in {} ms", settings.getFiles(), System.currentTimeMillis() - startTime);
+        return settings.getFiles();
+    }
+
+    private void buildTBox() {
+        // Class hierarchy: Person > Man, Woman > Man_0, Man_1, ... down to classDepth levels
+        hierarchy.add(person);
+        List<OWLClass> level = List.of(owlClass("Man"), owlClass("Woman"));
+        for (OWLClass child : level) {
+            tboxAxioms.add(factory.getOWLSubClassOfAxiom(child, person));
+        }
+        for (int depth = 2; depth <= settings.getClassDepth(); depth++) {
+            List<OWLClass> next = new ArrayList<>();
+            for (OWLClass parentClass : level) {
+                for (int k = 0; k < 2; k++) {
+                    OWLClass child = owlClass(parentClass.getIRI().getShortForm() + "_" + k);
+                    tboxAxioms.add(factory.getOWLSubClassOfAxiom(child, parentClass));
+                    next.add(child);
+                }
+            }
+            hierarchy.addAll(level);
+            level = next;
+        }
+        hierarchy.addAll(level);
+        leafClasses.addAll(level);
+
+        // hasParent is a sub-property of the transitive hasAncestor
+        OWLObjectProperty hasAncestor = objectProperty("hasAncestor");
+        tboxAxioms.add(factory.getOWLObjectPropertyDomainAxiom(hasParent, person));
+        tboxAxioms.add(factory.getOWLObjectPropertyRangeAxiom(hasParent, person));
+        tboxAxioms.add(factory.getOWLSubObjectPropertyOfAxiom(hasParent, hasAncestor));
+        tboxAxioms.add(factory.getOWLTransitiveObjectPropertyAxiom(hasAncestor));
+
+        // Inverse properties: hasParent/hasChild, then relation_k/relation_kInverse
+        OWLObjectProperty hasChild = null;
+        if (settings.getInverseProperties() > 0) {
+            hasChild = objectProperty("hasChild");
+            tboxAxioms.add(factory.getOWLInverseObjectPropertiesAxiom(hasParent, hasChild));
+        }
+        // Symmetric properties: hasSibling, then the relations without an inverse
+        if (hasSibling != null) {
+            tboxAxioms.add(factory.getOWLSymmetricObjectPropertyAxiom(hasSibling));
+        }
+        int inverseRelations = Math.max(0, settings.getInverseProperties() - 1);
+        int symmetricRelations = Math.max(0, settings.getSymmetricProperties() - 1);
+        for (int k = 0; k < settings.getProperties(); k++) {
+            OWLObjectProperty relation = objectProperty("relation_" + k);
+            relations.add(relation);
+            tboxAxioms.add(factory.getOWLObjectPropertyDomainAxiom(relation, person));
+            tboxAxioms.add(factory.getOWLObjectPropertyRangeAxiom(relation, person));
+            if (k < inverseRelations) {
+                tboxAxioms.add(factory.getOWLInverseObjectPropertiesAxiom(relation, objectProperty("relation_" + k + "Inverse")));
+            } else if (k - inverseRelations < symmetricRelations) {
+                tboxAxioms.add(factory.getOWLSymmetricObjectPropertyAxiom(relation));
+            }
+        }
+
+        // Property chains: hasParent o hasSibling -> hasUncleOrAunt, then hasParent^n -> hasAncestorAtDistance<n>
+        int chains = 0;
+        if (hasSibling != null && chains < settings.getPropertyChains()) {
+            tboxAxioms.add(factory.getOWLSubPropertyChainOfAxiom(List.of(hasParent, hasSibling),
+                    objectProperty("hasUncleOrAunt")));
+            chains++;
+        }
+        for (int distance = 2; chains < settings.getPropertyChains(); distance++, chains++) {
+            tboxAxioms.add(factory.getOWLSubPropertyChainOfAxiom(Collections.nCopies(distance, hasParent),
+                    objectProperty("hasAncestorAtDistance" + distance)));
+        }
+
+        // Equivalent classes: Parent == Person and hasChild some Person, then
+        // ChildOf<C> == Person and hasParent some C for the hierarchy classes in breadth-first order
+        int restrictions = 0;
+        if (hasChild != null && restrictions < settings.getEquivalentClassRestrictions()) {
+            tboxAxioms.add(factory.getOWLEquivalentClassesAxiom(owlClass("Parent"),
+                    factory.getOWLObjectIntersectionOf(person, factory.getOWLObjectSomeValuesFrom(hasChild, person))));
+            restrictions++;
+        }
+        for (Iterator<OWLClass> it = hierarchy.iterator();
+             it.hasNext() && restrictions < settings.getEquivalentClassRestrictions(); restrictions++) {
+            OWLClass filler = it.next();
+            tboxAxioms.add(factory.getOWLEquivalentClassesAxiom(owlClass("ChildOf" + filler.getIRI().getShortForm()),
+                    factory.getOWLObjectIntersectionOf(person, factory.getOWLObjectSomeValuesFrom(hasParent, filler))));
+        }
+    }
+
+    private Set<OWLAxiom> generateABox(int fileIndex) {
+        Random random = new Random(settings.getSeed() + fileIndex * 0x9E3779B97F4A7C15L);
+        int count = settings.getIndividuals();
+        Set<OWLAxiom> axioms = new LinkedHashSet<>();
+
+        List<OWLNamedIndividual> individuals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            individuals.add(factory.getOWLNamedIndividual(IRI.create(NAMESPACE + "person_" + i)));
+        }
+
+        for (int i = 0; i < count; i++) {
+            OWLNamedIndividual individual = individuals.get(i);
+            axioms.add(factory.getOWLClassAssertionAxiom(leafClasses.get(random.nextInt(leafClasses.size())), individual));
+
+            // Parents are earlier individuals, so the parent graph is acyclic
+            if (i > 1) {
+                axioms.add(factory.getOWLObjectPropertyAssertionAxiom(hasParent, individual,
+                        individuals.get(random.nextInt(i))));
+            }
+            if (hasSibling != null && i > 0 && random.nextInt(4) == 0) {
+                axioms.add(factory.getOWLObjectPropertyAssertionAxiom(hasSibling, individual,
+                        individuals.get(random.nextInt(i))));
+            }
+            if (count > 1) {
+                for (OWLObjectProperty relation : relations) {
+                    if (random.nextBoolean()) {
+                        int other = random.nextInt(count - 1);
+                        axioms.add(factory.getOWLObjectPropertyAssertionAxiom(relation, individual,
+                                individuals.get(other >= i ? other + 1 : other)));
+                    }
+                }
+            }
+        }
+        return axioms;
+    }
+
+    private Set<OWLAxiom> declarationsFor(Set<OWLAxiom> axioms) {
+        Set<OWLAxiom> declarations = new HashSet<>();
+        for (OWLAxiom axiom : axioms) {
+            axiom.signature().forEach(entity -> declarations.add(factory.getOWLDeclarationAxiom(entity)));
+        }
+        return declarations;
+    }
+
+    private void save(OWLOntology ontology, Path file) throws IOException, OWLOntologyStorageException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            manager.saveOntology(ontology, new TurtleDocumentFormat(), out);
+        }
+    }
+
+    private IRI ontologyIRI(int fileIndex) {
+        return IRI.create(ONTOLOGY_IRI_PREFIX + fileIndex);
+    }
+
+    private OWLClass owlClass(String name) {
+        return factory.getOWLClass(IRI.create(NAMESPACE + name));
+    }
+
+    private OWLObjectProperty objectProperty(String name) {
+        return factory.getOWLObjectProperty(IRI.create(NAMESPACE + name));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args[0].startsWith("--")) {
+            System.err.println("Usage: SyntheticOntologyGenerator <outputDir> [--files N] [--individuals N] " +
+                    "[--properties N] [--depth N] [--chains N] [--inverse N] [--symmetric N] [--equivalent N] " +
+                    "[--seed N] [--files-per-directory N] [--abox-only]");
+            System.exit(1);
+        }
+
+        Settings settings = new Settings();
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if ("--abox-only".equals(option)) {
+                settings.setAboxOnly(true);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--files" -> settings.setFiles(Integer.parseInt(value));
+                case "--individuals" -> settings.setIndividuals(Integer.parseInt(value));
+                case "--properties" -> settings.setProperties(Integer.parseInt(value));
+                case "--depth" -> settings.setClassDepth(Integer.parseInt(value));
+                case "--chains" -> settings.setPropertyChains(Integer.parseInt(value));
+                case "--inverse" -> settings.setInverseProperties(Integer.parseInt(value));
+                case "--symmetric" -> settings.setSymmetricProperties(Integer.parseInt(value));
+                case "--equivalent" -> settings.setEquivalentClassRestrictions(Integer.parseInt(value));
+                case "--seed" -> settings.setSeed(Long.parseLong(value));
+                case "--files-per-directory" -> settings.setFilesPerDirectory(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+
+        new SyntheticOntologyGenerator(settings).writeCorpus(Paths.get(args[0]));
+    }
+}
@@ -0,0 +1,367 @@
+// com/example/output/AsyncOutputService.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Asynchronous decorator for another {@link OutputService}.
+ * Producers only enqueue records into a bounded queue; one dedicated writer thread drains it in batches
+ * and calls the delegate, so reasoning threads never wait on disk I/O and the delegate is only ever
+ * used by a single thread. A full queue blocks producers (backpressure).
+ * {@link #flush()} waits until every record enqueued before it has been written and rethrows a failure
+ * of the delegate's flush; {@link #close()} drains the queue before closing the delegate and reports
+ * records that were dropped or failed to write.
+ * If the writer thread stops on anything else (an Error from the delegate, an interrupt), the queued
+ * records are discarded and every later call fails with an IllegalStateException instead of blocking
+ * on a queue nobody drains.
+ */
+public class AsyncOutputService implements OutputService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncOutputService.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 65_536;
+    private static final int DRAIN_BATCH_SIZE = 1024;
+
+    private final OutputService delegate;
+    private final BlockingQueue<OutputRecord> queue;
+    private final AtomicLong backpressureWaits = new AtomicLong(0);
+    // Records never written: not enqueued (closed, interrupted) or thrown away by a failing delegate
+    private final AtomicLong droppedRecords = new AtomicLong(0);
+    private final AtomicLong failedRecords = new AtomicLong(0);
+
+    private Thread writerThread;
+    private volatile boolean closed = false;
+    // Why the writer thread stopped before END, if it did
+    private volatile Throwable writerFailure;
+
+    public AsyncOutputService(OutputService delegate) {
+        this(delegate, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public AsyncOutputService(OutputService delegate, int queueCapacity) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+    }
+
+    @Override
+    public void initialize() throws IOException {
+        delegate.initialize();
+
+        writerThread = new Thread(this::drainLoop, "output-writer");
+        // Daemon so a missed close() cannot keep the JVM alive; close() still drains everything
+        writerThread.setDaemon(true);
+        writerThread.start();
+        LOGGER.info("Asynchronous output writer started (queue capacity {})", queue.remainingCapacity());
+    }
+
+    @Override
+    public void writeQueryWithTags(String taskId, String query, String taskType, String answer,
+                                   String explanation, String tags) {
+        enqueue(out -> out.writeQueryWithTags(taskId, query, taskType, answer, explanation, tags));
+    }
+
+    @Override
+    public void writeComprehensiveQuery(String taskId, String rootEntity, int tboxSize, int aboxSize,
+                                        String taskType, String answerType, String sparqlQuery,
+                                        String predicate, String answer, List<String> allAnswers,
+                                        int minTagLength, int maxTagLength) {
+        enqueue(out -> out.writeComprehensiveQuery(taskId, rootEntity, tboxSize, aboxSize, taskType, answerType,
+                sparqlQuery, predicate, answer, allAnswers, minTagLength, maxTagLength));
+    }
+
+    @Override
+    public void writeExplanationWithTags(String key, String explanation, String tags) {
+        enqueue(out -> out.writeExplanationWithTags(key, explanation, tags));
+    }
+
+    @Override
+    public void writeExplanationWithComprehensiveFormat(String key, String comprehensiveExplanation) {
+        enqueue(out -> out.writeExplanationWithComprehensiveFormat(key, comprehensiveExplanation));
+    }
+
+    @Override
+    public void writeExplanationRecord(ExplanationRecord record) {
+        enqueue(out -> out.writeExplanationRecord(record));
+    }
+
+    @Override
+    public void setTotalQueries(long total) {
+        enqueue(out -> out.setTotalQueries(total));
+    }
+
+    @Override
+    public void logProgress(String operation, long completed, long total) {
+        delegate.logProgress(operation, completed, total);
+    }
+
+    /**
+     * Block until all records enqueued so far are written, then flush the delegate; a failure of the
+     * delegate's flush is rethrown here
+     */
+    @Override
+    public void flush() {
+        callOnWriter(out -> {
+            out.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Runs on the writer thread after every record enqueued before it
+     */
+    @Override
+    public Map<String, Long> checkpointPositions() {
+        return callOnWriter(OutputService::checkpointPositions);
+    }
+
+    @Override
+    public void restorePositions(Map<String, Long> positions) throws IOException {
+        try {
+            callOnWriter(out -> {
+                try {
+                    out.restorePositions(positions);
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (writerThread != null) {
+            try {
+                if (writerFailure == null) {
+                    queue.put(OutputRecord.END);
+                }
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedRecords.addAndGet(queue.size());
+                LOGGER.warn("Interrupted while draining output queue; {} records not written", queue.size());
+            }
+        }
+
+        LOGGER.info("Asynchronous output writer stopped ({} producer waits on a full queue)",
+                backpressureWaits.get());
+        if (droppedRecords.get() > 0 || failedRecords.get() > 0) {
+            LOGGER.error("{} output records were dropped and {} failed to write - the output is incomplete",
+                    droppedRecords.get(), failedRecords.get());
+        }
+        delegate.close();
+        if (writerFailure != null) {
+            throw new IOException("Output writer stopped after an error - the output is incomplete", writerFailure);
+        }
+    }
+
+    public long getBackpressureWaits() {
+        return backpressureWaits.get();
+    }
+
+    /**
+     * Number of records that were never enqueued, because the service was closed or the producer interrupted
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * Number of records the delegate threw on
+     */
+    public long getFailedRecords() {
+        return failedRecords.get();
+    }
+
+    /**
+     * Number of records waiting to be written
+     */
+    public int getPendingRecords() {
+        return queue.size();
+    }
+
+    /**
+     * @return false if the record was dropped
+     * @throws IllegalStateException if the writer thread has stopped after an error
+     */
+    private boolean enqueue(OutputRecord record) {
+        if (closed) {
+            droppedRecords.incrementAndGet();
+            LOGGER.warn("Output service closed - dropping record");
+            return false;
+        }
+        if (writerThread == null) {
+            // Not started yet: write directly
+            record.writeTo(delegate);
+            return true;
+        }
+        checkWriter();
+
+        try {
+            if (!queue.offer(record)) {
+                backpressureWaits.incrementAndGet();
+                queue.put(record);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedRecords.incrementAndGet();
+            LOGGER.warn("Interrupted while waiting for space in the output queue - record dropped");
+            return false;
+        }
+        if (writerFailure != null) {
+            // The writer stopped while this record was queued; nothing will take it any more
+            discard(drainQueue(), writerFailure);
+            checkWriter();
+        }
+        return true;
+    }
+
+    private void checkWriter() {
+        Throwable failure = writerFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Output writer stopped after an error - the output is incomplete",
+                    failure);
+        }
+    }
+
+    /**
+     * Run a call on the delegate from the writer thread, in queue order, and wait for its result
+     */
+    private <T> T callOnWriter(Function<OutputService, T> call) {
+        checkWriter();
+        if (writerThread == null || !writerThread.isAlive()) {
+            return call.apply(delegate);
+        }
+
+        WriterCall<T> writerCall = new WriterCall<>(call);
+        if (!enqueue(writerCall)) {
+            throw new IllegalStateException("Output writer call dropped: the service is closed or the caller was interrupted");
+        }
+        try {
+            return writerCall.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the output writer", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writer thread: take one record, then drain whatever else is already queued as one batch
+     */
+    private void drainLoop() {
+        List<OutputRecord> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+        int next = 0;
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, DRAIN_BATCH_SIZE - 1);
+
+                for (next = 0; next < batch.size(); next++) {
+                    OutputRecord record = batch.get(next);
+                    if (record == OutputRecord.END) {
+                        return;
+                    }
+                    try {
+                        record.writeTo(delegate);
+                    } catch (RuntimeException e) {
+                        failedRecords.incrementAndGet();
+                        LOGGER.error("Error writing output record", e);
+                    }
+                }
+                batch.clear();
+                next = 0;
+            }
+        } catch (Throwable e) {
+            // Published before the queue is drained, so a producer that queues after the drain sees it
+            writerFailure = e;
+            List<OutputRecord> unwritten;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                unwritten = drainQueue();
+                LOGGER.warn("Output writer interrupted; {} records not written", unwritten.size());
+            } else {
+                failedRecords.incrementAndGet();
+                unwritten = new ArrayList<>(batch.subList(next + 1, batch.size()));
+                unwritten.addAll(drainQueue());
+                LOGGER.error("Output writer stopped; {} records not written", unwritten.size(), e);
+            }
+            discard(unwritten, e);
+        }
+    }
+
+    private List<OutputRecord> drainQueue() {
+        List<OutputRecord> records = new ArrayList<>(queue.size());
+        queue.drainTo(records);
+        return records;
+    }
+
+    /**
+     * Count records that will never be written as dropped, and fail the callers waiting on writer calls
+     */
+    private void discard(List<OutputRecord> records, Throwable failure) {
+        for (OutputRecord record : records) {
+            if (record instanceof WriterCall) {
+                ((WriterCall<?>) record).result.completeExceptionally(new IllegalStateException(
+                        "Output writer stopped after an error - the output is incomplete", failure));
+            } else if (record != OutputRecord.END) {
+                droppedRecords.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A deferred call on the delegate
+     */
+    @FunctionalInterface
+    private interface OutputRecord {
+        OutputRecord END = out -> { };
+
+        void writeTo(OutputService out);
+    }
+
+    /**
+     * A call whose caller waits for its result; never throws on the writer thread
+     */
+    private static final class WriterCall<T> implements OutputRecord {
+        private final Function<OutputService, T> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        WriterCall(Function<OutputService, T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void writeTo(OutputService out) {
+            try {
+                result.complete(call.apply(out));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
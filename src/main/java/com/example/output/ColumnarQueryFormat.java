@@ -0,0 +1,397 @@
+// com/example/output/ColumnarQueryFormat.java
+package com.example.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Layout and encodings of the columnar SPARQL questions file (SPARQL_questions.colq):
+ * <pre>
+ *   "SQC1"
+ *   row group*:  marker, rowCount, per column: encoding, compressedLength, rawLength, deflated bytes
+ *   footer:      column names, per row group: offset, rowCount, per column chunk: encoding, offset, lengths;
+ *                total rows
+ *   trailer:     footerLength, "SQC1"
+ * </pre>
+ * String columns are dictionary-encoded per row group when that pays off (a column value repeats on
+ * at least every second row), otherwise stored plain; integer columns are zigzag varints.
+ * Each chunk is deflated on its own, so a reader only reads and inflates the columns it projects.
+ * Row groups are self-describing: if the footer is missing (the writer crashed) they can still be
+ * found by scanning from the start of the file.
+ */
+final class ColumnarQueryFormat {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarQueryFormat.class);
+
+    static final byte[] MAGIC = {'S', 'Q', 'C', '1'};
+    static final int ROW_GROUP_MARKER = 0x52475250; // "RGRP"
+    static final int TRAILER_LENGTH = 4 + MAGIC.length;
+    static final int CHUNK_HEADER_LENGTH = 1 + 4 + 4;
+
+    static final byte ENCODING_PLAIN = 0;
+    static final byte ENCODING_DICTIONARY = 1;
+    static final byte ENCODING_VARINT = 2;
+
+    private ColumnarQueryFormat() {
+    }
+
+    /**
+     * Location of one compressed column chunk
+     */
+    static final class ColumnChunk {
+        final byte encoding;
+        final long offset;
+        final int compressedLength;
+        final int rawLength;
+
+        ColumnChunk(byte encoding, long offset, int compressedLength, int rawLength) {
+            this.encoding = encoding;
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.rawLength = rawLength;
+        }
+    }
+
+    static final class RowGroup {
+        final long offset;
+        final int rowCount;
+        final ColumnChunk[] chunks;
+
+        RowGroup(long offset, int rowCount, ColumnChunk[] chunks) {
+            this.offset = offset;
+            this.rowCount = rowCount;
+            this.chunks = chunks;
+        }
+    }
+
+    /**
+     * Row groups of a file and where its data ends (the footer start, or the end of the last complete row group)
+     */
+    static final class Metadata {
+        final List<RowGroup> rowGroups;
+        final long dataEnd;
+        final boolean complete;
+
+        Metadata(List<RowGroup> rowGroups, long dataEnd, boolean complete) {
+            this.rowGroups = rowGroups;
+            this.dataEnd = dataEnd;
+            this.complete = complete;
+        }
+
+        long getRowCount() {
+            long rows = 0;
+            for (RowGroup group : rowGroups) {
+                rows += group.rowCount;
+            }
+            return rows;
+        }
+    }
+
+    // ==================== ENCODING ====================
+
+    /**
+     * @return the encoding that was used
+     */
+    static byte encodeStrings(String[] values, int count, ByteArrayOutputStream out) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        for (int i = 0; i < count && dictionary.size() <= count / 2; i++) {
+            dictionary.putIfAbsent(nonNull(values[i]), dictionary.size());
+        }
+
+        if (dictionary.size() <= count / 2) {
+            String[] entries = new String[dictionary.size()];
+            for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                entries[entry.getValue()] = entry.getKey();
+            }
+            writeVarInt(out, entries.length);
+            for (String entry : entries) {
+                writeString(out, entry);
+            }
+            for (int i = 0; i < count; i++) {
+                writeVarInt(out, dictionary.get(nonNull(values[i])));
+            }
+            return ENCODING_DICTIONARY;
+        }
+
+        for (int i = 0; i < count; i++) {
+            writeString(out, nonNull(values[i]));
+        }
+        return ENCODING_PLAIN;
+    }
+
+    static void encodeInts(int[] values, int count, ByteArrayOutputStream out) {
+        for (int i = 0; i < count; i++) {
+            int value = values[i];
+            writeVarInt(out, (value << 1) ^ (value >> 31));
+        }
+    }
+
+    static String[] decodeStrings(byte encoding, byte[] raw, int count) throws IOException {
+        ByteReader in = new ByteReader(raw);
+        String[] values = new String[count];
+        if (encoding == ENCODING_DICTIONARY) {
+            String[] entries = new String[in.readVarInt()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = in.readString();
+            }
+            for (int i = 0; i < count; i++) {
+                values[i] = entries[in.readVarInt()];
+            }
+        } else if (encoding == ENCODING_PLAIN) {
+            for (int i = 0; i < count; i++) {
+                values[i] = in.readString();
+            }
+        } else {
+            throw new IOException("Unexpected string column encoding " + encoding);
+        }
+        return values;
+    }
+
+    static int[] decodeInts(byte encoding, byte[] raw, int count) throws IOException {
+        if (encoding != ENCODING_VARINT) {
+            throw new IOException("Unexpected integer column encoding " + encoding);
+        }
+        ByteReader in = new ByteReader(raw);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            int zigzag = in.readVarInt();
+            values[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        return values;
+    }
+
+    static byte[] compress(Deflater deflater, byte[] raw, int length) {
+        deflater.reset();
+        deflater.setInput(raw, 0, length);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(length / 4, 64));
+        byte[] buffer = new byte[16 * 1024];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, rawLength - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != rawLength) {
+                throw new IOException("Column chunk inflated to " + n + " bytes, expected " + rawLength);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column chunk", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // ==================== FOOTER ====================
+
+    static byte[] writeFooter(List<RowGroup> rowGroups, long totalRows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        QueryColumn[] columns = QueryColumn.values();
+        out.writeInt(columns.length);
+        for (QueryColumn column : columns) {
+            out.writeUTF(column.name());
+        }
+        out.writeInt(rowGroups.size());
+        for (RowGroup group : rowGroups) {
+            out.writeLong(group.offset);
+            out.writeInt(group.rowCount);
+            for (ColumnChunk chunk : group.chunks) {
+                out.writeByte(chunk.encoding);
+                out.writeLong(chunk.offset);
+                out.writeInt(chunk.compressedLength);
+                out.writeInt(chunk.rawLength);
+            }
+        }
+        out.writeLong(totalRows);
+
+        int footerLength = bytes.size();
+        out.writeInt(footerLength);
+        out.write(MAGIC);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read the row group locations of a file: from the footer if it has one, otherwise by scanning
+     */
+    static Metadata readMetadata(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < MAGIC.length || !Arrays.equals(OutputFiles.readRange(channel, 0, MAGIC.length), MAGIC)) {
+            throw new IOException("Not a columnar query file");
+        }
+
+        if (size >= MAGIC.length + TRAILER_LENGTH) {
+            ByteBuffer trailer = ByteBuffer.wrap(OutputFiles.readRange(channel, size - TRAILER_LENGTH, size));
+            int footerLength = trailer.getInt();
+            byte[] magic = new byte[MAGIC.length];
+            trailer.get(magic);
+            if (Arrays.equals(magic, MAGIC) && footerLength > 0
+                    && footerLength <= size - MAGIC.length - TRAILER_LENGTH) {
+                long footerStart = size - TRAILER_LENGTH - footerLength;
+                try {
+                    return new Metadata(parseFooter(OutputFiles.readRange(channel, footerStart, footerStart + footerLength)),
+                            footerStart, true);
+                } catch (IOException e) {
+                    LOGGER.warn("Unreadable columnar footer ({}) - scanning row groups", e.getMessage());
+                }
+            }
+        }
+        return scanRowGroups(channel, size);
+    }
+
+    private static List<RowGroup> parseFooter(byte[] footer) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer));
+        QueryColumn[] columns = QueryColumn.values();
+        int columnCount = in.readInt();
+        if (columnCount != columns.length) {
+            throw new IOException("Expected " + columns.length + " columns, found " + columnCount);
+        }
+        for (QueryColumn column : columns) {
+            String name = in.readUTF();
+            if (!column.name().equals(name)) {
+                throw new IOException("Unexpected column " + name + " where " + column.name() + " was expected");
+            }
+        }
+
+        int groupCount = in.readInt();
+        List<RowGroup> rowGroups = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            long offset = in.readLong();
+            int rowCount = in.readInt();
+            ColumnChunk[] chunks = new ColumnChunk[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                chunks[c] = new ColumnChunk(in.readByte(), in.readLong(), in.readInt(), in.readInt());
+            }
+            rowGroups.add(new RowGroup(offset, rowCount, chunks));
+        }
+        return rowGroups;
+    }
+
+    /**
+     * Recover row groups without a footer; stops at the first incomplete or unrecognized row group
+     */
+    private static Metadata scanRowGroups(FileChannel channel, long size) throws IOException {
+        int columnCount = QueryColumn.values().length;
+        List<RowGroup> rowGroups = new ArrayList<>();
+        long position = MAGIC.length;
+
+        while (position + 8 <= size) {
+            ByteBuffer header = ByteBuffer.wrap(OutputFiles.readRange(channel, position, position + 8));
+            if (header.getInt() != ROW_GROUP_MARKER) {
+                break;
+            }
+            int rowCount = header.getInt();
+
+            ColumnChunk[] chunks = new ColumnChunk[columnCount];
+            long chunkPosition = position + 8;
+            for (int c = 0; c < columnCount; c++) {
+                if (chunkPosition + CHUNK_HEADER_LENGTH > size) {
+                    chunks = null;
+                    break;
+                }
+                ByteBuffer chunkHeader = ByteBuffer.wrap(
+                        OutputFiles.readRange(channel, chunkPosition, chunkPosition + CHUNK_HEADER_LENGTH));
+                byte encoding = chunkHeader.get();
+                int compressedLength = chunkHeader.getInt();
+                int rawLength = chunkHeader.getInt();
+                long dataStart = chunkPosition + CHUNK_HEADER_LENGTH;
+                if (compressedLength < 0 || dataStart + compressedLength > size) {
+                    chunks = null;
+                    break;
+                }
+                chunks[c] = new ColumnChunk(encoding, dataStart, compressedLength, rawLength);
+                chunkPosition = dataStart + compressedLength;
+            }
+            if (chunks == null) {
+                break;
+            }
+            rowGroups.add(new RowGroup(position, rowCount, chunks));
+            position = chunkPosition;
+        }
+
+        LOGGER.warn("Columnar query file has no footer - recovered {} row group(s) by scanning", rowGroups.size());
+        return new Metadata(rowGroups, position, false);
+    }
+
+    // ==================== PRIMITIVES ====================
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Cursor over a decompressed chunk
+     */
+    private static final class ByteReader {
+        private final byte[] bytes;
+        private int position = 0;
+
+        ByteReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new IOException("Truncated column chunk");
+                }
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in column chunk");
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt();
+            if (length < 0 || position + length > bytes.length) {
+                throw new IOException("Truncated string in column chunk");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+// com/example/output/ColumnarQueryOutputService.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the SPARQL questions as a compressed, column-oriented binary file (SPARQL_questions.colq),
+ * in row groups of {@code rowGroupSize} rows. See {@link ColumnarQueryFormat} for the layout and
+ * {@link ColumnarQueryReader} for reading it with column projection.
+ * Only queries are written; explanation records are ignored, so this is normally combined with
+ * {@link StreamingOutputService} through a {@link CompositeOutputService}.
+ * An existing file is continued: its footer is cut off and rewritten on close.
+ */
+public class ColumnarQueryOutputService implements OutputService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarQueryOutputService.class);
+
+    public static final String FILE_NAME = "SPARQL_questions.colq";
+    public static final int DEFAULT_ROW_GROUP_SIZE = 65_536;
+
+    private static final QueryColumn[] COLUMNS = QueryColumn.values();
+
+    private final String outputDirectory;
+    private final int rowGroupSize;
+
+    private FileChannel channel;
+    private long position;
+    private final List<ColumnarQueryFormat.RowGroup> rowGroups = new ArrayList<>();
+    private long totalRows = 0;
+
+    // Pending row group, column by column; only the array matching the column type is allocated
+    private final String[][] stringValues = new String[COLUMNS.length][];
+    private final int[][] intValues = new int[COLUMNS.length][];
+    private int pendingRows = 0;
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final ByteArrayOutputStream rawChunk = new ByteArrayOutputStream(64 * 1024);
+    private final ByteArrayOutputStream groupBuffer = new ByteArrayOutputStream(256 * 1024);
+
+    public ColumnarQueryOutputService(String outputDirectory) {
+        this(outputDirectory, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ColumnarQueryOutputService(String outputDirectory, int rowGroupSize) {
+        this.outputDirectory = outputDirectory;
+        this.rowGroupSize = Math.max(rowGroupSize, 1);
+        for (QueryColumn column : COLUMNS) {
+            if (column.isInteger()) {
+                intValues[column.ordinal()] = new int[this.rowGroupSize];
+            } else {
+                stringValues[column.ordinal()] = new String[this.rowGroupSize];
+            }
+        }
+    }
+
+    @Override
+    public synchronized void initialize() throws IOException {
+        File outputDir = new File(outputDirectory);
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        File file = new File(outputDir, FILE_NAME);
+        boolean exists = file.exists() && file.length() > 0;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        if (exists) {
+            ColumnarQueryFormat.Metadata metadata = ColumnarQueryFormat.readMetadata(channel);
+            rowGroups.addAll(metadata.rowGroups);
+            totalRows = metadata.getRowCount();
+            position = metadata.dataEnd;
+            // The footer (or a torn row group) is rewritten/dropped; the next row group goes where it started
+            channel.truncate(position);
+            LOGGER.info("Resuming columnar query file {} after {} row group(s), {} rows",
+                    file.getPath(), rowGroups.size(), totalRows);
+        } else {
+            channel.write(ByteBuffer.wrap(ColumnarQueryFormat.MAGIC), 0);
+            position = ColumnarQueryFormat.MAGIC.length;
+            LOGGER.info("Columnar query output initialized: {}, row groups of {} rows", file.getPath(), rowGroupSize);
+        }
+    }
+
+    @Override
+    public void writeQueryWithTags(String taskId, String query, String taskType, String answer,
+                                   String explanation, String tags) {
+        // Legacy method - same defaults as the CSV output
+        writeComprehensiveQuery(taskId, "Thing", 100, 50, taskType, "BIN", query, "predicate", answer, null, 1, 1);
+    }
+
+    @Override
+    public synchronized void writeComprehensiveQuery(String taskId, String rootEntity, int tboxSize, int aboxSize,
+                                                     String taskType, String answerType, String sparqlQuery,
+                                                     String predicate, String answer, List<String> allAnswers,
+                                                     int minTagLength, int maxTagLength) {
+        // Same Answer value as the CSV: all answers for multi-choice queries
+        String finalAnswer = answer;
+        if ("MC".equals(answerType) && allAnswers != null && !allAnswers.isEmpty()) {
+            finalAnswer = String.join("; ", allAnswers);
+        }
+        if (pendingRows == rowGroupSize) {
+            // A failed write left a full row group pending; there is no room for this row until it is written
+            writeFullRowGroup();
+        }
+
+        int row = pendingRows;
+        stringValues[QueryColumn.TASK_ID.ordinal()][row] = taskId;
+        stringValues[QueryColumn.ROOT_ENTITY.ordinal()][row] = rootEntity;
+        intValues[QueryColumn.TBOX_SIZE.ordinal()][row] = tboxSize;
+        intValues[QueryColumn.ABOX_SIZE.ordinal()][row] = aboxSize;
+        stringValues[QueryColumn.TASK_TYPE.ordinal()][row] = taskType;
+        stringValues[QueryColumn.ANSWER_TYPE.ordinal()][row] = answerType;
+        stringValues[QueryColumn.SPARQL_QUERY.ordinal()][row] = sparqlQuery;
+        stringValues[QueryColumn.PREDICATE.ordinal()][row] = predicate;
+        stringValues[QueryColumn.ANSWER.ordinal()][row] = finalAnswer;
+        intValues[QueryColumn.MIN_TAG_LENGTH.ordinal()][row] = minTagLength;
+        intValues[QueryColumn.MAX_TAG_LENGTH.ordinal()][row] = maxTagLength;
+        pendingRows++;
+
+        if (pendingRows == rowGroupSize) {
+            writeFullRowGroup();
+        }
+    }
+
+    @Override
+    public void writeExplanationWithTags(String key, String explanation, String tags) {
+        // Query-only output
+    }
+
+    @Override
+    public void writeExplanationWithComprehensiveFormat(String key, String comprehensiveExplanation) {
+        // Query-only output
+    }
+
+    @Override
+    public void writeExplanationRecord(ExplanationRecord record) {
+        // Query-only output; skips rendering the record
+    }
+
+    @Override
+    public void setTotalQueries(long total) {
+        // Row counts are kept in the footer
+    }
+
+    @Override
+    public void logProgress(String operation, long completed, long total) {
+        LOGGER.info("Progress {}: {} completed", operation, completed);
+    }
+
+    /**
+     * Write the pending rows as a (possibly short) row group and sync the file
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            writeRowGroup();
+            if (channel != null) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error flushing columnar query output", e);
+        }
+    }
+
+    /**
+     * Write the pending rows as a row group, sync, and report the end of the row group data
+     */
+    @Override
+    public synchronized Map<String, Long> checkpointPositions() {
+        flush();
+        return Collections.singletonMap(FILE_NAME, position);
+    }
+
+    /**
+     * Drop row groups written after the checkpoint
+     */
+    @Override
+    public synchronized void restorePositions(Map<String, Long> positions) throws IOException {
+        Long length = positions.get(FILE_NAME);
+        if (channel == null || length == null || length >= position) {
+            return;
+        }
+        rowGroups.removeIf(group -> group.offset >= length);
+        totalRows = 0;
+        for (ColumnarQueryFormat.RowGroup group : rowGroups) {
+            totalRows += group.rowCount;
+        }
+        channel.truncate(length);
+        LOGGER.info("Rolled columnar query file back from {} to {} bytes ({} rows)", position, length, totalRows);
+        position = length;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            writeRowGroup();
+            byte[] footer = ColumnarQueryFormat.writeFooter(rowGroups, totalRows);
+            writeFully(footer, footer.length);
+            channel.force(true);
+            LOGGER.info("Columnar query output closed: {} rows in {} row group(s), {} bytes",
+                    totalRows, rowGroups.size(), position);
+        } finally {
+            channel.close();
+            channel = null;
+            deflater.end();
+        }
+    }
+
+    public synchronized long getRowCount() {
+        return totalRows + pendingRows;
+    }
+
+    private void writeFullRowGroup() {
+        try {
+            writeRowGroup();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing columnar row group", e);
+        }
+    }
+
+    /**
+     * Write the pending rows as one row group. If the write fails the file is cut back to where the
+     * row group started and the rows stay pending, so a later flush or close writes them again.
+     */
+    private void writeRowGroup() throws IOException {
+        if (pendingRows == 0 || channel == null) {
+            return;
+        }
+
+        long groupOffset = position;
+        groupBuffer.reset();
+        DataOutputStream out = new DataOutputStream(groupBuffer);
+        out.writeInt(ColumnarQueryFormat.ROW_GROUP_MARKER);
+        out.writeInt(pendingRows);
+
+        ColumnarQueryFormat.ColumnChunk[] chunks = new ColumnarQueryFormat.ColumnChunk[COLUMNS.length];
+        for (QueryColumn column : COLUMNS) {
+            int c = column.ordinal();
+            rawChunk.reset();
+            byte encoding;
+            if (column.isInteger()) {
+                ColumnarQueryFormat.encodeInts(intValues[c], pendingRows, rawChunk);
+                encoding = ColumnarQueryFormat.ENCODING_VARINT;
+            } else {
+                encoding = ColumnarQueryFormat.encodeStrings(stringValues[c], pendingRows, rawChunk);
+            }
+            byte[] raw = rawChunk.toByteArray();
+            byte[] compressed = ColumnarQueryFormat.compress(deflater, raw, raw.length);
+
+            out.writeByte(encoding);
+            out.writeInt(compressed.length);
+            out.writeInt(raw.length);
+            long dataOffset = groupOffset + groupBuffer.size();
+            out.write(compressed);
+            chunks[c] = new ColumnarQueryFormat.ColumnChunk(encoding, dataOffset, compressed.length, raw.length);
+        }
+        out.flush();
+
+        try {
+            writeFully(groupBuffer.toByteArray(), groupBuffer.size());
+        } catch (IOException e) {
+            try {
+                channel.truncate(groupOffset);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            position = groupOffset;
+            throw e;
+        }
+        rowGroups.add(new ColumnarQueryFormat.RowGroup(groupOffset, pendingRows, chunks));
+        totalRows += pendingRows;
+        LOGGER.debug("Wrote columnar row group {} ({} rows, {} bytes)",
+                rowGroups.size(), pendingRows, position - groupOffset);
+
+        for (String[] values : stringValues) {
+            if (values != null) {
+                Arrays.fill(values, 0, pendingRows, null);
+            }
+        }
+        pendingRows = 0;
+    }
+
+    private void writeFully(byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+// com/example/output/ColumnarQueryReader.java
+package com.example.output;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads SPARQL_questions.colq written by {@link ColumnarQueryOutputService}.
+ * Scans are projected: only the chunks of the requested columns are read and decompressed, one row
+ * group at a time, so statistics over a few columns never touch the SPARQL query strings.
+ * Files without a footer (the writer did not close) are read up to their last complete row group.
+ * Not thread-safe.
+ */
+public class ColumnarQueryReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ColumnarQueryFormat.Metadata metadata;
+
+    private ColumnarQueryReader(FileChannel channel, ColumnarQueryFormat.Metadata metadata) {
+        this.channel = channel;
+        this.metadata = metadata;
+    }
+
+    public static ColumnarQueryReader open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            return new ColumnarQueryReader(channel, ColumnarQueryFormat.readMetadata(channel));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getRowCount() {
+        return metadata.getRowCount();
+    }
+
+    public int getRowGroupCount() {
+        return metadata.rowGroups.size();
+    }
+
+    /**
+     * @return false if the file had no footer and was recovered by scanning its row groups
+     */
+    public boolean isComplete() {
+        return metadata.complete;
+    }
+
+    /**
+     * Visit every row, with only the given columns decoded.
+     * The {@link Row} passed to the consumer is reused; copy values out if they must outlive the call.
+     */
+    public void scan(List<QueryColumn> columns, RowConsumer consumer) throws IOException {
+        Row row = new Row(columns);
+        for (ColumnarQueryFormat.RowGroup group : metadata.rowGroups) {
+            row.load(group);
+            for (int i = 0; i < group.rowCount; i++) {
+                row.index = i;
+                consumer.accept(row);
+            }
+        }
+    }
+
+    /**
+     * Number of rows per distinct value of a string column
+     */
+    public Map<String, Long> countBy(QueryColumn column) throws IOException {
+        requireType(column, false);
+        Map<String, Long> counts = new TreeMap<>();
+        scan(Collections.singletonList(column), row -> counts.merge(row.getString(0), 1L, Long::sum));
+        return counts;
+    }
+
+    /**
+     * Sum of an integer column over all rows
+     */
+    public long sum(QueryColumn column) throws IOException {
+        requireType(column, true);
+        long[] sum = {0};
+        scan(Collections.singletonList(column), row -> sum[0] += row.getInt(0));
+        return sum[0];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void requireType(QueryColumn column, boolean integer) {
+        if (column.isInteger() != integer) {
+            throw new IllegalArgumentException(column + " is not " + (integer ? "an integer" : "a string") + " column");
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(Row row) throws IOException;
+    }
+
+    /**
+     * Current row of a projected scan; values are addressed by their position in the projection
+     */
+    public final class Row {
+        private final QueryColumn[] projection;
+        private final String[][] strings;
+        private final int[][] ints;
+        private int index;
+
+        private Row(List<QueryColumn> columns) {
+            this.projection = columns.toArray(new QueryColumn[0]);
+            this.strings = new String[projection.length][];
+            this.ints = new int[projection.length][];
+        }
+
+        private void load(ColumnarQueryFormat.RowGroup group) throws IOException {
+            for (int p = 0; p < projection.length; p++) {
+                ColumnarQueryFormat.ColumnChunk chunk = group.chunks[projection[p].ordinal()];
+                byte[] compressed = OutputFiles.readRange(channel, chunk.offset, chunk.offset + chunk.compressedLength);
+                byte[] raw = ColumnarQueryFormat.decompress(compressed, chunk.rawLength);
+                if (projection[p].isInteger()) {
+                    ints[p] = ColumnarQueryFormat.decodeInts(chunk.encoding, raw, group.rowCount);
+                } else {
+                    strings[p] = ColumnarQueryFormat.decodeStrings(chunk.encoding, raw, group.rowCount);
+                }
+            }
+        }
+
+        public String getString(int column) {
+            if (projection[column].isInteger()) {
+                return Integer.toString(ints[column][index]);
+            }
+            return strings[column][index];
+        }
+
+        public int getInt(int column) {
+            if (!projection[column].isInteger()) {
+                throw new IllegalArgumentException(projection[column] + " is not an integer column");
+            }
+            return ints[column][index];
+        }
+    }
+}
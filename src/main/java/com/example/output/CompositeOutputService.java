@@ -0,0 +1,145 @@
+// com/example/output/CompositeOutputService.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forwards every record to several output services, e.g. the CSV/JSON files and the columnar export.
+ * Progress is logged by the first delegate only.
+ */
+public class CompositeOutputService implements OutputService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompositeOutputService.class);
+
+    private final List<OutputService> delegates;
+
+    public CompositeOutputService(OutputService... delegates) {
+        if (delegates.length == 0) {
+            throw new IllegalArgumentException("At least one output service is required");
+        }
+        this.delegates = Arrays.asList(delegates);
+    }
+
+    @Override
+    public void initialize() throws IOException {
+        for (OutputService delegate : delegates) {
+            delegate.initialize();
+        }
+    }
+
+    @Override
+    public void writeQueryWithTags(String taskId, String query, String taskType, String answer,
+                                   String explanation, String tags) {
+        for (OutputService delegate : delegates) {
+            delegate.writeQueryWithTags(taskId, query, taskType, answer, explanation, tags);
+        }
+    }
+
+    @Override
+    public void writeComprehensiveQuery(String taskId, String rootEntity, int tboxSize, int aboxSize,
+                                        String taskType, String answerType, String sparqlQuery,
+                                        String predicate, String answer, List<String> allAnswers,
+                                        int minTagLength, int maxTagLength) {
+        for (OutputService delegate : delegates) {
+            delegate.writeComprehensiveQuery(taskId, rootEntity, tboxSize, aboxSize, taskType, answerType,
+                    sparqlQuery, predicate, answer, allAnswers, minTagLength, maxTagLength);
+        }
+    }
+
+    @Override
+    public void writeExplanationWithTags(String key, String explanation, String tags) {
+        for (OutputService delegate : delegates) {
+            delegate.writeExplanationWithTags(key, explanation, tags);
+        }
+    }
+
+    @Override
+    public void writeExplanationWithComprehensiveFormat(String key, String comprehensiveExplanation) {
+        for (OutputService delegate : delegates) {
+            delegate.writeExplanationWithComprehensiveFormat(key, comprehensiveExplanation);
+        }
+    }
+
+    @Override
+    public void writeExplanationRecord(ExplanationRecord record) {
+        for (OutputService delegate : delegates) {
+            delegate.writeExplanationRecord(record);
+        }
+    }
+
+    @Override
+    public void setTotalQueries(long total) {
+        for (OutputService delegate : delegates) {
+            delegate.setTotalQueries(total);
+        }
+    }
+
+    @Override
+    public void logProgress(String operation, long completed, long total) {
+        delegates.get(0).logProgress(operation, completed, total);
+    }
+
+    @Override
+    public void flush() {
+        for (OutputService delegate : delegates) {
+            delegate.flush();
+        }
+    }
+
+    /**
+     * Positions of all delegates, keys prefixed with the delegate's index
+     */
+    @Override
+    public Map<String, Long> checkpointPositions() {
+        Map<String, Long> positions = new LinkedHashMap<>();
+        for (int i = 0; i < delegates.size(); i++) {
+            for (Map.Entry<String, Long> entry : delegates.get(i).checkpointPositions().entrySet()) {
+                positions.put(i + ":" + entry.getKey(), entry.getValue());
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public void restorePositions(Map<String, Long> positions) throws IOException {
+        for (int i = 0; i < delegates.size(); i++) {
+            String prefix = i + ":";
+            Map<String, Long> own = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : positions.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    own.put(entry.getKey().substring(prefix.length()), entry.getValue());
+                }
+            }
+            delegates.get(i).restorePositions(own);
+        }
+    }
+
+    /**
+     * Close every delegate, even if one fails; the first failure is rethrown
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (OutputService delegate : delegates) {
+            try {
+                delegate.close();
+            } catch (IOException e) {
+                LOGGER.error("Error closing output service {}", delegate.getClass().getSimpleName(), e);
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+// com/example/output/ExplanationFormat.java
+package com.example.output;
+
+/**
+ * How explanations are written
+ */
+public enum ExplanationFormat {
+    /** One Explanations.json object keyed by triple */
+    JSON,
+    /** JSON Lines: one explanation per line in size-bounded shards, plus a triple key index */
+    NDJSON;
+
+    /**
+     * Parse a configuration value ("json" or "ndjson"), defaulting to JSON
+     */
+    public static ExplanationFormat fromString(String value) {
+        return "ndjson".equalsIgnoreCase(value) || "jsonl".equalsIgnoreCase(value) ? NDJSON : JSON;
+    }
+}
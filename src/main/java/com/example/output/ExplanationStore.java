@@ -0,0 +1,179 @@
+// com/example/output/ExplanationStore.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.BiPredicate;
+
+/**
+ * Random-access reader for the explanation store written by {@link ExplanationStoreOutputService}.
+ * The data file and both indexes are memory-mapped; a lookup is a binary search over the sorted hash
+ * index followed by decoding the one matching record, so fetching a few thousand explanations out of
+ * millions never parses the rest of the corpus.
+ * Thread-safe: lookups only use absolute reads and per-call slices.
+ */
+public class ExplanationStore implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExplanationStore.class);
+
+    private final MappedSegments data;
+    private final MappedSegments keyIndex;
+    private final MappedSegments taskIndex;
+    private final long keyCount;
+    private final long taskCount;
+
+    private ExplanationStore(MappedSegments data, MappedSegments keyIndex, MappedSegments taskIndex) throws IOException {
+        this.data = data;
+        this.keyIndex = keyIndex;
+        this.taskIndex = taskIndex;
+        this.keyCount = entryCount(keyIndex, ExplanationStoreFormat.KEY_INDEX_FILE_NAME);
+        this.taskCount = entryCount(taskIndex, ExplanationStoreFormat.TASK_INDEX_FILE_NAME);
+    }
+
+    /**
+     * Open the store in an output directory
+     */
+    public static ExplanationStore open(File directory) throws IOException {
+        return open(directory, MappedSegments.SEGMENT_SIZE, MappedSegments.OVERLAP);
+    }
+
+    /**
+     * Open the store with data segments of the given size, so tests can cross segment boundaries
+     */
+    static ExplanationStore open(File directory, long segmentSize, long overlap) throws IOException {
+        File keyFile = new File(directory, ExplanationStoreFormat.KEY_INDEX_FILE_NAME);
+        File taskFile = new File(directory, ExplanationStoreFormat.TASK_INDEX_FILE_NAME);
+        File dataFile = new File(directory, ExplanationStoreFormat.DATA_FILE_NAME);
+
+        MappedSegments keyIndex = new MappedSegments(keyFile.toPath(), Long.MAX_VALUE);
+        MappedSegments taskIndex = null;
+        MappedSegments data = null;
+        try {
+            taskIndex = new MappedSegments(taskFile.toPath(), Long.MAX_VALUE);
+            // Only the indexed part of the data file is mapped; records appended later are not visible yet
+            long indexedLength = keyIndex.size() >= ExplanationStoreFormat.INDEX_HEADER_LENGTH
+                    ? keyIndex.getLong(ExplanationStoreFormat.INDEX_DATA_LENGTH_OFFSET) : 0;
+            if (indexedLength < 0 || indexedLength > dataFile.length()) {
+                throw new IOException("Explanation store index covers " + indexedLength
+                        + " bytes but the data file has " + dataFile.length());
+            }
+            data = new MappedSegments(dataFile.toPath(), indexedLength, segmentSize, overlap);
+            if (dataFile.length() > indexedLength) {
+                LOGGER.warn("Explanation store has {} bytes written after its index - they are not searchable " +
+                        "until the writer closes", dataFile.length() - indexedLength);
+            }
+            return new ExplanationStore(data, keyIndex, taskIndex);
+        } catch (IOException e) {
+            keyIndex.close();
+            if (taskIndex != null) taskIndex.close();
+            if (data != null) data.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the explanations of the "s|p|o" triple key, or null if it is not in the store
+     */
+    public ExplanationRecord get(String tripleKey) throws IOException {
+        return find(keyIndex, keyCount, tripleKey, ExplanationStoreFormat::hasKey);
+    }
+
+    /**
+     * @return the explanations of the triple a task ID was generated for, or null if it is not in the store
+     */
+    public ExplanationRecord getByTaskId(String taskId) throws IOException {
+        return find(taskIndex, taskCount, taskId, ExplanationStoreFormat::hasTaskId);
+    }
+
+    public boolean contains(String tripleKey) throws IOException {
+        return offsetOf(keyIndex, keyCount, tripleKey, ExplanationStoreFormat::hasKey) >= 0;
+    }
+
+    /**
+     * Number of stored records
+     */
+    public long size() {
+        return keyCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+        keyIndex.close();
+        taskIndex.close();
+    }
+
+    private ExplanationRecord find(MappedSegments index, long count, String key,
+                                   BiPredicate<ByteBuffer, String> matches) throws IOException {
+        long offset = offsetOf(index, count, key, matches);
+        if (offset < 0) {
+            return null;
+        }
+        return ExplanationStoreFormat.decode(record(offset));
+    }
+
+    /**
+     * Binary search for the first entry with the key's hash, then check the records of all entries
+     * sharing that hash against the key itself
+     */
+    private long offsetOf(MappedSegments index, long count, String key,
+                          BiPredicate<ByteBuffer, String> matches) throws IOException {
+        long hash = ExplanationStoreFormat.hash(key);
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (index.getLong(entry(mid)) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (long i = low; i < count && index.getLong(entry(i)) == hash; i++) {
+            long offset = index.getLong(entry(i) + 8);
+            if (matches.test(record(offset), key)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer record(long offset) throws IOException {
+        if (offset < ExplanationStoreFormat.DATA_MAGIC.length || offset > data.size() - 4) {
+            throw new IOException("Explanation store index points at offset " + offset
+                    + " outside of the indexed data (" + data.size() + " bytes)");
+        }
+        int length = data.getInt(offset);
+        if (length < 0 || offset + 4 + length > data.size()) {
+            throw new IOException("Explanation store record at offset " + offset + " has length " + length
+                    + " past the end of the indexed data (" + data.size() + " bytes)");
+        }
+        return data.slice(offset + 4, length);
+    }
+
+    private static long entry(long i) {
+        return ExplanationStoreFormat.INDEX_HEADER_LENGTH + i * ExplanationStoreFormat.INDEX_ENTRY_LENGTH;
+    }
+
+    private static long entryCount(MappedSegments index, String name) throws IOException {
+        if (index.size() < ExplanationStoreFormat.INDEX_HEADER_LENGTH
+                || index.getInt(0) != ExplanationStoreFormat.INDEX_MAGIC) {
+            throw new IOException("Not an explanation store index: " + name);
+        }
+        if (index.getInt(4) != ExplanationStoreFormat.INDEX_VERSION) {
+            throw new IOException("Unsupported explanation store index version " + index.getInt(4) + " in " + name);
+        }
+        long count = index.getLong(ExplanationStoreFormat.INDEX_COUNT_OFFSET);
+        if (entry(count) > index.size()) {
+            throw new IOException("Truncated explanation store index: " + name);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,264 @@
+// com/example/output/ExplanationStoreFormat.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import com.example.util.OntologyUtils;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary layout of the explanation store:
+ * <pre>
+ *   explanations.store      "EXS1", then records: length, subject, predicate, object, taskIds,
+ *                           minSize, maxSize, explanations (tag, justifications), sparqlQueries
+ *   explanations.keys.idx   header (magic, version, entry count, indexed data length),
+ *   explanations.tasks.idx  then fixed 16-byte entries (64-bit hash, record offset) sorted by hash
+ * </pre>
+ * Strings are a length followed by UTF-8 bytes, lists a count followed by their elements.
+ * The identifying fields come first so the index can be rebuilt by reading only the record heads.
+ */
+final class ExplanationStoreFormat {
+
+    static final String DATA_FILE_NAME = "explanations.store";
+    static final String KEY_INDEX_FILE_NAME = "explanations.keys.idx";
+    static final String TASK_INDEX_FILE_NAME = "explanations.tasks.idx";
+
+    static final byte[] DATA_MAGIC = {'E', 'X', 'S', '1'};
+    static final int INDEX_MAGIC = 0x45584931; // "EXI1"
+    static final int INDEX_VERSION = 1;
+    static final int INDEX_COUNT_OFFSET = 8;
+    static final int INDEX_DATA_LENGTH_OFFSET = 16;
+    static final int INDEX_HEADER_LENGTH = 24;
+    static final int INDEX_ENTRY_LENGTH = 16;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private ExplanationStoreFormat() {
+    }
+
+    static long hash(String value) {
+        return HASH.hashString(value, StandardCharsets.UTF_8).asLong();
+    }
+
+    // ==================== RECORDS ====================
+
+    /**
+     * Encode a record including its length prefix
+     */
+    static void encode(ExplanationRecord record, ByteArrayOutputStream bytes) throws IOException {
+        bytes.reset();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length, patched below
+
+        writeString(out, record.getSubject());
+        writeString(out, record.getPredicate());
+        writeString(out, record.getObject());
+        writeStrings(out, record.getTaskIds());
+        out.writeInt(record.getMinSize());
+        out.writeInt(record.getMaxSize());
+        out.writeInt(record.getExplanationCount());
+        for (ExplanationRecord.Explanation explanation : record.getExplanations()) {
+            writeString(out, explanation.getTag());
+            writeStrings(out, explanation.getJustifications());
+        }
+        writeStrings(out, record.getSparqlQueries());
+        out.flush();
+    }
+
+    /**
+     * The encoded record with its length prefix filled in
+     */
+    static byte[] withLength(ByteArrayOutputStream bytes) {
+        byte[] encoded = bytes.toByteArray();
+        ByteBuffer.wrap(encoded).putInt(0, encoded.length - 4);
+        return encoded;
+    }
+
+    /**
+     * Decode a record body (after the length prefix)
+     */
+    static ExplanationRecord decode(ByteBuffer in) {
+        String subject = readString(in);
+        String predicate = readString(in);
+        String object = readString(in);
+        List<String> taskIds = readStrings(in);
+        int minSize = in.getInt();
+        int maxSize = in.getInt();
+        int explanationCount = in.getInt();
+        List<ExplanationRecord.Explanation> explanations = new ArrayList<>(explanationCount);
+        for (int i = 0; i < explanationCount; i++) {
+            String tag = readString(in);
+            explanations.add(new ExplanationRecord.Explanation(readStrings(in), tag));
+        }
+        List<String> sparqlQueries = readStrings(in);
+        return new ExplanationRecord(subject, predicate, object, explanations, minSize, maxSize,
+                taskIds, sparqlQueries);
+    }
+
+    /**
+     * Compare the triple of an encoded record with a key without decoding the rest of it
+     */
+    static boolean hasKey(ByteBuffer in, String tripleKey) {
+        return OntologyUtils.createTripleKey(readString(in), readString(in), readString(in)).equals(tripleKey);
+    }
+
+    static boolean hasTaskId(ByteBuffer in, String taskId) {
+        readString(in);
+        readString(in);
+        readString(in);
+        return readStrings(in).contains(taskId);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(in.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+
+    static List<String> readStrings(ByteBuffer in) {
+        int count = in.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ==================== INDEX ====================
+
+    /**
+     * Growable (hash, offset) pairs, sorted once and written as an index file
+     */
+    static final class IndexBuilder {
+        private long[] hashes = new long[1024];
+        private long[] offsets = new long[1024];
+        private int size = 0;
+
+        void add(long hash, long offset) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            hashes[size] = hash;
+            offsets[size] = offset;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * Remove the entries of records at or after an offset; entries are added in offset order
+         */
+        void truncateFrom(long offset) {
+            while (size > 0 && offsets[size - 1] >= offset) {
+                size--;
+            }
+        }
+
+        /**
+         * Sort by hash and write the index through a temporary file, so readers never see a partial index
+         */
+        void write(File file, long indexedDataLength) throws IOException {
+            sort(0, size);
+
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp), 256 * 1024))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(size);
+                out.writeLong(indexedDataLength);
+                for (int i = 0; i < size; i++) {
+                    out.writeLong(hashes[i]);
+                    out.writeLong(offsets[i]);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // In-place quicksort of the parallel arrays by hash; equal hashes keep no particular order
+        private void sort(int from, int to) {
+            while (to - from > 16) {
+                int mid = (from + to) >>> 1;
+                long pivot = median(hashes[from], hashes[mid], hashes[to - 1]);
+                int i = from;
+                int j = to - 1;
+                while (i <= j) {
+                    while (hashes[i] < pivot) i++;
+                    while (hashes[j] > pivot) j--;
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // Recurse into the smaller part, loop on the larger one
+                if (j - from < to - i) {
+                    sort(from, j + 1);
+                    from = i;
+                } else {
+                    sort(i, to);
+                    to = j + 1;
+                }
+            }
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && hashes[j - 1] > hashes[j]; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+
+        private static long median(long a, long b, long c) {
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        }
+
+        private void swap(int a, int b) {
+            long hash = hashes[a];
+            hashes[a] = hashes[b];
+            hashes[b] = hash;
+            long offset = offsets[a];
+            offsets[a] = offsets[b];
+            offsets[b] = offset;
+        }
+    }
+}
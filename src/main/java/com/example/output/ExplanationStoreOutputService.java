@@ -0,0 +1,246 @@
+// com/example/output/ExplanationStoreOutputService.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import com.example.util.OntologyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes explanation records to an append-only binary store (explanations.store) and, on close,
+ * the sorted triple-key and task-ID indexes that {@link ExplanationStore} memory-maps for lookups.
+ * The index entries are kept in memory as primitive arrays while the run is in progress (16 bytes per
+ * key or task ID). When a previous store exists, its torn last record is dropped and the index is
+ * rebuilt by reading the record heads.
+ * Only structured explanation records are stored; queries and legacy string explanations are ignored,
+ * so this is combined with the file outputs through a {@link CompositeOutputService}.
+ */
+public class ExplanationStoreOutputService implements OutputService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExplanationStoreOutputService.class);
+
+    private final String outputDirectory;
+    private final int bufferSize;
+
+    private File directory;
+    private FileOutputStream dataStream;
+    private OutputStream dataOut;
+    private long position;
+
+    private final ExplanationStoreFormat.IndexBuilder keyIndex = new ExplanationStoreFormat.IndexBuilder();
+    private final ExplanationStoreFormat.IndexBuilder taskIndex = new ExplanationStoreFormat.IndexBuilder();
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(4096);
+
+    public ExplanationStoreOutputService(String outputDirectory) {
+        this(outputDirectory, StreamingOutputService.DEFAULT_BUFFER_SIZE);
+    }
+
+    public ExplanationStoreOutputService(String outputDirectory, int bufferSize) {
+        this.outputDirectory = outputDirectory;
+        this.bufferSize = Math.max(bufferSize, 8 * 1024);
+    }
+
+    @Override
+    public synchronized void initialize() throws IOException {
+        directory = new File(outputDirectory);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        File dataFile = new File(directory, ExplanationStoreFormat.DATA_FILE_NAME);
+        boolean exists = dataFile.exists() && dataFile.length() > 0;
+        if (exists) {
+            position = rebuildIndex(dataFile);
+        }
+
+        dataStream = new FileOutputStream(dataFile, true);
+        dataOut = new BufferedOutputStream(dataStream, bufferSize);
+        if (!exists) {
+            dataOut.write(ExplanationStoreFormat.DATA_MAGIC);
+            position = ExplanationStoreFormat.DATA_MAGIC.length;
+        }
+
+        LOGGER.info("Explanation store initialized: {} ({} records)", dataFile.getPath(), keyIndex.size());
+    }
+
+    @Override
+    public synchronized void writeExplanationRecord(ExplanationRecord record) {
+        if (dataOut == null) {
+            return;
+        }
+        try {
+            ExplanationStoreFormat.encode(record, recordBuffer);
+            byte[] encoded = ExplanationStoreFormat.withLength(recordBuffer);
+
+            long offset = position;
+            dataOut.write(encoded);
+            position += encoded.length;
+
+            keyIndex.add(ExplanationStoreFormat.hash(record.getTripleKey()), offset);
+            for (String taskId : record.getTaskIds()) {
+                taskIndex.add(ExplanationStoreFormat.hash(taskId), offset);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error writing explanation store record: {}", record.getTripleKey(), e);
+        }
+    }
+
+    @Override
+    public void writeQueryWithTags(String taskId, String query, String taskType, String answer,
+                                   String explanation, String tags) {
+        // Explanations only
+    }
+
+    @Override
+    public void writeComprehensiveQuery(String taskId, String rootEntity, int tboxSize, int aboxSize,
+                                        String taskType, String answerType, String sparqlQuery,
+                                        String predicate, String answer, List<String> allAnswers,
+                                        int minTagLength, int maxTagLength) {
+        // Explanations only
+    }
+
+    @Override
+    public void writeExplanationWithTags(String key, String explanation, String tags) {
+        // Unstructured; not stored
+    }
+
+    @Override
+    public void writeExplanationWithComprehensiveFormat(String key, String comprehensiveExplanation) {
+        // Unstructured; not stored
+    }
+
+    @Override
+    public void setTotalQueries(long total) {
+        // Not tracked
+    }
+
+    @Override
+    public void logProgress(String operation, long completed, long total) {
+        LOGGER.info("Progress {}: {} completed", operation, completed);
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            if (dataOut != null) {
+                dataOut.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error flushing explanation store", e);
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Long> checkpointPositions() {
+        try {
+            if (dataOut != null) {
+                dataOut.flush();
+                dataStream.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error syncing explanation store", e);
+        }
+        return Collections.singletonMap(ExplanationStoreFormat.DATA_FILE_NAME, position);
+    }
+
+    /**
+     * Drop records written after the checkpoint, together with their index entries
+     */
+    @Override
+    public synchronized void restorePositions(Map<String, Long> positions) throws IOException {
+        Long length = positions.get(ExplanationStoreFormat.DATA_FILE_NAME);
+        if (dataOut == null || length == null || length >= position) {
+            return;
+        }
+        dataOut.flush();
+        dataStream.getChannel().truncate(length);
+        keyIndex.truncateFrom(length);
+        taskIndex.truncateFrom(length);
+        LOGGER.info("Rolled explanation store back from {} to {} bytes ({} records)", position, length, keyIndex.size());
+        position = length;
+    }
+
+    /**
+     * Sync the data file, then write both indexes over everything in it
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (dataOut == null) {
+            return;
+        }
+        try {
+            dataOut.flush();
+            dataStream.getChannel().force(false);
+        } finally {
+            dataOut.close();
+            dataOut = null;
+        }
+
+        keyIndex.write(new File(directory, ExplanationStoreFormat.KEY_INDEX_FILE_NAME), position);
+        taskIndex.write(new File(directory, ExplanationStoreFormat.TASK_INDEX_FILE_NAME), position);
+        LOGGER.info("Explanation store closed: {} records, {} task IDs, {} bytes",
+                keyIndex.size(), taskIndex.size(), position);
+    }
+
+    /**
+     * Re-read the record heads of an existing store into the in-memory index and cut off a torn last record
+     * @return the end of the last complete record
+     */
+    private long rebuildIndex(File dataFile) throws IOException {
+        long size = dataFile.length();
+        long offset = ExplanationStoreFormat.DATA_MAGIC.length;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dataFile), bufferSize))) {
+            byte[] magic = new byte[ExplanationStoreFormat.DATA_MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, ExplanationStoreFormat.DATA_MAGIC)) {
+                throw new IOException("Not an explanation store: " + dataFile.getPath());
+            }
+
+            while (offset + 4 <= size) {
+                int length = in.readInt();
+                if (length < 0 || offset + 4 + length > size) {
+                    break;
+                }
+                // Only the identifying head is read; the rest of the record is skipped
+                String subject = ExplanationStoreFormat.readString(in);
+                String predicate = ExplanationStoreFormat.readString(in);
+                String object = ExplanationStoreFormat.readString(in);
+                int taskIdCount = in.readInt();
+                int headLength = 4 + 4 + 4 + 4;
+                headLength += utf8Length(subject) + utf8Length(predicate) + utf8Length(object);
+
+                keyIndex.add(ExplanationStoreFormat.hash(OntologyUtils.createTripleKey(subject, predicate, object)), offset);
+                for (int i = 0; i < taskIdCount; i++) {
+                    String taskId = ExplanationStoreFormat.readString(in);
+                    taskIndex.add(ExplanationStoreFormat.hash(taskId), offset);
+                    headLength += 4 + utf8Length(taskId);
+                }
+                in.skipNBytes(length - headLength);
+                offset += 4 + length;
+            }
+        }
+
+        if (offset < size) {
+            try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+            }
+            LOGGER.warn("Dropped {} bytes of an incomplete record from {}", size - offset, dataFile.getName());
+        }
+        LOGGER.info("Rebuilt explanation store index: {} records, {} task IDs", keyIndex.size(), taskIndex.size());
+        return offset;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
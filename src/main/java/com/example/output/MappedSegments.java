@@ -0,0 +1,97 @@
+// com/example/output/MappedSegments.java
+package com.example.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only memory mapping of a file of any size, as 1 GB segments that overlap by 16 MB so a value
+ * starting near the end of a segment can still be read from that segment. Values longer than the
+ * overlap that cross a segment boundary are copied through the channel instead.
+ * Slices share the mapped memory; no bytes are copied for the common case.
+ */
+final class MappedSegments implements Closeable {
+
+    static final long SEGMENT_SIZE = 1L << 30;
+    static final long OVERLAP = 16L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long segmentSize;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * @param length number of bytes to map from the start of the file
+     */
+    MappedSegments(Path path, long length) throws IOException {
+        this(path, length, SEGMENT_SIZE, OVERLAP);
+    }
+
+    /**
+     * @param segmentSize distance between segment starts; smaller than the default only in tests
+     * @param overlap bytes each segment extends into the next, at least the 8 bytes of a long
+     */
+    MappedSegments(Path path, long length, long segmentSize, long overlap) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.segmentSize = segmentSize;
+        try {
+            this.size = Math.min(length, channel.size());
+            int count = (int) ((size + segmentSize - 1) / segmentSize);
+            this.segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, segmentSize + overlap));
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    int getInt(long position) {
+        return segment(position).getInt(offset(position));
+    }
+
+    long getLong(long position) {
+        return segment(position).getLong(offset(position));
+    }
+
+    /**
+     * A buffer over [position, position + length), positioned at 0
+     */
+    ByteBuffer slice(long position, int length) throws IOException {
+        if (position < 0 || length < 0 || position + length > size) {
+            throw new IOException("Range " + position + "+" + length + " outside of mapped file of " + size + " bytes");
+        }
+        MappedByteBuffer segment = segment(position);
+        int offset = offset(position);
+        if (offset + length <= segment.limit()) {
+            return segment.slice(offset, length);
+        }
+        return ByteBuffer.wrap(OutputFiles.readRange(channel, position, position + length));
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mappings are released when the buffers are garbage collected
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(long position) {
+        return segments[(int) (position / segmentSize)];
+    }
+
+    private int offset(long position) {
+        return (int) (position % segmentSize);
+    }
+}
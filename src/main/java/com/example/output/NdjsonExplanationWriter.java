@@ -0,0 +1,406 @@
+// com/example/output/NdjsonExplanationWriter.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes explanations as JSON Lines: one self-contained JSON object per line, in shards of bounded size
+ * (Explanations-00000.ndjson, Explanations-00001.ndjson, ...). A tab-separated side index
+ * (Explanations.index.tsv) maps each triple key to its shard, byte offset and byte length, so consumers can
+ * stream the shards or jump straight to a single explanation.
+ * Each line has the fields key, inferred, explanations, size (if any explanations), explanationCount,
+ * taskIds and sparqlQueries, mirroring the members of Explanations.json.
+ * Thread-safe.
+ */
+public class NdjsonExplanationWriter implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NdjsonExplanationWriter.class);
+
+    public static final String INDEX_FILE_NAME = "Explanations.index.tsv";
+    public static final String INDEX_HEADER = "tripleKey\tshard\toffset\tlength";
+    private static final String POSITION_SHARD = "ndjson.shard";
+    private static final String POSITION_SHARD_BYTES = "ndjson.shardBytes";
+    private static final String POSITION_INDEX_BYTES = "ndjson.indexBytes";
+    private static final Pattern SHARD_NAME = Pattern.compile("Explanations-(\\d{5})\\.ndjson");
+
+    private final File directory;
+    private final long maxShardBytes;
+    private final int bufferSize;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    // Reused per record: the line is serialized here first so its byte length is known for the index
+    private final ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream(4096);
+
+    private int shardNumber = -1;
+    private String shardName;
+    private FileOutputStream shardStream;
+    private OutputStream shardOut;
+    private long shardBytes;
+
+    private FileOutputStream indexStream;
+    private Writer indexWriter;
+
+    private long recordCount = 0;
+
+    /**
+     * @param maxShardBytes a new shard is started once the current one reaches this size
+     */
+    public NdjsonExplanationWriter(File directory, long maxShardBytes, int bufferSize) {
+        this.directory = directory;
+        this.maxShardBytes = Math.max(maxShardBytes, 1024 * 1024);
+        this.bufferSize = bufferSize;
+    }
+
+    public static String shardName(int shardNumber) {
+        return String.format("Explanations-%05d.ndjson", shardNumber);
+    }
+
+    /**
+     * Open the writer, continuing the last existing shard and index if a previous run left them
+     */
+    public synchronized void open() throws IOException {
+        File indexFile = new File(directory, INDEX_FILE_NAME);
+        boolean indexExists = indexFile.exists() && indexFile.length() > 0;
+
+        int lastShard = findLastShard();
+        long indexedEnd = 0;
+        if (lastShard >= 0) {
+            File shardFile = new File(directory, shardName(lastShard));
+            OutputFiles.dropIncompleteLastLine(shardFile);
+            if (indexExists) {
+                OutputFiles.dropIncompleteLastLine(indexFile);
+                indexedEnd = trimIndexTail(indexFile, shardName(lastShard), shardFile.length());
+            }
+        }
+
+        indexStream = new FileOutputStream(indexFile, true);
+        indexWriter = new BufferedWriter(new OutputStreamWriter(indexStream, StandardCharsets.UTF_8), bufferSize);
+        if (!indexExists) {
+            indexWriter.write(INDEX_HEADER);
+            indexWriter.write('\n');
+        }
+
+        if (lastShard >= 0) {
+            openShard(lastShard);
+            reindexUnindexedRecords(indexedEnd);
+            LOGGER.info("Resuming explanation shard {} at byte {}", shardName, shardBytes);
+        } else {
+            openShard(0);
+        }
+    }
+
+    /**
+     * Append one explanation line and its index entry
+     */
+    public synchronized void write(ExplanationRecord record) throws IOException {
+        lineBuffer.reset();
+        try (JsonGenerator json = jsonFactory.createGenerator(lineBuffer, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("key", record.getTripleKey());
+
+            json.writeObjectFieldStart("inferred");
+            json.writeStringField("subject", record.getSubject());
+            json.writeStringField("predicate", record.getPredicate());
+            json.writeStringField("object", record.getObject());
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("explanations");
+            for (ExplanationRecord.Explanation explanation : record.getExplanations()) {
+                json.writeStartArray();
+                for (String justification : explanation.getJustifications()) {
+                    json.writeString(justification);
+                }
+                if (!explanation.getTag().isEmpty()) {
+                    json.writeString("TAG:" + explanation.getTag());
+                }
+                json.writeEndArray();
+            }
+            json.writeEndArray();
+
+            if (record.getExplanationCount() > 0) {
+                json.writeObjectFieldStart("size");
+                json.writeNumberField("min", record.getMinSize());
+                json.writeNumberField("max", record.getMaxSize());
+                json.writeEndObject();
+            }
+
+            json.writeNumberField("explanationCount", record.getExplanationCount());
+
+            json.writeArrayFieldStart("taskIds");
+            for (String taskId : record.getTaskIds()) {
+                json.writeString(taskId);
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("sparqlQueries");
+            for (String query : record.getSparqlQueries()) {
+                json.writeString(query);
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+        }
+        lineBuffer.write('\n');
+
+        writeLine(record.getTripleKey());
+    }
+
+    /**
+     * Append a line for output that has no structured record (legacy write methods)
+     */
+    public synchronized void writeFields(String key, String... namesAndValues) throws IOException {
+        lineBuffer.reset();
+        try (JsonGenerator json = jsonFactory.createGenerator(lineBuffer, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("key", key);
+            for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+                json.writeStringField(namesAndValues[i], namesAndValues[i + 1]);
+            }
+            json.writeEndObject();
+        }
+        lineBuffer.write('\n');
+
+        writeLine(key);
+    }
+
+    private void writeLine(String key) throws IOException {
+        if (shardBytes > 0 && shardBytes + lineBuffer.size() > maxShardBytes) {
+            closeShard();
+            openShard(shardNumber + 1);
+        }
+
+        long offset = shardBytes;
+        int length = lineBuffer.size();
+        lineBuffer.writeTo(shardOut);
+        shardBytes += length;
+
+        indexWriter.write(key);
+        indexWriter.write('\t');
+        indexWriter.write(shardName);
+        indexWriter.write('\t');
+        indexWriter.write(Long.toString(offset));
+        indexWriter.write('\t');
+        indexWriter.write(Integer.toString(length));
+        indexWriter.write('\n');
+
+        recordCount++;
+    }
+
+    /**
+     * Flush and sync the current shard, then the index, so every index entry on disk points at data on disk
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (shardOut != null) {
+            shardOut.flush();
+            shardStream.getChannel().force(false);
+        }
+        if (indexWriter != null) {
+            indexWriter.flush();
+            indexStream.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Current shard and synced lengths; only meaningful right after {@link #checkpoint()}
+     */
+    public synchronized Map<String, Long> positions() throws IOException {
+        Map<String, Long> positions = new LinkedHashMap<>();
+        positions.put(POSITION_SHARD, (long) shardNumber);
+        positions.put(POSITION_SHARD_BYTES, shardBytes);
+        positions.put(POSITION_INDEX_BYTES, indexStream.getChannel().size());
+        return positions;
+    }
+
+    /**
+     * Roll shards and index back to {@link #positions()}: later shards are deleted, the shard and
+     * index truncated, and writing continues in that shard
+     */
+    public synchronized void restore(Map<String, Long> positions) throws IOException {
+        Long shard = positions.get(POSITION_SHARD);
+        Long bytes = positions.get(POSITION_SHARD_BYTES);
+        Long indexBytes = positions.get(POSITION_INDEX_BYTES);
+        if (shard == null || bytes == null || indexBytes == null) {
+            return;
+        }
+
+        checkpoint();
+        closeShard();
+        for (int n = findLastShard(); n > shard; n--) {
+            File later = new File(directory, shardName(n));
+            if (later.exists() && !later.delete()) {
+                throw new IOException("Could not delete " + later.getPath());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(new File(directory, shardName(shard.intValue())).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() > bytes) {
+                channel.truncate(bytes);
+            }
+        }
+        FileChannel indexChannel = indexStream.getChannel();
+        if (indexChannel.size() > indexBytes) {
+            indexChannel.truncate(indexBytes);
+        }
+        openShard(shard.intValue());
+        LOGGER.info("Rolled JSON Lines explanations back to {} at byte {}", shardName, shardBytes);
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized int getShardCount() {
+        return shardNumber + 1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        checkpoint();
+        closeShard();
+        if (indexWriter != null) {
+            indexWriter.close();
+            indexWriter = null;
+        }
+        LOGGER.info("NDJSON explanations closed: {} records written across {} shard(s)", recordCount, shardNumber + 1);
+    }
+
+    private void openShard(int number) throws IOException {
+        shardNumber = number;
+        shardName = shardName(number);
+        File shardFile = new File(directory, shardName);
+        shardBytes = shardFile.length();
+        shardStream = new FileOutputStream(shardFile, true);
+        shardOut = new BufferedOutputStream(shardStream, bufferSize);
+        LOGGER.debug("Writing explanations to shard {}", shardName);
+    }
+
+    private void closeShard() throws IOException {
+        if (shardOut != null) {
+            shardOut.flush();
+            shardStream.getChannel().force(false);
+            shardOut.close();
+            shardOut = null;
+        }
+    }
+
+    private int findLastShard() {
+        int last = -1;
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                Matcher matcher = SHARD_NAME.matcher(name);
+                if (matcher.matches()) {
+                    last = Math.max(last, Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * After a crash the shard can hold records whose index entries never reached the disk.
+     * Index everything in the current shard after the end of its last indexed record.
+     */
+    private void reindexUnindexedRecords(long indexedEnd) throws IOException {
+        if (indexedEnd >= shardBytes) {
+            return;
+        }
+
+        int added = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(new File(directory, shardName)), bufferSize)) {
+            in.skipNBytes(indexedEnd);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(4096);
+            long offset = indexedEnd;
+            int b;
+            while ((b = in.read()) >= 0) {
+                line.write(b);
+                if (b == '\n') {
+                    String key = readKey(line.toByteArray());
+                    if (key != null) {
+                        indexWriter.write(key + "\t" + shardName + "\t" + offset + "\t" + line.size() + "\n");
+                        added++;
+                    }
+                    offset += line.size();
+                    line.reset();
+                }
+            }
+        }
+        LOGGER.warn("Re-indexed {} explanation(s) of {} written after the last index checkpoint", added, shardName);
+    }
+
+    /**
+     * Index entries are appended in shard write order, so only the tail of the index has to be inspected.
+     * Drop trailing entries that point past the end of the shard (the index reached the disk first) and
+     * return the end offset of the last remaining entry for the shard, or 0 if it has none.
+     */
+    private long trimIndexTail(File indexFile, String currentShard, long shardSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long tailStart = Math.max(0, size - OutputFiles.TAIL_SCAN_BYTES);
+            byte[] tail = OutputFiles.readRange(channel, tailStart, size);
+
+            // tail ends with '\n' (incomplete lines were dropped); walk complete lines backwards
+            int end = tail.length;
+            long result = 0;
+            while (end > 0) {
+                int start = end - 1;
+                while (start > 0 && tail[start - 1] != '\n') {
+                    start--;
+                }
+                if (start == 0 && tailStart > 0) {
+                    break; // line may begin before the scanned tail
+                }
+
+                String[] fields = new String(tail, start, end - 1 - start, StandardCharsets.UTF_8).split("\t");
+                if (fields.length != 4 || !currentShard.equals(fields[1])) {
+                    break; // header, or an entry of an earlier shard
+                }
+                try {
+                    long entryEnd = Long.parseLong(fields[2]) + Long.parseLong(fields[3]);
+                    if (entryEnd <= shardSize) {
+                        result = entryEnd;
+                        break;
+                    }
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Dropping malformed index line");
+                }
+                end = start;
+            }
+
+            if (tailStart + end < size) {
+                channel.truncate(tailStart + end);
+                LOGGER.warn("Dropped {} bytes of index entries pointing past the end of {}",
+                        size - tailStart - end, currentShard);
+            }
+            return result;
+        }
+    }
+
+    private String readKey(byte[] line) {
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                    && "key".equals(parser.nextFieldName())) {
+                return parser.nextTextValue();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Unreadable explanation line during re-indexing: {}", e.getMessage());
+        }
+        return null;
+    }
+}
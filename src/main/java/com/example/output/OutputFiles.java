@@ -0,0 +1,72 @@
+// com/example/output/OutputFiles.java
+package com.example.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Constant-time tail operations on append-only output files, used when a run resumes
+ */
+final class OutputFiles {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputFiles.class);
+
+    // How far back from the end of a file resume looks for the closing brace or last line break
+    static final int TAIL_SCAN_BYTES = 64 * 1024;
+
+    private OutputFiles() {
+    }
+
+    /**
+     * Cut a partially written last line off a line-oriented file (it was never completed by a checkpoint)
+     */
+    static void dropIncompleteLastLine(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long tailStart = Math.max(0, size - TAIL_SCAN_BYTES);
+            byte[] tail = readRange(channel, tailStart, size);
+            if (tail.length == 0 || tail[tail.length - 1] == '\n') {
+                return;
+            }
+
+            for (int i = tail.length - 1; i >= 0; i--) {
+                if (tail[i] == '\n') {
+                    channel.truncate(tailStart + i + 1);
+                    LOGGER.warn("Dropped {} bytes of an incomplete last line from {}",
+                            tail.length - i - 1, file.getName());
+                    return;
+                }
+            }
+            if (tailStart == 0) {
+                channel.truncate(0);
+                LOGGER.warn("Dropped the only, incomplete line of {}", file.getName());
+            } else {
+                LOGGER.warn("No line break in the last {} bytes of {} - leaving it unchanged", tail.length, file.getName());
+            }
+        }
+    }
+
+    static byte[] readRange(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    static int lastNonWhitespace(byte[] bytes, int end) {
+        int i = end - 1;
+        while (i >= 0 && (bytes[i] == ' ' || bytes[i] == '\n' || bytes[i] == '\r' || bytes[i] == '\t')) {
+            i--;
+        }
+        return i;
+    }
+}
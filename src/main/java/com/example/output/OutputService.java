@@ -1,8 +1,13 @@
 // com/example/output/OutputService.java
 package com.example.output;
 
+import com.example.explanation.ExplanationFormatter;
+import com.example.explanation.ExplanationRecord;
+
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public interface OutputService {
     void initialize() throws IOException;
@@ -18,8 +23,33 @@ public interface OutputService {
 
     void writeExplanationWithComprehensiveFormat(String key, String comprehensiveExplanation);
 
+    /**
+     * Write a structured explanation; implementations with their own explanation format override this
+     */
+    default void writeExplanationRecord(ExplanationRecord record) {
+        writeExplanationWithComprehensiveFormat(record.getTripleKey(),
+                ExplanationFormatter.generateExactJSONFormat(record));
+    }
+
     void setTotalQueries(long total);
     void logProgress(String operation, long completed, long total);
     void flush();
+
+    /**
+     * Make everything written so far durable and return the current output positions (opaque keys and values).
+     * Called by the checkpoint journal while no other thread is writing; the default records nothing.
+     */
+    default Map<String, Long> checkpointPositions() {
+        flush();
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Cut the outputs back to positions returned by {@link #checkpointPositions()}, discarding everything
+     * written after that checkpoint. Called right after {@link #initialize()} when a run resumes.
+     */
+    default void restorePositions(Map<String, Long> positions) throws IOException {
+    }
+
     void close() throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+// com/example/output/QueryColumn.java
+package com.example.output;
+
+/**
+ * Columns of the SPARQL questions table, in CSV order.
+ * Shared by the CSV header, the columnar writer and {@link ColumnarQueryReader} projections.
+ */
+public enum QueryColumn {
+    TASK_ID("Task ID", false),
+    ROOT_ENTITY("Root Entity", false),
+    TBOX_SIZE("Size of ontology TBox", true),
+    ABOX_SIZE("Size of ontology ABox", true),
+    TASK_TYPE("Task Type", false),
+    ANSWER_TYPE("Answer Type", false),
+    SPARQL_QUERY("SPARQL Query", false),
+    PREDICATE("Predicate", false),
+    ANSWER("Answer", false),
+    MIN_TAG_LENGTH("Min Tag Length", true),
+    MAX_TAG_LENGTH("Max Tag Length", true);
+
+    private final String header;
+    private final boolean integer;
+
+    QueryColumn(String header, boolean integer) {
+        this.header = header;
+        this.integer = integer;
+    }
+
+    /**
+     * Column name as it appears in the CSV header
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    public boolean isInteger() {
+        return integer;
+    }
+
+    public static QueryColumn fromHeader(String header) {
+        for (QueryColumn column : values()) {
+            if (column.header.equalsIgnoreCase(header) || column.name().equalsIgnoreCase(header)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown query column: " + header);
+    }
+}
@@ -1,37 +1,104 @@
 // com/example/output/StreamingOutputService.java
 package com.example.output;
 
+import com.example.explanation.ExplanationFormatter;
+import com.example.explanation.ExplanationRecord;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.List;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
- * Enhanced streaming output service with comprehensive CSV format and exact JSON structure
+ * Enhanced streaming output service with comprehensive CSV format and exact JSON structure.
+ * Records go through large write buffers; they are pushed to the OS and synced to disk by a checkpoint
+ * every {@code flushBatchSize} records or {@code flushIntervalMs} milliseconds, whichever comes first.
+ * Each checkpoint also records the end offset of the last complete explanation in a small sidecar
+ * index (Explanations.json.idx), so a run can resume in constant time even after a crash.
+ * In {@link ExplanationFormat#NDJSON} mode explanations go to size-sharded JSON Lines files with a
+ * triple-key index instead (see {@link NdjsonExplanationWriter}).
  */
 public class StreamingOutputService implements OutputService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StreamingOutputService.class);
 
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 10_000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 5_000;
+    public static final long DEFAULT_SHARD_SIZE_BYTES = 256L * 1024 * 1024;
+
+    public static final String QUERY_FILE_NAME = "SPARQL_questions.csv";
+    public static final String EXPLANATION_FILE_NAME = "Explanations.json";
+
+    private static final String EXPLANATION_INDEX_SUFFIX = ".idx";
+    private static final String JSON_HEADER = "{\n";
+
+    private static final int TAIL_SCAN_BYTES = OutputFiles.TAIL_SCAN_BYTES;
+
     private final String outputDirectory;
+    private final int bufferSize;
+    private final int flushBatchSize;
+    private final long flushIntervalMs;
+    private final ExplanationFormat explanationFormat;
+    private final long shardSizeBytes;
     private final AtomicLong queryCounter = new AtomicLong(0);
     private final AtomicLong explanationCounter = new AtomicLong(0);
     private final ObjectMapper objectMapper = new ObjectMapper();  // ADD THIS FIELD
 
-    private FileWriter queryWriter;
-    private FileWriter explanationWriter;
+    private FileOutputStream queryStream;
+    private FileOutputStream explanationStream;
+    private Writer queryWriter;
+    private Writer explanationWriter;
+    private File explanationIndexFile;
+    private NdjsonExplanationWriter ndjsonWriter;
     private long totalQueries = 0;
     private boolean isFirstExplanation = true;
 
+    // Reused line builders, guarded by the writer they belong to
+    private final StringBuilder queryLine = new StringBuilder(512);
+    private final StringBuilder explanationLine = new StringBuilder(512);
+
+    // Checkpoint bookkeeping
+    private final AtomicLong recordsSinceCheckpoint = new AtomicLong(0);
+    private volatile long lastCheckpointTime = System.currentTimeMillis();
+    private final AtomicLong checkpointCount = new AtomicLong(0);
+
     public StreamingOutputService(String outputDirectory) {
+        this(outputDirectory, DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * @param bufferSize      write buffer size per output file, in bytes
+     * @param flushBatchSize  records written between checkpoints
+     * @param flushIntervalMs maximum time between checkpoints while records are being written
+     */
+    public StreamingOutputService(String outputDirectory, int bufferSize, int flushBatchSize, long flushIntervalMs) {
+        this(outputDirectory, bufferSize, flushBatchSize, flushIntervalMs, ExplanationFormat.JSON, DEFAULT_SHARD_SIZE_BYTES);
+    }
+
+    /**
+     * @param explanationFormat single Explanations.json object or sharded JSON Lines
+     * @param shardSizeBytes    maximum size of one JSON Lines shard (NDJSON only)
+     */
+    public StreamingOutputService(String outputDirectory, int bufferSize, int flushBatchSize, long flushIntervalMs,
+                                  ExplanationFormat explanationFormat, long shardSizeBytes) {
         this.outputDirectory = outputDirectory;
+        this.explanationFormat = explanationFormat;
+        this.shardSizeBytes = shardSizeBytes;
+        this.bufferSize = Math.max(bufferSize, 8 * 1024);
+        this.flushBatchSize = Math.max(flushBatchSize, 1);
+        this.flushIntervalMs = Math.max(flushIntervalMs, 0);
     }
 
     @Override
@@ -44,9 +111,14 @@ public class StreamingOutputService implements OutputService {
         }
 
         // FIXED: Append mode for CSV
-        File queryFile = new File(outputDir, "SPARQL_questions.csv");
+        File queryFile = new File(outputDir, QUERY_FILE_NAME);
         boolean csvExists = queryFile.exists() && queryFile.length() > 0;
-        queryWriter = new FileWriter(queryFile, StandardCharsets.UTF_8, true); // APPEND mode
+        if (csvExists) {
+            OutputFiles.dropIncompleteLastLine(queryFile);
+            csvExists = queryFile.length() > 0;
+        }
+        queryStream = new FileOutputStream(queryFile, true); // APPEND mode
+        queryWriter = new BufferedWriter(new OutputStreamWriter(queryStream, StandardCharsets.UTF_8), bufferSize);
 
         if (!csvExists) {
             // Add header only for new file
@@ -55,38 +127,114 @@ public class StreamingOutputService implements OutputService {
                     "\"Min Tag Length\",\"Max Tag Length\"\n");
         }
 
+        if (explanationFormat == ExplanationFormat.NDJSON) {
+            ndjsonWriter = new NdjsonExplanationWriter(outputDir, shardSizeBytes, bufferSize);
+            ndjsonWriter.open();
+            LOGGER.info("Output files initialized (append mode): queries={}, explanations=JSON Lines shards of {} MB " +
+                            "in {}, buffer={} KB, checkpoint every {} records or {} ms",
+                    queryFile.getPath(), shardSizeBytes / (1024 * 1024), outputDir.getPath(), bufferSize / 1024,
+                    flushBatchSize, flushIntervalMs);
+            return;
+        }
+
         // FIXED: Append mode for JSON
-        File explanationFile = new File(outputDir, "Explanations.json");
+        File explanationFile = new File(outputDir, EXPLANATION_FILE_NAME);
+        explanationIndexFile = new File(outputDir, explanationFile.getName() + EXPLANATION_INDEX_SUFFIX);
         boolean jsonExists = explanationFile.exists() && explanationFile.length() > 0;
-        explanationWriter = new FileWriter(explanationFile, StandardCharsets.UTF_8, true); // APPEND mode
+
+        // For an existing file, cut it back to the end of its last complete record before appending;
+        // the separator is written together with the next record
+        boolean hasRecords = jsonExists && resumeExplanationFile(explanationFile);
+
+        explanationStream = new FileOutputStream(explanationFile, true); // APPEND mode
+        explanationWriter = new BufferedWriter(
+                new OutputStreamWriter(explanationStream, StandardCharsets.UTF_8), bufferSize);
 
         if (!jsonExists) {
             // Start JSON structure for new file
-            explanationWriter.write("{\n");
-            isFirstExplanation = true;
-        } else {
-            // For existing file, remove the closing "}" and continue
-            removeLastCharacterFromFile(explanationFile);
-            explanationWriter.write(",\n"); // Add comma to continue JSON
-            isFirstExplanation = false;
+            explanationWriter.write(JSON_HEADER);
+            explanationWriter.flush();
+            writeExplanationIndex(JSON_HEADER.length());
         }
+        isFirstExplanation = !hasRecords;
+
+        LOGGER.info("Output files initialized (append mode): queries={}, explanations={}, buffer={} KB, " +
+                        "checkpoint every {} records or {} ms",
+                queryFile.getPath(), explanationFile.getPath(), bufferSize / 1024, flushBatchSize, flushIntervalMs);
+    }
 
-        LOGGER.info("Output files initialized (append mode): queries={}, explanations={}",
-                queryFile.getPath(), explanationFile.getPath());
+    /**
+     * Truncate an existing Explanations.json in place to the end of its last complete record.
+     * A cleanly closed file ends with a "}" line, which is cut off; after a crash the file is cut back
+     * to the offset of the last checkpoint from the sidecar index. Only the tail of the file is read.
+     * @return true if the file already contains at least one record
+     */
+    private boolean resumeExplanationFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long tailStart = Math.max(0, size - TAIL_SCAN_BYTES);
+            byte[] tail = OutputFiles.readRange(channel, tailStart, size);
+
+            int last = OutputFiles.lastNonWhitespace(tail, tail.length);
+            long truncateAt;
+            if (last > 0 && tail[last] == '}' && tail[last - 1] == '\n') {
+                // Cleanly closed: drop the closing "\n}"
+                truncateAt = tailStart + last - 1;
+            } else {
+                long indexed = readExplanationIndex();
+                if (indexed > 0 && indexed <= size) {
+                    truncateAt = indexed;
+                    LOGGER.warn("Explanations file was not closed cleanly - discarding {} bytes after the last checkpoint",
+                            size - indexed);
+                } else if (last >= 0 && tail[last] == '}') {
+                    truncateAt = tailStart + last + 1;
+                    LOGGER.warn("Explanations file was not closed cleanly and has no index - resuming after the last '}'");
+                } else {
+                    throw new IOException("Cannot find the last complete record in " + file.getPath());
+                }
+            }
+
+            channel.truncate(truncateAt);
+            channel.force(true);
+            LOGGER.info("Resuming explanations file at byte {} of {}", truncateAt, size);
+
+            // Records end with '}', an empty file ends with the opening '{'
+            long checkStart = Math.max(0, truncateAt - TAIL_SCAN_BYTES);
+            byte[] head = OutputFiles.readRange(channel, checkStart, truncateAt);
+            int lastKept = OutputFiles.lastNonWhitespace(head, head.length);
+            return lastKept >= 0 && !(head[lastKept] == '{' && checkStart + lastKept == 0);
+        }
+    }
+
+    /**
+     * Record the byte offset just past the last complete explanation. Must be called after that data was synced.
+     */
+    private void writeExplanationIndex(long offset) throws IOException {
+        byte[] entry = ("offset=" + offset + "\n").getBytes(StandardCharsets.US_ASCII);
+        try (FileChannel channel = FileChannel.open(explanationIndexFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(entry), 0);
+            channel.truncate(entry.length);
+            channel.force(false);
+        }
     }
 
-    // Helper method to remove closing brace from JSON file
-    private void removeLastCharacterFromFile(File file) {
+    /**
+     * @return the checkpointed offset, or -1 if there is no readable index
+     */
+    private long readExplanationIndex() {
         try {
-            String content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
-            if (content.trim().endsWith("}")) {
-                content = content.trim();
-                content = content.substring(0, content.length() - 1).trim(); // Remove last "}"
-                Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+            if (!explanationIndexFile.exists()) {
+                return -1;
             }
-        } catch (Exception e) {
-            LOGGER.warn("Could not modify existing JSON file: {}", e.getMessage());
+            String entry = Files.readString(explanationIndexFile.toPath(), StandardCharsets.US_ASCII).trim();
+            if (entry.startsWith("offset=")) {
+                return Long.parseLong(entry.substring("offset=".length()));
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Could not read explanations index {}: {}", explanationIndexFile.getName(), e.getMessage());
         }
+        return -1;
     }
 
     @Override
@@ -104,6 +252,12 @@ public class StreamingOutputService implements OutputService {
         try {
             long currentCount = explanationCounter.incrementAndGet();
 
+            if (ndjsonWriter != null) {
+                ndjsonWriter.writeFields(key, "explanation", explanation, "tags", tags);
+                checkpointIfDue();
+                return;
+            }
+
             ObjectNode jsonNode = objectMapper.createObjectNode();
             jsonNode.put("explanation", explanation);
             jsonNode.put("tags", tags);
@@ -112,13 +266,18 @@ public class StreamingOutputService implements OutputService {
             String jsonString = objectMapper.writeValueAsString(jsonNode);
 
             synchronized (explanationWriter) {
+                StringBuilder line = explanationLine;
+                line.setLength(0);
                 if (!isFirstExplanation) {
-                    explanationWriter.write(",\n");
+                    line.append(",\n");
                 }
-                explanationWriter.write("\"" + escapeJSON(key) + "\": " + jsonString);
-                explanationWriter.flush();
+                line.append('"');
+                appendEscapedJSON(line, key);
+                line.append("\": ").append(jsonString);
+                explanationWriter.append(line);
                 isFirstExplanation = false;
             }
+            checkpointIfDue();
 
             if (currentCount % 1000 == 0) {
                 logProgress("explanations", currentCount, 0);
@@ -143,24 +302,24 @@ public class StreamingOutputService implements OutputService {
                 finalAnswer = String.join("; ", allAnswers);
             }
 
-            // Updated format string - removed avg explanation count, changed to integers for tag lengths
-            String csvLine = String.format("\"%s\",\"%s\",%d,%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%d,%d\n",
-                    escapeCSV(taskId),
-                    escapeCSV(rootEntity),
-                    tboxSize,
-                    aboxSize,
-                    escapeCSV(taskType),
-                    escapeCSV(answerType),
-                    escapeCSV(sparqlQuery),
-                    escapeCSV(predicate),
-                    escapeCSV(finalAnswer),
-                    minTagLength,
-                    maxTagLength);
-
             synchronized (queryWriter) {
-                queryWriter.write(csvLine);
-                queryWriter.flush();
+                // "taskId","rootEntity",tbox,abox,"taskType","answerType","query","predicate","answer",min,max
+                StringBuilder line = queryLine;
+                line.setLength(0);
+                appendQuotedCSV(line, taskId).append(',');
+                appendQuotedCSV(line, rootEntity).append(',');
+                line.append(tboxSize).append(',');
+                line.append(aboxSize).append(',');
+                appendQuotedCSV(line, taskType).append(',');
+                appendQuotedCSV(line, answerType).append(',');
+                appendQuotedCSV(line, sparqlQuery).append(',');
+                appendQuotedCSV(line, predicate).append(',');
+                appendQuotedCSV(line, finalAnswer).append(',');
+                line.append(minTagLength).append(',');
+                line.append(maxTagLength).append('\n');
+                queryWriter.append(line);
             }
+            checkpointIfDue();
 
             if (currentCount % 1000 == 0) {
                 logProgress("queries", currentCount, totalQueries);
@@ -176,14 +335,20 @@ public class StreamingOutputService implements OutputService {
         try {
             long currentCount = explanationCounter.incrementAndGet();
 
+            if (ndjsonWriter != null) {
+                ndjsonWriter.writeFields(key, "comprehensive", comprehensiveExplanation);
+                checkpointIfDue();
+                return;
+            }
+
             synchronized (explanationWriter) {
                 if (!isFirstExplanation) {
                     explanationWriter.write(",\n");
                 }
                 explanationWriter.write(comprehensiveExplanation);
-                explanationWriter.flush();
                 isFirstExplanation = false;
             }
+            checkpointIfDue();
 
             if (currentCount % 1000 == 0) {
                 logProgress("explanations", currentCount, 0);
@@ -194,14 +359,170 @@ public class StreamingOutputService implements OutputService {
         }
     }
 
-    private String escapeJSON(String value) {
-        if (value == null) return "";
-        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    @Override
+    public void writeExplanationRecord(ExplanationRecord record) {
+        if (ndjsonWriter == null) {
+            writeExplanationWithComprehensiveFormat(record.getTripleKey(),
+                    ExplanationFormatter.generateExactJSONFormat(record));
+            return;
+        }
+
+        try {
+            long currentCount = explanationCounter.incrementAndGet();
+            ndjsonWriter.write(record);
+            checkpointIfDue();
+
+            if (currentCount % 1000 == 0) {
+                logProgress("explanations", currentCount, 0);
+            }
+
+        } catch (IOException e) {
+            LOGGER.error("Error writing explanation record: {}", record.getTripleKey(), e);
+        }
     }
 
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        return value.replace("\"", "\"\"").replace("\n", " ").replace("\r", " ");
+    /**
+     * Append a JSON string body with backslashes and quotes escaped, in one pass
+     */
+    private static void appendEscapedJSON(StringBuilder out, String value) {
+        if (value == null) return;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+    }
+
+    /**
+     * Append a quoted CSV field: quotes doubled, line breaks replaced by spaces, in one pass
+     */
+    private static StringBuilder appendQuotedCSV(StringBuilder out, String value) {
+        out.append('"');
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.append("\"\"");
+                } else if (c == '\n' || c == '\r') {
+                    out.append(' ');
+                } else {
+                    out.append(c);
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Run a checkpoint once enough records were written or enough time has passed since the last one
+     */
+    private void checkpointIfDue() {
+        long pending = recordsSinceCheckpoint.incrementAndGet();
+        if (pending >= flushBatchSize || System.currentTimeMillis() - lastCheckpointTime >= flushIntervalMs) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Push buffered records to the files and sync them to disk. Everything written before a completed
+     * checkpoint survives a crash.
+     */
+    public void checkpoint() {
+        recordsSinceCheckpoint.set(0);
+        lastCheckpointTime = System.currentTimeMillis();
+        try {
+            if (queryWriter != null) {
+                synchronized (queryWriter) {
+                    queryWriter.flush();
+                    queryStream.getChannel().force(false);
+                }
+            }
+            if (explanationWriter != null) {
+                synchronized (explanationWriter) {
+                    explanationWriter.flush();
+                    FileChannel channel = explanationStream.getChannel();
+                    channel.force(false);
+                    // Only whole records are written under this lock, so the file ends on a record boundary
+                    writeExplanationIndex(channel.size());
+                }
+            }
+            if (ndjsonWriter != null) {
+                ndjsonWriter.checkpoint();
+            }
+            checkpointCount.incrementAndGet();
+        } catch (IOException e) {
+            LOGGER.error("Error during output checkpoint", e);
+        }
+    }
+
+    /**
+     * Checkpoint, then report the synced length of every output file
+     */
+    @Override
+    public Map<String, Long> checkpointPositions() {
+        checkpoint();
+        Map<String, Long> positions = new LinkedHashMap<>();
+        try {
+            if (queryWriter != null) {
+                synchronized (queryWriter) {
+                    positions.put(QUERY_FILE_NAME, queryStream.getChannel().size());
+                }
+            }
+            if (explanationWriter != null) {
+                synchronized (explanationWriter) {
+                    positions.put(EXPLANATION_FILE_NAME, explanationStream.getChannel().size());
+                }
+            }
+            if (ndjsonWriter != null) {
+                positions.putAll(ndjsonWriter.positions());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error reading output positions", e);
+        }
+        return positions;
+    }
+
+    @Override
+    public void restorePositions(Map<String, Long> positions) throws IOException {
+        Long queryPosition = positions.get(QUERY_FILE_NAME);
+        if (queryWriter != null && queryPosition != null) {
+            synchronized (queryWriter) {
+                truncate(queryWriter, queryStream, queryPosition, QUERY_FILE_NAME);
+            }
+        }
+
+        Long explanationPosition = positions.get(EXPLANATION_FILE_NAME);
+        if (explanationWriter != null && explanationPosition != null) {
+            synchronized (explanationWriter) {
+                truncate(explanationWriter, explanationStream, explanationPosition, EXPLANATION_FILE_NAME);
+                writeExplanationIndex(explanationPosition);
+                isFirstExplanation = explanationPosition <= JSON_HEADER.length();
+            }
+        }
+
+        if (ndjsonWriter != null) {
+            ndjsonWriter.restore(positions);
+        }
+    }
+
+    /**
+     * Cut an append-mode output back to a length; later appends continue from there
+     */
+    private static void truncate(Writer writer, FileOutputStream stream, long length, String name) throws IOException {
+        writer.flush();
+        FileChannel channel = stream.getChannel();
+        long size = channel.size();
+        if (size > length) {
+            channel.truncate(length);
+            channel.force(true);
+            LOGGER.info("Rolled {} back from {} to {} bytes", name, size, length);
+        }
+    }
+
+    public long getCheckpointCount() {
+        return checkpointCount.get();
     }
 
     @Override
@@ -224,10 +545,17 @@ public class StreamingOutputService implements OutputService {
     public void flush() {
         try {
             if (queryWriter != null) {
-                queryWriter.flush();
+                synchronized (queryWriter) {
+                    queryWriter.flush();
+                }
             }
             if (explanationWriter != null) {
-                explanationWriter.flush();
+                synchronized (explanationWriter) {
+                    explanationWriter.flush();
+                }
+            }
+            if (ndjsonWriter != null) {
+                ndjsonWriter.checkpoint();
             }
         } catch (IOException e) {
             LOGGER.error("Error flushing output", e);
@@ -236,11 +564,13 @@ public class StreamingOutputService implements OutputService {
 
     @Override
     public void close() throws IOException {
-        LOGGER.info("Closing StreamingOutputService. Final counts: queries={}, explanations={}",
-                queryCounter.get(), explanationCounter.get());
+        LOGGER.info("Closing StreamingOutputService. Final counts: queries={}, explanations={}, checkpoints={}",
+                queryCounter.get(), explanationCounter.get(), checkpointCount.get());
 
         if (queryWriter != null) {
             try {
+                queryWriter.flush();
+                queryStream.getChannel().force(false);
                 queryWriter.close();
             } catch (IOException e) {
                 LOGGER.error("Error closing query writer", e);
@@ -250,10 +580,20 @@ public class StreamingOutputService implements OutputService {
         if (explanationWriter != null) {
             try {
                 explanationWriter.write("\n}");
+                explanationWriter.flush();
+                explanationStream.getChannel().force(false);
                 explanationWriter.close();
             } catch (IOException e) {
                 LOGGER.error("Error closing explanation writer", e);
             }
         }
+
+        if (ndjsonWriter != null) {
+            try {
+                ndjsonWriter.close();
+            } catch (IOException e) {
+                LOGGER.error("Error closing JSON Lines explanation writer", e);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+// com/example/processing/CheckpointJournal.java
+package com.example.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Append-only journal of a corpus run, kept in the output directory so an interrupted run can resume
+ * where its last checkpoint left off:
+ * <ul>
+ *   <li>checkpoint.journal - "file" lines for committed ontology files, and "checkpoint" lines with the
+ *       output positions, run counters and query log length at that point (synced)</li>
+ *   <li>checkpoint.queries - every query the run marked as first seen, with its ontology, in commit
+ *       order; replaying it restores the cross-file deduplication state exactly</li>
+ * </ul>
+ * Files listed after the last checkpoint line are treated as not done: their output is rolled back and
+ * they are processed again. Used from the committing thread only.
+ */
+public class CheckpointJournal implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointJournal.class);
+
+    public static final String JOURNAL_FILE_NAME = "checkpoint.journal";
+    public static final String QUERY_LOG_FILE_NAME = "checkpoint.queries";
+
+    private static final String FILE_ENTRY = "file";
+    private static final String CHECKPOINT_ENTRY = "checkpoint";
+    private static final String QUERY_LOG_LENGTH = "queryLog";
+
+    private final File journalFile;
+    private final File queryLogFile;
+
+    private FileOutputStream journalStream;
+    private Writer journalWriter;
+    private FileOutputStream queryLogStream;
+    private Writer queryLogWriter;
+
+    public CheckpointJournal(File outputDirectory) {
+        this.journalFile = new File(outputDirectory, JOURNAL_FILE_NAME);
+        this.queryLogFile = new File(outputDirectory, QUERY_LOG_FILE_NAME);
+    }
+
+    /**
+     * Start a new journal, discarding any previous one
+     */
+    public void start() throws IOException {
+        journalFile.getParentFile().mkdirs();
+        open(false);
+        LOGGER.info("Checkpoint journal started: {}", journalFile.getPath());
+    }
+
+    /**
+     * Continue an existing journal. Both files are cut back to the last checkpoint.
+     * @return the last checkpoint, or null if there is none (the journal is then started afresh)
+     */
+    public Checkpoint resume() throws IOException {
+        if (!journalFile.exists()) {
+            LOGGER.warn("No checkpoint journal in {} - starting from the beginning", journalFile.getParent());
+            start();
+            return null;
+        }
+
+        Set<String> completedFiles = new LinkedHashSet<>();
+        List<String> pendingFiles = new ArrayList<>();
+        Map<String, Long> values = null;
+        long checkpointEnd = 0;
+
+        byte[] content = Files.readAllBytes(journalFile.toPath());
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            // A line without its '\n' was torn by the crash and is ignored
+            String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            lineStart = i + 1;
+
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                continue;
+            }
+            String type = line.substring(0, tab);
+            String payload = line.substring(tab + 1);
+            if (FILE_ENTRY.equals(type)) {
+                pendingFiles.add(payload);
+            } else if (CHECKPOINT_ENTRY.equals(type)) {
+                values = parseValues(payload);
+                completedFiles.addAll(pendingFiles);
+                pendingFiles.clear();
+                checkpointEnd = lineStart;
+            }
+        }
+
+        if (values == null) {
+            LOGGER.warn("Checkpoint journal has no checkpoint - starting from the beginning");
+            start();
+            return null;
+        }
+
+        long queryLogLength = values.getOrDefault(QUERY_LOG_LENGTH, 0L);
+        truncate(journalFile, checkpointEnd);
+        truncate(queryLogFile, queryLogLength);
+        open(true);
+
+        LOGGER.info("Resuming from checkpoint: {} files completed, {} files after the checkpoint will be redone",
+                completedFiles.size(), pendingFiles.size());
+        return new Checkpoint(completedFiles, values, queryLogLength);
+    }
+
+    /**
+     * Feed the queries of the query log up to a checkpoint to a consumer, in their original order
+     */
+    public void replayQueries(Checkpoint checkpoint, QueryConsumer consumer) throws IOException {
+        long replayed = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new BoundedInputStream(new FileInputStream(queryLogFile), checkpoint.queryLogLength),
+                StandardCharsets.UTF_8), 256 * 1024)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length == 4) {
+                    consumer.accept(fields[0], fields[1], fields[2], fields[3]);
+                    replayed++;
+                }
+            }
+        }
+        LOGGER.info("Replayed {} queries from the checkpoint query log", replayed);
+    }
+
+    /**
+     * Log a query the run marked as first seen; made durable by the next checkpoint
+     */
+    public void recordQuery(String subject, String predicate, String object, String ontologyName) throws IOException {
+        queryLogWriter.write(subject);
+        queryLogWriter.write('\t');
+        queryLogWriter.write(predicate);
+        queryLogWriter.write('\t');
+        queryLogWriter.write(object);
+        queryLogWriter.write('\t');
+        queryLogWriter.write(ontologyName);
+        queryLogWriter.write('\n');
+    }
+
+    /**
+     * Log a committed ontology file; it only counts as done once a checkpoint follows
+     */
+    public void recordCompletedFile(String fileName) throws IOException {
+        journalWriter.write(FILE_ENTRY + "\t" + fileName + "\n");
+    }
+
+    /**
+     * Sync the query log, then append and sync a checkpoint line with the given values
+     * (the caller makes its outputs durable first)
+     */
+    public void writeCheckpoint(Map<String, Long> values) throws IOException {
+        queryLogWriter.flush();
+        queryLogStream.getChannel().force(false);
+
+        Map<String, Long> all = new LinkedHashMap<>(values);
+        all.put(QUERY_LOG_LENGTH, queryLogStream.getChannel().size());
+
+        StringBuilder line = new StringBuilder(CHECKPOINT_ENTRY).append('\t');
+        for (Map.Entry<String, Long> entry : all.entrySet()) {
+            line.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+        }
+        line.setLength(line.length() - 1);
+        line.append('\n');
+
+        journalWriter.write(line.toString());
+        journalWriter.flush();
+        journalStream.getChannel().force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journalWriter != null) {
+            journalWriter.close();
+            journalWriter = null;
+        }
+        if (queryLogWriter != null) {
+            queryLogWriter.close();
+            queryLogWriter = null;
+        }
+    }
+
+    private void open(boolean append) throws IOException {
+        journalStream = new FileOutputStream(journalFile, append);
+        journalWriter = new BufferedWriter(new OutputStreamWriter(journalStream, StandardCharsets.UTF_8));
+        queryLogStream = new FileOutputStream(queryLogFile, append);
+        queryLogWriter = new BufferedWriter(new OutputStreamWriter(queryLogStream, StandardCharsets.UTF_8), 256 * 1024);
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            if (channel.size() > length) {
+                channel.truncate(length);
+            }
+        }
+    }
+
+    private static Map<String, Long> parseValues(String payload) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (String pair : payload.split(";")) {
+            int eq = pair.lastIndexOf('=');
+            if (eq > 0) {
+                values.put(pair.substring(0, eq), Long.parseLong(pair.substring(eq + 1)));
+            }
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    public interface QueryConsumer {
+        void accept(String subject, String predicate, String object, String ontologyName);
+    }
+
+    /**
+     * State of the run at its last checkpoint
+     */
+    public static final class Checkpoint {
+        private final Set<String> completedFiles;
+        private final Map<String, Long> values;
+        private final long queryLogLength;
+
+        Checkpoint(Set<String> completedFiles, Map<String, Long> values, long queryLogLength) {
+            this.completedFiles = Collections.unmodifiableSet(completedFiles);
+            this.values = Collections.unmodifiableMap(values);
+            this.queryLogLength = queryLogLength;
+        }
+
+        public Set<String> getCompletedFiles() { return completedFiles; }
+
+        public long getValue(String key) {
+            return values.getOrDefault(key, 0L);
+        }
+
+        /**
+         * Values whose keys start with a prefix, with the prefix removed
+         */
+        public Map<String, Long> getValues(String prefix) {
+            Map<String, Long> selected = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    selected.put(entry.getKey().substring(prefix.length()), entry.getValue());
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * Stops reading at the checkpointed length of the query log
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+}
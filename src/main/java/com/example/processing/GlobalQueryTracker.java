@@ -1,106 +1,320 @@
 // com/example/processing/GlobalQueryTracker.java
 package com.example.processing;
 
+import com.example.config.ProcessingConfiguration;
+import com.example.util.LongObjectHashMap;
+import com.example.util.OntologyUtils;
+import com.example.util.TripleDictionary;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Tracks queries across all ontologies to prevent duplicates and manage task ID references
+ * Tracks queries across all ontologies to prevent duplicates. Queries are passed as their
+ * (subject, predicate, object) short forms.
+ * Two modes:
+ * <ul>
+ *   <li>EXACT - triples packed with one run-wide {@link TripleDictionary}, in a lock-striped primitive map
+ *       triple -> first ontology; no false positives, memory grows with the distinct names and triples</li>
+ *   <li>BLOOM - the three short forms are hashed straight into a fixed-size Bloom filter (Murmur3 128-bit),
+ *       so memory stays bounded however large the corpus; a new triple is wrongly treated as a duplicate
+ *       with the configured false positive rate</li>
+ * </ul>
+ * Callers encode the triples of one file with {@link #dictionaryForFile()}: the run-wide dictionary in
+ * EXACT mode, a fresh one per file in BLOOM mode, so no names are kept beyond the file.
+ * Task IDs are counted, not retained: callers pass the IDs they generated straight to the output.
+ * Thread-safe without a global lock.
  */
 public class GlobalQueryTracker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GlobalQueryTracker.class);
 
-    // Thread-safe collections for concurrent processing if needed
-    private static final Set<String> processedQueries = ConcurrentHashMap.newKeySet();
-    private static final Map<String, List<String>> queryToTaskIds = new ConcurrentHashMap<>();
-    private static final Map<String, String> queryToFirstOntology = new ConcurrentHashMap<>();
+    // Power of two so the stripe can be taken from the low hash bits
+    private static final int STRIPE_COUNT = 64;
+
+    public enum DedupMode { EXACT, BLOOM }
+
+    private final DedupMode mode;
+
+    // EXACT mode: run-wide dictionary, and triple -> name of the first ontology that contained it,
+    // one lock per stripe
+    private final TripleDictionary dictionary;
+    private final Stripe[] stripes;
+
+    // BLOOM mode
+    private final long expectedQueries;
+    private final double falsePositiveRate;
+    private volatile BloomFilter<String[]> bloomFilter;
+
+    private final LongAdder totalQueries = new LongAdder();
+    private final LongAdder totalTaskIds = new LongAdder();
+    private final Map<String, LongAdder> ontologyDistribution = new ConcurrentHashMap<>();
+
+    private GlobalQueryTracker(TripleDictionary dictionary, DedupMode mode,
+                               long expectedQueries, double falsePositiveRate) {
+        this.dictionary = dictionary;
+        this.mode = mode;
+        this.expectedQueries = expectedQueries;
+        this.falsePositiveRate = falsePositiveRate;
+
+        if (mode == DedupMode.BLOOM) {
+            this.stripes = null;
+            this.bloomFilter = newBloomFilter();
+            LOGGER.info("Query deduplication: Bloom filter for {} queries at {} false positive rate",
+                    expectedQueries, falsePositiveRate);
+        } else {
+            this.stripes = new Stripe[STRIPE_COUNT];
+            for (int i = 0; i < STRIPE_COUNT; i++) {
+                stripes[i] = new Stripe();
+            }
+            LOGGER.info("Query deduplication: exact");
+        }
+    }
 
     /**
-     * Check if a query should be processed (first time seeing this triple)
+     * Exact tracker; memory grows with the number of distinct triples
      */
-    public static synchronized boolean shouldProcessQuery(String tripleKey) {
-        return !processedQueries.contains(tripleKey);
+    public static GlobalQueryTracker exact() {
+        return new GlobalQueryTracker(new TripleDictionary(), DedupMode.EXACT, 0, 0);
     }
 
     /**
-     * Mark a query as processed and store the first ontology that contained it
+     * Bounded-memory tracker sized for the expected number of distinct triples
      */
-    public static synchronized boolean markQueryProcessed(String tripleKey, String ontologyName) {
-        boolean isFirst = processedQueries.add(tripleKey);
-        if (isFirst) {
-            queryToFirstOntology.put(tripleKey, ontologyName);
-            queryToTaskIds.put(tripleKey, new ArrayList<>());
-            LOGGER.debug("First occurrence of query '{}' in ontology '{}'", tripleKey, ontologyName);
+    public static GlobalQueryTracker bloom(long expectedQueries, double falsePositiveRate) {
+        if (expectedQueries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter settings: expectedQueries="
+                    + expectedQueries + ", falsePositiveRate=" + falsePositiveRate);
+        }
+        return new GlobalQueryTracker(null, DedupMode.BLOOM, expectedQueries, falsePositiveRate);
+    }
+
+    /**
+     * Create the tracker selected by processing.query-dedup-mode
+     */
+    public static GlobalQueryTracker fromConfiguration(ProcessingConfiguration config) {
+        if ("bloom".equalsIgnoreCase(config.getQueryDedupMode())) {
+            return bloom(config.getBloomExpectedQueries(), config.getBloomFalsePositiveRate());
+        }
+        return exact();
+    }
+
+    /**
+     * Get a dictionary to encode the triples of one file with: the run-wide dictionary in EXACT mode,
+     * a new one in BLOOM mode
+     */
+    public TripleDictionary dictionaryForFile() {
+        return mode == DedupMode.BLOOM ? new TripleDictionary() : dictionary;
+    }
+
+    public DedupMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Atomically mark a query as processed, remembering the first ontology that contained it
+     * @return true if this is the first occurrence of the triple
+     */
+    public boolean markQueryProcessed(String subject, String predicate, String object, String ontologyName) {
+        boolean isFirst;
+        String firstOntology = null;
+
+        if (mode == DedupMode.BLOOM) {
+            // put() reports whether any bit changed, i.e. the triple was definitely not seen before
+            isFirst = bloomFilter.put(new String[]{subject, predicate, object});
         } else {
+            long triple = dictionary.encode(subject, predicate, object);
+            firstOntology = stripeFor(triple).putIfAbsent(triple, ontologyName);
+            isFirst = firstOntology == null;
+        }
+
+        if (isFirst) {
+            recordFirstOccurrence(ontologyName);
+            LOGGER.debug("First occurrence of query {} {} {} in ontology '{}'", subject, predicate, object,
+                    ontologyName);
+        } else if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Skipping duplicate query '{}' from ontology '{}' (first seen in '{}')",
-                    tripleKey, ontologyName, queryToFirstOntology.get(tripleKey));
+                    OntologyUtils.createTripleKey(subject, predicate, object), ontologyName, firstOntology);
         }
         return isFirst;
     }
 
     /**
-     * Add a task ID for a specific query
+     * Mark a triple encoded with {@link #dictionaryForFile()} as processed without decoding it. EXACT mode
+     * only: in BLOOM mode every file has its own dictionary, so its IDs mean nothing across files.
+     * @return true if this is the first occurrence of the triple
      */
-    public static synchronized void addTaskId(String tripleKey, String taskId) {
-        queryToTaskIds.computeIfAbsent(tripleKey, k -> new ArrayList<>()).add(taskId);
-        LOGGER.debug("Added task ID '{}' for query '{}'", taskId, tripleKey);
+    public boolean markQueryProcessed(long triple, String ontologyName) {
+        if (mode != DedupMode.EXACT) {
+            throw new IllegalStateException("Encoded triples can only be tracked in EXACT mode");
+        }
+        String firstOntology = stripeFor(triple).putIfAbsent(triple, ontologyName);
+        if (firstOntology == null) {
+            recordFirstOccurrence(ontologyName);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("First occurrence of query '{}' in ontology '{}'", dictionary.toTripleKey(triple),
+                        ontologyName);
+            }
+            return true;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Skipping duplicate query '{}' from ontology '{}' (first seen in '{}')",
+                    dictionary.toTripleKey(triple), ontologyName, firstOntology);
+        }
+        return false;
     }
 
     /**
-     * Get all task IDs associated with a query
+     * Check if a query should be processed (first time seeing this triple)
      */
-    public static synchronized List<String> getTaskIds(String tripleKey) {
-        return new ArrayList<>(queryToTaskIds.getOrDefault(tripleKey, Collections.emptyList()));
+    public boolean shouldProcessQuery(String subject, String predicate, String object) {
+        return !isQueryProcessed(subject, predicate, object);
     }
 
     /**
-     * Check if a query has been processed
+     * Check if a query has been processed. In BLOOM mode this may return false positives.
      */
-    public static synchronized boolean isQueryProcessed(String tripleKey) {
-        return processedQueries.contains(tripleKey);
+    public boolean isQueryProcessed(String subject, String predicate, String object) {
+        if (mode == DedupMode.BLOOM) {
+            return bloomFilter.mightContain(new String[]{subject, predicate, object});
+        }
+        long triple = dictionary.lookup(subject, predicate, object);
+        return triple >= 0 && stripeFor(triple).get(triple) != null;
     }
 
     /**
-     * Get the name of the first ontology that contained this query
+     * Get the name of the first ontology that contained this query (always null in BLOOM mode)
      */
-    public static synchronized String getFirstOntology(String tripleKey) {
-        return queryToFirstOntology.get(tripleKey);
+    public String getFirstOntology(String subject, String predicate, String object) {
+        if (mode == DedupMode.BLOOM) {
+            return null;
+        }
+        long triple = dictionary.lookup(subject, predicate, object);
+        return triple >= 0 ? stripeFor(triple).get(triple) : null;
+    }
+
+    /**
+     * Record that a task ID was generated for a query
+     */
+    public void addTaskId(String taskId) {
+        totalTaskIds.increment();
+        LOGGER.debug("Added task ID '{}'", taskId);
+    }
+
+    /**
+     * Restore the task ID count of a resumed run
+     */
+    public void addTaskIdCount(long count) {
+        totalTaskIds.add(count);
     }
 
     /**
      * Get statistics about processed queries
      */
-    public static synchronized QueryStats getStats() {
-        int totalQueries = processedQueries.size();
-        int totalTaskIds = queryToTaskIds.values().stream().mapToInt(List::size).sum();
+    public QueryStats getStats() {
+        Map<String, Integer> distribution = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : ontologyDistribution.entrySet()) {
+            distribution.put(entry.getKey(), entry.getValue().intValue());
+        }
+        return new QueryStats(totalQueries.intValue(), totalTaskIds.intValue(), distribution);
+    }
 
-        Map<String, Integer> ontologyDistribution = new HashMap<>();
-        for (String ontology : queryToFirstOntology.values()) {
-            ontologyDistribution.merge(ontology, 1, Integer::sum);
+    /**
+     * Clear all tracking data (useful for testing or restarting). Dictionary IDs of EXACT mode stay valid.
+     */
+    public void clear() {
+        if (mode == DedupMode.BLOOM) {
+            bloomFilter = newBloomFilter();
+        } else {
+            for (Stripe stripe : stripes) {
+                stripe.clear();
+            }
         }
+        totalQueries.reset();
+        totalTaskIds.reset();
+        ontologyDistribution.clear();
+        LOGGER.info("Cleared all global query tracking data");
+    }
 
-        return new QueryStats(totalQueries, totalTaskIds, ontologyDistribution);
+    /**
+     * Get all processed queries (for debugging); empty in BLOOM mode, which does not keep the triples
+     */
+    public Set<String> getAllProcessedQueries() {
+        Set<String> tripleKeys = new HashSet<>();
+        if (mode == DedupMode.EXACT) {
+            for (Stripe stripe : stripes) {
+                for (long triple : stripe.keys()) {
+                    tripleKeys.add(dictionary.toTripleKey(triple));
+                }
+            }
+        }
+        return tripleKeys;
+    }
+
+    private void recordFirstOccurrence(String ontologyName) {
+        totalQueries.increment();
+        ontologyDistribution.computeIfAbsent(ontologyName, k -> new LongAdder()).increment();
+    }
+
+    private BloomFilter<String[]> newBloomFilter() {
+        return BloomFilter.create(TripleFunnel.INSTANCE, expectedQueries, falsePositiveRate);
+    }
+
+    private Stripe stripeFor(long triple) {
+        long h = triple * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 58) & (STRIPE_COUNT - 1)];
     }
 
     /**
-     * Clear all tracking data (useful for testing or restarting)
+     * Feeds the (subject, predicate, object) short forms of a triple to the Bloom filter's hash; the length
+     * prefixes keep e.g. ("ab", "c") and ("a", "bc") apart
      */
-    public static synchronized void clear() {
-        processedQueries.clear();
-        queryToTaskIds.clear();
-        queryToFirstOntology.clear();
-        LOGGER.info("Cleared all global query tracking data");
+    private enum TripleFunnel implements Funnel<String[]> {
+        INSTANCE;
+
+        @Override
+        public void funnel(String[] triple, PrimitiveSink into) {
+            for (String part : triple) {
+                into.putInt(part.length()).putUnencodedChars(part);
+            }
+        }
     }
 
     /**
-     * Get all processed queries (for debugging)
+     * One lock-protected segment of the exact triple map
      */
-    public static synchronized Set<String> getAllProcessedQueries() {
-        return new HashSet<>(processedQueries);
+    private static final class Stripe {
+        private final LongObjectHashMap<String> firstOntologies = new LongObjectHashMap<>(1024);
+
+        synchronized String putIfAbsent(long triple, String ontologyName) {
+            String existing = firstOntologies.get(triple);
+            if (existing == null) {
+                firstOntologies.put(triple, ontologyName);
+            }
+            return existing;
+        }
+
+        synchronized String get(long triple) {
+            return firstOntologies.get(triple);
+        }
+
+        synchronized long[] keys() {
+            long[] keys = new long[firstOntologies.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = firstOntologies.keyAt(i);
+            }
+            return keys;
+        }
+
+        synchronized void clear() {
+            firstOntologies.clear();
+        }
     }
 
     /**
@@ -127,4 +341,4 @@ public class GlobalQueryTracker {
                     totalQueries, totalTaskIds, ontologyDistribution.size());
         }
     }
-}
\ No newline at end of file
+}
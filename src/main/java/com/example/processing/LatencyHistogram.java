@@ -0,0 +1,88 @@
+// com/example/processing/LatencyHistogram.java
+package com.example.processing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds, laid out like HdrHistogram: values below
+ * 128 are counted exactly, larger ones in 64 linear sub-buckets per power of two, so a reported percentile
+ * is within 1/64 (about 1.6%) of the recorded value. The footprint is fixed (3,712 counters) however many
+ * values are recorded, and recording is one array increment plus the sum and maximum.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below this are their own bucket
+    private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;
+    private static final int EXACT_LIMIT_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int BUCKET_COUNT = EXACT_LIMIT + (63 - EXACT_LIMIT_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalNanos.add(value);
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Count, total, maximum and percentiles from one pass over the buckets. Values recorded concurrently
+     * may or may not be included.
+     */
+    PerformanceTracker.TimingStats toStats() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long max = maxNanos.get();
+        if (count == 0) {
+            return new PerformanceTracker.TimingStats(0, 0, 0, 0, 0, 0, 0);
+        }
+
+        double[] quantiles = {0.50, 0.90, 0.99, 0.999};
+        long[] values = new long[quantiles.length];
+        int next = 0;
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT && next < quantiles.length; i++) {
+            cumulative += snapshot[i];
+            while (next < quantiles.length && cumulative >= Math.max(1, (long) Math.ceil(quantiles[next] * count))) {
+                values[next++] = Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return new PerformanceTracker.TimingStats(count, totalNanos.sum(),
+                values[0], values[1], values[2], values[3], max);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return EXACT_LIMIT + (exponent - EXACT_LIMIT_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int exponent = (index - EXACT_LIMIT) / SUB_BUCKETS + EXACT_LIMIT_EXPONENT;
+        long subBucket = (index - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        // For the last bucket this wraps around to Long.MAX_VALUE
+        return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
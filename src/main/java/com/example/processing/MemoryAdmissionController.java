@@ -0,0 +1,184 @@
+package com.example.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory-pressure-driven backpressure for ontology intake.
+ * Watches the heap pools through collection-usage threshold notifications (heap still occupied
+ * after a GC) and holds back new ontologies only while that threshold is exceeded. One ontology is
+ * always admitted when nothing else is in flight, so processing can never stall completely.
+ * The JVM is left to collect garbage on its own schedule.
+ * The thresholds are JVM-wide; {@link #close()} puts back the ones the pools had before.
+ */
+public class MemoryAdmissionController implements NotificationListener, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryAdmissionController.class);
+
+    // How often a blocked caller re-checks the pools in case no notification arrives
+    private static final long RECHECK_INTERVAL_MS = 200;
+
+    private final double thresholdFraction;
+    private final List<MemoryPoolMXBean> monitoredPools = new ArrayList<>();
+    // Collection-usage threshold of each monitored pool before this controller set its own (0 = disabled)
+    private final List<Long> previousThresholds = new ArrayList<>();
+    private final NotificationEmitter emitter;
+    private boolean closed = false;
+
+    private int inFlight = 0;
+    private boolean underPressure = false;
+
+    private final AtomicLong admissionPauses = new AtomicLong(0);
+    private final AtomicLong admissionWaitMs = new AtomicLong(0);
+
+    /**
+     * @param thresholdFraction fraction (0..1] of each heap pool's max size above which intake pauses
+     */
+    public MemoryAdmissionController(double thresholdFraction) {
+        this.thresholdFraction = thresholdFraction;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage() != null ? pool.getUsage().getMax() : -1;
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                previousThresholds.add(pool.getCollectionUsageThreshold());
+                pool.setCollectionUsageThreshold((long) (max * thresholdFraction));
+                monitoredPools.add(pool);
+            }
+        }
+
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        this.emitter = memoryBean instanceof NotificationEmitter ? (NotificationEmitter) memoryBean : null;
+        if (emitter != null) {
+            emitter.addNotificationListener(this, null, null);
+        }
+
+        LOGGER.info("Memory admission controller watching {} heap pool(s) at {}% of max",
+                monitoredPools.size(), Math.round(thresholdFraction * 100));
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            synchronized (this) {
+                if (!underPressure) {
+                    LOGGER.info("Heap usage after GC crossed {}% - pausing ontology intake",
+                            Math.round(thresholdFraction * 100));
+                }
+                underPressure = true;
+            }
+        }
+    }
+
+    /**
+     * Block until a new ontology may be started. Returns immediately unless the heap is under pressure
+     * and other ontologies are still in flight.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        if (inFlight > 0 && isUnderPressure()) {
+            admissionPauses.incrementAndGet();
+            long waitStart = System.currentTimeMillis();
+
+            while (inFlight > 0 && isUnderPressure()) {
+                wait(RECHECK_INTERVAL_MS);
+            }
+
+            long waited = System.currentTimeMillis() - waitStart;
+            admissionWaitMs.addAndGet(waited);
+            LOGGER.debug("Ontology intake resumed after {} ms ({} in flight)", waited, inFlight);
+        }
+        inFlight++;
+    }
+
+    /**
+     * Signal that an admitted ontology has finished and released its reasoner
+     */
+    public synchronized void release() {
+        if (inFlight > 0) {
+            inFlight--;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Pressure is cleared once the last collection brought every monitored pool back under its threshold
+     */
+    private boolean isUnderPressure() {
+        if (underPressure) {
+            boolean stillExceeded = false;
+            for (MemoryPoolMXBean pool : monitoredPools) {
+                if (pool.isCollectionUsageThresholdExceeded()) {
+                    stillExceeded = true;
+                    break;
+                }
+            }
+            if (!stillExceeded) {
+                underPressure = false;
+                LOGGER.info("Heap usage back under threshold - resuming ontology intake");
+            }
+        }
+        return underPressure;
+    }
+
+    public long getAdmissionPauses() {
+        return admissionPauses.get();
+    }
+
+    public long getAdmissionWaitMs() {
+        return admissionWaitMs.get();
+    }
+
+    /**
+     * Cumulative time spent in garbage collection by all collectors since JVM start
+     */
+    public static long getTotalGcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long time = gc.getCollectionTime();
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Stop listening and restore the pools' previous collection-usage thresholds
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (emitter != null) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                LOGGER.debug("Memory listener already removed");
+            }
+        }
+        for (int i = 0; i < monitoredPools.size(); i++) {
+            try {
+                monitoredPools.get(i).setCollectionUsageThreshold(previousThresholds.get(i));
+            } catch (IllegalArgumentException e) {
+                // The pool's max shrank below the old threshold; leave ours in place
+                LOGGER.debug("Could not restore the collection usage threshold of {}: {}",
+                        monitoredPools.get(i).getName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,49 +1,146 @@
-
 package com.example.processing;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Performance tracking utility for measuring execution times
+ * Thread-safe performance tracker built on nested spans.
+ * A span times one execution of a named operation with System.nanoTime; spans opened on the same thread
+ * while another is open become its children (ontology → individual → strategy). Every finished span is
+ * added to a histogram of its name, so repeated and concurrent operations all count, and p50/p90/p99/p99.9
+ * stay available for any number of executions. Durations timed elsewhere can be added with {@link #record}.
+ * <p>
+ * Spans must be closed on the thread that opened them, innermost first (try-with-resources).
+ * When disabled, {@link #span} returns a shared no-op span and {@link #start}/{@link #end} do nothing;
+ * only durations passed to {@link #record} are kept.
  */
 public class PerformanceTracker {
     private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceTracker.class);
 
-    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
-    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private static final Span NO_OP_SPAN = new Span(null, null, null);
+
+    // Histogram per span name, and the name of the enclosing span the first time it was seen
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, String> parents = new ConcurrentHashMap<>();
+    private final Map<String, Long> order = new ConcurrentHashMap<>();
+    private final AtomicLong nameSequence = new AtomicLong();
+
+    // Innermost open span of each thread
+    private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+    private volatile boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn span timing off (or back on); durations passed to {@link #record} are still recorded
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Open a span as a child of the innermost open span of this thread; close it to record it
+     */
+    public Span span(String name) {
+        if (!enabled) {
+            return NO_OP_SPAN;
+        }
+        Span span = new Span(this, name, currentSpan.get());
+        currentSpan.set(span);
+        return span;
+    }
 
     /**
-     * Start tracking time for a given operation
+     * Start tracking time for a given operation (opens a span on this thread)
      */
     public void start(String operationName) {
-        startTimes.put(operationName, System.currentTimeMillis());
+        if (!enabled) {
+            return;
+        }
+        Span span = new Span(this, operationName, currentSpan.get());
+        currentSpan.set(span);
         LOGGER.debug("Started timing operation: {}", operationName);
     }
 
     /**
-     * End tracking time for a given operation
+     * End tracking time for a given operation: closes the innermost open span of that name on this thread
      */
     public void end(String operationName) {
-        Long startTime = startTimes.get(operationName);
-        if (startTime != null) {
-            long duration = System.currentTimeMillis() - startTime;
-            durations.put(operationName, duration);
-            LOGGER.debug("Completed operation '{}' in {} ms", operationName, duration);
-            startTimes.remove(operationName);
-        } else {
-            LOGGER.warn("No start time found for operation: {}", operationName);
+        if (!enabled) {
+            return;
+        }
+        for (Span span = currentSpan.get(); span != null; span = span.parent) {
+            if (span.name.equals(operationName)) {
+                if (span != currentSpan.get()) {
+                    LOGGER.warn("Operation '{}' ended while nested operations were still open", operationName);
+                }
+                long duration = span.finish();
+                currentSpan.set(span.parent);
+                LOGGER.debug("Completed operation '{}' in {} ms", operationName, duration / 1_000_000);
+                return;
+            }
         }
+        LOGGER.warn("No start time found for operation: {}", operationName);
+    }
+
+    /**
+     * Add one duration measured elsewhere to the histogram of a name
+     */
+    public void record(String name, long nanos) {
+        record(name, null, nanos);
     }
 
     /**
-     * Get duration of a completed operation
+     * Get the total duration of all completed executions of an operation, in milliseconds
      */
     public long getDuration(String operationName) {
-        return durations.getOrDefault(operationName, 0L);
+        LatencyHistogram histogram = histograms.get(operationName);
+        return histogram != null ? histogram.getTotalNanos() / 1_000_000 : 0L;
+    }
+
+    /**
+     * Statistics of every span name, in the order names were first recorded
+     */
+    public Map<String, TimingStats> getStats() {
+        Map<String, TimingStats> stats = new LinkedHashMap<>();
+        order.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(entry -> {
+                    // The name is ordered just before its histogram is published
+                    LatencyHistogram histogram = histograms.get(entry.getKey());
+                    if (histogram != null) {
+                        stats.put(entry.getKey(), histogram.toStats());
+                    }
+                });
+        return stats;
+    }
+
+    /**
+     * Statistics of the given names that have been recorded, in the given order
+     */
+    public Map<String, TimingStats> getStats(Collection<String> names) {
+        Map<String, TimingStats> stats = new LinkedHashMap<>();
+        for (String name : names) {
+            LatencyHistogram histogram = histograms.get(name);
+            if (histogram != null) {
+                stats.put(name, histogram.toStats());
+            }
+        }
+        return stats;
     }
 
     /**
@@ -51,21 +148,129 @@ public class PerformanceTracker {
      */
     public void logSummary() {
         LOGGER.info("=== Performance Summary ===");
-        durations.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .forEach(entry ->
-                        LOGGER.info("{}: {} ms", entry.getKey(), entry.getValue())
-                );
-
-        long totalTime = durations.values().stream().mapToLong(Long::longValue).sum();
-        LOGGER.info("Total tracked time: {} ms", totalTime);
+        getStats().forEach((name, stats) -> LOGGER.info("{}: {}", name, stats));
     }
 
     /**
-     * Clear all tracking data
+     * Export the statistics of every span name as CSV, one row per name with its parent span name
+     * and times in milliseconds
+     */
+    public void exportCsv(Path file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("span,parent,count,total_ms,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for (Map.Entry<String, TimingStats> entry : getStats().entrySet()) {
+                TimingStats stats = entry.getValue();
+                writer.printf(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        entry.getKey(), parents.getOrDefault(entry.getKey(), ""), stats.getCount(),
+                        stats.getTotalNanos() / 1e6, stats.getMeanNanos() / 1e6, stats.getP50Nanos() / 1e6,
+                        stats.getP90Nanos() / 1e6, stats.getP99Nanos() / 1e6, stats.getP999Nanos() / 1e6,
+                        stats.getMaxNanos() / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Clear all tracking data (spans still open on other threads are recorded when they close)
      */
     public void clear() {
-        startTimes.clear();
-        durations.clear();
+        histograms.clear();
+        parents.clear();
+        order.clear();
+    }
+
+    private void record(String name, String parentName, long nanos) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, key -> {
+                order.putIfAbsent(key, nameSequence.incrementAndGet());
+                return new LatencyHistogram();
+            });
+        }
+        histogram.record(nanos);
+        if (parentName != null && !parents.containsKey(name)) {
+            parents.putIfAbsent(name, parentName);
+        }
+    }
+
+    /**
+     * One timed execution of a named operation
+     */
+    public static final class Span implements AutoCloseable {
+        private final PerformanceTracker tracker;
+        private final String name;
+        private final Span parent;
+        private final long startNanos;
+        private boolean closed;
+
+        private Span(PerformanceTracker tracker, String name, Span parent) {
+            this.tracker = tracker;
+            this.name = name;
+            this.parent = parent;
+            this.startNanos = tracker != null ? System.nanoTime() : 0L;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Close the span and restore its parent as the innermost span of this thread
+         */
+        @Override
+        public void close() {
+            if (tracker == null || closed) {
+                return;
+            }
+            finish();
+            tracker.currentSpan.set(parent);
+        }
+
+        private long finish() {
+            closed = true;
+            long elapsed = System.nanoTime() - startNanos;
+            tracker.record(name, parent != null ? parent.name : null, elapsed);
+            return elapsed;
+        }
+    }
+
+    /**
+     * Timing summary of one span name; durations are in nanoseconds and percentiles are accurate
+     * to about 1.6%
+     */
+    public static class TimingStats {
+        private final long count;
+        private final long totalNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+
+        public TimingStats(long count, long totalNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                           long p999Nanos, long maxNanos) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() { return count; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMeanNanos() { return count == 0 ? 0 : totalNanos / count; }
+        public long getP50Nanos() { return p50Nanos; }
+        public long getP90Nanos() { return p90Nanos; }
+        public long getP99Nanos() { return p99Nanos; }
+        public long getP999Nanos() { return p999Nanos; }
+        public long getMaxNanos() { return maxNanos; }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, total=%.1f ms, p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, p99.9=%.3f ms, max=%.3f ms",
+                    count, totalNanos / 1e6, p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, p999Nanos / 1e6,
+                    maxNanos / 1e6);
+        }
     }
-}
\ No newline at end of file
+}
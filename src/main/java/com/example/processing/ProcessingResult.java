@@ -1,7 +1,12 @@
 package com.example.processing;
 
+import com.example.explanation.ExplanationStrategyStats;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -14,9 +19,19 @@ public class ProcessingResult {
 
     // Add missing fields
     private final AtomicLong totalInferences = new AtomicLong(0);
+    private long processedOntologies;
     private final AtomicLong binaryQueries = new AtomicLong(0);
     private final AtomicLong multiChoiceQueries = new AtomicLong(0);
     private double memoryUsedMB = 0.0;
+    private long totalGcTimeMs;
+    private long maxFileGcTimeMs;
+    private long admissionPauses;
+    private long admissionWaitMs;
+    private long prefetchWaitMs;
+    private Map<String, PerformanceTracker.TimingStats> stageStats = Collections.emptyMap();
+    private Map<String, ExplanationStrategyStats.StrategyCost> strategyCosts = Collections.emptyMap();
+    private long reasonerCacheHits;
+    private long reasonerCacheMisses;
 
     private final List<String> errors = new ArrayList<>();
     private final List<String> warnings = new ArrayList<>();
@@ -110,6 +125,92 @@ public class ProcessingResult {
         this.memoryUsedMB = memoryUsedMB;
     }
 
+    public long getTotalGcTimeMs() {
+        return totalGcTimeMs;
+    }
+
+    public void setTotalGcTimeMs(long totalGcTimeMs) {
+        this.totalGcTimeMs = totalGcTimeMs;
+    }
+
+    public long getMaxFileGcTimeMs() {
+        return maxFileGcTimeMs;
+    }
+
+    public void setMaxFileGcTimeMs(long maxFileGcTimeMs) {
+        this.maxFileGcTimeMs = maxFileGcTimeMs;
+    }
+
+    public long getAdmissionPauses() {
+        return admissionPauses;
+    }
+
+    public void setAdmissionPauses(long admissionPauses) {
+        this.admissionPauses = admissionPauses;
+    }
+
+    public long getAdmissionWaitMs() {
+        return admissionWaitMs;
+    }
+
+    public void setAdmissionWaitMs(long admissionWaitMs) {
+        this.admissionWaitMs = admissionWaitMs;
+    }
+
+    public long getPrefetchWaitMs() {
+        return prefetchWaitMs;
+    }
+
+    public void setPrefetchWaitMs(long prefetchWaitMs) {
+        this.prefetchWaitMs = prefetchWaitMs;
+    }
+
+    /**
+     * Per-file latency of each ProcessingStage, keyed by stage name in pipeline order
+     */
+    public Map<String, PerformanceTracker.TimingStats> getStageStats() {
+        return stageStats;
+    }
+
+    public void setStageStats(Map<String, PerformanceTracker.TimingStats> stageStats) {
+        this.stageStats = Collections.unmodifiableMap(new LinkedHashMap<>(stageStats));
+    }
+
+    /**
+     * Accumulated cost of each explanation strategy, most expensive first (empty when not collected)
+     */
+    public Map<String, ExplanationStrategyStats.StrategyCost> getStrategyCosts() {
+        return strategyCosts;
+    }
+
+    public void setStrategyCosts(Map<String, ExplanationStrategyStats.StrategyCost> strategyCosts) {
+        this.strategyCosts = Collections.unmodifiableMap(new LinkedHashMap<>(strategyCosts));
+    }
+
+    public long getReasonerCacheHits() {
+        return reasonerCacheHits;
+    }
+
+    public void setReasonerCacheHits(long reasonerCacheHits) {
+        this.reasonerCacheHits = reasonerCacheHits;
+    }
+
+    public long getReasonerCacheMisses() {
+        return reasonerCacheMisses;
+    }
+
+    public void setReasonerCacheMisses(long reasonerCacheMisses) {
+        this.reasonerCacheMisses = reasonerCacheMisses;
+    }
+
+    /**
+     * Fraction of reasoner queries answered from the cache
+     */
+    public double getReasonerCacheHitRate() {
+        long total = reasonerCacheHits + reasonerCacheMisses;
+        return total == 0 ? 0.0 : (double) reasonerCacheHits / total;
+    }
+
     // Existing methods continue...
     public List<String> getErrors() {
         return new ArrayList<>(errors);
@@ -145,6 +246,14 @@ public class ProcessingResult {
         this.success = false;
     }
 
+    public long getProcessedOntologies() {
+        return processedOntologies;
+    }
+
+    public void setProcessedOntologies(long processedOntologies) {
+        this.processedOntologies = processedOntologies;
+    }
+
     public long getProcessingTimeMs() {
         return processingTimeMs;
     }
@@ -173,9 +282,9 @@ public class ProcessingResult {
     public String toString() {
         return String.format("ProcessingResult{success=%s, queries=%d, explanations=%d, triples=%d, " +
                         "totalInferences=%d, binaryQueries=%d, multiChoiceQueries=%d, " +
-                        "errors=%d, warnings=%d, timeMs=%d, memoryMB=%.2f}",
+                        "errors=%d, warnings=%d, timeMs=%d, memoryMB=%.2f, gcTimeMs=%d}",
                 success, processedQueries.get(), processedExplanations.get(), processedTriples.get(),
                 totalInferences.get(), binaryQueries.get(), multiChoiceQueries.get(),
-                errors.size(), warnings.size(), processingTimeMs, memoryUsedMB);
+                errors.size(), warnings.size(), processingTimeMs, memoryUsedMB, totalGcTimeMs);
     }
 }
\ No newline at end of file
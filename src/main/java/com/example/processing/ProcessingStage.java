@@ -0,0 +1,49 @@
+// com/example/processing/ProcessingStage.java
+package com.example.processing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stages of processing one ontology file, in pipeline order. The per-file time of every stage is
+ * recorded in the PerformanceTracker under its name.
+ */
+public enum ProcessingStage {
+    // Parsing the file (on a prefetch thread when prefetching is enabled)
+    LOAD("load"),
+    // Opening the reasoning session
+    REASONER_INIT("reasoner_init"),
+    CONSISTENCY("consistency"),
+    // Realization and materialization of the inferred ABox
+    PRECOMPUTE("precompute"),
+    // Walking individuals and reading inferred types and property values, excluding explanation search
+    INFERENCE_EXTRACTION("inference_extraction"),
+    EXPLANATION_SEARCH("explanation_search"),
+    // Tag statistics of the explanation paths
+    TAGGING("tagging"),
+    // Task IDs, SPARQL strings and explanation records
+    FORMATTING("formatting"),
+    // Handing queries and records to the output service
+    WRITING("writing");
+
+    private final String name;
+
+    ProcessingStage(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Names of all stages in pipeline order
+     */
+    public static List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (ProcessingStage stage : values()) {
+            names.add(stage.name);
+        }
+        return names;
+    }
+}
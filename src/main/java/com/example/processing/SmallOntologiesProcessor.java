@@ -2,29 +2,53 @@
 package com.example.processing;
 
 import com.example.config.ProcessingConfiguration;
+import com.example.ontology.OntologyFileSource;
 import com.example.ontology.OntologyService;
-import com.example.reasoning.ReasoningService;
+import com.example.ontology.PrefetchingOntologyLoader;
+import com.example.ontology.PrefetchingOntologyLoader.PendingOntology;
+import com.example.ontology.SharedTBox;
+import com.example.ontology.SharedTBoxOntologyService;
+import com.example.reasoning.ReasoningSession;
+import com.example.reasoning.ReasoningSessionFactory;
 import com.example.explanation.ComprehensiveExplanationService;
 import com.example.explanation.ExplanationPath;
 import com.example.explanation.ExplanationFormatter;
+import com.example.explanation.ExplanationRecord;
+import com.example.explanation.ExplanationStrategyStats;
 import com.example.explanation.EnhancedExplanationTagger;
+import com.example.explanation.OntologyAxiomIndex;
 import com.example.query.QueryGenerationService;
 import com.example.output.OutputService;
+import com.example.util.DictionaryCapacityException;
+import com.example.util.LongObjectHashMap;
 import com.example.util.OntologyUtils;
+import com.example.util.TripleDictionary;
 import com.example.util.URIUtils;
 
+import com.google.common.collect.Iterators;
 import org.semanticweb.owlapi.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * IMPROVED: Sequential processor for handling multiple small ontologies
- * Processes one ontology at a time to prevent memory issues
+ * Processor for handling multiple small ontologies.
+ * Runs one ontology at a time by default; in parallel mode up to threadPoolSize ontologies are
+ * loaded, reasoned and explained concurrently, while outputs are still committed in file order.
  */
 public class SmallOntologiesProcessor implements AutoCloseable {
 
@@ -32,12 +56,19 @@ public class SmallOntologiesProcessor implements AutoCloseable {
 
     // Services
     private final OntologyService ontologyService;
-    private final ReasoningService reasoningService;
+    private final ReasoningSessionFactory reasoningSessionFactory;
     private final QueryGenerationService queryService;
     private final OutputService outputService;
     private final ProcessingConfiguration config;
     private final EnhancedExplanationTagger tagger;
     private final PerformanceTracker performanceTracker;
+    // Cost of each explanation strategy over the run (null when strategy accounting is off)
+    private final ExplanationStrategyStats strategyStats;
+    private final MemoryAdmissionController admissionController;
+
+    // Corpus-wide deduplication. Within a file, triples are carried as packed IDs of the dictionary the
+    // tracker hands out for that file and decoded only when written
+    private final GlobalQueryTracker queryTracker;
 
     // Counters for tracking across all ontologies
     private final AtomicLong totalOntologiesProcessed = new AtomicLong(0);
@@ -45,55 +76,129 @@ public class SmallOntologiesProcessor implements AutoCloseable {
     private final AtomicLong totalQueriesGenerated = new AtomicLong(0);
     private final AtomicLong totalBinaryQueries = new AtomicLong(0);
     private final AtomicLong totalMultiChoiceQueries = new AtomicLong(0);
+    private final AtomicLong totalExplanationsWritten = new AtomicLong(0);
+    private final AtomicLong totalGcTimeMs = new AtomicLong(0);
+    private final AtomicLong maxFileGcTimeMs = new AtomicLong(0);
+    private final AtomicLong reasonerCacheHits = new AtomicLong(0);
+    private final AtomicLong reasonerCacheMisses = new AtomicLong(0);
+    private final AtomicLong prefetchWaitMs = new AtomicLong(0);
+
+    // Checkpoint journal for resumable runs (null when disabled); only used by the committing thread
+    private static final String OUTPUT_POSITION_PREFIX = "out.";
+    private static final String SPAN_TIMINGS_FILE_NAME = "span_timings.csv";
+    private static final String STRATEGY_STATS_FILE_NAME = "strategy_stats.csv";
+    private final CheckpointJournal journal;
+    private int filesSinceCheckpoint = 0;
+    private Path ontologyRoot;
+
+    // Shared TBox mode (null otherwise); set before any file is processed and read-only afterwards
+    private SharedTBox sharedTBox;
+    private OntologyAxiomIndex sharedTBoxIndex;
 
-    // For tracking MC queries across current ontology only
-    private Set<String> currentOntologyMCQueries;
-
+    /**
+     * Every ontology file gets its own reasoning session from the factory (typically a ReasoningService),
+     * so several ontologies can be reasoned over at once
+     */
     public SmallOntologiesProcessor(OntologyService ontologyService,
-                                    ReasoningService reasoningService,
+                                    ReasoningSessionFactory reasoningSessionFactory,
                                     QueryGenerationService queryService,
                                     OutputService outputService,
+                                    GlobalQueryTracker queryTracker,
                                     ProcessingConfiguration config) {
         this.ontologyService = ontologyService;
-        this.reasoningService = reasoningService;
+        this.reasoningSessionFactory = reasoningSessionFactory;
         this.queryService = queryService;
         this.outputService = outputService;
+        this.queryTracker = queryTracker;
         this.config = config;
         this.tagger = new EnhancedExplanationTagger();
         this.performanceTracker = new PerformanceTracker();
+        this.performanceTracker.setEnabled(config.isSpanTiming());
+        this.strategyStats = config.isStrategyStats() ? new ExplanationStrategyStats() : null;
+        this.admissionController = new MemoryAdmissionController(config.getMemoryPressureThreshold());
+        this.journal = config.isCheckpointJournal()
+                ? new CheckpointJournal(new File(config.getOutputDirectory()))
+                : null;
+
+        LOGGER.info("SmallOntologiesProcessor initialized for {} processing",
+                isParallelMode() ? "PARALLEL (" + config.getThreadPoolSize() + " threads)" : "SEQUENTIAL");
+    }
 
-        LOGGER.info("SmallOntologiesProcessor initialized for SEQUENTIAL processing");
+    /**
+     * Parallel mode needs more than one worker thread; reasoning sessions are always isolated per file
+     */
+    private boolean isParallelMode() {
+        return config.isEnableParallelProcessing() && config.getThreadPoolSize() > 1;
     }
 
     public ProcessingResult processSmallOntologies(String ontologiesDirectory) {
         ProcessingResult result = new ProcessingResult();
+        long startNanos = System.nanoTime();
         performanceTracker.start("total_processing");
 
         try {
-            LOGGER.info("Starting SEQUENTIAL processing of small ontologies from: {}", ontologiesDirectory);
+            LOGGER.info("Starting {} processing of small ontologies from: {}",
+                    isParallelMode() ? "PARALLEL" : "SEQUENTIAL", ontologiesDirectory);
 
             // Step 1: Initialize output service
             outputService.initialize();
 
-            // Step 2: Get list of ontology files (don't load them all at once)
+            // In shared TBox mode, parse and classify the corpus TBox once; files then only carry their ABox
+            OntologyService loadingService = ontologyService;
+            if (config.getSharedTboxFile() != null && !config.getSharedTboxFile().isBlank()) {
+                performanceTracker.start("shared_tbox");
+                loadingService = prepareSharedTBox(new File(config.getSharedTboxFile()));
+                performanceTracker.end("shared_tbox");
+            }
+
+            // Step 2: Open a lazy source of ontology files (nothing is listed or loaded up front)
             performanceTracker.start("file_discovery");
-            List<File> ontologyFiles = discoverOntologyFiles(ontologiesDirectory);
+            OntologyFileSource source = discoverOntologyFiles(ontologiesDirectory);
             performanceTracker.end("file_discovery");
 
-            LOGGER.info("Discovered {} ontology files", ontologyFiles.size());
-            if (ontologyFiles.isEmpty()) {
-                LOGGER.warn("No ontology files found in directory: {}", ontologiesDirectory);
-                result.setError("No ontology files found in directory");
-                return result;
+            try (Stream<File> fileStream = source.stream()) {
+                Iterator<File> ontologyFiles = fileStream.iterator();
+                if (sharedTBox != null) {
+                    ontologyFiles = Iterators.filter(ontologyFiles, file -> !sharedTBox.isTBoxFile(file));
+                }
+                if (!ontologyFiles.hasNext()) {
+                    LOGGER.warn("No ontology files found in directory: {}", ontologiesDirectory);
+                    result.setError("No ontology files found in directory");
+                    return result;
+                }
+
+                // Start the checkpoint journal, or skip the files a previous run already completed
+                if (journal != null) {
+                    ontologyFiles = startOrResumeJournal(ontologyFiles);
+                }
+
+                // Step 3: Process the ontology files as they are discovered: one at a time with the next ones
+                // parsed ahead in the background, or in parallel with ordered commits, where every worker
+                // parses its own file after memory admission
+                try (PrefetchingOntologyLoader loader = new PrefetchingOntologyLoader(loadingService,
+                        ontologyFiles, isParallelMode() ? 0 : config.getPrefetchOntologies(),
+                        config.getPrefetchThreads())) {
+                    if (isParallelMode()) {
+                        performanceTracker.start("parallel_processing");
+                        processOntologyFilesInParallel(loader, result);
+                        performanceTracker.end("parallel_processing");
+                    } else {
+                        performanceTracker.start("sequential_processing");
+                        processOntologyFilesSequentially(loader, result);
+                        performanceTracker.end("sequential_processing");
+                    }
+                    prefetchWaitMs.set(loader.getConsumerWaitMs());
+                }
             }
 
-            // Step 3: Process each ontology file sequentially
-            performanceTracker.start("sequential_processing");
-            processOntologyFilesSequentially(ontologyFiles, result);
-            performanceTracker.end("sequential_processing");
+            // Step 4: Wait until every record has been handed to the output files
+            outputService.flush();
+            if (journal != null && filesSinceCheckpoint > 0) {
+                writeCheckpoint();
+            }
 
-            // Step 4: Finalize results
-            finalizeResults(result);
+            // Step 5: Finalize results
+            finalizeResults(result, startNanos);
 
         } catch (Exception e) {
             LOGGER.error("Error during small ontologies processing", e);
@@ -101,152 +206,500 @@ public class SmallOntologiesProcessor implements AutoCloseable {
         } finally {
             performanceTracker.end("total_processing");
             performanceTracker.logSummary();
+            exportSpanTimings();
+            exportStrategyStats();
         }
 
         return result;
     }
 
     /**
-     * NEW: Discover ontology files without loading them
+     * Write the per-span percentiles of this run next to the other outputs, unless span timing is off
+     */
+    private void exportSpanTimings() {
+        if (!config.isSpanTiming()) {
+            return;
+        }
+        File file = new File(config.getOutputDirectory(), SPAN_TIMINGS_FILE_NAME);
+        try {
+            performanceTracker.exportCsv(file.toPath());
+            LOGGER.info("Span timings written to {}", file.getPath());
+        } catch (IOException e) {
+            LOGGER.warn("Could not write span timings to {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Write the per-strategy explanation costs of this run next to the other outputs
+     */
+    private void exportStrategyStats() {
+        if (strategyStats == null) {
+            return;
+        }
+        strategyStats.logSummary();
+        File file = new File(config.getOutputDirectory(), STRATEGY_STATS_FILE_NAME);
+        try {
+            strategyStats.exportCsv(file.toPath());
+            LOGGER.info("Explanation strategy costs written to {}", file.getPath());
+        } catch (IOException e) {
+            LOGGER.warn("Could not write explanation strategy costs to {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Load the shared TBox, check its consistency once with its own reasoning session, and index it for
+     * the explanation strategies. With a factory that keeps its classification (incremental reasoning),
+     * the TBox is also classified here and the per-file sessions only add their ABox; otherwise every
+     * per-file reasoner still classifies the combined ontology.
+     * @return an ontology service that overlays the TBox on every file it loads
+     */
+    private OntologyService prepareSharedTBox(File tboxFile) {
+        sharedTBox = SharedTBox.load(ontologyService, tboxFile);
+
+        long startTime = System.currentTimeMillis();
+        boolean classified = reasoningSessionFactory.keepsClassification();
+        try (ReasoningSession session = reasoningSessionFactory.openSession(sharedTBox.getOntology())) {
+            if (!session.isConsistent()) {
+                throw new IllegalStateException("Shared TBox is inconsistent: " + tboxFile.getName());
+            }
+            if (classified) {
+                session.precomputeInferences();
+            }
+        }
+        sharedTBoxIndex = new OntologyAxiomIndex(sharedTBox.getOntology());
+        LOGGER.info("Shared TBox checked{} and indexed in {} ms", classified ? ", classified" : "",
+                System.currentTimeMillis() - startTime);
+
+        return new SharedTBoxOntologyService(ontologyService, sharedTBox);
+    }
+
+    /**
+     * Start a fresh journal, or on resume roll the outputs back to the last checkpoint, restore the
+     * deduplication state and counters, and drop the files completed before that checkpoint
+     */
+    private Iterator<File> startOrResumeJournal(Iterator<File> ontologyFiles) throws IOException {
+        CheckpointJournal.Checkpoint checkpoint = null;
+        if (config.isResume()) {
+            checkpoint = journal.resume();
+        } else {
+            journal.start();
+        }
+        if (checkpoint == null) {
+            // Baseline, so a run interrupted before its first checkpoint still resumes from here
+            writeCheckpoint();
+            return ontologyFiles;
+        }
+
+        outputService.restorePositions(checkpoint.getValues(OUTPUT_POSITION_PREFIX));
+        journal.replayQueries(checkpoint, (subject, predicate, object, ontologyName) ->
+                queryTracker.markQueryProcessed(subject, predicate, object, ontologyName));
+        queryTracker.addTaskIdCount(checkpoint.getValue("count.taskIds"));
+
+        totalOntologiesProcessed.set(checkpoint.getValue("count.ontologies"));
+        totalInferencesProcessed.set(checkpoint.getValue("count.inferences"));
+        totalQueriesGenerated.set(checkpoint.getValue("count.queries"));
+        totalBinaryQueries.set(checkpoint.getValue("count.binary"));
+        totalMultiChoiceQueries.set(checkpoint.getValue("count.multiChoice"));
+        totalExplanationsWritten.set(checkpoint.getValue("count.explanations"));
+
+        Set<String> completedFiles = checkpoint.getCompletedFiles();
+        LOGGER.info("Resuming run: {} files already completed will be skipped, {} queries restored",
+                completedFiles.size(), queryTracker.getStats().getTotalQueries());
+        return Iterators.filter(ontologyFiles, file -> !completedFiles.contains(fileKey(file)));
+    }
+
+    /**
+     * Journal a committed file (also one that failed, as an uninterrupted run would not retry it either)
+     * and write a checkpoint every checkpointIntervalFiles files
+     */
+    private void checkpointCompletedFile(File ontologyFile) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.recordCompletedFile(fileKey(ontologyFile));
+            if (++filesSinceCheckpoint >= config.getCheckpointIntervalFiles()) {
+                writeCheckpoint();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write checkpoint after {}: {}", ontologyFile.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Make the outputs durable and journal their positions together with the run counters
      */
-    private List<File> discoverOntologyFiles(String directoryPath) {
+    private void writeCheckpoint() throws IOException {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> position : outputService.checkpointPositions().entrySet()) {
+            values.put(OUTPUT_POSITION_PREFIX + position.getKey(), position.getValue());
+        }
+        values.put("count.ontologies", totalOntologiesProcessed.get());
+        values.put("count.inferences", totalInferencesProcessed.get());
+        values.put("count.queries", totalQueriesGenerated.get());
+        values.put("count.binary", totalBinaryQueries.get());
+        values.put("count.multiChoice", totalMultiChoiceQueries.get());
+        values.put("count.explanations", totalExplanationsWritten.get());
+        values.put("count.taskIds", (long) queryTracker.getStats().getTotalTaskIds());
+        journal.writeCheckpoint(values);
+        filesSinceCheckpoint = 0;
+    }
+
+    /**
+     * UPDATED: Discover ontology files lazily, optionally recursive and glob-filtered.
+     * Sorted by name within each directory (unless disabled) so every run, including a resumed one,
+     * commits the files in the same order.
+     */
+    private OntologyFileSource discoverOntologyFiles(String directoryPath) {
         File directory = new File(directoryPath);
         if (!directory.exists() || !directory.isDirectory()) {
             throw new RuntimeException("Directory does not exist or is not a directory: " + directoryPath);
         }
 
-        File[] files = directory.listFiles((dir, name) ->
-                name.toLowerCase().endsWith(".owl") ||
-                        name.toLowerCase().endsWith(".ttl") ||
-                        name.toLowerCase().endsWith(".rdf") ||
-                        name.toLowerCase().endsWith(".n3"));
+        OntologyFileSource source = new OntologyFileSource(directory.toPath(), config.isRecursiveDiscovery(),
+                config.getOntologyFileGlob(), config.isSortedDiscovery());
+        ontologyRoot = source.getRoot();
+        LOGGER.info("Discovering ontology files: {}", source);
+        return source;
+    }
 
-        return files != null ? Arrays.asList(files) : new ArrayList<>();
+    /**
+     * Journal key of a file: its path relative to the ontologies directory ('/'-separated),
+     * which is just the file name for files at the top level
+     */
+    private String fileKey(File ontologyFile) {
+        if (ontologyRoot == null) {
+            return ontologyFile.getName();
+        }
+        return ontologyRoot.relativize(ontologyFile.toPath()).toString().replace(File.separatorChar, '/');
     }
 
     /**
      * REPLACED: Process ontology files one by one to avoid memory issues
      */
-    private void processOntologyFilesSequentially(List<File> ontologyFiles, ProcessingResult result) {
-        for (int i = 0; i < ontologyFiles.size(); i++) {
-            File ontologyFile = ontologyFiles.get(i);
+    private void processOntologyFilesSequentially(PrefetchingOntologyLoader ontologies, ProcessingResult result) {
+        int filesHandled = 0;
+        while (ontologies.hasNext()) {
+            PendingOntology pending = ontologies.next();
+            File ontologyFile = pending.getFile();
+            filesHandled++;
 
             try {
-                LOGGER.info("Processing file {}/{}: {}",
-                        i + 1, ontologyFiles.size(), ontologyFile.getName());
+                LOGGER.info("Processing file {}: {}", filesHandled, ontologyFile.getName());
 
                 // Process single ontology file and immediately write outputs
-                boolean success = processSingleOntologyFile(ontologyFile, result);
+                OntologyAnalysis analysis = analyzeOntologyFile(pending);
+                commitOntologyAnalysis(analysis, result);
 
-                if (success) {
-                    totalOntologiesProcessed.incrementAndGet();
-                }
-
-                // Force garbage collection after each ontology
-                System.gc();
-
-                // Log progress every 10 files
-                if ((i + 1) % 10 == 0) {
-                    long processed = totalOntologiesProcessed.get();
-                    LOGGER.info("Progress: {}/{} files processed ({:.1f}%)",
-                            processed, ontologyFiles.size(), (processed * 100.0) / ontologyFiles.size());
-                    logMemoryUsage();
-                }
+                logProgress(filesHandled);
 
+            } catch (DictionaryCapacityException e) {
+                throw e;
             } catch (Exception e) {
                 LOGGER.warn("Error processing ontology file {}: {}", ontologyFile.getName(), e.getMessage());
                 result.addError("Failed to process file " + ontologyFile.getName() + ": " + e.getMessage());
             }
+            checkpointCompletedFile(ontologyFile);
         }
     }
 
     /**
-     * NEW: Process a single ontology file completely and write outputs immediately
+     * Process ontology files concurrently. Each worker loads, reasons over and explains one file with its
+     * own reasoning session; results are committed strictly in file order so that global deduplication,
+     * task IDs and the CSV/JSON output are identical to a sequential run. New files are only submitted
+     * while the memory admission controller lets them in. An interrupt stops the run: no further files
+     * are submitted and the analyses still in flight are cancelled.
      */
-    private boolean processSingleOntologyFile(File ontologyFile, ProcessingResult result) {
-        OWLOntology ontology = null;
-        ComprehensiveExplanationService explanationService = null;
+    private void processOntologyFilesInParallel(PrefetchingOntologyLoader ontologies, ProcessingResult result) {
+        int poolSize = config.getThreadPoolSize();
+        // Bound the number of finished-but-uncommitted analyses held in memory
+        int maxInFlight = poolSize * 2;
 
-        try {
-            // Reset MC query tracking for this ontology
-            currentOntologyMCQueries = new HashSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new WorkerThreadFactory());
+        Deque<PendingAnalysis> inFlight = new ArrayDeque<>();
+        int committed = 0;
 
-            // Load single ontology
-            ontology = ontologyService.loadOntology(ontologyFile);
-            LOGGER.debug("Loaded ontology: {} with {} axioms",
-                    ontologyFile.getName(), ontology.getAxiomCount());
+        try {
+            while (ontologies.hasNext()) {
+                // Admit the file before the loader is advanced; the worker parses it
+                admissionController.acquire();
+                AtomicBoolean admitted = new AtomicBoolean(true);
+                PendingOntology pending;
+                Future<OntologyAnalysis> future;
+                try {
+                    pending = ontologies.next();
+                    future = executor.submit(() -> {
+                        try {
+                            return analyzeOntologyFile(pending);
+                        } finally {
+                            releaseAdmission(admitted);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    releaseAdmission(admitted);
+                    throw e;
+                }
+                inFlight.addLast(new PendingAnalysis(pending.getFile(), future, admitted));
 
-            // UPDATED: Extract root entity from TTL filename (not from ontology IRI)
-            String rootEntity = extractRootEntityFromFilename(ontologyFile);
-            LOGGER.debug("Extracted root entity from filename: {}", rootEntity);
+                if (inFlight.size() >= maxInFlight) {
+                    // Left in flight until committed, so an interrupt while waiting still cancels it
+                    commitNextAnalysis(inFlight.peekFirst(), result);
+                    inFlight.removeFirst();
+                    logProgress(++committed);
+                }
+            }
 
-            // Calculate and set TBox and ABox sizes for this ontology
-            int calculatedTBoxSize = OntologyUtils.calculateTBoxSize(ontology);
-            int calculatedABoxSize = OntologyUtils.calculateABoxSize(ontology);
-            calculateOntologyStats(calculatedTBoxSize, calculatedABoxSize);
+            while (!inFlight.isEmpty()) {
+                commitNextAnalysis(inFlight.peekFirst(), result);
+                inFlight.removeFirst();
+                logProgress(++committed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted - stopping with {} files not committed", inFlight.size());
+            result.addError("Interrupted after " + committed + " files; " + inFlight.size() + " files not committed");
+        } finally {
+            // Tasks cancelled before they started never release their admission themselves
+            for (PendingAnalysis pending : inFlight) {
+                pending.future.cancel(true);
+                releaseAdmission(pending.admitted);
+            }
+            executor.shutdownNow();
+        }
+    }
 
-            // Initialize reasoner for this ontology
-            reasoningService.initializeReasoner(ontology);
+    /**
+     * Return a file's admission once, whether its task finished or was cancelled
+     */
+    private void releaseAdmission(AtomicBoolean admitted) {
+        if (admitted.compareAndSet(true, false)) {
+            admissionController.release();
+        }
+    }
 
-            if (!reasoningService.isConsistent()) {
-                LOGGER.warn("Inconsistent ontology detected: {}", ontologyFile.getName());
-                result.addWarning("Inconsistent ontology: " + ontologyFile.getName());
-                return false;
+    /**
+     * Wait for the oldest pending analysis and commit its outputs. An interrupt while waiting is passed
+     * on so the caller stops the run; the file is then neither committed nor journaled.
+     */
+    private void commitNextAnalysis(PendingAnalysis pending, ProcessingResult result) throws InterruptedException {
+        File ontologyFile = pending.file;
+        try {
+            LOGGER.info("Committing file {}", ontologyFile.getName());
+            commitOntologyAnalysis(pending.future.get(), result);
+            checkpointCompletedFile(ontologyFile);
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof DictionaryCapacityException) {
+                throw (DictionaryCapacityException) cause;
             }
+            LOGGER.warn("Error processing ontology file {}: {}", ontologyFile.getName(), cause.getMessage());
+            result.addError("Failed to process file " + ontologyFile.getName() + ": " + cause.getMessage());
+            checkpointCompletedFile(ontologyFile);
+        }
+    }
 
-            // Create explanation service for this ontology
-            explanationService = new ComprehensiveExplanationService(
-                    reasoningService.getReasoner(), ontology);
+    /**
+     * Log progress every 10 files (the total is not known up front while files are streamed)
+     */
+    private void logProgress(int filesHandled) {
+        if (filesHandled % 10 == 0) {
+            LOGGER.info("Progress: {} files handled, {} ontologies processed",
+                    filesHandled, totalOntologiesProcessed.get());
+            logMemoryUsage();
+        }
+    }
+
+    /**
+     * Load, reason over and explain a single ontology file. Touches no shared mutable state,
+     * so it is safe to run on a worker thread.
+     */
+    private OntologyAnalysis analyzeOntologyFile(PendingOntology pending) {
+        File ontologyFile = pending.getFile();
+        OntologyAnalysis analysis = new OntologyAnalysis(ontologyFile);
+        analysis.dictionary = queryTracker.dictionaryForFile();
+        long gcTimeAtStart = MemoryAdmissionController.getTotalGcTimeMs();
+        PerformanceTracker.Span ontologySpan = performanceTracker.span("ontology");
 
-            // Extract inferences and process them immediately
-            Map<String, Set<ExplanationPath>> ontologyInferences =
-                    extractInferencesWithExplanations(ontology, explanationService);
+        try {
+            // Load single ontology (usually already parsed by the prefetcher)
+            OWLOntology ontology = pending.get();
+            analysis.addStageTime(ProcessingStage.LOAD, pending.getLoadNanos());
+            LOGGER.debug("Loaded ontology: {} with {} axioms",
+                    ontologyFile.getName(), ontology.getAxiomCount());
 
-            // Process and write inferences using the instance fields
-            processAndWriteInferences(ontologyInferences, ontology, tboxSize, aboxSize, rootEntity, result);
+            // UPDATED: Extract root entity from TTL filename (not from ontology IRI)
+            analysis.rootEntity = extractRootEntityFromFilename(ontologyFile);
+            analysis.ontologyName = extractOntologyName(ontology);
+            LOGGER.debug("Extracted root entity from filename: {}", analysis.rootEntity);
+
+            // Calculate TBox and ABox sizes for this ontology
+            analysis.tboxSize = OntologyUtils.calculateTBoxSize(ontology);
+            analysis.aboxSize = OntologyUtils.calculateABoxSize(ontology);
+            LOGGER.info("Ontology sizes for {} - TBox: {}, ABox: {}",
+                    ontologyFile.getName(), analysis.tboxSize, analysis.aboxSize);
+            checkDictionaryCapacity(analysis.dictionary, ontology);
+
+            // Open a reasoning session for this ontology; it is disposed as soon as the file is explained
+            long stageStart = System.nanoTime();
+            try (ReasoningSession session = reasoningSessionFactory.openSession(ontology)) {
+                analysis.addStageTime(ProcessingStage.REASONER_INIT, System.nanoTime() - stageStart);
+
+                stageStart = System.nanoTime();
+                boolean consistent = session.isConsistent();
+                analysis.addStageTime(ProcessingStage.CONSISTENCY, System.nanoTime() - stageStart);
+                if (!consistent) {
+                    LOGGER.warn("Inconsistent ontology detected: {}", ontologyFile.getName());
+                    analysis.warning = "Inconsistent ontology: " + ontologyFile.getName();
+                    return analysis;
+                }
 
-            totalInferencesProcessed.addAndGet(ontologyInferences.size());
-            return true;
+                // One bulk pass over the inferred ABox instead of a reasoner call per (individual, property)
+                stageStart = System.nanoTime();
+                session.materializeInferredABox();
+                analysis.addStageTime(ProcessingStage.PRECOMPUTE, System.nanoTime() - stageStart);
+
+                // Create explanation service for this ontology; it shares the session's reasoner query cache,
+                // and in shared TBox mode the TBox part of its axiom index. Its strategies are timed as spans
+                // nested in the individual being explained, and their costs added to the run's strategy stats
+                OntologyAxiomIndex axiomIndex = sharedTBoxIndex != null && !sharedTBox.isExtendedBy(ontology)
+                        ? new OntologyAxiomIndex(sharedTBoxIndex, ontology)
+                        : new OntologyAxiomIndex(ontology);
+                ComprehensiveExplanationService explanationService = new ComprehensiveExplanationService(
+                        session.getQueryCache(), ontology, axiomIndex);
+                explanationService.setPerformanceTracker(performanceTracker);
+                explanationService.setStrategyStats(strategyStats);
+
+                try {
+                    // Extract inferences; they are written when the analysis is committed
+                    stageStart = System.nanoTime();
+                    analysis.inferences = extractInferencesWithExplanations(
+                            ontology, session, explanationService, axiomIndex, analysis);
+                    analysis.addStageTime(ProcessingStage.INFERENCE_EXTRACTION, System.nanoTime() - stageStart
+                            - analysis.getStageTime(ProcessingStage.EXPLANATION_SEARCH));
+                    analysis.success = true;
+                } finally {
+                    analysis.cacheHits = session.getQueryCache().getHitCount();
+                    analysis.cacheMisses = session.getQueryCache().getMissCount();
+                }
+            }
 
+        } catch (DictionaryCapacityException e) {
+            throw e;
         } catch (Exception e) {
             LOGGER.error("Error processing ontology file: {}", ontologyFile.getName(), e);
-            return false;
         } finally {
-            // CRITICAL: Clean up resources immediately
-            cleanupResources(explanationService);
+            // GC is JVM-wide, so in parallel mode this is the GC time observed while the file was processed
+            analysis.gcTimeMs = MemoryAdmissionController.getTotalGcTimeMs() - gcTimeAtStart;
+            ontologySpan.close();
+        }
+
+        return analysis;
+    }
+
+    /**
+     * Deduplicate and write the inferences of an analyzed ontology. Must be called in file order
+     * from a single thread.
+     */
+    private void commitOntologyAnalysis(OntologyAnalysis analysis, ProcessingResult result) {
+        recordGcTime(analysis);
+        recordCacheStats(analysis);
+        if (analysis.warning != null) {
+            result.addWarning(analysis.warning);
+        }
+        if (!analysis.success) {
+            return;
+        }
+        if (analysis.dictionary.isExhausted()) {
+            // An encode failed while this file was explained, so its inferences may be incomplete
+            throw new DictionaryCapacityException("Triple dictionary ran out of IDs while "
+                    + analysis.file.getName() + " was explained; the run stops before committing it");
+        }
+
+        try {
+            processAndWriteInferences(analysis, result);
+
+            totalInferencesProcessed.addAndGet(analysis.inferences.size());
+            totalOntologiesProcessed.incrementAndGet();
+            recordStageTimes(analysis);
+
+        } catch (Exception e) {
+            LOGGER.error("Error writing outputs for ontology file: {}", analysis.file.getName(), e);
         }
     }
 
-    private int tboxSize = 0;
-    private int aboxSize = 0;
+    /**
+     * Fail the run before a file is explained if the names it can add no longer fit in the triple
+     * dictionary (run-wide in exact dedup mode), instead of failing every remaining file. Short forms are
+     * only computed near the limit.
+     */
+    private void checkDictionaryCapacity(TripleDictionary dictionary, OWLOntology ontology) {
+        Set<OWLNamedIndividual> individuals = ontology.getIndividualsInSignature();
+        Set<OWLClass> classes = ontology.getClassesInSignature();
+        Set<OWLObjectProperty> properties = ontology.getObjectPropertiesInSignature();
+        // rdf:type is the predicate of every class assertion
+        if (dictionary.hasRoomFor(individuals.size() + classes.size(), properties.size() + 1)) {
+            return;
+        }
+
+        List<String> nodeNames = new ArrayList<>(individuals.size() + classes.size());
+        individuals.forEach(individual -> nodeNames.add(OntologyUtils.getShortForm(individual)));
+        classes.forEach(clazz -> nodeNames.add(OntologyUtils.getShortForm(clazz)));
+        List<String> predicateNames = new ArrayList<>(properties.size() + 1);
+        predicateNames.add("rdf:type");
+        properties.forEach(property -> predicateNames.add(OntologyUtils.getShortForm(property)));
+        dictionary.checkCapacity(nodeNames, predicateNames);
+    }
 
     /**
-     * Set the TBox and ABox sizes for the current ontology
+     * Accumulate the GC time metric of one file
      */
-    public synchronized void calculateOntologyStats(int tboxSize, int aboxSize) {
-        this.tboxSize = tboxSize;
-        this.aboxSize = aboxSize;
-        LOGGER.info("Set ontology sizes - TBox: {}, ABox: {}", tboxSize, aboxSize);
+    private void recordGcTime(OntologyAnalysis analysis) {
+        totalGcTimeMs.addAndGet(analysis.gcTimeMs);
+        maxFileGcTimeMs.accumulateAndGet(analysis.gcTimeMs, Math::max);
+        LOGGER.debug("GC time while processing {}: {} ms", analysis.file.getName(), analysis.gcTimeMs);
+    }
+
+    /**
+     * Record the per-stage times of a successfully processed file
+     */
+    private void recordStageTimes(OntologyAnalysis analysis) {
+        for (ProcessingStage stage : ProcessingStage.values()) {
+            performanceTracker.record(stage.getName(), analysis.getStageTime(stage));
+        }
+    }
+
+    /**
+     * Accumulate reasoner query cache statistics of one file
+     */
+    private void recordCacheStats(OntologyAnalysis analysis) {
+        reasonerCacheHits.addAndGet(analysis.cacheHits);
+        reasonerCacheMisses.addAndGet(analysis.cacheMisses);
+        LOGGER.debug("Reasoner query cache for {}: {} hits, {} misses",
+                analysis.file.getName(), analysis.cacheHits, analysis.cacheMisses);
     }
 
     /**
      * UPDATED: Extract inferences - get INFERRED triples for queries, but explain ASSERTED triples
      */
-    private Map<String, Set<ExplanationPath>> extractInferencesWithExplanations(
-            OWLOntology ontology, ComprehensiveExplanationService explanationService) {
+    private LongObjectHashMap<Set<ExplanationPath>> extractInferencesWithExplanations(
+            OWLOntology ontology, ReasoningSession session, ComprehensiveExplanationService explanationService,
+            OntologyAxiomIndex axiomIndex, OntologyAnalysis analysis) {
 
-        Map<String, Set<ExplanationPath>> inferences = new HashMap<>();
+        LongObjectHashMap<Set<ExplanationPath>> inferences = new LongObjectHashMap<>();
         Set<OWLNamedIndividual> individuals = ontology.getIndividualsInSignature();
+        Set<OWLObjectProperty> properties = ontology.getObjectPropertiesInSignature();
 
         LOGGER.debug("Processing {} individuals from ontology", individuals.size());
 
         for (OWLNamedIndividual individual : individuals) {
-            try {
+            try (PerformanceTracker.Span individualSpan = performanceTracker.span("individual")) {
                 // Extract class assertions - use INFERRED for queries, but explain how ASSERTED ones could be inferred
-                extractClassAssertionInferences(individual, ontology, explanationService, inferences);
+                extractClassAssertionInferences(individual, ontology, session, explanationService, inferences, analysis);
 
                 // Extract property assertions - use INFERRED for queries, but explain how ASSERTED ones could be inferred
-                extractPropertyAssertionInferences(individual, ontology, explanationService, inferences);
+                extractPropertyAssertionInferences(individual, properties, session, explanationService, axiomIndex,
+                        inferences, analysis);
 
             } catch (Exception e) {
                 LOGGER.debug("Error processing individual {}: {}", individual, e.getMessage());
@@ -262,12 +715,13 @@ public class SmallOntologiesProcessor implements AutoCloseable {
      */
     private void extractClassAssertionInferences(OWLNamedIndividual individual,
                                                  OWLOntology ontology,
+                                                 ReasoningSession session,
                                                  ComprehensiveExplanationService explanationService,
-                                                 Map<String, Set<ExplanationPath>> inferences) {
+                                                 LongObjectHashMap<Set<ExplanationPath>> inferences,
+                                                 OntologyAnalysis analysis) {
         try {
             // Get INFERRED types from reasoner (for query generation)
-            Set<OWLClass> inferredTypes = reasoningService.getReasoner()
-                    .getTypes(individual, false).getFlattened();
+            Set<OWLClass> inferredTypes = session.getTypes(individual, false);
 
             // Get ASSERTED types from ontology (for explanations)
             Set<OWLClass> assertedTypes = ontology.getClassAssertionAxioms(individual).stream()
@@ -280,17 +734,19 @@ public class SmallOntologiesProcessor implements AutoCloseable {
             for (OWLClass inferredClass : inferredTypes) {
                 if (OntologyUtils.isOwlThing(inferredClass)) continue;
 
-                String tripleKey = OntologyUtils.createTripleKey(
+                long triple = analysis.dictionary.encode(
                         OntologyUtils.getShortForm(individual),
                         "rdf:type",
                         OntologyUtils.getShortForm(inferredClass)
                 );
 
                 // Generate explanations: "How could this inferred class membership be derived?"
+                long searchStart = System.nanoTime();
                 Set<ExplanationPath> paths = explanationService.findExplanationPathsLikeProtege(individual, inferredClass);
+                analysis.addStageTime(ProcessingStage.EXPLANATION_SEARCH, System.nanoTime() - searchStart);
 
                 if (!paths.isEmpty()) {
-                    inferences.put(tripleKey, paths);
+                    inferences.put(triple, paths);
 
                     LOGGER.debug("Found {} explanation paths for INFERRED type: {} rdf:type {}",
                             paths.size(), OntologyUtils.getShortForm(individual), OntologyUtils.getShortForm(inferredClass));
@@ -303,47 +759,41 @@ public class SmallOntologiesProcessor implements AutoCloseable {
     }
 
     /**
-     * UPDATED: Use INFERRED properties for query generation, but explain ASSERTED properties
+     * UPDATED: Use INFERRED properties for query generation, but explain ASSERTED properties.
+     * Asserted values are looked up in the file's axiom index rather than by scanning the ontology's
+     * property assertions.
      */
     private void extractPropertyAssertionInferences(OWLNamedIndividual individual,
-                                                    OWLOntology ontology,
+                                                    Set<OWLObjectProperty> properties,
+                                                    ReasoningSession session,
                                                     ComprehensiveExplanationService explanationService,
-                                                    Map<String, Set<ExplanationPath>> inferences) {
+                                                    OntologyAxiomIndex axiomIndex,
+                                                    LongObjectHashMap<Set<ExplanationPath>> inferences,
+                                                    OntologyAnalysis analysis) {
         try {
-            // Get ALL object properties in the ontology
-            Set<OWLObjectProperty> properties = ontology.getObjectPropertiesInSignature();
-
             for (OWLObjectProperty property : properties) {
                 // Get INFERRED values from reasoner (for query generation)
-                Set<OWLNamedIndividual> inferredValues = reasoningService.getReasoner()
-                        .getObjectPropertyValues(individual, property).getFlattened();
-
-                // Get ASSERTED values from ontology (for comparison)
-                Set<OWLNamedIndividual> assertedValues = ontology.getAxioms(AxiomType.OBJECT_PROPERTY_ASSERTION)
-                        .stream()
-                        .filter(axiom -> axiom.getSubject().equals(individual) &&
-                                axiom.getProperty().equals(property))
-                        .map(axiom -> axiom.getObject())
-                        .filter(obj -> obj instanceof OWLNamedIndividual)
-                        .map(obj -> (OWLNamedIndividual) obj)
-                        .collect(Collectors.toSet());
+                Set<OWLNamedIndividual> inferredValues = session.getObjectPropertyValues(individual, property);
+                if (inferredValues.isEmpty()) continue;
 
                 // Process INFERRED values for queries
                 for (OWLNamedIndividual inferredValue : inferredValues) {
-                    String tripleKey = OntologyUtils.createTripleKey(
+                    long triple = analysis.dictionary.encode(
                             OntologyUtils.getShortForm(individual),
                             OntologyUtils.getShortForm(property),
                             OntologyUtils.getShortForm(inferredValue)
                     );
 
                     // Generate explanations: "How could this inferred property assertion be derived?"
+                    long searchStart = System.nanoTime();
                     Set<ExplanationPath> paths = explanationService.findPropertyAssertionPaths(
                             individual, property, inferredValue);
+                    analysis.addStageTime(ProcessingStage.EXPLANATION_SEARCH, System.nanoTime() - searchStart);
 
                     if (!paths.isEmpty()) {
-                        inferences.put(tripleKey, paths);
+                        inferences.put(triple, paths);
 
-                        boolean isAsserted = assertedValues.contains(inferredValue);
+                        boolean isAsserted = axiomIndex.hasAssertion(property, individual, inferredValue);
                         LOGGER.debug("Found {} explanation paths for {} property: {} {} {} (asserted: {})",
                                 paths.size(),
                                 isAsserted ? "ASSERTED" : "INFERRED",
@@ -359,50 +809,73 @@ public class SmallOntologiesProcessor implements AutoCloseable {
         }
     }
 
-    private void processAndWriteInferences(Map<String, Set<ExplanationPath>> inferences,
-                                           OWLOntology ontology, int tboxSize, int aboxSize,
-                                           String rootEntity, ProcessingResult result) {
+    private void processAndWriteInferences(OntologyAnalysis analysis, ProcessingResult result) {
+        LongObjectHashMap<Set<ExplanationPath>> inferences = analysis.inferences;
+        String ontologyName = analysis.ontologyName;
+        String rootEntity = analysis.rootEntity;
+        int tboxSize = analysis.tboxSize;
+        int aboxSize = analysis.aboxSize;
 
         LOGGER.debug("Processing and writing {} inferences immediately", inferences.size());
 
-        String ontologyName = extractOntologyName(ontology);
-
         // Group inferences by subject-predicate for MC queries
-        Map<String, Map<String, Set<String>>> subjectPredicateObjects = groupInferencesForMCQueries(inferences);
+        TripleDictionary dictionary = analysis.dictionary;
+        LongObjectHashMap<List<String>> subjectPredicateObjects = groupInferencesForMCQueries(inferences, dictionary);
 
         long binaryQueries = 0;
         long multiChoiceQueries = 0;
+        long explanationsWritten = 0;
+
+        // Stage times of this file; the clock is read at every boundary between tagging, formatting and writing
+        long taggingNanos = 0;
+        long formattingNanos = 0;
+        long writingNanos = 0;
+
+        for (int i = 0; i < inferences.size(); i++) {
+            long triple = inferences.keyAt(i);
+            Set<ExplanationPath> paths = inferences.valueAt(i);
+
+            // CRITICAL: Check if this query was already processed globally. In EXACT mode the triple is
+            // already encoded with the tracker's dictionary and is marked as it is
+            boolean firstOccurrence = queryTracker.getMode() == GlobalQueryTracker.DedupMode.EXACT
+                    ? queryTracker.markQueryProcessed(triple, ontologyName)
+                    : queryTracker.markQueryProcessed(dictionary.subject(triple), dictionary.predicate(triple),
+                            dictionary.object(triple), ontologyName);
+            if (!firstOccurrence) {
+                continue;
+            }
 
-        for (Map.Entry<String, Set<ExplanationPath>> entry : inferences.entrySet()) {
-            String tripleKey = entry.getKey();
-            Set<ExplanationPath> paths = entry.getValue();
+            // Output boundary: decode the new triple back to short forms
+            String subject = dictionary.subject(triple);
+            String predicate = dictionary.predicate(triple);
+            String object = dictionary.object(triple);
 
             try {
-                String[] parts = OntologyUtils.parseTripleKey(tripleKey);
-                if (parts.length != 3) continue;
-
-                String subject = parts[0];
-                String predicate = parts[1];
-                String object = parts[2];
-
-                // CRITICAL: Check if this query was already processed globally
-                if (!GlobalQueryTracker.markQueryProcessed(tripleKey, ontologyName)) {
-                    LOGGER.debug("Skipping duplicate query: {} (first seen in {})",
-                            tripleKey, GlobalQueryTracker.getFirstOntology(tripleKey));
-                    continue;
+                if (journal != null) {
+                    journal.recordQuery(subject, predicate, object, ontologyName);
                 }
 
                 String taskType = "rdf:type".equals(predicate) ? "Membership" : "Property Assertion";
 
                 // Calculate tag statistics instead of explanation statistics
+                long mark = System.nanoTime();
                 int[] tagStats = calculateTagStats(paths);
+                long now = System.nanoTime();
+                taggingNanos += now - mark;
+                mark = now;
+
+                List<String> taskIds = new ArrayList<>(2);
 
                 // 2. Write binary query (BIN) - ASK query
                 String binaryTaskId = URIUtils.generateTaskId(rootEntity, subject, predicate, "BIN");
-                GlobalQueryTracker.addTaskId(tripleKey, binaryTaskId);
+                taskIds.add(binaryTaskId);
+                queryTracker.addTaskId(binaryTaskId);
 
                 String binaryQuery = String.format("ASK WHERE { <%s> <%s> <%s> }",
                         URIUtils.getFullURI(subject), URIUtils.getFullURI(predicate), URIUtils.getFullURI(object));
+                now = System.nanoTime();
+                formattingNanos += now - mark;
+                mark = now;
 
                 outputService.writeComprehensiveQuery(
                         binaryTaskId, rootEntity, tboxSize, aboxSize, taskType, "BIN",
@@ -410,20 +883,24 @@ public class SmallOntologiesProcessor implements AutoCloseable {
                         "TRUE", null, tagStats[0], tagStats[1]  // Updated to use tag stats
                 );
                 binaryQueries++;
+                now = System.nanoTime();
+                writingNanos += now - mark;
+                mark = now;
 
                 // 3. Write multi-choice query (MC) if applicable - SELECT query
-                if (shouldGenerateMultiChoiceQuery(subject, predicate, subjectPredicateObjects)) {
-                    Set<String> allObjectsSet = subjectPredicateObjects.get(subject).get(predicate);
-                    List<String> allAnswers = allObjectsSet.stream()
-                            .sorted()
-                            .collect(Collectors.toList());
+                if (shouldGenerateMultiChoiceQuery(triple, subjectPredicateObjects)) {
+                    List<String> allAnswers = subjectPredicateObjects.get(TripleDictionary.subjectPredicate(triple));
 
                     String multiTaskId = URIUtils.generateTaskId(rootEntity, subject, predicate, "MC");
-                    GlobalQueryTracker.addTaskId(tripleKey, multiTaskId);
+                    taskIds.add(multiTaskId);
+                    queryTracker.addTaskId(multiTaskId);
 
                     // MC query is SELECT - doesn't specify the object
                     String multiQuery = String.format("SELECT ?x WHERE { <%s> <%s> ?x }",
                             URIUtils.getFullURI(subject), URIUtils.getFullURI(predicate));
+                    now = System.nanoTime();
+                    formattingNanos += now - mark;
+                    mark = now;
 
                     outputService.writeComprehensiveQuery(
                             multiTaskId, rootEntity, tboxSize, aboxSize, taskType, "MC",
@@ -432,28 +909,41 @@ public class SmallOntologiesProcessor implements AutoCloseable {
                             tagStats[0], tagStats[1]  // Updated to use tag stats
                     );
                     multiChoiceQueries++;
+                    now = System.nanoTime();
+                    writingNanos += now - mark;
+                    mark = now;
                 }
 
-                // 1. Write comprehensive explanation to JSON AFTER generating task IDs
-                String comprehensiveExplanation = ExplanationFormatter.generateExactJSONFormat(
-                        tripleKey, paths, tagger);
-                outputService.writeExplanationWithComprehensiveFormat(tripleKey, comprehensiveExplanation);
+                // 1. Write comprehensive explanation AFTER generating task IDs; the output service picks the format
+                ExplanationRecord explanationRecord = ExplanationFormatter.buildRecord(
+                        subject, predicate, object, paths, tagger, taskIds);
+                now = System.nanoTime();
+                formattingNanos += now - mark;
+                mark = now;
+
+                outputService.writeExplanationRecord(explanationRecord);
+                explanationsWritten++;
+                writingNanos += System.nanoTime() - mark;
 
             } catch (Exception e) {
+                String tripleKey = OntologyUtils.createTripleKey(subject, predicate, object);
                 LOGGER.warn("Error processing inference {}: {}", tripleKey, e.getMessage());
                 result.addWarning("Failed to process inference: " + tripleKey);
             }
         }
 
-        // Update counters and flush
+        // Update counters; the output service checkpoints its buffers on its own schedule
         totalBinaryQueries.addAndGet(binaryQueries);
         totalMultiChoiceQueries.addAndGet(multiChoiceQueries);
         totalQueriesGenerated.addAndGet(binaryQueries + multiChoiceQueries);
+        totalExplanationsWritten.addAndGet(explanationsWritten);
+
+        analysis.addStageTime(ProcessingStage.TAGGING, taggingNanos);
+        analysis.addStageTime(ProcessingStage.FORMATTING, formattingNanos);
+        analysis.addStageTime(ProcessingStage.WRITING, writingNanos);
 
         LOGGER.debug("Wrote {} binary queries and {} MC queries for ontology {}",
                 binaryQueries, multiChoiceQueries, ontologyName);
-
-        outputService.flush();
     }
 
     // Helper method to extract ontology name
@@ -470,12 +960,9 @@ public class SmallOntologiesProcessor implements AutoCloseable {
     }
 
     // Updated to check against subject-predicate combinations
-    private boolean shouldGenerateMultiChoiceQuery(String subject, String predicate,
-                                                   Map<String, Map<String, Set<String>>> subjectPredicateObjects) {
-        Map<String, Set<String>> predicateObjects = subjectPredicateObjects.get(subject);
-        if (predicateObjects == null) return false;
-
-        Set<String> objects = predicateObjects.get(predicate);
+    private boolean shouldGenerateMultiChoiceQuery(long triple,
+                                                   LongObjectHashMap<List<String>> subjectPredicateObjects) {
+        List<String> objects = subjectPredicateObjects.get(TripleDictionary.subjectPredicate(triple));
         return objects != null && objects.size() > 1; // Only generate MC if multiple objects
     }
 
@@ -513,24 +1000,23 @@ public class SmallOntologiesProcessor implements AutoCloseable {
     }
 
     /**
-     * NEW: Group inferences by subject-predicate to prepare for MC queries
+     * NEW: Group inferences by subject-predicate to prepare for MC queries.
+     * Keys are packed (subject, predicate) pairs; values are the decoded objects, sorted for output.
      */
-    private Map<String, Map<String, Set<String>>> groupInferencesForMCQueries(
-            Map<String, Set<ExplanationPath>> inferences) {
-
-        Map<String, Map<String, Set<String>>> grouped = new HashMap<>();
+    private LongObjectHashMap<List<String>> groupInferencesForMCQueries(
+            LongObjectHashMap<Set<ExplanationPath>> inferences, TripleDictionary dictionary) {
 
-        for (String tripleKey : inferences.keySet()) {
-            String[] parts = OntologyUtils.parseTripleKey(tripleKey);
-            if (parts.length != 3) continue;
+        LongObjectHashMap<List<String>> grouped = new LongObjectHashMap<>(inferences.size());
 
-            String subject = parts[0];
-            String predicate = parts[1];
-            String object = parts[2];
+        // Inference keys are unique, so each object occurs once per subject-predicate pair
+        for (int i = 0; i < inferences.size(); i++) {
+            long triple = inferences.keyAt(i);
+            grouped.computeIfAbsent(TripleDictionary.subjectPredicate(triple), k -> new ArrayList<>())
+                    .add(dictionary.object(triple));
+        }
 
-            grouped.computeIfAbsent(subject, k -> new HashMap<>())
-                    .computeIfAbsent(predicate, k -> new HashSet<>())
-                    .add(object);
+        for (int i = 0; i < grouped.size(); i++) {
+            Collections.sort(grouped.valueAt(i));
         }
 
         return grouped;
@@ -563,22 +1049,6 @@ public class SmallOntologiesProcessor implements AutoCloseable {
         return new int[]{minTagLength, maxTagLength};
     }
 
-    /**
-     * NEW: Clean up resources after processing each ontology
-     */
-    private void cleanupResources(ComprehensiveExplanationService explanationService) {
-        try {
-            if (reasoningService != null) {
-                reasoningService.close(); // This disposes the reasoner
-            }
-        } catch (Exception e) {
-            LOGGER.warn("Error closing reasoning service", e);
-        }
-
-        explanationService = null;
-        System.gc(); // Force garbage collection
-    }
-
     /**
      * NEW: Log current memory usage
      */
@@ -597,27 +1067,48 @@ public class SmallOntologiesProcessor implements AutoCloseable {
     /**
      * UPDATED: Finalize results with new counters
      */
-    private void finalizeResults(ProcessingResult result) {
-        result.setProcessingTimeMs(performanceTracker.getDuration("total_processing"));
+    private void finalizeResults(ProcessingResult result, long startNanos) {
+        result.setProcessingTimeMs((System.nanoTime() - startNanos) / 1_000_000);
+        result.setProcessedOntologies(totalOntologiesProcessed.get());
         result.setTotalInferences(totalInferencesProcessed.get());
         result.addProcessedQueries(totalQueriesGenerated.get());
         result.setBinaryQueries(totalBinaryQueries.get());
         result.setMultiChoiceQueries(totalMultiChoiceQueries.get());
+        result.addProcessedExplanations(totalExplanationsWritten.get());
+        result.setStageStats(performanceTracker.getStats(ProcessingStage.names()));
+        if (strategyStats != null) {
+            result.setStrategyCosts(strategyStats.getCosts());
+        }
 
         // Calculate memory usage
         Runtime runtime = Runtime.getRuntime();
         long usedMemory = runtime.totalMemory() - runtime.freeMemory();
         result.setMemoryUsedMB(usedMemory / (1024.0 * 1024.0));
 
+        // GC and backpressure metrics
+        result.setTotalGcTimeMs(totalGcTimeMs.get());
+        result.setMaxFileGcTimeMs(maxFileGcTimeMs.get());
+        result.setAdmissionPauses(admissionController.getAdmissionPauses());
+        result.setAdmissionWaitMs(admissionController.getAdmissionWaitMs());
+        result.setPrefetchWaitMs(prefetchWaitMs.get());
+        result.setReasonerCacheHits(reasonerCacheHits.get());
+        result.setReasonerCacheMisses(reasonerCacheMisses.get());
+
         result.setSuccess(true);
 
-        LOGGER.info("Sequential processing completed successfully!");
+        LOGGER.info("{} processing completed successfully!", isParallelMode() ? "Parallel" : "Sequential");
         LOGGER.info("Final Statistics:");
         LOGGER.info("  Processed ontologies: {}", totalOntologiesProcessed.get());
         LOGGER.info("  Total inferences: {}", totalInferencesProcessed.get());
         LOGGER.info("  Total queries generated: {}", totalQueriesGenerated.get());
         LOGGER.info("  Binary queries: {}", totalBinaryQueries.get());
         LOGGER.info("  Multi-choice queries: {}", totalMultiChoiceQueries.get());
+        LOGGER.info("  Explanation records: {}", totalExplanationsWritten.get());
+        LOGGER.info("  GC time: {} ms total, {} ms worst file", totalGcTimeMs.get(), maxFileGcTimeMs.get());
+        LOGGER.info("  Intake pauses due to memory pressure: {} ({} ms)",
+                admissionController.getAdmissionPauses(), admissionController.getAdmissionWaitMs());
+        LOGGER.info("  Reasoner query cache: {} hits, {} misses", reasonerCacheHits.get(), reasonerCacheMisses.get());
+        LOGGER.info("  Time spent waiting for prefetched ontologies: {} ms", prefetchWaitMs.get());
     }
 
     @Override
@@ -633,12 +1124,22 @@ public class SmallOntologiesProcessor implements AutoCloseable {
             LOGGER.warn("Error closing output service", e);
         }
 
-        try {
-            if (reasoningService != null) {
-                reasoningService.close();
+        admissionController.close();
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error closing checkpoint journal", e);
+            }
+        }
+
+        if (reasoningSessionFactory instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) reasoningSessionFactory).close();
+            } catch (Exception e) {
+                LOGGER.warn("Error closing reasoning service", e);
             }
-        } catch (Exception e) {
-            LOGGER.warn("Error closing reasoning service", e);
         }
 
         try {
@@ -651,4 +1152,67 @@ public class SmallOntologiesProcessor implements AutoCloseable {
 
         LOGGER.info("SmallOntologiesProcessor closed successfully");
     }
+
+    /**
+     * Result of loading, reasoning and explaining one ontology file, waiting to be committed
+     */
+    private static class OntologyAnalysis {
+        private final File file;
+        private String rootEntity;
+        private String ontologyName = "unknown";
+        private int tboxSize;
+        private int aboxSize;
+        private LongObjectHashMap<Set<ExplanationPath>> inferences = new LongObjectHashMap<>(0);
+        // Dictionary the inferences are packed with
+        private TripleDictionary dictionary;
+        private boolean success;
+        private String warning;
+        private long gcTimeMs;
+        private long cacheHits;
+        private long cacheMisses;
+        // Nanoseconds per ProcessingStage; the commit stages are added by the committing thread
+        private final long[] stageNanos = new long[ProcessingStage.values().length];
+
+        OntologyAnalysis(File file) {
+            this.file = file;
+        }
+
+        void addStageTime(ProcessingStage stage, long nanos) {
+            stageNanos[stage.ordinal()] += nanos;
+        }
+
+        long getStageTime(ProcessingStage stage) {
+            return stageNanos[stage.ordinal()];
+        }
+    }
+
+    /**
+     * An analysis submitted to the worker pool, kept together with its file for error reporting
+     */
+    private static class PendingAnalysis {
+        private final File file;
+        private final Future<OntologyAnalysis> future;
+        // Whether the file still holds its admission
+        private final AtomicBoolean admitted;
+
+        PendingAnalysis(File file, Future<OntologyAnalysis> future, AtomicBoolean admitted) {
+            this.file = file;
+            this.future = future;
+            this.admitted = admitted;
+        }
+    }
+
+    /**
+     * Names worker threads so parallel runs are readable in logs and thread dumps
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ontology-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.example.reasoning;
+
+import openllet.core.OpenlletOptions;
+import openllet.owlapi.OpenlletReasoner;
+import openllet.owlapi.OpenlletReasonerFactory;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Reasoning service for corpora whose ontologies share one TBox and differ only in their ABox
+ * (noise/negation variants, n-hop modules, shared TBox mode).
+ * <p>
+ * One non-buffering Openllet reasoner is kept over a working copy of the current ontology. Opening a
+ * session for the next ontology diffs its axioms against the working copy and applies only the ABox
+ * additions and removals; with incremental consistency and deletion enabled Openllet updates the
+ * completion graph instead of reloading the knowledge base, and the TBox classification is kept.
+ * When the TBox differs, the reasoner is rebuilt from scratch.
+ * <p>
+ * Every verifyEvery-th ontology (0 = never) the incremental answers are checked against a reasoner
+ * built from scratch: consistency, all inferred types and all object property values between named
+ * individuals. The reference reasoner is built and queried with Openllet's incremental options switched
+ * off, so it does not share the code paths it checks. A mismatch is logged and the reasoner is rebuilt
+ * for that ontology.
+ * <p>
+ * Not thread-safe and only one session may be open at a time, so it is for sequential processing.
+ * Openllet's incremental options are global: they are switched on for the whole JVM while the service is
+ * open and put back to their previous values by {@link #close()}.
+ */
+public class IncrementalPelletReasoningService implements ReasoningService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalPelletReasoningService.class);
+
+    private static final OpenlletReasonerFactory REASONER_FACTORY = new OpenlletReasonerFactory();
+
+    private final int verifyEvery;
+    private final IncrementalOptions previousOptions;
+    private final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+
+    private OWLOntology working;
+    private Set<OWLAxiom> terminology = Collections.emptySet();
+    private OpenlletReasoner reasoner;
+    private PelletReasoningSession session;
+
+    private long variants;
+    private long incrementalUpdates;
+    private long rebuilds;
+    private long axiomsAdded;
+    private long axiomsRemoved;
+    private long verifications;
+    private long verificationFailures;
+
+    public IncrementalPelletReasoningService(int verifyEvery) {
+        this.verifyEvery = Math.max(0, verifyEvery);
+
+        this.previousOptions = IncrementalOptions.current();
+        IncrementalOptions.ON.apply();
+        LOGGER.info("Incremental Pellet reasoning enabled (verification against from-scratch reasoning {})",
+                this.verifyEvery > 0 ? "every " + this.verifyEvery + " ontologies" : "off");
+    }
+
+    /**
+     * Bring the base reasoner to the given ontology and open a session over it. The previous session
+     * becomes unusable. The session's ontology is the service's working copy, with the same axioms.
+     */
+    @Override
+    public ReasoningSession openSession(OWLOntology ontology) {
+        closeSession();
+        applyOntology(ontology);
+        session = new PelletReasoningSession(working, reasoner);
+        return session;
+    }
+
+    /**
+     * The base reasoner survives its sessions, so a classification is kept while the TBox stays the same
+     */
+    @Override
+    public boolean keepsClassification() {
+        return true;
+    }
+
+    @Override
+    public void initializeReasoner(OWLOntology ontology) {
+        openSession(ontology);
+    }
+
+    @Override
+    public OpenlletReasoner getReasoner() {
+        if (reasoner == null) {
+            throw new IllegalStateException("Reasoner not initialized. Call initializeReasoner() first.");
+        }
+        return reasoner;
+    }
+
+    @Override
+    public boolean isConsistent() {
+        return session != null && session.isConsistent();
+    }
+
+    @Override
+    public void precomputeInferences() {
+        if (session == null) {
+            LOGGER.warn("Cannot precompute inferences - reasoner not initialized");
+            return;
+        }
+        session.precomputeInferences();
+    }
+
+    @Override
+    public boolean isEntailed(OWLAxiom axiom) {
+        return session != null && session.isEntailed(axiom);
+    }
+
+    /**
+     * Get inferred types for an individual
+     */
+    public Set<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct) {
+        if (session == null) {
+            return Collections.emptySet();
+        }
+        return session.getTypes(individual, direct);
+    }
+
+    /**
+     * Get object property values for an individual
+     */
+    public Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual individual, OWLObjectProperty property) {
+        if (session == null) {
+            return Collections.emptySet();
+        }
+        return session.getObjectPropertyValues(individual, property);
+    }
+
+    public long getIncrementalUpdates() {
+        return incrementalUpdates;
+    }
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    public long getVerifications() {
+        return verifications;
+    }
+
+    public long getVerificationFailures() {
+        return verificationFailures;
+    }
+
+    @Override
+    public void close() {
+        closeSession();
+        disposeReasoner();
+        if (working != null) {
+            manager.removeOntology(working);
+            working = null;
+        }
+        previousOptions.apply();
+        LOGGER.info("Incremental reasoning closed: {} ontologies, {} incremental updates (+{} / -{} axioms), " +
+                        "{} rebuilds, {} verifications ({} failed)",
+                variants, incrementalUpdates, axiomsAdded, axiomsRemoved, rebuilds, verifications, verificationFailures);
+    }
+
+    /**
+     * Apply the ABox difference to the base reasoner, or rebuild it if the TBox changed
+     */
+    private void applyOntology(OWLOntology ontology) {
+        variants++;
+        Set<OWLAxiom> target = ontology.getAxioms();
+        Set<OWLAxiom> targetTerminology = terminologyOf(target);
+
+        if (working == null || !terminology.equals(targetTerminology)) {
+            rebuild(target, targetTerminology);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Set<OWLAxiom> current = working.getAxioms();
+        List<OWLAxiom> removals = new ArrayList<>();
+        for (OWLAxiom axiom : current) {
+            if (!target.contains(axiom)) {
+                removals.add(axiom);
+            }
+        }
+        List<OWLAxiom> additions = new ArrayList<>();
+        for (OWLAxiom axiom : target) {
+            if (!current.contains(axiom)) {
+                additions.add(axiom);
+            }
+        }
+
+        // The non-buffering reasoner receives both change sets as they are applied
+        manager.removeAxioms(working, new HashSet<>(removals));
+        manager.addAxioms(working, new HashSet<>(additions));
+        incrementalUpdates++;
+        axiomsAdded += additions.size();
+        axiomsRemoved += removals.size();
+        LOGGER.debug("Incremental ABox update: +{} / -{} axioms in {} ms",
+                additions.size(), removals.size(), System.currentTimeMillis() - startTime);
+
+        if (verifyEvery > 0 && variants % verifyEvery == 0 && !verifyAgainstScratch()) {
+            rebuild(target, targetTerminology);
+        }
+    }
+
+    private void rebuild(Set<OWLAxiom> axioms, Set<OWLAxiom> newTerminology) {
+        long startTime = System.currentTimeMillis();
+        disposeReasoner();
+        if (working != null) {
+            manager.removeOntology(working);
+        }
+        try {
+            working = manager.createOntology(axioms);
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException("Could not create the working ontology for incremental reasoning", e);
+        }
+        terminology = newTerminology;
+
+        reasoner = REASONER_FACTORY.createNonBufferingReasoner(working, new SimpleConfiguration());
+        reasoner.getKB().setDoExplanation(true);
+        reasoner.prepareReasoner();
+        rebuilds++;
+        LOGGER.info("Base reasoner built from scratch ({} axioms, {} terminological) in {} ms",
+                axioms.size(), newTerminology.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Compare the incremental reasoner with one built from scratch over the same axioms. The incremental
+     * answers are read first; the reference reasoner then runs with the incremental options off.
+     */
+    private boolean verifyAgainstScratch() {
+        verifications++;
+        long startTime = System.currentTimeMillis();
+        boolean consistent = reasoner.isConsistent();
+        InferredABox incremental = consistent ? InferredABox.materialize(reasoner, working) : null;
+
+        IncrementalOptions.OFF.apply();
+        try (PelletReasoningSession scratch = new PelletReasoningSession(working)) {
+            if (consistent != scratch.isConsistent()) {
+                return verificationFailed("consistency differs (incremental " + consistent + ")");
+            }
+            if (!consistent) {
+                return true;
+            }
+
+            InferredABox expected = InferredABox.materialize(scratch.getReasoner(), working);
+            for (OWLNamedIndividual individual : expected.getIndividuals()) {
+                if (!expected.getTypes(individual).equals(incremental.getTypes(individual))) {
+                    return verificationFailed("types of " + individual + " differ");
+                }
+                for (OWLObjectProperty property : working.getObjectPropertiesInSignature()) {
+                    if (!expected.getObjectPropertyValues(individual, property)
+                            .equals(incremental.getObjectPropertyValues(individual, property))) {
+                        return verificationFailed("values of " + property + " for " + individual + " differ");
+                    }
+                }
+            }
+        } finally {
+            IncrementalOptions.ON.apply();
+        }
+        LOGGER.info("Incremental reasoning verified against from-scratch reasoning in {} ms",
+                System.currentTimeMillis() - startTime);
+        return true;
+    }
+
+    private boolean verificationFailed(String reason) {
+        verificationFailures++;
+        LOGGER.error("Incremental reasoning does not match from-scratch reasoning: {} - rebuilding", reason);
+        return false;
+    }
+
+    /**
+     * Logical axioms other than ABox assertions; the part that must be identical for an incremental update
+     */
+    private static Set<OWLAxiom> terminologyOf(Set<OWLAxiom> axioms) {
+        Set<OWLAxiom> result = new HashSet<>();
+        for (OWLAxiom axiom : axioms) {
+            if (axiom.isLogicalAxiom() && !axiom.isOfType(AxiomType.ABoxAxiomTypes)) {
+                result.add(axiom);
+            }
+        }
+        return result;
+    }
+
+    private void closeSession() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+
+    /**
+     * Values of Openllet's global options for incremental reasoning
+     */
+    private static final class IncrementalOptions {
+        static final IncrementalOptions ON = new IncrementalOptions(true, true, true);
+        static final IncrementalOptions OFF = new IncrementalOptions(false, false, false);
+
+        private final boolean completionQueue;
+        private final boolean incrementalConsistency;
+        private final boolean incrementalDeletion;
+
+        IncrementalOptions(boolean completionQueue, boolean incrementalConsistency, boolean incrementalDeletion) {
+            this.completionQueue = completionQueue;
+            this.incrementalConsistency = incrementalConsistency;
+            this.incrementalDeletion = incrementalDeletion;
+        }
+
+        static IncrementalOptions current() {
+            return new IncrementalOptions(OpenlletOptions.USE_COMPLETION_QUEUE,
+                    OpenlletOptions.USE_INCREMENTAL_CONSISTENCY, OpenlletOptions.USE_INCREMENTAL_DELETION);
+        }
+
+        void apply() {
+            OpenlletOptions.USE_COMPLETION_QUEUE = completionQueue;
+            OpenlletOptions.USE_INCREMENTAL_CONSISTENCY = incrementalConsistency;
+            OpenlletOptions.USE_INCREMENTAL_DELETION = incrementalDeletion;
+        }
+    }
+
+    private void disposeReasoner() {
+        if (reasoner != null) {
+            try {
+                reasoner.dispose();
+            } catch (Exception e) {
+                LOGGER.warn("Error disposing reasoner", e);
+            } finally {
+                reasoner = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.reasoning;
+
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Materialized inferred ABox of one ontology: all inferred class assertions and object property
+ * assertions between named individuals, collected once after inference precomputation.
+ * This is not a bulk export from the reasoner. Types take one getTypes call per individual, answered from
+ * the realization; property values take one getObjectPropertyValues call per (individual, property) pair
+ * left as a candidate by an instance retrieval of (p some Thing). What it saves is asking again: inference
+ * extraction and explanation search look facts up here.
+ * Individuals and classes are numbered once; types and per-property edges in both directions are kept
+ * as sorted int arrays indexed by subject or object (CSR), and lookups return read-only views over them.
+ * Read-only once built.
+ */
+public class InferredABox {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InferredABox.class);
+
+    // The named individuals of the signature first, in signature order, then property values from outside it
+    private final IdTable<OWLNamedIndividual> individualTable;
+    private final List<OWLNamedIndividual> individuals;
+    private final IdTable<OWLClass> classTable;
+    // Types of individual i: class IDs typeIds[typeStarts[i] .. typeStarts[i + 1]), sorted
+    private final int[] typeStarts;
+    private final int[] typeIds;
+    private final Set<OWLObjectProperty> properties;
+    private final Map<OWLObjectProperty, Edges> edges;
+    private final long tripleCount;
+
+    private InferredABox(IdTable<OWLNamedIndividual> individualTable, List<OWLNamedIndividual> individuals,
+                         IdTable<OWLClass> classTable, int[] typeStarts, int[] typeIds,
+                         Set<OWLObjectProperty> properties, Map<OWLObjectProperty, Edges> edges,
+                         long tripleCount) {
+        this.individualTable = individualTable;
+        this.individuals = individuals;
+        this.classTable = classTable;
+        this.typeStarts = typeStarts;
+        this.typeIds = typeIds;
+        this.properties = properties;
+        this.edges = edges;
+        this.tripleCount = tripleCount;
+    }
+
+    /**
+     * Collect the inferred ABox from a reasoner: one getTypes call per individual, then for each property
+     * one instance retrieval of (p some Thing) and one getObjectPropertyValues call per individual it returns
+     */
+    public static InferredABox materialize(OWLReasoner reasoner, OWLOntology ontology) {
+        long startTime = System.currentTimeMillis();
+        OWLDataFactory dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+
+        List<OWLNamedIndividual> individuals = new ArrayList<>(ontology.getIndividualsInSignature());
+        Set<OWLObjectProperty> properties = ontology.getObjectPropertiesInSignature();
+        int count = individuals.size();
+
+        IdTable<OWLNamedIndividual> individualTable = new IdTable<>();
+        for (OWLNamedIndividual individual : individuals) {
+            individualTable.idOf(individual);
+        }
+
+        IdTable<OWLClass> classTable = new IdTable<>();
+        int[] typeStarts = new int[count + 1];
+        IntArrayBuilder typeIds = new IntArrayBuilder();
+        for (int i = 0; i < count; i++) {
+            for (OWLClass type : reasoner.getTypes(individuals.get(i), false).getFlattened()) {
+                typeIds.add(classTable.idOf(type));
+            }
+            typeIds.sortFrom(typeStarts[i]);
+            typeStarts[i + 1] = typeIds.size();
+        }
+
+        // Forward edges first; the reverse arrays need the final size of the individual table
+        Map<OWLObjectProperty, int[]> subjectStarts = new HashMap<>();
+        Map<OWLObjectProperty, int[]> objects = new HashMap<>();
+        long triples = 0;
+        long propertyQueries = 0;
+
+        for (OWLObjectProperty property : properties) {
+            Set<OWLNamedIndividual> candidates = reasoner.getInstances(
+                    dataFactory.getOWLObjectSomeValuesFrom(property, dataFactory.getOWLThing()), false).getFlattened();
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            int[] starts = new int[count + 1];
+            IntArrayBuilder values = new IntArrayBuilder();
+            for (int s = 0; s < count; s++) {
+                OWLNamedIndividual subject = individuals.get(s);
+                if (candidates.contains(subject)) {
+                    for (OWLNamedIndividual object
+                            : reasoner.getObjectPropertyValues(subject, property).getFlattened()) {
+                        values.add(individualTable.idOf(object));
+                    }
+                    propertyQueries++;
+                    values.sortFrom(starts[s]);
+                }
+                starts[s + 1] = values.size();
+            }
+
+            if (values.size() > 0) {
+                subjectStarts.put(property, starts);
+                objects.put(property, values.toArray());
+                triples += values.size();
+            }
+        }
+
+        Map<OWLObjectProperty, Edges> edges = new HashMap<>();
+        for (Map.Entry<OWLObjectProperty, int[]> entry : subjectStarts.entrySet()) {
+            edges.put(entry.getKey(), new Edges(entry.getValue(), objects.get(entry.getKey()), individualTable.size()));
+        }
+
+        LOGGER.info("Materialized inferred ABox: {} individuals, {} property triples "
+                        + "({} value queries instead of {}) in {} ms",
+                count, triples, propertyQueries, (long) count * properties.size(),
+                System.currentTimeMillis() - startTime);
+
+        return new InferredABox(individualTable, Collections.unmodifiableList(individuals), classTable,
+                typeStarts, typeIds.toArray(), Collections.unmodifiableSet(properties), edges, triples);
+    }
+
+    /**
+     * Named individuals in signature order
+     */
+    public List<OWLNamedIndividual> getIndividuals() {
+        return individuals;
+    }
+
+    /**
+     * Check if the individual was part of the materialized signature
+     */
+    public boolean covers(OWLNamedIndividual individual) {
+        int id = individualTable.find(individual);
+        return id >= 0 && id < individuals.size();
+    }
+
+    /**
+     * Check if the property was part of the materialized signature
+     */
+    public boolean covers(OWLObjectProperty property) {
+        return properties.contains(property);
+    }
+
+    /**
+     * All inferred types of the individual (same as reasoner.getTypes(individual, false))
+     */
+    public Set<OWLClass> getTypes(OWLNamedIndividual individual) {
+        int id = individualTable.find(individual);
+        if (id < 0 || id >= individuals.size()) {
+            return Collections.emptySet();
+        }
+        return new IdSet<>(classTable, typeIds, typeStarts[id], typeStarts[id + 1]);
+    }
+
+    /**
+     * Inferred values of (subject property ?)
+     */
+    public Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual subject, OWLObjectProperty property) {
+        Edges propertyEdges = edges.get(property);
+        int id = individualTable.find(subject);
+        if (propertyEdges == null || id < 0 || id >= individuals.size()) {
+            return Collections.emptySet();
+        }
+        return new IdSet<>(individualTable, propertyEdges.objects,
+                propertyEdges.subjectStarts[id], propertyEdges.subjectStarts[id + 1]);
+    }
+
+    /**
+     * Subjects of (? property object), in signature order
+     */
+    public List<OWLNamedIndividual> getSubjects(OWLObjectProperty property, OWLNamedIndividual object) {
+        Edges propertyEdges = edges.get(property);
+        int id = individualTable.find(object);
+        if (propertyEdges == null || id < 0) {
+            return Collections.emptyList();
+        }
+        return new IdList<>(individualTable, propertyEdges.subjects,
+                propertyEdges.objectStarts[id], propertyEdges.objectStarts[id + 1]);
+    }
+
+    /**
+     * Properties with at least one inferred value
+     */
+    public Set<OWLObjectProperty> getPropertiesWithValues() {
+        return Collections.unmodifiableSet(edges.keySet());
+    }
+
+    public long getTripleCount() {
+        return tripleCount;
+    }
+
+    /**
+     * Inferred assertions of one property, by subject and by object
+     */
+    private static final class Edges {
+        // Objects of subject s: objects[subjectStarts[s] .. subjectStarts[s + 1]), sorted
+        final int[] subjectStarts;
+        final int[] objects;
+        // Subjects of object o: subjects[objectStarts[o] .. objectStarts[o + 1]), sorted, i.e. in signature order
+        final int[] objectStarts;
+        final int[] subjects;
+
+        Edges(int[] subjectStarts, int[] objects, int individualCount) {
+            this.subjectStarts = subjectStarts;
+            this.objects = objects;
+            this.objectStarts = new int[individualCount + 1];
+            this.subjects = new int[objects.length];
+
+            for (int object : objects) {
+                objectStarts[object + 1]++;
+            }
+            for (int o = 0; o < individualCount; o++) {
+                objectStarts[o + 1] += objectStarts[o];
+            }
+            int[] next = Arrays.copyOf(objectStarts, individualCount);
+            for (int s = 0; s + 1 < subjectStarts.length; s++) {
+                for (int k = subjectStarts[s]; k < subjectStarts[s + 1]; k++) {
+                    subjects[next[objects[k]]++] = s;
+                }
+            }
+        }
+    }
+
+    /**
+     * Dense IDs for OWL objects in order of first use; only written while the ABox is built
+     */
+    private static final class IdTable<E> {
+        private final List<E> values = new ArrayList<>();
+        private final Map<E, Integer> ids = new HashMap<>();
+
+        int idOf(E value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                values.add(value);
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        int find(Object value) {
+            Integer id = ids.get(value);
+            return id != null ? id : -1;
+        }
+
+        E get(int id) {
+            return values.get(id);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    /**
+     * Growable int array
+     */
+    private static final class IntArrayBuilder {
+        private int[] values = new int[64];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void sortFrom(int from) {
+            Arrays.sort(values, from, size);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Read-only set over a sorted range of IDs
+     */
+    private static final class IdSet<E> extends AbstractSet<E> {
+        private final IdTable<E> table;
+        private final int[] ids;
+        private final int from;
+        private final int to;
+
+        IdSet(IdTable<E> table, int[] ids, int from, int to) {
+            this.table = table;
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int id = table.find(o);
+            return id >= 0 && Arrays.binarySearch(ids, from, to, id) >= 0;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public E next() {
+                    if (next >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return table.get(ids[next++]);
+                }
+            };
+        }
+    }
+
+    /**
+     * Read-only list over a range of IDs
+     */
+    private static final class IdList<E> extends AbstractList<E> implements RandomAccess {
+        private final IdTable<E> table;
+        private final int[] ids;
+        private final int from;
+        private final int to;
+
+        IdList(IdTable<E> table, int[] ids, int from, int to) {
+            this.table = table;
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, size());
+            return table.get(ids[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.reasoning;
+
+import openllet.owlapi.OpenlletReasoner;
+import openllet.owlapi.OpenlletReasonerFactory;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Pellet-based reasoning session owning one Openllet reasoner for one ontology
+ */
+public class PelletReasoningSession implements ReasoningSession {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PelletReasoningSession.class);
+
+    // The factory itself is stateless and can be shared by all sessions
+    private static final OpenlletReasonerFactory REASONER_FACTORY = new OpenlletReasonerFactory();
+
+    private final OWLOntology ontology;
+    private OpenlletReasoner reasoner;
+    private final ReasonerQueryCache queryCache;
+    private InferredABox inferredABox;
+    private final boolean ownsReasoner;
+
+    public PelletReasoningSession(OWLOntology ontology) {
+        this.ontology = ontology;
+
+        // Create configuration for better explanation support
+        OWLReasonerConfiguration config = new SimpleConfiguration();
+        this.reasoner = REASONER_FACTORY.createReasoner(ontology, config);
+
+        // Enable explanation tracking
+        reasoner.getKB().setDoExplanation(true);
+
+        reasoner.prepareReasoner();
+        this.queryCache = new ReasonerQueryCache(reasoner);
+        this.ownsReasoner = true;
+        LOGGER.debug("Pellet reasoning session opened with explanation support");
+    }
+
+    /**
+     * Session over a reasoner that stays alive after the session (the incremental service's base reasoner);
+     * closing the session only drops its caches
+     */
+    PelletReasoningSession(OWLOntology ontology, OpenlletReasoner reasoner) {
+        this.ontology = ontology;
+        this.reasoner = reasoner;
+        this.queryCache = new ReasonerQueryCache(reasoner);
+        this.ownsReasoner = false;
+    }
+
+    @Override
+    public OWLOntology getOntology() {
+        return ontology;
+    }
+
+    @Override
+    public OpenlletReasoner getReasoner() {
+        if (reasoner == null) {
+            throw new IllegalStateException("Reasoning session has been closed");
+        }
+        return reasoner;
+    }
+
+    @Override
+    public ReasonerQueryCache getQueryCache() {
+        if (reasoner == null) {
+            throw new IllegalStateException("Reasoning session has been closed");
+        }
+        return queryCache;
+    }
+
+    @Override
+    public void precomputeInferences() {
+        if (reasoner == null) {
+            LOGGER.warn("Cannot precompute inferences - session closed");
+            return;
+        }
+
+        LOGGER.info("Precomputing essential inferences only...");
+        long startTime = System.currentTimeMillis();
+
+        try {
+            // Only precompute the most essential inferences to avoid memory issues
+            reasoner.precomputeInferences(
+                    InferenceType.CLASS_HIERARCHY,
+                    InferenceType.CLASS_ASSERTIONS
+            );
+
+            long duration = System.currentTimeMillis() - startTime;
+            LOGGER.info("Essential inference precomputation completed in {} ms", duration);
+
+            // Add the rest incrementally if memory allows
+            try {
+                reasoner.precomputeInferences(
+                        InferenceType.OBJECT_PROPERTY_HIERARCHY,
+                        InferenceType.OBJECT_PROPERTY_ASSERTIONS
+                );
+                LOGGER.info("Additional inferences precomputed successfully");
+            } catch (OutOfMemoryError e) {
+                LOGGER.warn("Skipping additional inferences due to memory constraints");
+            }
+
+        } catch (OutOfMemoryError e) {
+            LOGGER.error("Out of memory during inference precomputation - using on-demand reasoning", e);
+            // Continue without precomputation
+        } catch (Exception e) {
+            LOGGER.error("Error during inference precomputation", e);
+        }
+    }
+
+    @Override
+    public InferredABox materializeInferredABox() {
+        if (reasoner == null) {
+            LOGGER.warn("Cannot materialize inferred ABox - session closed");
+            return null;
+        }
+        if (inferredABox != null) {
+            return inferredABox;
+        }
+
+        precomputeInferences();
+
+        try {
+            inferredABox = InferredABox.materialize(reasoner, ontology);
+            queryCache.useInferredABox(inferredABox);
+        } catch (OutOfMemoryError e) {
+            LOGGER.warn("Out of memory materializing inferred ABox - using per-query reasoning");
+        } catch (Exception e) {
+            LOGGER.warn("Error materializing inferred ABox - using per-query reasoning", e);
+        }
+        return inferredABox;
+    }
+
+    /**
+     * Check reasoner health with a quick consistency check
+     */
+    public boolean isReasonerHealthy() {
+        if (reasoner == null) return false;
+
+        try {
+            return reasoner.isConsistent();
+        } catch (OutOfMemoryError e) {
+            LOGGER.error("Reasoner out of memory", e);
+            return false;
+        } catch (Exception e) {
+            LOGGER.warn("Reasoner health check failed", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isConsistent() {
+        if (reasoner == null) {
+            return false;
+        }
+
+        boolean consistent = reasoner.isConsistent();
+        LOGGER.info("Ontology consistency check: {}", consistent ? "CONSISTENT" : "INCONSISTENT");
+        return consistent;
+    }
+
+    @Override
+    public boolean isEntailed(OWLAxiom axiom) {
+        if (reasoner == null) {
+            return false;
+        }
+
+        try {
+            return queryCache.isEntailed(axiom);
+        } catch (Exception e) {
+            LOGGER.debug("Error checking entailment for axiom: {}", axiom, e);
+            return false;
+        }
+    }
+
+    @Override
+    public Set<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct) {
+        if (reasoner == null) {
+            return Collections.emptySet();
+        }
+
+        try {
+            return queryCache.getTypes(individual, direct);
+        } catch (Exception e) {
+            LOGGER.debug("Error getting types for individual: {}", individual, e);
+            return Collections.emptySet();
+        }
+    }
+
+    @Override
+    public Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual individual, OWLObjectProperty property) {
+        if (reasoner == null) {
+            return Collections.emptySet();
+        }
+
+        try {
+            return queryCache.getObjectPropertyValues(individual, property);
+        } catch (Exception e) {
+            LOGGER.debug("Error getting property values for individual: {} property: {}", individual, property, e);
+            return Collections.emptySet();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reasoner != null) {
+            LOGGER.debug("Closing reasoning session: {}", queryCache);
+            queryCache.invalidateAll();
+            queryCache.useInferredABox(null);
+            inferredABox = null;
+            if (!ownsReasoner) {
+                reasoner = null;
+                return;
+            }
+            try {
+                reasoner.dispose();
+                LOGGER.debug("Reasoner disposed successfully");
+            } catch (Exception e) {
+                LOGGER.warn("Error disposing reasoner", e);
+            } finally {
+                reasoner = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.reasoning;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import openllet.owlapi.OpenlletReasoner;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizing facade over an Openllet reasoner for the queries the explanation and extraction code
+ * repeat most: getTypes, getObjectPropertyValues and isEntailed.
+ * One instance belongs to one reasoning session; the ontology must not change while it is in use.
+ * Returned sets are unmodifiable. Counts every query asked and every call that actually reached the
+ * reasoner; queries answered from the cache or the inferred ABox do not reach it.
+ */
+public class ReasonerQueryCache {
+
+    // Safety bound per query kind; a session's working set is normally far smaller
+    private static final long DEFAULT_MAX_ENTRIES = 200_000;
+
+    private final OpenlletReasoner reasoner;
+    private final Cache<OWLNamedIndividual, Set<OWLClass>> directTypes;
+    private final Cache<OWLNamedIndividual, Set<OWLClass>> allTypes;
+    private final Cache<PropertyValuesKey, Set<OWLNamedIndividual>> propertyValues;
+    private final Cache<OWLAxiom, Boolean> entailments;
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder reasonerCallCount = new LongAdder();
+
+    // Set once the session has materialized its inferred ABox; answers getTypes/getObjectPropertyValues from then on
+    private volatile InferredABox inferredABox;
+
+    public ReasonerQueryCache(OpenlletReasoner reasoner) {
+        this(reasoner, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ReasonerQueryCache(OpenlletReasoner reasoner, long maxEntries) {
+        this.reasoner = reasoner;
+        this.directTypes = newCache(maxEntries);
+        this.allTypes = newCache(maxEntries);
+        this.propertyValues = newCache(maxEntries);
+        this.entailments = newCache(maxEntries);
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maxEntries) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the underlying reasoner
+     */
+    public OpenlletReasoner getReasoner() {
+        return reasoner;
+    }
+
+    /**
+     * Answer the covered ABox queries from a materialized inferred ABox instead of the reasoner
+     */
+    public void useInferredABox(InferredABox inferredABox) {
+        this.inferredABox = inferredABox;
+    }
+
+    /**
+     * Get the materialized inferred ABox, or null if the session has not built one
+     */
+    public InferredABox getInferredABox() {
+        return inferredABox;
+    }
+
+    /**
+     * Inferred types of an individual (flattened)
+     */
+    public Set<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct) {
+        queryCount.increment();
+        InferredABox abox = inferredABox;
+        if (!direct && abox != null && abox.covers(individual)) {
+            return abox.getTypes(individual);
+        }
+        Cache<OWLNamedIndividual, Set<OWLClass>> cache = direct ? directTypes : allTypes;
+        return cache.get(individual, key -> {
+            reasonerCallCount.increment();
+            return Collections.unmodifiableSet(reasoner.getTypes(key, direct).getFlattened());
+        });
+    }
+
+    /**
+     * Inferred object property values of an individual (flattened)
+     */
+    public Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual individual, OWLObjectPropertyExpression property) {
+        queryCount.increment();
+        InferredABox abox = inferredABox;
+        if (abox != null && !property.isAnonymous()
+                && abox.covers(individual) && abox.covers(property.asOWLObjectProperty())) {
+            return abox.getObjectPropertyValues(individual, property.asOWLObjectProperty());
+        }
+        return propertyValues.get(new PropertyValuesKey(individual, property), key -> {
+            reasonerCallCount.increment();
+            return Collections.unmodifiableSet(reasoner.getObjectPropertyValues(key.individual, key.property).getFlattened());
+        });
+    }
+
+    /**
+     * Check if the reasoner entails the given axiom
+     */
+    public boolean isEntailed(OWLAxiom axiom) {
+        queryCount.increment();
+        return entailments.get(axiom, key -> {
+            reasonerCallCount.increment();
+            return reasoner.isEntailed(key);
+        });
+    }
+
+    /**
+     * Number of queries asked so far, however they were answered
+     */
+    public long getQueryCount() {
+        return queryCount.sum();
+    }
+
+    /**
+     * Number of queries that had to call the reasoner so far
+     */
+    public long getReasonerCallCount() {
+        return reasonerCallCount.sum();
+    }
+
+    public long getHitCount() {
+        return combinedStats().hitCount();
+    }
+
+    public long getMissCount() {
+        return combinedStats().missCount();
+    }
+
+    private CacheStats combinedStats() {
+        return directTypes.stats()
+                .plus(allTypes.stats())
+                .plus(propertyValues.stats())
+                .plus(entailments.stats());
+    }
+
+    /**
+     * Drop all memoized answers, e.g. when the session is closed
+     */
+    public void invalidateAll() {
+        directTypes.invalidateAll();
+        allTypes.invalidateAll();
+        propertyValues.invalidateAll();
+        entailments.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        CacheStats stats = combinedStats();
+        return String.format("ReasonerQueryCache{hits=%d, misses=%d, hitRate=%.2f}",
+                stats.hitCount(), stats.missCount(), stats.hitRate());
+    }
+
+    /**
+     * Cache key for getObjectPropertyValues
+     */
+    private static final class PropertyValuesKey {
+        private final OWLNamedIndividual individual;
+        private final OWLObjectPropertyExpression property;
+
+        PropertyValuesKey(OWLNamedIndividual individual, OWLObjectPropertyExpression property) {
+            this.individual = individual;
+            this.property = property;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PropertyValuesKey)) return false;
+            PropertyValuesKey other = (PropertyValuesKey) o;
+            return individual.equals(other.individual) && property.equals(other.property);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(individual, property);
+        }
+    }
+}
@@ -3,7 +3,12 @@ package com.example.reasoning;
 import openllet.owlapi.OpenlletReasoner;
 import org.semanticweb.owlapi.model.*;
 
-public interface ReasoningService extends AutoCloseable {
+/**
+ * Reasoning entry point. New code should open one {@link ReasoningSession} per ontology via
+ * {@link #openSession(OWLOntology)}; the remaining methods operate on a single implicit session
+ * and are kept for existing single-threaded callers.
+ */
+public interface ReasoningService extends ReasoningSessionFactory, AutoCloseable {
 
     /**
      * Initialize the reasoner with an ontology
@@ -0,0 +1,67 @@
+package com.example.reasoning;
+
+import openllet.owlapi.OpenlletReasoner;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.Set;
+
+/**
+ * An isolated reasoner bound to exactly one ontology.
+ * Sessions share no mutable state, so several of them can be used concurrently
+ * as long as each individual session is confined to one thread.
+ */
+public interface ReasoningSession extends AutoCloseable {
+
+    /**
+     * Get the ontology this session reasons over
+     */
+    OWLOntology getOntology();
+
+    /**
+     * Get the underlying Pellet reasoner
+     */
+    OpenlletReasoner getReasoner();
+
+    /**
+     * Get the memoizing query facade for this session's reasoner
+     */
+    ReasonerQueryCache getQueryCache();
+
+    /**
+     * Check if the ontology is consistent
+     */
+    boolean isConsistent();
+
+    /**
+     * Precompute inferences for better performance
+     */
+    void precomputeInferences();
+
+    /**
+     * Precompute inferences and extract the inferred ABox in one pass; later type and property value
+     * queries are answered from it. Built once per session.
+     * @return the inferred ABox, or null if it could not be built (queries then go to the reasoner)
+     */
+    InferredABox materializeInferredABox();
+
+    /**
+     * Check if the reasoner entails the given axiom
+     */
+    boolean isEntailed(OWLAxiom axiom);
+
+    /**
+     * Get inferred types for an individual
+     */
+    Set<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct);
+
+    /**
+     * Get inferred object property values for an individual
+     */
+    Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual individual, OWLObjectProperty property);
+
+    /**
+     * Dispose the reasoner; the session cannot be used afterwards
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,22 @@
+package com.example.reasoning;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Creates isolated reasoning sessions, one per ontology
+ */
+public interface ReasoningSessionFactory {
+
+    /**
+     * Create a new reasoner for the given ontology. The caller owns the session and must close it.
+     */
+    ReasoningSession openSession(OWLOntology ontology);
+
+    /**
+     * Whether the factory keeps one reasoner whose TBox classification carries over to the next session
+     * when only the ABox changes (false: every session reasons from scratch)
+     */
+    default boolean keepsClassification() {
+        return false;
+    }
+}
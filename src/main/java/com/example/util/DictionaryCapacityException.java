@@ -0,0 +1,13 @@
+// com/example/util/DictionaryCapacityException.java
+package com.example.util;
+
+/**
+ * A dictionary has run out of IDs. Unlike a problem with one ontology file this cannot be recovered from
+ * by skipping the file, so it ends the run.
+ */
+public class DictionaryCapacityException extends IllegalStateException {
+
+    public DictionaryCapacityException(String message) {
+        super(message);
+    }
+}
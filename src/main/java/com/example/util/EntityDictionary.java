@@ -0,0 +1,94 @@
+// com/example/util/EntityDictionary.java
+package com.example.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each distinct name a dense int ID (0, 1, 2, ...) in order of first use and decodes IDs back.
+ * Lookups are lock-free; only the first encoding of a new name takes the lock.
+ * Entries are never removed, so an ID stays valid for the lifetime of the dictionary.
+ */
+public class EntityDictionary {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    // Written under the lock before the ID is published in the map
+    private volatile String[] names = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public EntityDictionary() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxSize number of distinct names the dictionary may hold
+     */
+    public EntityDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the ID of a name, assigning the next free ID on first use
+     */
+    public int encode(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size >= maxSize) {
+                throw new DictionaryCapacityException("Entity dictionary is full (" + maxSize + " names)");
+            }
+
+            String[] current = names;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[size] = name;
+            names = current;
+
+            ids.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Get the ID of a name without assigning one
+     * @return the ID, or -1 if the name has never been encoded
+     */
+    public int lookup(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the name of an ID returned by {@link #encode(String)}
+     */
+    public String decode(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("Unknown entity ID: " + id);
+        }
+        return current[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Number of distinct names the dictionary may hold
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
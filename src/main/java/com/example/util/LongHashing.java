@@ -0,0 +1,21 @@
+// com/example/util/LongHashing.java
+package com.example.util;
+
+/**
+ * Hash spreading shared by the primitive long collections
+ */
+final class LongHashing {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private LongHashing() {
+    }
+
+    /**
+     * Spread all 64 bits of a key over the low bits used for table indexing
+     */
+    static int mix(long key) {
+        long h = key * GOLDEN_RATIO;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,182 @@
+// com/example/util/LongObjectHashMap.java
+package com.example.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Insertion-ordered hash map from primitive long keys to objects, without boxing the keys.
+ * Entries live in dense arrays in insertion order and an open-addressing index points into them,
+ * so iteration by position ({@link #keyAt(int)}, {@link #valueAt(int)}) is deterministic and cheap.
+ * No removal. Not thread-safe.
+ */
+public class LongObjectHashMap<V> {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    // Open-addressing index: entry position + 1, or 0 for a free slot
+    private int[] index;
+    private int resizeAt;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 4);
+        keys = new long[capacity];
+        values = new Object[capacity];
+        allocateIndex(tableSizeFor(capacity));
+    }
+
+    public V get(long key) {
+        int position = find(key);
+        return position >= 0 ? valueAt(position) : null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        int position = find(key);
+        return position >= 0 ? valueAt(position) : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Associate a value with a key; an existing key keeps its position
+     * @return the previous value, or null
+     */
+    public V put(long key, V value) {
+        int position = find(key);
+        if (position >= 0) {
+            V previous = valueAt(position);
+            values[position] = value;
+            return previous;
+        }
+        insert(key, value);
+        return null;
+    }
+
+    /**
+     * Get the value of a key, creating and storing it on first access
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+        int position = find(key);
+        if (position >= 0) {
+            return valueAt(position);
+        }
+        V value = factory.apply(key);
+        insert(key, value);
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Key of the entry at the given insertion position (0 <= position < size)
+     */
+    public long keyAt(int position) {
+        checkPosition(position);
+        return keys[position];
+    }
+
+    /**
+     * Value of the entry at the given insertion position (0 <= position < size)
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int position) {
+        checkPosition(position);
+        return (V) values[position];
+    }
+
+    /**
+     * Snapshot of the values in insertion order
+     */
+    public List<V> values() {
+        List<V> snapshot = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            snapshot.add(valueAt(i));
+        }
+        return snapshot;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(index, 0);
+        size = 0;
+    }
+
+    private int find(long key) {
+        int mask = index.length - 1;
+        int slot = LongHashing.mix(key) & mask;
+        int entry;
+        while ((entry = index[slot]) != 0) {
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long key, V value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+
+        if (size > resizeAt) {
+            rebuildIndex(index.length * 2);
+        } else {
+            placeInIndex(size - 1);
+        }
+    }
+
+    private void rebuildIndex(int capacity) {
+        allocateIndex(capacity);
+        for (int position = 0; position < size; position++) {
+            placeInIndex(position);
+        }
+    }
+
+    private void placeInIndex(int position) {
+        int mask = index.length - 1;
+        int slot = LongHashing.mix(keys[position]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private void allocateIndex(int capacity) {
+        index = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + ", size " + size);
+        }
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
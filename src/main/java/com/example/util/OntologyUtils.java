@@ -128,15 +128,37 @@ public class OntologyUtils {
     }
 
     /**
-     * Escape JSON special characters
+     * Escape JSON special characters (backslash, quote, newline, carriage return, tab) in one pass
      */
     public static String escapeJson(String value) {
         if (value == null) return "";
-        return value.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+
+        int first = 0;
+        while (first < value.length() && !needsJsonEscape(value.charAt(first))) {
+            first++;
+        }
+        if (first == value.length()) {
+            return value;
+        }
+
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        escaped.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': escaped.append("\\\\"); break;
+                case '"': escaped.append("\\\""); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static boolean needsJsonEscape(char c) {
+        return c == '\\' || c == '"' || c == '\n' || c == '\r' || c == '\t';
     }
 
     /**
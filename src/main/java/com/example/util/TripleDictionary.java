@@ -0,0 +1,170 @@
+// com/example/util/TripleDictionary.java
+package com.example.util;
+
+import java.util.Collection;
+
+/**
+ * Encodes (subject, predicate, object) short-form triples as packed longs.
+ * Subjects and objects share one node dictionary (individuals and classes), predicates have their own,
+ * and the three IDs are packed as [subject:26][predicate:11][object:26] in the low 63 bits, so packed
+ * triples are never negative. Strings are only needed again at the output boundary, via
+ * {@link #subject(long)}, {@link #predicate(long)} and {@link #object(long)}.
+ * <p>
+ * Capacity: {@value #NODE_CAPACITY} distinct subject/object names and {@value #PREDICATE_CAPACITY} distinct
+ * predicates. Names are never evicted, so callers check {@link #hasRoomFor} or {@link #checkCapacity} before
+ * encoding a new file;
+ * once an encode has failed the dictionary reports {@link #isExhausted()} for good.
+ * Thread-safe.
+ */
+public class TripleDictionary {
+
+    private static final int NODE_BITS = 26;
+    private static final int PREDICATE_BITS = 11;
+
+    public static final int NODE_CAPACITY = 1 << NODE_BITS;
+    public static final int PREDICATE_CAPACITY = 1 << PREDICATE_BITS;
+
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long PREDICATE_MASK = (1L << PREDICATE_BITS) - 1;
+
+    private static final int OBJECT_SHIFT = 0;
+    private static final int PREDICATE_SHIFT = NODE_BITS;
+    private static final int SUBJECT_SHIFT = NODE_BITS + PREDICATE_BITS;
+
+    private final EntityDictionary nodes = new EntityDictionary(NODE_CAPACITY);
+    private final EntityDictionary predicates = new EntityDictionary(PREDICATE_CAPACITY);
+    private volatile boolean exhausted = false;
+
+    /**
+     * Encode a triple, assigning IDs to names seen for the first time
+     * @throws DictionaryCapacityException if a new name does not fit
+     */
+    public long encode(String subject, String predicate, String object) {
+        try {
+            return pack(nodes.encode(subject), predicates.encode(predicate), nodes.encode(object));
+        } catch (DictionaryCapacityException e) {
+            exhausted = true;
+            throw new DictionaryCapacityException(capacityMessage(nodes.size(), predicates.size()));
+        }
+    }
+
+    /**
+     * Cheap check that the given numbers of names would fit even if none of them is known yet
+     */
+    public boolean hasRoomFor(long nodeNames, long predicateNames) {
+        return !exhausted
+                && nodes.size() + nodeNames <= NODE_CAPACITY
+                && predicates.size() + predicateNames <= PREDICATE_CAPACITY;
+    }
+
+    /**
+     * Check that the names not encoded yet still fit
+     * @throws DictionaryCapacityException if they do not
+     */
+    public void checkCapacity(Collection<String> nodeNames, Collection<String> predicateNames) {
+        if (exhausted) {
+            throw new DictionaryCapacityException(capacityMessage(nodes.size(), predicates.size()));
+        }
+        long nodesNeeded = nodes.size() + countUnknown(nodes, nodeNames);
+        long predicatesNeeded = predicates.size() + countUnknown(predicates, predicateNames);
+        if (nodesNeeded > NODE_CAPACITY || predicatesNeeded > PREDICATE_CAPACITY) {
+            throw new DictionaryCapacityException(capacityMessage(nodesNeeded, predicatesNeeded));
+        }
+    }
+
+    /**
+     * True once an encode has failed for lack of IDs; triples of the file being encoded are then incomplete
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Encode a triple key ("s|p|o") without assigning new IDs
+     * @return the packed triple, or -1 if the key is malformed or contains a name never encoded
+     */
+    public long lookup(String tripleKey) {
+        String[] parts = OntologyUtils.parseTripleKey(tripleKey);
+        if (parts.length != 3) {
+            return -1;
+        }
+        return lookup(parts[0], parts[1], parts[2]);
+    }
+
+    /**
+     * Encode a triple without assigning new IDs
+     * @return the packed triple, or -1 if it contains a name never encoded
+     */
+    public long lookup(String subject, String predicate, String object) {
+        int subjectId = nodes.lookup(subject);
+        int predicateId = predicates.lookup(predicate);
+        int objectId = nodes.lookup(object);
+        if (subjectId < 0 || predicateId < 0 || objectId < 0) {
+            return -1;
+        }
+        return pack(subjectId, predicateId, objectId);
+    }
+
+    public String subject(long triple) {
+        return nodes.decode((int) ((triple >>> SUBJECT_SHIFT) & NODE_MASK));
+    }
+
+    public String predicate(long triple) {
+        return predicates.decode((int) ((triple >>> PREDICATE_SHIFT) & PREDICATE_MASK));
+    }
+
+    public String object(long triple) {
+        return nodes.decode((int) ((triple >>> OBJECT_SHIFT) & NODE_MASK));
+    }
+
+    /**
+     * Decode a triple into the "s|p|o" key used in the output files
+     */
+    public String toTripleKey(long triple) {
+        return OntologyUtils.createTripleKey(subject(triple), predicate(triple), object(triple));
+    }
+
+    /**
+     * The triple with its object cleared; equal for all triples sharing subject and predicate
+     */
+    public static long subjectPredicate(long triple) {
+        return triple & ~(NODE_MASK << OBJECT_SHIFT);
+    }
+
+    /**
+     * Number of distinct subjects/objects encoded so far
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Number of distinct predicates encoded so far
+     */
+    public int getPredicateCount() {
+        return predicates.size();
+    }
+
+    private static long countUnknown(EntityDictionary dictionary, Collection<String> names) {
+        long unknown = 0;
+        for (String name : names) {
+            if (dictionary.lookup(name) < 0) {
+                unknown++;
+            }
+        }
+        return unknown;
+    }
+
+    private static String capacityMessage(long nodesNeeded, long predicatesNeeded) {
+        return String.format("Triple dictionary capacity exceeded: %d of %d subject/object names and %d of %d "
+                        + "predicates needed. Names are kept for the whole run in exact deduplication mode, so split the corpus "
+                        + "into several runs or use processing.query-dedup-mode=bloom",
+                nodesNeeded, NODE_CAPACITY, predicatesNeeded, PREDICATE_CAPACITY);
+    }
+
+    private static long pack(int subject, int predicate, int object) {
+        return ((long) subject << SUBJECT_SHIFT)
+                | ((long) predicate << PREDICATE_SHIFT)
+                | ((long) object << OBJECT_SHIFT);
+    }
+}
@@ -0,0 +1,203 @@
+// com/example/output/ColumnarQueryRoundTripTest.java
+package com.example.output;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rows written by {@link ColumnarQueryOutputService} must read back unchanged through
+ * {@link ColumnarQueryReader}, with or without a footer, and with any column projection
+ */
+class ColumnarQueryRoundTripTest {
+
+    private static final int ROWS = 20;
+    private static final int ROW_GROUP_SIZE = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void stringColumnsAreDictionaryEncodedOnlyWhenValuesRepeat() throws Exception {
+        String[] repeated = {"Person", "Person", "Animal", "Person", null, "Animal"};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(ColumnarQueryFormat.ENCODING_DICTIONARY,
+                ColumnarQueryFormat.encodeStrings(repeated, repeated.length, out));
+        assertArrayEquals(new String[]{"Person", "Person", "Animal", "Person", "", "Animal"},
+                ColumnarQueryFormat.decodeStrings(ColumnarQueryFormat.ENCODING_DICTIONARY, out.toByteArray(),
+                        repeated.length));
+
+        String[] distinct = {"a", "b", "c", "d", "c"};
+        out.reset();
+        assertEquals(ColumnarQueryFormat.ENCODING_PLAIN,
+                ColumnarQueryFormat.encodeStrings(distinct, distinct.length, out));
+        assertArrayEquals(distinct, ColumnarQueryFormat.decodeStrings(ColumnarQueryFormat.ENCODING_PLAIN,
+                out.toByteArray(), distinct.length));
+
+        int[] ints = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        out.reset();
+        ColumnarQueryFormat.encodeInts(ints, ints.length, out);
+        assertArrayEquals(ints, ColumnarQueryFormat.decodeInts(ColumnarQueryFormat.ENCODING_VARINT,
+                out.toByteArray(), ints.length));
+    }
+
+    @Test
+    void rowsReadBackThroughTheFooter() throws Exception {
+        List<String[]> expected = writeRows(tempDir, true);
+        File file = tempDir.resolve(ColumnarQueryOutputService.FILE_NAME).toFile();
+
+        try (ColumnarQueryReader reader = ColumnarQueryReader.open(file)) {
+            assertTrue(reader.isComplete());
+            assertEquals(ROWS, reader.getRowCount());
+            assertEquals(3, reader.getRowGroupCount());
+            assertRows(expected, readAll(reader));
+        }
+
+        // Every row group has a distinct task ID per row and a single root entity
+        ColumnarQueryFormat.Metadata metadata = readMetadata(file.toPath());
+        for (ColumnarQueryFormat.RowGroup group : metadata.rowGroups) {
+            assertEquals(ColumnarQueryFormat.ENCODING_PLAIN, group.chunks[QueryColumn.TASK_ID.ordinal()].encoding);
+            assertEquals(ColumnarQueryFormat.ENCODING_DICTIONARY,
+                    group.chunks[QueryColumn.ROOT_ENTITY.ordinal()].encoding);
+            assertEquals(ColumnarQueryFormat.ENCODING_VARINT, group.chunks[QueryColumn.ABOX_SIZE.ordinal()].encoding);
+        }
+    }
+
+    @Test
+    void rowGroupsAreRecoveredByScanningWithoutFooter() throws Exception {
+        List<String[]> expected = writeRows(tempDir, false);
+        Path file = tempDir.resolve(ColumnarQueryOutputService.FILE_NAME);
+
+        try (ColumnarQueryReader reader = ColumnarQueryReader.open(file.toFile())) {
+            assertFalse(reader.isComplete());
+            assertEquals(3, reader.getRowGroupCount());
+            assertRows(expected, readAll(reader));
+        }
+
+        // A torn last row group is dropped; the groups before it still read
+        ColumnarQueryFormat.Metadata metadata = readMetadata(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(metadata.rowGroups.get(2).offset + 12);
+        }
+        try (ColumnarQueryReader reader = ColumnarQueryReader.open(file.toFile())) {
+            assertFalse(reader.isComplete());
+            assertEquals(2, reader.getRowGroupCount());
+            assertRows(expected.subList(0, 2 * ROW_GROUP_SIZE), readAll(reader));
+        }
+
+        // The writer continues such a file and closes it with a footer
+        ColumnarQueryOutputService resumed = new ColumnarQueryOutputService(tempDir.toString(), ROW_GROUP_SIZE);
+        resumed.initialize();
+        resumed.close();
+        try (ColumnarQueryReader reader = ColumnarQueryReader.open(file.toFile())) {
+            assertTrue(reader.isComplete());
+            assertEquals(2 * ROW_GROUP_SIZE, reader.getRowCount());
+        }
+    }
+
+    @Test
+    void projectedScansSeeOnlyTheRequestedColumns() throws Exception {
+        List<String[]> expected = writeRows(tempDir, true);
+        File file = tempDir.resolve(ColumnarQueryOutputService.FILE_NAME).toFile();
+
+        try (ColumnarQueryReader reader = ColumnarQueryReader.open(file)) {
+            List<String> answerTypes = new ArrayList<>();
+            long[] maxTagLengths = {0};
+            reader.scan(List.of(QueryColumn.ANSWER_TYPE, QueryColumn.MAX_TAG_LENGTH), row -> {
+                answerTypes.add(row.getString(0));
+                maxTagLengths[0] += row.getInt(1);
+                assertThrows(IllegalArgumentException.class, () -> row.getInt(0));
+            });
+
+            long expectedMaxTagLengths = 0;
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(expected.get(i)[QueryColumn.ANSWER_TYPE.ordinal()], answerTypes.get(i));
+                expectedMaxTagLengths += Integer.parseInt(expected.get(i)[QueryColumn.MAX_TAG_LENGTH.ordinal()]);
+            }
+            assertEquals(expectedMaxTagLengths, maxTagLengths[0]);
+            assertEquals(expectedMaxTagLengths, reader.sum(QueryColumn.MAX_TAG_LENGTH));
+
+            Map<String, Long> byAnswerType = reader.countBy(QueryColumn.ANSWER_TYPE);
+            assertEquals(Map.of("MC", 7L, "BIN", 13L), byAnswerType);
+            assertThrows(IllegalArgumentException.class, () -> reader.sum(QueryColumn.PREDICATE));
+        }
+    }
+
+    /**
+     * Write {@link #ROWS} rows in row groups of {@link #ROW_GROUP_SIZE}; without close, the file is left
+     * as a crashed writer leaves it after its last flush
+     * @return the rows as the reader should return them, all columns as strings in column order
+     */
+    private static List<String[]> writeRows(Path directory, boolean close) throws Exception {
+        ColumnarQueryOutputService output = new ColumnarQueryOutputService(directory.toString(), ROW_GROUP_SIZE);
+        output.initialize();
+        List<String[]> expected = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            boolean multiChoice = i % 3 == 0;
+            String query = "SELECT ?x WHERE { <http://example.org/s" + i + "> ?p ?x }";
+            List<String> allAnswers = multiChoice ? List.of("a" + i, "b" + i) : null;
+            String answer = i == 5 ? null : "TRUE";
+            output.writeComprehensiveQuery("task-" + i, "Person", 100, i - 5, i % 2 == 0 ? "Membership"
+                    : "Property Assertion", multiChoice ? "MC" : "BIN", query, "hasParent", answer, allAnswers,
+                    i, 2 * i);
+
+            expected.add(new String[]{"task-" + i, "Person", "100", Integer.toString(i - 5),
+                    i % 2 == 0 ? "Membership" : "Property Assertion", multiChoice ? "MC" : "BIN", query,
+                    "hasParent", multiChoice ? "a" + i + "; b" + i : answer == null ? "" : answer,
+                    Integer.toString(i), Integer.toString(2 * i)});
+        }
+
+        if (close) {
+            output.close();
+            return expected;
+        }
+        output.flush();
+        Path file = directory.resolve(ColumnarQueryOutputService.FILE_NAME);
+        byte[] crashed = Files.readAllBytes(file);
+        output.close();
+        Files.write(file, crashed);
+        return expected;
+    }
+
+    private static List<String[]> readAll(ColumnarQueryReader reader) throws Exception {
+        List<QueryColumn> columns = Arrays.asList(QueryColumn.values());
+        List<String[]> rows = new ArrayList<>();
+        reader.scan(columns, row -> {
+            String[] values = new String[columns.size()];
+            for (int c = 0; c < values.length; c++) {
+                values[c] = row.getString(c);
+            }
+            rows.add(values);
+        });
+        return rows;
+    }
+
+    private static void assertRows(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size(), "row count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "row " + i);
+        }
+    }
+
+    private static ColumnarQueryFormat.Metadata readMetadata(Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return ColumnarQueryFormat.readMetadata(channel);
+        }
+    }
+}
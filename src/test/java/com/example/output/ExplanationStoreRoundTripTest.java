@@ -0,0 +1,180 @@
+// com/example/output/ExplanationStoreRoundTripTest.java
+package com.example.output;
+
+import com.example.explanation.ExplanationRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records written by {@link ExplanationStoreOutputService} must be found again by triple key and by task
+ * ID through {@link ExplanationStore}, across hash collisions and mapped segment boundaries, and a store
+ * whose indexes point outside its data must be rejected
+ */
+class ExplanationStoreRoundTripTest {
+
+    private static final int RECORDS = 40;
+
+    // Small data segments, so records cross them and are copied through the channel
+    private static final long SEGMENT_SIZE = 512;
+    private static final long OVERLAP = 16;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsAreFoundByTripleKeyAndTaskId() throws Exception {
+        List<ExplanationRecord> records = writeStore();
+        assertTrue(hasRecordPastOverlap(), "no record crosses a data segment past its overlap");
+
+        try (ExplanationStore store = ExplanationStore.open(tempDir.toFile(), SEGMENT_SIZE, OVERLAP)) {
+            assertEquals(RECORDS, store.size());
+            for (ExplanationRecord record : records) {
+                assertTrue(store.contains(record.getTripleKey()));
+                assertSameRecord(record, store.get(record.getTripleKey()));
+                for (String taskId : record.getTaskIds()) {
+                    assertSameRecord(record, store.getByTaskId(taskId));
+                }
+            }
+            assertNull(store.get("person_0|hasParent|person_0"));
+            assertNull(store.getByTaskId("unknown_BIN"));
+            assertFalse(store.contains("person_0|hasParent|person_0"));
+        }
+
+        // The default segments read the same records
+        try (ExplanationStore store = ExplanationStore.open(tempDir.toFile())) {
+            for (ExplanationRecord record : records) {
+                assertSameRecord(record, store.get(record.getTripleKey()));
+            }
+        }
+    }
+
+    @Test
+    void keysSharingAHashAreToldApartByTheirRecords() throws Exception {
+        List<ExplanationRecord> records = writeStore();
+        long[] offsets = recordOffsets();
+        String first = records.get(0).getTripleKey();
+        String second = records.get(1).getTripleKey();
+
+        // Both records indexed under the second key's hash, the non-matching one first
+        long hash = ExplanationStoreFormat.hash(second);
+        ExplanationStoreFormat.IndexBuilder index = new ExplanationStoreFormat.IndexBuilder();
+        index.add(hash, offsets[0]);
+        index.add(hash, offsets[1]);
+        index.write(keyIndexFile(), dataLength());
+
+        try (ExplanationStore store = ExplanationStore.open(tempDir.toFile(), SEGMENT_SIZE, OVERLAP)) {
+            assertSameRecord(records.get(1), store.get(second));
+            assertNull(store.get(first));
+        }
+    }
+
+    @Test
+    void indexesPointingOutsideTheDataAreRejected() throws Exception {
+        List<ExplanationRecord> records = writeStore();
+        String key = records.get(0).getTripleKey();
+        long dataLength = dataLength();
+
+        ExplanationStoreFormat.IndexBuilder index = new ExplanationStoreFormat.IndexBuilder();
+        index.add(ExplanationStoreFormat.hash(key), ExplanationStoreFormat.DATA_MAGIC.length);
+        index.write(keyIndexFile(), dataLength + 1);
+        assertThrows(IOException.class, () -> ExplanationStore.open(tempDir.toFile()));
+
+        index.clear();
+        index.add(ExplanationStoreFormat.hash(key), dataLength - 2);
+        index.write(keyIndexFile(), dataLength);
+        try (ExplanationStore store = ExplanationStore.open(tempDir.toFile())) {
+            assertThrows(IOException.class, () -> store.get(key));
+        }
+    }
+
+    private List<ExplanationRecord> writeStore() throws IOException {
+        List<ExplanationRecord> records = new ArrayList<>();
+        ExplanationStoreOutputService output = new ExplanationStoreOutputService(tempDir.toString());
+        output.initialize();
+        for (int i = 0; i < RECORDS; i++) {
+            boolean membership = i % 2 == 0;
+            List<String> taskIds = i % 5 == 0 ? List.of() : List.of("task_" + i + "_BIN", "task_" + i + "_MC");
+            List<ExplanationRecord.Explanation> explanations = List.of(
+                    new ExplanationRecord.Explanation(List.of("person_" + i + " hasParent person_" + (i + 1),
+                            "justification " + "x".repeat(i * 10)), "TAG" + i),
+                    new ExplanationRecord.Explanation(List.of(), "EMPTY"));
+            ExplanationRecord record = new ExplanationRecord("person_" + i, membership ? "rdf:type" : "hasParent",
+                    membership ? "Person" : "person_" + (i + 1), explanations, 1, i + 1, taskIds,
+                    List.of("ASK WHERE { <person_" + i + "> ?p ?o }"));
+            output.writeExplanationRecord(record);
+            records.add(record);
+        }
+        output.close();
+        return records;
+    }
+
+    /**
+     * Start offsets of the records in the data file, in file order
+     */
+    private long[] recordOffsets() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(dataFile()));
+        long[] offsets = new long[RECORDS];
+        int offset = ExplanationStoreFormat.DATA_MAGIC.length;
+        for (int i = 0; i < RECORDS; i++) {
+            offsets[i] = offset;
+            offset += 4 + data.getInt(offset);
+        }
+        assertEquals(data.capacity(), offset);
+        return offsets;
+    }
+
+    private boolean hasRecordPastOverlap() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(dataFile()));
+        for (long offset : recordOffsets()) {
+            long end = offset + 4 + data.getInt((int) offset);
+            if (end - offset / SEGMENT_SIZE * SEGMENT_SIZE > SEGMENT_SIZE + OVERLAP) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertSameRecord(ExplanationRecord expected, ExplanationRecord actual) {
+        assertNotNull(actual, "missing record " + expected.getTripleKey());
+        assertEquals(expected.getSubject(), actual.getSubject());
+        assertEquals(expected.getPredicate(), actual.getPredicate());
+        assertEquals(expected.getObject(), actual.getObject());
+        assertEquals(expected.getTaskIds(), actual.getTaskIds());
+        assertEquals(expected.getMinSize(), actual.getMinSize());
+        assertEquals(expected.getMaxSize(), actual.getMaxSize());
+        assertEquals(expected.getSparqlQueries(), actual.getSparqlQueries());
+        assertEquals(expected.getExplanationCount(), actual.getExplanationCount());
+        for (int i = 0; i < expected.getExplanationCount(); i++) {
+            ExplanationRecord.Explanation explanation = expected.getExplanations().get(i);
+            assertEquals(explanation.getTag(), actual.getExplanations().get(i).getTag());
+            assertEquals(explanation.getJustifications(), actual.getExplanations().get(i).getJustifications());
+        }
+    }
+
+    private Path dataFile() {
+        return tempDir.resolve(ExplanationStoreFormat.DATA_FILE_NAME);
+    }
+
+    private long dataLength() throws IOException {
+        return Files.size(dataFile());
+    }
+
+    private File keyIndexFile() {
+        return tempDir.resolve(ExplanationStoreFormat.KEY_INDEX_FILE_NAME).toFile();
+    }
+}
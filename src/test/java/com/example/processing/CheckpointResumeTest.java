@@ -0,0 +1,206 @@
+// com/example/processing/CheckpointResumeTest.java
+package com.example.processing;
+
+import com.example.config.ProcessingConfiguration;
+import com.example.explanation.ExplanationRecord;
+import com.example.output.OutputService;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A run of the real SmallOntologiesProcessor that dies in the middle of a file, resumed with
+ * processing.resume=true, must leave the same output files, byte for byte, and the same run counters
+ * as a run that was never interrupted
+ */
+class CheckpointResumeTest {
+
+    private static final int FILES = 8;
+    private static final int INDIVIDUALS = 12;
+    private static final int CHECKPOINT_INTERVAL_FILES = 2;
+
+    // Written per run rather than per output; their timings differ between any two runs
+    private static final List<String> RUN_REPORTS = List.of("span_timings.csv", "strategy_stats.csv");
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"json, 1", "json, 4", "ndjson, 1"})
+    void resumedRunMatchesUninterruptedRun(String explanationFormat, int threads) throws Exception {
+        Path corpus = ProcessorTestSupport.writeCorpus(tempDir.resolve("corpus"), FILES, INDIVIDUALS);
+
+        Path referenceOutput = tempDir.resolve("reference");
+        ProcessingConfiguration reference = configuration(corpus, referenceOutput, explanationFormat, threads);
+        ProcessingResult expected = ProcessorTestSupport.run(reference, ProcessorTestSupport.streamingOutput(reference));
+        assertTrue(expected.isSuccess(), expected.getErrorMessage());
+
+        // Die about two thirds of the way through, after some checkpoints and inside a file
+        long crashAfterRecords = expected.getProcessedExplanations() * 2 / 3;
+        assertTrue(crashAfterRecords > 0, "corpus produced no explanations");
+
+        Path output = tempDir.resolve("interrupted");
+        ProcessingConfiguration interrupted = configuration(corpus, output, explanationFormat, threads);
+        CrashingOutputService crashing = new CrashingOutputService(
+                ProcessorTestSupport.streamingOutput(interrupted), crashAfterRecords);
+        assertThrows(SimulatedCrash.class, () -> ProcessorTestSupport.run(interrupted, crashing));
+        String journal = Files.readString(output.resolve(CheckpointJournal.JOURNAL_FILE_NAME), StandardCharsets.UTF_8);
+        assertTrue(journal.contains("count.ontologies=" + CHECKPOINT_INTERVAL_FILES),
+                "the interrupted run wrote no checkpoint after its first files");
+
+        ProcessingConfiguration resumed = configuration(corpus, output, explanationFormat, threads);
+        resumed.setResume(true);
+        ProcessingResult actual = ProcessorTestSupport.run(resumed, ProcessorTestSupport.streamingOutput(resumed));
+
+        assertTrue(actual.isSuccess(), actual.getErrorMessage());
+        assertEquals(expected.getProcessedOntologies(), actual.getProcessedOntologies());
+        assertEquals(expected.getTotalInferences(), actual.getTotalInferences());
+        assertEquals(expected.getProcessedQueries(), actual.getProcessedQueries());
+        assertEquals(expected.getBinaryQueries(), actual.getBinaryQueries());
+        assertEquals(expected.getMultiChoiceQueries(), actual.getMultiChoiceQueries());
+        assertEquals(expected.getProcessedExplanations(), actual.getProcessedExplanations());
+        assertSameOutputs(referenceOutput, output);
+    }
+
+    private static ProcessingConfiguration configuration(Path corpus, Path output, String explanationFormat,
+                                                         int threads) {
+        ProcessingConfiguration config = ProcessorTestSupport.configuration(corpus, output);
+        config.setExplanationFormat(explanationFormat);
+        config.setEnableParallelProcessing(threads > 1);
+        config.setThreadPoolSize(threads);
+        config.setCheckpointJournal(true);
+        config.setCheckpointIntervalFiles(CHECKPOINT_INTERVAL_FILES);
+        return config;
+    }
+
+    /**
+     * Every output file of the reference run must exist in the resumed run with identical content.
+     * The journal files, the explanations offset sidecar and the run reports describe how the run got
+     * there and may differ.
+     */
+    private static void assertSameOutputs(Path reference, Path actual) throws Exception {
+        List<String> outputs;
+        try (Stream<Path> files = Files.list(reference)) {
+            outputs = files.map(path -> path.getFileName().toString())
+                    .filter(name -> !name.startsWith("checkpoint."))
+                    .filter(name -> !name.endsWith(".idx"))
+                    .filter(name -> !RUN_REPORTS.contains(name))
+                    .sorted()
+                    .toList();
+        }
+        assertTrue(outputs.size() >= 2, "reference run wrote no outputs: " + outputs);
+        for (String name : outputs) {
+            ProcessorTestSupport.assertSameOutput(reference, actual, name);
+        }
+    }
+
+    /**
+     * Stands in for the process dying: thrown through every catch (Exception) of the processor
+     */
+    private static final class SimulatedCrash extends Error {
+        SimulatedCrash() {
+            super("simulated crash");
+        }
+    }
+
+    /**
+     * Passes records to the real output until a given number of explanation records was written, then
+     * pushes what the delegate has buffered to disk (a torn file) and dies. Closing after the crash
+     * does nothing, as a dead process would not close its files either.
+     */
+    private static final class CrashingOutputService implements OutputService {
+        private final OutputService delegate;
+        private final long crashAfterRecords;
+        private long records;
+        private boolean crashed;
+
+        CrashingOutputService(OutputService delegate, long crashAfterRecords) {
+            this.delegate = delegate;
+            this.crashAfterRecords = crashAfterRecords;
+        }
+
+        @Override
+        public void initialize() throws IOException {
+            delegate.initialize();
+        }
+
+        @Override
+        public void writeQueryWithTags(String taskId, String query, String taskType, String answer,
+                                       String explanation, String tags) {
+            delegate.writeQueryWithTags(taskId, query, taskType, answer, explanation, tags);
+        }
+
+        @Override
+        public void writeComprehensiveQuery(String taskId, String rootEntity, int tboxSize, int aboxSize,
+                                            String taskType, String answerType, String sparqlQuery,
+                                            String predicate, String answer, List<String> allAnswers,
+                                            int minTagLength, int maxTagLength) {
+            delegate.writeComprehensiveQuery(taskId, rootEntity, tboxSize, aboxSize, taskType, answerType,
+                    sparqlQuery, predicate, answer, allAnswers, minTagLength, maxTagLength);
+        }
+
+        @Override
+        public void writeExplanationWithTags(String key, String explanation, String tags) {
+            delegate.writeExplanationWithTags(key, explanation, tags);
+        }
+
+        @Override
+        public void writeExplanationWithComprehensiveFormat(String key, String comprehensiveExplanation) {
+            delegate.writeExplanationWithComprehensiveFormat(key, comprehensiveExplanation);
+        }
+
+        @Override
+        public void writeExplanationRecord(ExplanationRecord record) {
+            if (++records > crashAfterRecords) {
+                crashed = true;
+                delegate.flush();
+                throw new SimulatedCrash();
+            }
+            delegate.writeExplanationRecord(record);
+        }
+
+        @Override
+        public void setTotalQueries(long total) {
+            delegate.setTotalQueries(total);
+        }
+
+        @Override
+        public void logProgress(String operation, long completed, long total) {
+            delegate.logProgress(operation, completed, total);
+        }
+
+        @Override
+        public void flush() {
+            if (!crashed) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public Map<String, Long> checkpointPositions() {
+            return delegate.checkpointPositions();
+        }
+
+        @Override
+        public void restorePositions(Map<String, Long> positions) throws IOException {
+            delegate.restorePositions(positions);
+        }
+
+        @Override
+        public void close() {
+            // A crashed process leaves its files as they are
+        }
+    }
+}
@@ -0,0 +1,54 @@
+// com/example/processing/ParallelProcessingEquivalenceTest.java
+package com.example.processing;
+
+import com.example.config.ProcessingConfiguration;
+import com.example.output.StreamingOutputService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel processing commits files in discovery order, so its CSV and JSON output must be identical,
+ * byte for byte, to a sequential run over the same corpus
+ */
+class ParallelProcessingEquivalenceTest {
+
+    private static final int FILES = 8;
+    private static final int INDIVIDUALS = 12;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parallelRunWritesSameOutputAsSequentialRun() throws Exception {
+        Path corpus = ProcessorTestSupport.writeCorpus(tempDir.resolve("corpus"), FILES, INDIVIDUALS);
+
+        Path sequentialOutput = tempDir.resolve("sequential");
+        ProcessingConfiguration sequential = ProcessorTestSupport.configuration(corpus, sequentialOutput);
+        sequential.setEnableParallelProcessing(false);
+        ProcessingResult sequentialResult = ProcessorTestSupport.run(sequential,
+                ProcessorTestSupport.streamingOutput(sequential));
+
+        Path parallelOutput = tempDir.resolve("parallel");
+        ProcessingConfiguration parallel = ProcessorTestSupport.configuration(corpus, parallelOutput);
+        parallel.setEnableParallelProcessing(true);
+        parallel.setThreadPoolSize(4);
+        ProcessingResult parallelResult = ProcessorTestSupport.run(parallel,
+                ProcessorTestSupport.streamingOutput(parallel));
+
+        assertTrue(sequentialResult.isSuccess(), sequentialResult.getErrorMessage());
+        assertTrue(parallelResult.isSuccess(), parallelResult.getErrorMessage());
+        assertEquals(FILES, sequentialResult.getProcessedOntologies());
+        assertEquals(sequentialResult.getProcessedOntologies(), parallelResult.getProcessedOntologies());
+        assertEquals(sequentialResult.getTotalInferences(), parallelResult.getTotalInferences());
+        assertTrue(sequentialResult.getProcessedQueries() > 0);
+
+        ProcessorTestSupport.assertSameOutput(sequentialOutput, parallelOutput, StreamingOutputService.QUERY_FILE_NAME);
+        ProcessorTestSupport.assertSameOutput(sequentialOutput, parallelOutput,
+                StreamingOutputService.EXPLANATION_FILE_NAME);
+    }
+}
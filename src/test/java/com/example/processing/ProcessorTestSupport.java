@@ -0,0 +1,80 @@
+// com/example/processing/ProcessorTestSupport.java
+package com.example.processing;
+
+import com.example.config.ProcessingConfiguration;
+import com.example.ontology.DefaultOntologyService;
+import com.example.ontology.SyntheticOntologyGenerator;
+import com.example.output.ExplanationFormat;
+import com.example.output.OutputService;
+import com.example.output.StreamingOutputService;
+import com.example.query.SparqlQueryGenerationService;
+import com.example.reasoning.PelletReasoningService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the real SmallOntologiesProcessor over small synthetic corpora, wired the way OwlSparqlGenerator
+ * wires it, and compares the output files of two runs
+ */
+final class ProcessorTestSupport {
+
+    private ProcessorTestSupport() {
+    }
+
+    /**
+     * Write a reproducible family corpus of the given size
+     */
+    static Path writeCorpus(Path directory, int files, int individuals) throws Exception {
+        SyntheticOntologyGenerator.Settings settings = new SyntheticOntologyGenerator.Settings();
+        settings.setFiles(files);
+        settings.setIndividuals(individuals);
+        new SyntheticOntologyGenerator(settings).writeCorpus(directory);
+        return directory;
+    }
+
+    /**
+     * Defaults of the application, reading the corpus and writing to the output directory
+     */
+    static ProcessingConfiguration configuration(Path corpus, Path output) {
+        ProcessingConfiguration config = new ProcessingConfiguration();
+        config.setOntologiesDirectory(corpus.toString());
+        config.setOutputDirectory(output.toString());
+        return config;
+    }
+
+    /**
+     * The streaming output service the application would use for this configuration
+     */
+    static OutputService streamingOutput(ProcessingConfiguration config) {
+        return new StreamingOutputService(config.getOutputDirectory(),
+                config.getOutputBufferSize(), config.getOutputFlushBatchSize(), config.getOutputFlushIntervalMs(),
+                ExplanationFormat.fromString(config.getExplanationFormat()),
+                config.getExplanationShardSizeMb() * 1024L * 1024L);
+    }
+
+    /**
+     * Process the configured corpus once with a fresh processor
+     */
+    static ProcessingResult run(ProcessingConfiguration config, OutputService outputService) throws Exception {
+        try (SmallOntologiesProcessor processor = new SmallOntologiesProcessor(new DefaultOntologyService(),
+                new PelletReasoningService(), new SparqlQueryGenerationService(), outputService,
+                GlobalQueryTracker.fromConfiguration(config), config)) {
+            return processor.processSmallOntologies(config.getOntologiesDirectory());
+        }
+    }
+
+    /**
+     * The named output file must exist in both directories with identical bytes
+     */
+    static void assertSameOutput(Path expectedDirectory, Path actualDirectory, String fileName) throws Exception {
+        Path expected = expectedDirectory.resolve(fileName);
+        Path actual = actualDirectory.resolve(fileName);
+        assertTrue(Files.isRegularFile(expected), "missing reference output " + fileName);
+        assertTrue(Files.isRegularFile(actual), "missing output " + fileName);
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual), "output differs: " + fileName);
+    }
+}
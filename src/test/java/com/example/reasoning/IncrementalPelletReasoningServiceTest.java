@@ -0,0 +1,151 @@
+// com/example/reasoning/IncrementalPelletReasoningServiceTest.java
+package com.example.reasoning;
+
+import com.example.ontology.SyntheticOntologyGenerator;
+import openllet.core.OpenlletOptions;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A chain of ABox variants over one TBox, reasoned over incrementally and verified after every variant,
+ * must give the answers of a fresh PelletReasoningService for each variant
+ */
+class IncrementalPelletReasoningServiceTest {
+
+    private final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    private final OWLDataFactory factory = manager.getOWLDataFactory();
+
+    @Test
+    void incrementalAnswersMatchFreshReasoningForEveryVariant() throws Exception {
+        List<OWLOntology> variants = buildVariants();
+
+        // Reference answers first, while Openllet's incremental options are still off
+        List<Answers> expected = new ArrayList<>();
+        for (OWLOntology variant : variants) {
+            try (PelletReasoningService fresh = new PelletReasoningService()) {
+                fresh.initializeReasoner(variant);
+                expected.add(Answers.of(variant, fresh::getTypes, fresh::getObjectPropertyValues));
+            }
+        }
+
+        boolean incrementalConsistencyBefore = OpenlletOptions.USE_INCREMENTAL_CONSISTENCY;
+        IncrementalPelletReasoningService incremental = new IncrementalPelletReasoningService(1);
+        try {
+            for (int i = 0; i < variants.size(); i++) {
+                OWLOntology variant = variants.get(i);
+                incremental.openSession(variant);
+                Answers actual = Answers.of(variant, incremental::getTypes, incremental::getObjectPropertyValues);
+                assertEquals(expected.get(i), actual, "answers of variant " + i);
+            }
+
+            assertEquals(0, incremental.getVerificationFailures());
+            assertEquals(variants.size() - 1, incremental.getVerifications());
+            assertEquals(variants.size() - 1, incremental.getIncrementalUpdates());
+            assertEquals(1, incremental.getRebuilds());
+        } finally {
+            incremental.close();
+        }
+        assertEquals(incrementalConsistencyBefore, OpenlletOptions.USE_INCREMENTAL_CONSISTENCY);
+    }
+
+    /**
+     * Removals, additions and a whole ABox swap, all over the generator's TBox
+     */
+    private List<OWLOntology> buildVariants() throws OWLOntologyCreationException {
+        SyntheticOntologyGenerator.Settings settings = new SyntheticOntologyGenerator.Settings();
+        settings.setFiles(2);
+        settings.setIndividuals(10);
+        SyntheticOntologyGenerator generator = new SyntheticOntologyGenerator(settings);
+
+        Set<OWLAxiom> base = generator.generate(0).getAxioms();
+        List<OWLAxiom> propertyAssertions = new ArrayList<>();
+        for (OWLAxiom axiom : base) {
+            if (axiom.isOfType(AxiomType.OBJECT_PROPERTY_ASSERTION)) {
+                propertyAssertions.add(axiom);
+            }
+        }
+        Collections.sort(propertyAssertions);
+        assertTrue(propertyAssertions.size() >= 3, "generated ABox has too few property assertions");
+
+        // Drop three property assertions
+        Set<OWLAxiom> removed = new LinkedHashSet<>(base);
+        propertyAssertions.subList(0, 3).forEach(removed::remove);
+
+        // Put one back and add a new individual with a type and a parent
+        Set<OWLAxiom> added = new LinkedHashSet<>(removed);
+        added.add(propertyAssertions.get(0));
+        OWLNamedIndividual extra = factory.getOWLNamedIndividual(
+                IRI.create(SyntheticOntologyGenerator.NAMESPACE + "extra_person"));
+        OWLNamedIndividual parent = factory.getOWLNamedIndividual(
+                IRI.create(SyntheticOntologyGenerator.NAMESPACE + "person_0"));
+        added.add(factory.getOWLDeclarationAxiom(extra));
+        added.add(factory.getOWLClassAssertionAxiom(
+                factory.getOWLClass(IRI.create(SyntheticOntologyGenerator.NAMESPACE + "Person")), extra));
+        added.add(factory.getOWLObjectPropertyAssertionAxiom(
+                factory.getOWLObjectProperty(IRI.create(SyntheticOntologyGenerator.NAMESPACE + "hasParent")),
+                extra, parent));
+
+        // Another file's ABox, then back to the first
+        Set<OWLAxiom> swapped = generator.generate(1).getAxioms();
+
+        List<OWLOntology> variants = new ArrayList<>();
+        for (Set<OWLAxiom> axioms : List.of(base, removed, added, swapped, base)) {
+            variants.add(manager.createOntology(axioms));
+        }
+        return variants;
+    }
+
+    @FunctionalInterface
+    private interface TypesQuery {
+        Set<OWLClass> getTypes(OWLNamedIndividual individual, boolean direct);
+    }
+
+    @FunctionalInterface
+    private interface ValuesQuery {
+        Set<OWLNamedIndividual> getObjectPropertyValues(OWLNamedIndividual individual, OWLObjectProperty property);
+    }
+
+    /**
+     * Inferred types and object property values of every named individual of an ontology
+     */
+    private static final class Answers {
+        private final Map<OWLNamedIndividual, Set<OWLClass>> types = new HashMap<>();
+        private final Map<List<OWLObject>, Set<OWLNamedIndividual>> values = new HashMap<>();
+
+        static Answers of(OWLOntology ontology, TypesQuery typesQuery, ValuesQuery valuesQuery) {
+            Answers answers = new Answers();
+            for (OWLNamedIndividual individual : ontology.getIndividualsInSignature()) {
+                answers.types.put(individual, new HashSet<>(typesQuery.getTypes(individual, false)));
+                for (OWLObjectProperty property : ontology.getObjectPropertiesInSignature()) {
+                    answers.values.put(List.of(individual, property),
+                            new HashSet<>(valuesQuery.getObjectPropertyValues(individual, property)));
+                }
+            }
+            return answers;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Answers)) return false;
+            Answers other = (Answers) o;
+            return types.equals(other.types) && values.equals(other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(types, values);
+        }
+
+        @Override
+        public String toString() {
+            return "Answers{types=" + types + ", values=" + values + '}';
+        }
+    }
+}